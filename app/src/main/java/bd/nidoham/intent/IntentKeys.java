@@ -27,12 +27,29 @@ public class IntentKeys {
     public static final String EXTRA_VIDEO_QUALITIES = "extra_video_qualities";
     public static final String EXTRA_HLS_URL = "extra_hls_url";
     
+    // Id of the stream list in PlaybackSessionRegistry; replaces serializing the list itself
+    public static final String EXTRA_SESSION_ID = "extra_session_id";
+    
+    // Start without video, playing the session's audio-only stream
+    public static final String EXTRA_AUDIO_ONLY = "extra_audio_only";
+    
+    // Page of the video (e.g. the YouTube watch URL); stable across stream URL refreshes
+    public static final String EXTRA_PAGE_URL = "extra_page_url";
+    
+    // Alternative links of the same channel, tried in order when the current one fails
+    public static final String EXTRA_MIRROR_URLS = "extra_mirror_urls";
+    public static final String EXTRA_MIRROR_TITLES = "extra_mirror_titles";
+    
     // Additional Metadata Keys
     public static final String EXTRA_VIDEO_DURATION = "extra_video_duration";
     public static final String EXTRA_UPLOADER_NAME = "extra_uploader_name";
     public static final String EXTRA_VIEW_COUNT = "extra_view_count";
     public static final String EXTRA_THUMBNAIL_URL = "extra_thumbnail_url";
     
+    // Channel and playlist screens
+    public static final String EXTRA_LIST_URL = "extra_list_url";
+    public static final String EXTRA_LIST_NAME = "extra_list_name";
+    
     // State Save Keys
     private static final String SAVED_PLAYBACK_POSITION = "playback_position";
     private static final String SAVED_PLAY_WHEN_READY = "play_when_ready";
@@ -0,0 +1,185 @@
+package bd.nidoham.kiosk;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.kiosk.KioskList;
+import org.schabi.newpipe.util.ExtractorHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Loads several kiosks at once and hands them out as sections in a fixed order: required
+ * sections first, then optional ones, each group in the order of the specs.
+ *
+ * All kiosks are requested in parallel, so the feed takes as long as its slowest required
+ * section rather than the sum of them; a section that arrives early waits for the ones
+ * before it. Optional sections are dropped if they fail, and whichever of them are still
+ * loading when the last required section has arrived are cut off. Videos already in an
+ * earlier section are left out of later ones, so a required section keeps all of its own.
+ *
+ * The content country is NewPipe's global setting, so every section uses the same one.
+ */
+public class HomeFeedLoader {
+
+    /**
+     * One kiosk to show in the feed.
+     */
+    public static final class SectionSpec {
+        final int serviceId;
+        final String kioskId;
+        final boolean required;
+
+        public SectionSpec(final int serviceId, @NonNull final String kioskId, final boolean required) {
+            this.serviceId = serviceId;
+            this.kioskId = kioskId;
+            this.required = required;
+        }
+
+        /**
+         * Every kiosk of the service; only its default kiosk is required.
+         */
+        @NonNull
+        public static List<SectionSpec> allKiosksOf(final int serviceId) throws ExtractionException {
+            final KioskList kioskList = NewPipe.getService(serviceId).getKioskList();
+            final String defaultId = kioskList.getDefaultKioskId();
+
+            final List<SectionSpec> specs = new ArrayList<>();
+            specs.add(new SectionSpec(serviceId, defaultId, true));
+            for (final String kioskId : kioskList.getAvailableKiosks()) {
+                if (!kioskId.equals(defaultId)) {
+                    specs.add(new SectionSpec(serviceId, kioskId, false));
+                }
+            }
+            return specs;
+        }
+    }
+
+    /**
+     * A loaded kiosk, with the videos not already in an earlier section.
+     */
+    public static final class Section {
+        private final SectionSpec spec;
+        private final String url;
+        private final String title;
+        private final List<VideoItem> items;
+        @Nullable
+        private final Page nextPage;
+
+        Section(final SectionSpec spec, final String url, final String title,
+                final List<VideoItem> items, @Nullable final Page nextPage) {
+            this.spec = spec;
+            this.url = url;
+            this.title = title;
+            this.items = items;
+            this.nextPage = nextPage;
+        }
+
+        public int getServiceId() { return spec.serviceId; }
+        public String getKioskId() { return spec.kioskId; }
+        public boolean isRequired() { return spec.required; }
+        /** Kiosk URL, for loading more pages with {@link KioskContentLoader} */
+        public String getUrl() { return url; }
+        public String getTitle() { return title; }
+        public List<VideoItem> getItems() { return items; }
+        @Nullable
+        public Page getNextPage() { return nextPage; }
+    }
+
+    private final VideoItemMapper itemMapper;
+
+    public HomeFeedLoader(@NonNull final Context context) {
+        this.itemMapper = VideoItemMapper.forVideoList(context);
+    }
+
+    /**
+     * Sections in the fixed order; subscribe on any scheduler, the kiosks are fetched on the
+     * io scheduler. Fails if a required section fails.
+     *
+     * @param forceReload if true, bypasses the cache
+     */
+    @NonNull
+    public Observable<Section> load(@NonNull final List<SectionSpec> specs, final boolean forceReload) {
+        // Deferred so every subscription gets its own shared stream and seen set
+        return Observable.defer(() -> {
+            final Set<String> seenUrls = new HashSet<>();
+            // concatEager() emits one at a time, so the set needs no locking
+            return orderedSections(specs, forceReload).map(section -> withoutSeen(section, seenUrls));
+        });
+    }
+
+    private Observable<Section> orderedSections(final List<SectionSpec> specs, final boolean forceReload) {
+        final List<Observable<Section>> required = new ArrayList<>();
+        final List<Observable<Section>> optional = new ArrayList<>();
+        for (final SectionSpec spec : specs) {
+            if (spec.required) {
+                required.add(loadSection(spec, forceReload).toObservable());
+            } else {
+                optional.add(loadSection(spec, forceReload)
+                        .toObservable()
+                        .onErrorResumeWith(Observable.empty()));
+            }
+        }
+
+        // concatEager() subscribes to every section at once but emits them in list order
+        if (required.isEmpty() || optional.isEmpty()) {
+            return Observable.concatEager(required.isEmpty() ? optional : required);
+        }
+
+        // Two subscribers: the concatenation below and the cut-off signal
+        final Observable<Section> requiredSections = Observable.concatEager(required)
+                .publish()
+                .autoConnect(2);
+        // Replayed, since each optional section checks it on its own
+        final Observable<Boolean> requiredDone = requiredSections
+                .ignoreElements()
+                .andThen(Observable.just(Boolean.TRUE))
+                .replay(1)
+                .autoConnect();
+        // Cut off one by one, so a section that already arrived is kept even if one before
+        // it is still loading
+        final List<Observable<Section>> cutOff = new ArrayList<>(optional.size());
+        for (final Observable<Section> section : optional) {
+            cutOff.add(section.takeUntil(requiredDone));
+        }
+        return Observable.concatEager(Arrays.asList(requiredSections,
+                Observable.concatEager(cutOff)));
+    }
+
+    private Single<Section> loadSection(final SectionSpec spec, final boolean forceReload) {
+        return Single.fromCallable(() -> NewPipe.getService(spec.serviceId).getKioskList()
+                        .getListLinkHandlerFactoryByType(spec.kioskId)
+                        .fromId(spec.kioskId)
+                        .getUrl())
+                .flatMap(url -> ExtractorHelper.getKioskInfo(spec.serviceId, url, forceReload))
+                .map(info -> new Section(spec, info.getUrl(), info.getName(),
+                        itemMapper.map(info.getRelatedItems()), info.getNextPage()))
+                .subscribeOn(Schedulers.io());
+    }
+
+    private static Section withoutSeen(final Section section, final Set<String> seenUrls) {
+        final List<VideoItem> fresh = new ArrayList<>(section.items.size());
+        for (final VideoItem item : section.items) {
+            if (seenUrls.add(item.getVideoUrl())) {
+                fresh.add(item);
+            }
+        }
+        return new Section(section.spec, section.url, section.title, fresh, section.nextPage);
+    }
+}
@@ -0,0 +1,35 @@
+package bd.nidoham.youtube;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+
+import org.schabi.newpipe.extractor.Page;
+
+import java.util.List;
+
+/**
+ * A page of items mapped for the list and the cursor of the page after it. Mapped on the io
+ * scheduler, so the executors hand ready-to-bind rows to the main thread.
+ */
+public final class MappedPage {
+
+    private final List<VideoItem> items;
+    @Nullable
+    private final Page nextPage;
+
+    /**
+     * @param nextPage cursor of the next page, or null at the end
+     */
+    public MappedPage(@NonNull List<VideoItem> items, @Nullable Page nextPage) {
+        this.items = items;
+        this.nextPage = nextPage;
+    }
+
+    @NonNull
+    public List<VideoItem> getItems() { return items; }
+
+    @Nullable
+    public Page getNextPage() { return nextPage; }
+}
@@ -0,0 +1,236 @@
+package bd.nidoham.youtube.browse;
+
+import android.content.Context;
+
+import bd.nidoham.kiosk.KioskContentLoader;
+import bd.nidoham.youtube.MappedPage;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+
+import org.schabi.newpipe.extractor.NewPipe;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.exceptions.ExtractionException;
+import org.schabi.newpipe.extractor.kiosk.KioskList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Loads one YouTube kiosk at a time for the native browse mode, with pagination.
+ *
+ * Kiosk pages go through the extractor cache, so switching back to a kiosk opened a moment
+ * ago shows it without a request. Items are mapped to {@link VideoItem}s on the extraction
+ * thread.
+ */
+public class KioskBrowseExecutor {
+
+    /** Default number of items from the end of the list at which the next page is loaded. */
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+
+    /**
+     * Receives the kiosk's pages of videos; called on the main thread.
+     */
+    public interface Listener {
+        void showLoading(boolean isLoading);
+        void showInitialVideos(List<VideoItem> items);
+        void showMoreVideos(List<VideoItem> items);
+        void showEmptyState();
+        void showError(String message);
+    }
+
+    private final Listener listener;
+    private final Context context;
+    private final VideoItemMapper itemMapper;
+    private final KioskList kioskList;
+    private final List<String> kioskIds;
+    private final int serviceId;
+    private final int prefetchDistance;
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    // Main thread only
+    private String selectedKioskId;
+    private KioskContentLoader contentLoader;
+    private Page nextPage;
+    private boolean isLoading = false;
+    private Disposable kioskRequest;
+    private Disposable pageRequest;
+
+    public KioskBrowseExecutor(Context context, Listener listener) throws ExtractionException {
+        this(context, listener, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    /**
+     * @param prefetchDistance how many items before the end of the list the next page is loaded
+     */
+    public KioskBrowseExecutor(Context context, Listener listener, int prefetchDistance)
+            throws ExtractionException {
+        this.listener = listener;
+        this.context = context.getApplicationContext();
+        this.prefetchDistance = Math.max(1, prefetchDistance);
+        this.serviceId = ServiceList.YouTube.getServiceId();
+        this.itemMapper = VideoItemMapper.forVideoList(context);
+        this.kioskList = NewPipe.getService(serviceId).getKioskList();
+
+        // Default kiosk first
+        List<String> ids = new ArrayList<>();
+        ids.add(kioskList.getDefaultKioskId());
+        for (String kioskId : kioskList.getAvailableKiosks()) {
+            if (!ids.contains(kioskId)) {
+                ids.add(kioskId);
+            }
+        }
+        this.kioskIds = Collections.unmodifiableList(ids);
+        this.selectedKioskId = ids.get(0);
+    }
+
+    /** Kiosks of the service, the default one first. */
+    public List<String> getKioskIds() {
+        return kioskIds;
+    }
+
+    public String getSelectedKioskId() {
+        return selectedKioskId;
+    }
+
+    /**
+     * Shows the first page of {@code kioskId}, replacing the current list.
+     *
+     * @param forceReload if true, bypasses the cache.
+     */
+    public void selectKiosk(String kioskId, boolean forceReload) {
+        cancelRequests();
+        selectedKioskId = kioskId;
+        contentLoader = null;
+        nextPage = null;
+        setLoading(true);
+
+        final String url;
+        try {
+            url = kioskList.getListLinkHandlerFactoryByType(kioskId).fromId(kioskId).getUrl();
+        } catch (ExtractionException e) {
+            setLoading(false);
+            listener.showError("An error occurred: " + e.getMessage());
+            return;
+        }
+        final KioskContentLoader loader = new KioskContentLoader(serviceId, url, context);
+        contentLoader = loader;
+
+        kioskRequest = loader.loadInitialInfo(forceReload)
+                .map(info -> new MappedPage(itemMapper.map(info.getRelatedItems()), info.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(page -> handleKioskLoaded(loader, page), error -> handleError(loader, error));
+        disposables.add(kioskRequest);
+    }
+
+    /**
+     * Call as the list scrolls; loads the next page once the end is within the prefetch distance.
+     *
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param itemCount           number of items in the list
+     */
+    public void onScrolled(int lastVisiblePosition, int itemCount) {
+        if (itemCount > 0 && lastVisiblePosition >= itemCount - prefetchDistance) {
+            fetchMoreVideos();
+        }
+    }
+
+    public boolean hasMoreVideos() {
+        return nextPage != null;
+    }
+
+    private void fetchMoreVideos() {
+        if (isLoading || nextPage == null || pageRequest != null) return;
+
+        final KioskContentLoader loader = contentLoader;
+        pageRequest = loader.loadMoreItems(nextPage)
+                .map(page -> new MappedPage(itemMapper.map(page.getItems()), page.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(page -> handlePageLoaded(loader, page), error -> handlePageError(loader, error));
+        disposables.add(pageRequest);
+    }
+
+    /**
+     * Whether a result loaded through {@code loader} belongs to the selected kiosk. Each
+     * selection gets its own loader, so two loads of the same kiosk are told apart as well.
+     */
+    private boolean isCurrent(KioskContentLoader loader) {
+        return loader == contentLoader;
+    }
+
+    private void handleKioskLoaded(KioskContentLoader loader, MappedPage page) {
+        if (!isCurrent(loader)) return;
+        disposables.delete(kioskRequest);
+        kioskRequest = null;
+        setLoading(false);
+        nextPage = page.getNextPage();
+
+        if (page.getItems().isEmpty()) {
+            listener.showEmptyState();
+        } else {
+            listener.showInitialVideos(page.getItems());
+        }
+    }
+
+    private void handleError(KioskContentLoader loader, Throwable error) {
+        if (!isCurrent(loader)) return;
+        disposables.delete(kioskRequest);
+        kioskRequest = null;
+        setLoading(false);
+        nextPage = null; // Stop pagination on error
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    private void handlePageLoaded(KioskContentLoader loader, MappedPage page) {
+        if (!isCurrent(loader)) return;
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        nextPage = page.getNextPage();
+        if (!page.getItems().isEmpty()) {
+            listener.showMoreVideos(page.getItems());
+        }
+    }
+
+    private void handlePageError(KioskContentLoader loader, Throwable error) {
+        if (!isCurrent(loader)) return;
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        nextPage = null; // Stop pagination on error
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    /**
+     * Stops the running kiosk and page loads; remove() disposes them as well.
+     */
+    private void cancelRequests() {
+        if (kioskRequest != null) {
+            disposables.remove(kioskRequest);
+            kioskRequest = null;
+        }
+        if (pageRequest != null) {
+            disposables.remove(pageRequest);
+            pageRequest = null;
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        this.isLoading = loading;
+        listener.showLoading(loading);
+    }
+
+    /**
+     * Must be called to clean up subscriptions and prevent memory leaks.
+     * Typically called in a Fragment's onDestroyView().
+     */
+    public void dispose() {
+        disposables.clear();
+    }
+}
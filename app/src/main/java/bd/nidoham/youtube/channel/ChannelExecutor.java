@@ -0,0 +1,281 @@
+package bd.nidoham.youtube.channel;
+
+import android.content.Context;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.channel.ChannelInfo;
+import org.schabi.newpipe.extractor.channel.tabs.ChannelTabs;
+import org.schabi.newpipe.extractor.linkhandler.ListLinkHandler;
+import org.schabi.newpipe.util.ExtractorHelper;
+import org.schabi.newpipe.util.InfoCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import bd.nidoham.youtube.MappedPage;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Loads a channel page: the header first, then each tab the first time it is selected.
+ *
+ * The channel and the first page of each tab go through the extractor cache
+ * ({@link InfoCache.Type#CHANNEL} and {@link InfoCache.Type#CHANNEL_TAB}), so a channel reopened
+ * from the back stack is shown without a request. A loaded tab keeps its items while another
+ * one is shown. Further pages are loaded as the list is scrolled to within the prefetch
+ * distance of its end.
+ */
+public class ChannelExecutor {
+
+    /** Default number of items from the end of the list at which the next page is loaded. */
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+
+    // Tabs the list can show, in the order they are offered
+    private static final List<String> SUPPORTED_TABS = Arrays.asList(
+            ChannelTabs.VIDEOS, ChannelTabs.SHORTS, ChannelTabs.LIVESTREAMS, ChannelTabs.PLAYLISTS);
+
+    /**
+     * Receives the channel's header, its tabs and the items of the selected one; called on
+     * the main thread.
+     */
+    public interface Listener {
+        void showLoading(boolean isLoading);
+        void showHeader(ChannelInfo channelInfo);
+        /** The channel's tabs, as {@link ChannelTabs} names, and the one about to be shown. */
+        void showTabs(List<String> tabs, int selectedIndex);
+        /** Everything loaded so far of the selected tab. */
+        void showTabItems(List<VideoItem> items);
+        void showEmptyState();
+        void showError(String message);
+    }
+
+    /**
+     * One tab and what has been loaded of it.
+     */
+    private static final class Tab {
+        final String name;
+        final ListLinkHandler linkHandler;
+        final List<VideoItem> items = new ArrayList<>();
+        Page nextPage;
+        boolean loaded;
+        Disposable request;
+
+        Tab(String name, ListLinkHandler linkHandler) {
+            this.name = name;
+            this.linkHandler = linkHandler;
+        }
+    }
+
+    private final Listener listener;
+    private final VideoItemMapper itemMapper;
+    private final String url;
+    private final int serviceId;
+    private final int prefetchDistance;
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    // Main thread only
+    private final List<Tab> tabs = new ArrayList<>();
+    private int selectedTab;
+    // Survives reloads, so a refresh or a recreated screen stays on the same tab
+    private String selectedTabName;
+    private boolean isLoading = false;
+    // Tabs loaded after a forced reload bypass the cache as well
+    private boolean forceReloadTabs;
+    private Disposable channelRequest;
+
+    public ChannelExecutor(Context context, String url, Listener listener) {
+        this(context, url, listener, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    /**
+     * @param url              the channel's URL
+     * @param prefetchDistance how many items before the end of the list the next page is loaded
+     */
+    public ChannelExecutor(Context context, String url, Listener listener, int prefetchDistance) {
+        this.listener = listener;
+        this.url = url;
+        this.prefetchDistance = Math.max(1, prefetchDistance);
+        this.serviceId = ServiceList.YouTube.getServiceId();
+        this.itemMapper = VideoItemMapper.forVideoList(context);
+    }
+
+    /**
+     * Loads the header and then the selected tab, replacing what was loaded before.
+     *
+     * @param forceReload if true, bypasses the cache.
+     */
+    public void load(boolean forceReload) {
+        disposables.clear();
+        channelRequest = null;
+        tabs.clear();
+        selectedTab = 0;
+        forceReloadTabs = forceReload;
+        setLoading(true);
+
+        channelRequest = ExtractorHelper.getChannelInfo(serviceId, url, forceReload)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::handleChannelLoaded, this::handleError);
+        disposables.add(channelRequest);
+    }
+
+    /**
+     * Shows tab {@code index}, loading its first page if this is the first time it is shown.
+     */
+    public void selectTab(int index) {
+        if (index < 0 || index >= tabs.size()) return;
+        selectedTab = index;
+        selectedTabName = tabs.get(index).name;
+
+        Tab tab = tabs.get(index);
+        if (tab.loaded) {
+            setLoading(false);
+            showTab(tab);
+            return;
+        }
+
+        // Show the tab empty until its first page is in
+        listener.showTabItems(Collections.emptyList());
+        setLoading(true);
+        if (tab.request == null) {
+            tab.request = ExtractorHelper.getChannelTab(serviceId, tab.linkHandler, forceReloadTabs)
+                    .map(info -> new MappedPage(itemMapper.mapVideosAndPlaylists(info.getRelatedItems()),
+                            info.getNextPage()))
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(page -> handleTabLoaded(tab, page), error -> handleTabError(tab, error));
+            disposables.add(tab.request);
+        }
+    }
+
+    /**
+     * The {@link ChannelTabs} name of the selected tab, or null if none was selected yet.
+     */
+    public String getSelectedTabName() {
+        return selectedTabName;
+    }
+
+    /**
+     * Sets the tab the next {@link #load(boolean)} opens, e.g. when restoring a recreated screen;
+     * the first tab is opened if the channel has no such tab.
+     */
+    public void setSelectedTabName(String tabName) {
+        selectedTabName = tabName;
+    }
+
+    /**
+     * Call as the list scrolls; loads the next page once the end is within the prefetch distance.
+     *
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param itemCount           number of items in the list
+     */
+    public void onScrolled(int lastVisiblePosition, int itemCount) {
+        if (itemCount > 0 && lastVisiblePosition >= itemCount - prefetchDistance) {
+            fetchMoreItems();
+        }
+    }
+
+    private void fetchMoreItems() {
+        if (isLoading || selectedTab >= tabs.size()) return;
+        Tab tab = tabs.get(selectedTab);
+        if (!tab.loaded || tab.nextPage == null || tab.request != null) return;
+
+        tab.request = ExtractorHelper.getMoreChannelTabItems(serviceId, tab.linkHandler, tab.nextPage)
+                .map(page -> new MappedPage(itemMapper.mapVideosAndPlaylists(page.getItems()),
+                        page.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(page -> handleTabLoaded(tab, page), error -> handleTabError(tab, error));
+        disposables.add(tab.request);
+    }
+
+    private void handleChannelLoaded(ChannelInfo channelInfo) {
+        disposables.delete(channelRequest);
+        channelRequest = null;
+
+        List<String> names = new ArrayList<>();
+        for (String name : SUPPORTED_TABS) {
+            for (ListLinkHandler linkHandler : channelInfo.getTabs()) {
+                if (linkHandler.getContentFilters().contains(name)) {
+                    tabs.add(new Tab(name, linkHandler));
+                    names.add(name);
+                    break;
+                }
+            }
+        }
+
+        int index = Math.max(0, names.indexOf(selectedTabName));
+        listener.showHeader(channelInfo);
+        listener.showTabs(names, index);
+        if (tabs.isEmpty()) {
+            setLoading(false);
+            listener.showEmptyState();
+        } else {
+            selectTab(index);
+        }
+    }
+
+    private void handleError(Throwable error) {
+        disposables.delete(channelRequest);
+        channelRequest = null;
+        setLoading(false);
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    private void handleTabLoaded(Tab tab, MappedPage page) {
+        disposables.delete(tab.request);
+        tab.request = null;
+        tab.loaded = true;
+        tab.nextPage = page.getNextPage();
+        tab.items.addAll(page.getItems());
+
+        if (isSelected(tab)) {
+            setLoading(false);
+            showTab(tab);
+        }
+    }
+
+    private void handleTabError(Tab tab, Throwable error) {
+        disposables.delete(tab.request);
+        tab.request = null;
+        tab.nextPage = null; // Stop pagination on error
+
+        if (isSelected(tab)) {
+            setLoading(false);
+            listener.showError("An error occurred: " + error.getMessage());
+        }
+    }
+
+    private void showTab(Tab tab) {
+        if (tab.items.isEmpty()) {
+            listener.showEmptyState();
+        } else {
+            listener.showTabItems(new ArrayList<>(tab.items));
+        }
+    }
+
+    private boolean isSelected(Tab tab) {
+        return selectedTab < tabs.size() && tabs.get(selectedTab) == tab;
+    }
+
+    private void setLoading(boolean loading) {
+        this.isLoading = loading;
+        listener.showLoading(loading);
+    }
+
+    /**
+     * Must be called to clean up subscriptions and prevent memory leaks.
+     * Typically called in an Activity's onDestroy().
+     */
+    public void dispose() {
+        disposables.clear();
+    }
+}
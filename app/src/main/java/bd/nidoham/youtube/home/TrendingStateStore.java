@@ -0,0 +1,276 @@
+package bd.nidoham.youtube.home;
+
+import android.content.Context;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonWriter;
+import com.nidoham.hdstreamztv.model.VideoItem;
+
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.util.ServiceHelper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The trending list as the user left it: the loaded videos, the cursor of the next page and
+ * the scroll position.
+ *
+ * Kept in memory for a recreated view and written to disk for a new process. A snapshot
+ * expires after {@link ServiceHelper#getCacheExpirationMillis}, the same time the extractor
+ * cache keeps the page, so a restored cursor still continues the same listing.
+ */
+public class TrendingStateStore {
+
+    private static final String TAG = "TrendingStateStore";
+    private static final String FILE_NAME = "trending_state.json";
+
+    private static volatile TrendingStateStore instance;
+
+    private final File file;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    @Nullable
+    private Snapshot snapshot;
+    private boolean loaded;
+
+    /**
+     * A saved list.
+     */
+    public static final class Snapshot {
+        final int serviceId;
+        final long savedAtMs;
+        final List<VideoItem> items;
+        @Nullable
+        final Page nextPage;
+        final int scrollPosition;
+        final int scrollOffset;
+
+        /**
+         * @param nextPage       cursor of the first page not in {@code items}, or null at the end
+         * @param scrollPosition adapter position of the first visible item
+         * @param scrollOffset   its top offset in pixels
+         */
+        public Snapshot(int serviceId, long savedAtMs, @NonNull List<VideoItem> items,
+                        @Nullable Page nextPage, int scrollPosition, int scrollOffset) {
+            this.serviceId = serviceId;
+            this.savedAtMs = savedAtMs;
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+            this.nextPage = nextPage;
+            this.scrollPosition = scrollPosition;
+            this.scrollOffset = scrollOffset;
+        }
+
+        public List<VideoItem> getItems() { return items; }
+        @Nullable
+        public Page getNextPage() { return nextPage; }
+        public int getScrollPosition() { return scrollPosition; }
+        public int getScrollOffset() { return scrollOffset; }
+
+        boolean isFresh(long nowMs) {
+            long age = nowMs - savedAtMs;
+            return age >= 0 && age < ServiceHelper.getCacheExpirationMillis(serviceId);
+        }
+    }
+
+    public static TrendingStateStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (TrendingStateStore.class) {
+                if (instance == null) {
+                    instance = new TrendingStateStore(
+                            new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+                }
+            }
+        }
+        return instance;
+    }
+
+    public TrendingStateStore(@NonNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * Replace the saved list; written to disk in the background.
+     */
+    public void save(@NonNull Snapshot newSnapshot) {
+        synchronized (this) {
+            snapshot = newSnapshot;
+            loaded = true;
+        }
+        writer.execute(() -> write(toJson(newSnapshot)));
+    }
+
+    /**
+     * Save a list loaded in the background, unless the saved one is still fresh. A fresh one
+     * was saved by the screen and holds what the user was looking at and where. May read from
+     * disk.
+     *
+     * @return true if the list was saved
+     */
+    @WorkerThread
+    public boolean saveIfExpired(@NonNull Snapshot newSnapshot) {
+        synchronized (this) {
+            if (load() != null) {
+                return false;
+            }
+            snapshot = newSnapshot;
+        }
+        writer.execute(() -> write(toJson(newSnapshot)));
+        return true;
+    }
+
+    /**
+     * The saved list, or null if there is none or it has expired. May read from disk.
+     */
+    @WorkerThread
+    @Nullable
+    public synchronized Snapshot load() {
+        if (!loaded) {
+            loaded = true;
+            snapshot = read();
+        }
+        if (snapshot != null && !snapshot.isFresh(System.currentTimeMillis())) {
+            snapshot = null;
+        }
+        return snapshot;
+    }
+
+    private static String toJson(Snapshot snapshot) {
+        JsonArray items = new JsonArray();
+        for (VideoItem item : snapshot.items) {
+            JsonObject json = new JsonObject();
+            json.put("title", item.getTitle());
+            json.put("uploader", item.getUploader());
+            json.put("thumbnail", item.getThumbnailUrl());
+            json.put("url", item.getVideoUrl());
+            json.put("duration", item.getDuration());
+            json.put("views", item.getViewCount());
+            json.put("durationText", item.getDurationText());
+            json.put("viewCountText", item.getViewCountText());
+            json.put("uploaderUrl", item.getUploaderUrl());
+            items.add(json);
+        }
+
+        JsonObject root = new JsonObject();
+        root.put("serviceId", snapshot.serviceId);
+        root.put("savedAt", snapshot.savedAtMs);
+        root.put("scrollPosition", snapshot.scrollPosition);
+        root.put("scrollOffset", snapshot.scrollOffset);
+        root.put("items", items);
+        if (snapshot.nextPage != null) {
+            root.put("nextPage", pageToJson(snapshot.nextPage));
+        }
+        return JsonWriter.string(root);
+    }
+
+    private static JsonObject pageToJson(Page page) {
+        JsonObject json = new JsonObject();
+        json.put("url", page.getUrl());
+        json.put("id", page.getId());
+        if (page.getIds() != null) {
+            json.put("ids", new JsonArray(page.getIds()));
+        }
+        if (page.getCookies() != null) {
+            json.put("cookies", new JsonObject(page.getCookies()));
+        }
+        if (page.getBody() != null) {
+            json.put("body", Base64.encodeToString(page.getBody(), Base64.NO_WRAP));
+        }
+        return json;
+    }
+
+    @Nullable
+    private Snapshot read() {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (InputStream in = new FileInputStream(file)) {
+            JsonObject root = JsonParser.object().from(in);
+
+            List<VideoItem> items = new ArrayList<>();
+            for (Object entry : root.getArray("items")) {
+                if (entry instanceof JsonObject) {
+                    JsonObject json = (JsonObject) entry;
+                    VideoItem item = new VideoItem(
+                            json.getString("title", ""),
+                            json.getString("uploader", ""),
+                            json.getString("thumbnail", ""),
+                            json.getString("url", ""),
+                            json.getLong("duration", 0),
+                            json.getLong("views", -1),
+                            json.getString("durationText", null),
+                            json.getString("viewCountText", null));
+                    item.setUploaderUrl(json.getString("uploaderUrl", null));
+                    items.add(item);
+                }
+            }
+
+            JsonObject page = root.getObject("nextPage", null);
+            return new Snapshot(root.getInt("serviceId", 0), root.getLong("savedAt", 0), items,
+                    page != null ? pageFromJson(page) : null,
+                    root.getInt("scrollPosition", 0), root.getInt("scrollOffset", 0));
+        } catch (IOException | JsonParserException | RuntimeException e) {
+            Log.w(TAG, "Discarding unreadable trending state", e);
+            return null;
+        }
+    }
+
+    private static Page pageFromJson(JsonObject json) {
+        List<String> ids = null;
+        JsonArray idArray = json.getArray("ids", null);
+        if (idArray != null) {
+            ids = new ArrayList<>();
+            for (Object id : idArray) {
+                ids.add(String.valueOf(id));
+            }
+        }
+
+        Map<String, String> cookies = null;
+        JsonObject cookieObject = json.getObject("cookies", null);
+        if (cookieObject != null) {
+            cookies = new HashMap<>();
+            for (String key : cookieObject.keySet()) {
+                cookies.put(key, cookieObject.getString(key));
+            }
+        }
+
+        String body = json.getString("body", null);
+        return new Page(json.getString("url", null), json.getString("id", null), ids, cookies,
+                body != null ? Base64.decode(body, Base64.NO_WRAP) : null);
+    }
+
+    private void write(String json) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write trending state", e);
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "Failed to replace " + file);
+        }
+    }
+}
@@ -1,56 +1,112 @@
 package bd.nidoham.youtube.home;
 
 import android.content.Context;
+import bd.nidoham.kiosk.HomeFeedLoader;
 import bd.nidoham.kiosk.KioskContentLoader;
-import org.schabi.newpipe.extractor.ListExtractor;
+import bd.nidoham.youtube.MappedPage;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
 import org.schabi.newpipe.extractor.NewPipe;
 import org.schabi.newpipe.extractor.Page;
 import org.schabi.newpipe.extractor.ServiceList;
 import org.schabi.newpipe.extractor.StreamingService;
 import org.schabi.newpipe.extractor.exceptions.ExtractionException;
-import org.schabi.newpipe.extractor.kiosk.KioskInfo;
 import org.schabi.newpipe.extractor.kiosk.KioskList;
 import org.schabi.newpipe.extractor.linkhandler.ListLinkHandlerFactory;
-import org.schabi.newpipe.extractor.stream.StreamInfoItem;
-import org.schabi.newpipe.util.Localization;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
 /**
  * Manages the fetching, state, and pagination of trending videos.
  * This class is designed to be used by an Activity or a custom View,
  * handling all business logic and leaving the UI updates to a listener.
+ *
+ * Pages are fetched ahead of the user: once the list is scrolled to within the prefetch
+ * distance of its end, the buffered next page is shown at once and the one after it is
+ * loaded into the buffer. A failed page load is retried with exponential backoff.
+ *
+ * Items are mapped to {@link VideoItem}s on the extraction thread, so the listener gets
+ * rows that are ready to bind.
+ *
+ * The first page comes from {@link HomeFeedLoader}: the service's other kiosks are loaded
+ * alongside Trending. Trending is shown first and the other kiosks are appended after it in
+ * a fixed order, so the list doesn't depend on which request was fastest. Further pages
+ * continue Trending; they are only shown once every section is in, so a Trending page never
+ * lands between two sections.
+ *
+ * The shown videos, the cursor of the next page and the scroll position can be saved to
+ * {@link TrendingStateStore}, so a recreated screen picks up where the user left off.
  */
 public class TrendingVideosExecutor {
 
+    /** Default number of items from the end of the list at which the next page is shown. */
+    public static final int DEFAULT_PREFETCH_DISTANCE = 10;
+
+    private static final int MAX_PAGE_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MS = 1000;
+
     /**
      * Listener interface for receiving callbacks from the executor.
      * The UI layer (e.g., an Activity) will implement this.
      */
     public interface Listener {
         void showLoading(boolean isLoading);
-        void showInitialVideos(List<StreamInfoItem> items);
-        void showMoreVideos(List<StreamInfoItem> items);
+        void showInitialVideos(List<VideoItem> items);
+        void showMoreVideos(List<VideoItem> items);
         void showEmptyState();
         void showError(String message);
+        void restoreScrollPosition(int position, int offset);
     }
 
     private final Listener listener;
     private final KioskContentLoader contentLoader;
+    private final VideoItemMapper itemMapper;
+    private final HomeFeedLoader homeFeedLoader;
+    private final List<HomeFeedLoader.SectionSpec> homeSections;
+    private final TrendingStateStore stateStore;
+    private final int serviceId;
     private final CompositeDisposable disposables = new CompositeDisposable();
+    private final int prefetchDistance;
 
     private Page nextPage;
+    // Cursor of the first page not shown yet; nextPage is ahead of it while a page is buffered
+    private Page shownNextPage;
     private boolean isLoading = false;
+    // Whether the current feed load has shown anything yet
+    private boolean feedShown;
+    // Whether every section of the current feed is in; further pages wait until then
+    private boolean feedDone;
+    private Disposable feedRequest;
+
+    // Paging state, main thread only
+    private MappedPage bufferedPage;
+    private Disposable pageRequest;
+    private int pageAttempts;
+    // The list reached the end before the buffered page arrived
+    private boolean pageWanted;
 
     public TrendingVideosExecutor(Context context, Listener listener) throws ExtractionException {
+        this(context, listener, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    /**
+     * @param prefetchDistance how many items before the end of the list the next page is shown
+     */
+    public TrendingVideosExecutor(Context context, Listener listener, int prefetchDistance)
+            throws ExtractionException {
         this.listener = listener;
+        this.prefetchDistance = Math.max(1, prefetchDistance);
 
         // Configure for YouTube's Trending "Kiosk"
-        final int serviceId = ServiceList.YouTube.getServiceId();
+        this.serviceId = ServiceList.YouTube.getServiceId();
         final StreamingService service = NewPipe.getService(serviceId);
         final KioskList kioskList = service.getKioskList();
         final String trendingKioskId = kioskList.getDefaultKioskId(); // "Trending" is default
@@ -58,6 +114,10 @@ public class TrendingVideosExecutor {
         final String trendingUrl = factory.fromId(trendingKioskId).getUrl();
 
         this.contentLoader = new KioskContentLoader(serviceId, trendingUrl, context);
+        this.itemMapper = VideoItemMapper.forVideoList(context);
+        this.homeFeedLoader = new HomeFeedLoader(context);
+        this.homeSections = HomeFeedLoader.SectionSpec.allKiosksOf(serviceId);
+        this.stateStore = TrendingStateStore.getInstance(context);
     }
 
     /**
@@ -67,52 +127,224 @@ public class TrendingVideosExecutor {
      */
     public void fetchTrendingVideos(boolean forceReload) {
         if (isLoading) return;
+        cancelPaging();
         setLoading(true);
+        feedShown = false;
+        feedDone = false;
+        nextPage = null;
+        shownNextPage = null;
 
-        disposables.add(contentLoader.loadInitialInfo(forceReload)
-                .subscribeOn(Schedulers.io())
+        // Sections of an earlier load may still be arriving; remove() disposes them
+        if (feedRequest != null) {
+            disposables.remove(feedRequest);
+        }
+        feedRequest = homeFeedLoader.load(homeSections, forceReload)
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(this::handleInitialResult, this::handleError)
-        );
+                .subscribe(this::handleSection, this::handleError, this::handleFeedComplete);
+        disposables.add(feedRequest);
     }
 
     /**
-     * Fetches the next page of trending videos if available.
+     * Shows the list saved by {@link #saveState} if it hasn't expired, otherwise starts the
+     * initial fetch.
      */
-    public void fetchMoreVideos() {
-        if (isLoading || nextPage == null) return;
+    public void restoreOrFetchTrendingVideos() {
+        if (isLoading) return;
         setLoading(true);
 
-        disposables.add(contentLoader.loadMoreItems(nextPage)
+        if (feedRequest != null) {
+            disposables.remove(feedRequest);
+        }
+        feedRequest = Maybe.fromCallable(stateStore::load)
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(this::handleMoreResults, this::handleError)
-        );
+                .subscribe(this::handleRestored, error -> fetchAfterRestoreMiss(), this::fetchAfterRestoreMiss);
+        disposables.add(feedRequest);
+    }
+
+    /**
+     * Save the shown list and where it is scrolled to.
+     *
+     * @param items    the videos currently shown, in order
+     * @param position adapter position of the first visible item
+     * @param offset   its top offset in pixels
+     */
+    public void saveState(List<VideoItem> items, int position, int offset) {
+        if (isLoading || items.isEmpty()) return;
+        stateStore.save(new TrendingStateStore.Snapshot(serviceId, System.currentTimeMillis(),
+                items, shownNextPage, position, offset));
     }
 
-    private void handleInitialResult(KioskInfo result) {
+    private void handleRestored(TrendingStateStore.Snapshot snapshot) {
         setLoading(false);
-        this.nextPage = result.getNextPage();
+        cancelPaging();
+        feedShown = true;
+        feedDone = true;
+        nextPage = snapshot.getNextPage();
+        shownNextPage = nextPage;
 
-        if (result.getRelatedItems().isEmpty()) {
-            listener.showEmptyState();
-        } else {
-            listener.showInitialVideos(result.getRelatedItems());
-        }
+        listener.showInitialVideos(snapshot.getItems());
+        listener.restoreScrollPosition(snapshot.getScrollPosition(), snapshot.getScrollOffset());
+        prefetch();
     }
 
-    private void handleMoreResults(ListExtractor.InfoItemsPage<StreamInfoItem> result) {
+    private void fetchAfterRestoreMiss() {
         setLoading(false);
-        this.nextPage = result.getNextPage();
-        listener.showMoreVideos(result.getItems());
+        fetchTrendingVideos(false);
+    }
+
+    /**
+     * Call as the list scrolls; shows the next page once the end is within the prefetch distance.
+     *
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param itemCount           number of items in the list
+     */
+    public void onScrolled(int lastVisiblePosition, int itemCount) {
+        if (itemCount > 0 && lastVisiblePosition >= itemCount - prefetchDistance) {
+            fetchMoreVideos();
+        }
+    }
+
+    /**
+     * Shows the next page of trending videos if available, from the buffer when it is
+     * already loaded.
+     */
+    public void fetchMoreVideos() {
+        if (isLoading) return;
+
+        if (bufferedPage != null && feedDone) {
+            showBufferedPage();
+            return;
+        }
+
+        pageWanted = true;
+        if (pageRequest == null) {
+            // Nothing in flight, e.g. after the last attempt failed; start over
+            pageAttempts = 0;
+            prefetch();
+        }
+    }
+
+    public boolean hasMoreVideos() {
+        return bufferedPage != null || nextPage != null;
+    }
+
+    /**
+     * Sections arrive Trending first, then the other kiosks in order.
+     */
+    private void handleSection(HomeFeedLoader.Section section) {
+        if (section.isRequired()) {
+            // Trending; paging continues from here
+            this.nextPage = section.getNextPage();
+            this.shownNextPage = nextPage;
+        }
+
+        if (!section.getItems().isEmpty()) {
+            if (!feedShown) {
+                feedShown = true;
+                setLoading(false);
+                listener.showInitialVideos(section.getItems());
+            } else {
+                listener.showMoreVideos(section.getItems());
+            }
+        }
+
+        if (section.isRequired()) {
+            prefetch();
+        }
+    }
+
+    private void handleFeedComplete() {
+        feedDone = true;
+        if (!feedShown) {
+            setLoading(false);
+            listener.showEmptyState();
+        } else if (pageWanted && bufferedPage != null) {
+            // The end was reached while the other sections were still coming in
+            showBufferedPage();
+        }
     }
 
     private void handleError(Throwable error) {
+        feedDone = true;
         setLoading(false);
         this.nextPage = null; // Stop pagination on error
         listener.showError("An error occurred: " + error.getMessage());
     }
 
+    private void showBufferedPage() {
+        MappedPage page = bufferedPage;
+        bufferedPage = null;
+        pageWanted = false;
+        shownNextPage = page.getNextPage();
+        listener.showMoreVideos(page.getItems());
+        prefetch();
+    }
+
+    /**
+     * Load the next page into the buffer, unless it is full or a load is already running.
+     */
+    private void prefetch() {
+        if (nextPage == null || bufferedPage != null || pageRequest != null) return;
+
+        pageRequest = contentLoader.loadMoreItems(nextPage)
+                .map(page -> new MappedPage(itemMapper.map(page.getItems()), page.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::handlePageLoaded, this::handlePageError);
+        disposables.add(pageRequest);
+    }
+
+    private void handlePageLoaded(MappedPage result) {
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        pageAttempts = 0;
+        this.nextPage = result.getNextPage();
+        this.bufferedPage = result;
+
+        if (pageWanted && feedDone) {
+            showBufferedPage();
+        }
+    }
+
+    private void handlePageError(Throwable error) {
+        disposables.delete(pageRequest);
+        pageRequest = null;
+
+        if (++pageAttempts < MAX_PAGE_ATTEMPTS) {
+            // 1s, 2s, 4s, ... then the same page again
+            long delayMs = INITIAL_BACKOFF_MS << (pageAttempts - 1);
+            pageRequest = Completable.timer(delayMs, TimeUnit.MILLISECONDS, AndroidSchedulers.mainThread())
+                    .subscribe(() -> {
+                        disposables.delete(pageRequest);
+                        pageRequest = null;
+                        prefetch();
+                    });
+            disposables.add(pageRequest);
+            return;
+        }
+
+        // Keep the page; scrolling to the end again starts a new round of attempts
+        if (pageWanted) {
+            pageWanted = false;
+            listener.showError("An error occurred: " + error.getMessage());
+        }
+    }
+
+    /**
+     * Drops the buffered page and stops the running page load or backoff timer; remove()
+     * disposes it as well, so an old cursor can't come back through {@link #handlePageLoaded}.
+     */
+    private void cancelPaging() {
+        if (pageRequest != null) {
+            disposables.remove(pageRequest);
+            pageRequest = null;
+        }
+        bufferedPage = null;
+        pageWanted = false;
+        pageAttempts = 0;
+    }
+
     private void setLoading(boolean loading) {
         this.isLoading = loading;
         listener.showLoading(loading);
@@ -124,5 +356,9 @@ public class TrendingVideosExecutor {
      */
     public void dispose() {
         disposables.clear();
+        pageRequest = null;
+        bufferedPage = null;
+        pageWanted = false;
+        isLoading = false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package bd.nidoham.youtube.playlist;
+
+import android.content.Context;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.playlist.PlaylistInfo;
+import org.schabi.newpipe.util.ExtractorHelper;
+import org.schabi.newpipe.util.InfoCache;
+
+import java.util.List;
+
+import bd.nidoham.youtube.MappedPage;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Loads a playlist page: the header with the first videos, then further pages on scroll.
+ *
+ * The playlist goes through the extractor cache ({@link InfoCache.Type#PLAYLIST}), so a
+ * playlist reopened from the back stack is shown without a request.
+ */
+public class PlaylistExecutor {
+
+    /** Default number of items from the end of the list at which the next page is loaded. */
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+
+    /**
+     * Receives the playlist's header and its pages of videos; called on the main thread.
+     */
+    public interface Listener {
+        void showLoading(boolean isLoading);
+        void showHeader(PlaylistInfo playlistInfo);
+        void showInitialVideos(List<VideoItem> items);
+        void showMoreVideos(List<VideoItem> items);
+        void showEmptyState();
+        void showError(String message);
+    }
+
+    /**
+     * The playlist with its first page mapped.
+     */
+    private static final class LoadedPlaylist {
+        final PlaylistInfo info;
+        final List<VideoItem> items;
+
+        LoadedPlaylist(PlaylistInfo info, List<VideoItem> items) {
+            this.info = info;
+            this.items = items;
+        }
+    }
+
+    private final Listener listener;
+    private final VideoItemMapper itemMapper;
+    private final String url;
+    private final int serviceId;
+    private final int prefetchDistance;
+    private final CompositeDisposable disposables = new CompositeDisposable();
+
+    // Main thread only
+    private Page nextPage;
+    private boolean isLoading = false;
+    private Disposable playlistRequest;
+    private Disposable pageRequest;
+
+    public PlaylistExecutor(Context context, String url, Listener listener) {
+        this(context, url, listener, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    /**
+     * @param url              the playlist's URL
+     * @param prefetchDistance how many items before the end of the list the next page is loaded
+     */
+    public PlaylistExecutor(Context context, String url, Listener listener, int prefetchDistance) {
+        this.listener = listener;
+        this.url = url;
+        this.prefetchDistance = Math.max(1, prefetchDistance);
+        this.serviceId = ServiceList.YouTube.getServiceId();
+        this.itemMapper = VideoItemMapper.forVideoList(context);
+    }
+
+    /**
+     * Loads the header and the first videos, replacing what was loaded before.
+     *
+     * @param forceReload if true, bypasses the cache.
+     */
+    public void load(boolean forceReload) {
+        disposables.clear();
+        pageRequest = null;
+        nextPage = null;
+        setLoading(true);
+
+        playlistRequest = ExtractorHelper.getPlaylistInfo(serviceId, url, forceReload)
+                .map(info -> new LoadedPlaylist(info, itemMapper.map(info.getRelatedItems())))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::handlePlaylistLoaded, this::handleError);
+        disposables.add(playlistRequest);
+    }
+
+    /**
+     * Call as the list scrolls; loads the next page once the end is within the prefetch distance.
+     *
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param itemCount           number of items in the list
+     */
+    public void onScrolled(int lastVisiblePosition, int itemCount) {
+        if (itemCount > 0 && lastVisiblePosition >= itemCount - prefetchDistance) {
+            fetchMoreVideos();
+        }
+    }
+
+    private void fetchMoreVideos() {
+        if (isLoading || nextPage == null || pageRequest != null) return;
+
+        pageRequest = ExtractorHelper.getMorePlaylistItems(serviceId, url, nextPage)
+                .map(page -> new MappedPage(itemMapper.map(page.getItems()), page.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::handlePageLoaded, this::handlePageError);
+        disposables.add(pageRequest);
+    }
+
+    private void handlePlaylistLoaded(LoadedPlaylist playlist) {
+        disposables.delete(playlistRequest);
+        playlistRequest = null;
+        setLoading(false);
+        nextPage = playlist.info.getNextPage();
+
+        listener.showHeader(playlist.info);
+        if (playlist.items.isEmpty()) {
+            listener.showEmptyState();
+        } else {
+            listener.showInitialVideos(playlist.items);
+        }
+    }
+
+    private void handleError(Throwable error) {
+        disposables.delete(playlistRequest);
+        playlistRequest = null;
+        setLoading(false);
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    private void handlePageLoaded(MappedPage page) {
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        nextPage = page.getNextPage();
+        if (!page.getItems().isEmpty()) {
+            listener.showMoreVideos(page.getItems());
+        }
+    }
+
+    private void handlePageError(Throwable error) {
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        nextPage = null; // Stop pagination on error
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    private void setLoading(boolean loading) {
+        this.isLoading = loading;
+        listener.showLoading(loading);
+    }
+
+    /**
+     * Must be called to clean up subscriptions and prevent memory leaks.
+     * Typically called in an Activity's onDestroy().
+     */
+    public void dispose() {
+        disposables.clear();
+    }
+}
@@ -0,0 +1,255 @@
+package bd.nidoham.youtube.search;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.services.youtube.linkHandler.YoutubeSearchQueryHandlerFactory;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.util.ExtractorHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import bd.nidoham.youtube.MappedPage;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+/**
+ * Search suggestions and paginated search results for YouTube videos.
+ *
+ * Suggestions follow the typed text: a query is looked up once typing pauses for
+ * {@link #SUGGESTION_DEBOUNCE_MS}, and a newer query cancels the lookup still in flight.
+ * Suggestions are cached per prefix, so deleting back to earlier text needs no request.
+ *
+ * Results are mapped to {@link VideoItem}s on the extraction thread. Further pages are loaded
+ * as the list is scrolled to within the prefetch distance of its end.
+ */
+public class SearchExecutor {
+
+    /** Default number of items from the end of the list at which the next page is loaded. */
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+
+    private static final String TAG = "SearchExecutor";
+    private static final long SUGGESTION_DEBOUNCE_MS = 300;
+    private static final int SUGGESTION_CACHE_SIZE = 100;
+    private static final List<String> CONTENT_FILTER =
+            Collections.singletonList(YoutubeSearchQueryHandlerFactory.VIDEOS);
+    private static final String SORT_FILTER = "";
+
+    /**
+     * Receives suggestions for the typed text and pages of results; called on the main thread.
+     */
+    public interface Listener {
+        void showSuggestions(List<String> suggestions);
+        void showLoading(boolean isLoading);
+        void showResults(List<VideoItem> items);
+        void showMoreResults(List<VideoItem> items);
+        void showEmptyState();
+        void showError(String message);
+    }
+
+    private final Listener listener;
+    private final VideoItemMapper itemMapper;
+    private final int serviceId;
+    private final int prefetchDistance;
+    private final CompositeDisposable disposables = new CompositeDisposable();
+    private final PublishSubject<String> typedQueries = PublishSubject.create();
+    // Thread safe; read on the debounce thread, written on the io threads
+    private final LruCache<String, List<String>> suggestionCache = new LruCache<>(SUGGESTION_CACHE_SIZE);
+
+    // Main thread only
+    private String currentQuery;
+    // Counts searches, so a result of an earlier one is never applied to the current one
+    private int searchId;
+    private Page nextPage;
+    private boolean isLoading = false;
+    private Disposable searchRequest;
+    private Disposable pageRequest;
+
+    public SearchExecutor(Context context, Listener listener) {
+        this(context, listener, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    /**
+     * @param prefetchDistance how many items before the end of the list the next page is loaded
+     */
+    public SearchExecutor(Context context, Listener listener, int prefetchDistance) {
+        this.listener = listener;
+        this.prefetchDistance = Math.max(1, prefetchDistance);
+        this.serviceId = ServiceList.YouTube.getServiceId();
+        this.itemMapper = VideoItemMapper.forVideoList(context);
+
+        disposables.add(typedQueries
+                // switchMap drops the pending or running lookup of the previous text
+                .switchMap(query -> query.isEmpty()
+                        ? Observable.just(Collections.<String>emptyList())
+                        : Observable.timer(SUGGESTION_DEBOUNCE_MS, TimeUnit.MILLISECONDS)
+                                .flatMapSingle(tick -> suggestionsFor(query)))
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(listener::showSuggestions,
+                        error -> Log.e(TAG, "Suggestion stream failed", error)));
+    }
+
+    /**
+     * Call whenever the search text changes; suggestions for it follow once typing pauses.
+     */
+    public void onQueryChanged(String text) {
+        typedQueries.onNext(text.trim());
+    }
+
+    /**
+     * Runs a search, replacing the current results. Pending suggestions are dropped.
+     */
+    public void search(String query) {
+        final String trimmed = query.trim();
+        if (trimmed.isEmpty()) return;
+
+        typedQueries.onNext("");
+        cancelRequests();
+        currentQuery = trimmed;
+        nextPage = null;
+        setLoading(true);
+
+        final int id = ++searchId;
+        searchRequest = ExtractorHelper.searchFor(serviceId, trimmed, CONTENT_FILTER, SORT_FILTER)
+                .map(info -> new MappedPage(mapStreams(info.getRelatedItems()), info.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(page -> handleResults(id, page), error -> handleError(id, error));
+        disposables.add(searchRequest);
+    }
+
+    /**
+     * Call as the list scrolls; loads the next page once the end is within the prefetch distance.
+     *
+     * @param lastVisiblePosition adapter position of the last visible item
+     * @param itemCount           number of items in the list
+     */
+    public void onScrolled(int lastVisiblePosition, int itemCount) {
+        if (itemCount > 0 && lastVisiblePosition >= itemCount - prefetchDistance) {
+            fetchMoreResults();
+        }
+    }
+
+    public boolean hasMoreResults() {
+        return nextPage != null;
+    }
+
+    private void fetchMoreResults() {
+        if (isLoading || nextPage == null || pageRequest != null) return;
+
+        final int id = searchId;
+        pageRequest = ExtractorHelper.getMoreSearchItems(serviceId, currentQuery, CONTENT_FILTER,
+                        SORT_FILTER, nextPage)
+                .map(page -> new MappedPage(mapStreams(page.getItems()), page.getNextPage()))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(page -> handlePageLoaded(id, page), error -> handlePageError(id, error));
+        disposables.add(pageRequest);
+    }
+
+    private Single<List<String>> suggestionsFor(String query) {
+        List<String> cached = suggestionCache.get(query);
+        if (cached != null) {
+            return Single.just(cached);
+        }
+        return ExtractorHelper.suggestionsFor(serviceId, query)
+                .subscribeOn(Schedulers.io())
+                .doOnSuccess(suggestions -> suggestionCache.put(query, suggestions))
+                // A failed lookup only hides the suggestions; the stream carries on
+                .onErrorReturnItem(Collections.emptyList());
+    }
+
+    private List<VideoItem> mapStreams(List<? extends InfoItem> items) {
+        // The video filter still lets the odd shelf or channel through
+        List<StreamInfoItem> streams = new ArrayList<>();
+        for (InfoItem item : items) {
+            if (item instanceof StreamInfoItem) {
+                streams.add((StreamInfoItem) item);
+            }
+        }
+        return itemMapper.map(streams);
+    }
+
+    private void handleResults(int id, MappedPage page) {
+        if (id != searchId) return;
+        disposables.delete(searchRequest);
+        searchRequest = null;
+        setLoading(false);
+        nextPage = page.getNextPage();
+
+        if (page.getItems().isEmpty()) {
+            listener.showEmptyState();
+        } else {
+            listener.showResults(page.getItems());
+        }
+    }
+
+    private void handleError(int id, Throwable error) {
+        if (id != searchId) return;
+        disposables.delete(searchRequest);
+        searchRequest = null;
+        setLoading(false);
+        nextPage = null;
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    private void handlePageLoaded(int id, MappedPage page) {
+        if (id != searchId) return;
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        nextPage = page.getNextPage();
+        if (!page.getItems().isEmpty()) {
+            listener.showMoreResults(page.getItems());
+        }
+    }
+
+    private void handlePageError(int id, Throwable error) {
+        if (id != searchId) return;
+        disposables.delete(pageRequest);
+        pageRequest = null;
+        nextPage = null; // Stop pagination on error
+        listener.showError("An error occurred: " + error.getMessage());
+    }
+
+    /**
+     * Stops the running search and page load; remove() disposes them as well.
+     */
+    private void cancelRequests() {
+        if (searchRequest != null) {
+            disposables.remove(searchRequest);
+            searchRequest = null;
+        }
+        if (pageRequest != null) {
+            disposables.remove(pageRequest);
+            pageRequest = null;
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        this.isLoading = loading;
+        listener.showLoading(loading);
+    }
+
+    /**
+     * Must be called to clean up subscriptions and prevent memory leaks.
+     * Typically called in an Activity's onDestroy().
+     */
+    public void dispose() {
+        disposables.clear();
+    }
+}
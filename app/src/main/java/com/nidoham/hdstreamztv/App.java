@@ -7,7 +7,11 @@ import android.util.Log;
 
 import androidx.preference.PreferenceManager;
 
+import com.google.firebase.database.DatabaseException;
+import com.google.firebase.database.FirebaseDatabase;
 import com.nidoham.hdstreamztv.error.ReCaptchaActivity;
+import com.nidoham.hdstreamztv.quality.DecoderCapabilities;
+import com.nidoham.hdstreamztv.work.CacheRefreshWorker;
 
 import org.schabi.newpipe.DownloaderImpl;
 import org.schabi.newpipe.extractor.NewPipe;
@@ -17,6 +21,9 @@ import org.schabi.newpipe.extractor.localization.Localization;
 
 import java.util.Locale;
 
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
 /**
  * Main Application class for HDStreamzTV
  * Handles NewPipe initialization, configuration, and provides global context
@@ -58,9 +65,12 @@ public class App extends Application {
      * Initialize the application components
      */
     private void initializeApplication() {
+        initializeFirebase();
         try {
             initializeNewPipe();
             isNewPipeInitialized = true;
+            CacheRefreshWorker.schedule(this);
+            warmUpDecoderProbe();
             Log.i(TAG, "Application initialized successfully");
         } catch (Exception e) {
             Log.e(TAG, "Failed to initialize application", e);
@@ -69,6 +79,29 @@ public class App extends Application {
         }
     }
 
+    /**
+     * Keep the channel catalog on disk, so the channel list still opens offline and
+     * {@link CacheRefreshWorker} can refresh it in the background. Must run before any other
+     * use of the database.
+     */
+    private void initializeFirebase() {
+        try {
+            FirebaseDatabase.getInstance().setPersistenceEnabled(true);
+        } catch (DatabaseException e) {
+            Log.w(TAG, "Firebase disk persistence unavailable", e);
+        }
+    }
+
+    /**
+     * Probe the video decoders in the background, so the first stream opened doesn't wait
+     * for MediaCodecList on the main thread.
+     */
+    private void warmUpDecoderProbe() {
+        Completable.fromAction(DecoderCapabilities::getInstance)
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> { }, error -> Log.w(TAG, "Decoder probe failed", error));
+    }
+
     /**
      * Initialize NewPipe with custom downloader and localization settings
      */
@@ -0,0 +1,309 @@
+package com.nidoham.hdstreamztv;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.util.Log;
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.google.android.material.tabs.TabLayout;
+import com.nidoham.hdstreamztv.adapter.VideoAdapter;
+import com.nidoham.hdstreamztv.databinding.ActivityListInfoBinding;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+import com.nidoham.hdstreamztv.player.PlayerIntents;
+
+import org.schabi.newpipe.extractor.Image;
+import org.schabi.newpipe.extractor.channel.ChannelInfo;
+import org.schabi.newpipe.extractor.channel.tabs.ChannelTabs;
+import org.schabi.newpipe.util.Localization;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import bd.nidoham.intent.IntentKeys;
+import bd.nidoham.youtube.channel.ChannelExecutor;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+
+/**
+ * A YouTube channel: its header, then one list per tab, each loaded when first shown.
+ */
+public class ChannelActivity extends AppCompatActivity
+        implements ChannelExecutor.Listener, VideoAdapter.OnVideoItemClickListener {
+
+    private static final String TAG = "ChannelActivity";
+    private static final String KEY_TAB = "tab";
+
+    private ActivityListInfoBinding binding;
+    private VideoAdapter videoAdapter;
+    private LinearLayoutManager layoutManager;
+    private ChannelExecutor executor;
+    private final CompositeDisposable compositeDisposable = new CompositeDisposable();
+
+    // State Management
+    private final ArrayList<VideoItem> videoList = new ArrayList<>();
+    // Scroll position of each tab that was left, restored when it is shown again
+    private final Map<String, Parcelable> tabScrollStates = new HashMap<>();
+    @Nullable
+    private String shownTab;
+    // Set while the tabs are rebuilt, when the executor selects the tab itself
+    private boolean updatingTabs;
+
+    /**
+     * Opens the channel at {@code url}; {@code name} is shown until the header is loaded.
+     */
+    public static void open(@NonNull Context context, @Nullable String url, @Nullable String name) {
+        if (url == null || url.trim().isEmpty()) {
+            Toast.makeText(context, "Invalid channel URL", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Intent intent = new Intent(context, ChannelActivity.class);
+        intent.putExtra(IntentKeys.EXTRA_LIST_URL, url);
+        intent.putExtra(IntentKeys.EXTRA_LIST_NAME, name);
+        context.startActivity(intent);
+    }
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityListInfoBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        String url = getIntent().getStringExtra(IntentKeys.EXTRA_LIST_URL);
+        if (url == null) {
+            finish();
+            return;
+        }
+        if (!App.getInstance().isNewPipeInitialized()) {
+            App.getInstance().reinitializeNewPipe();
+        }
+
+        binding.toolbar.setTitle(getIntent().getStringExtra(IntentKeys.EXTRA_LIST_NAME));
+        binding.toolbar.setNavigationOnClickListener(v -> finish());
+        setupList();
+
+        executor = new ChannelExecutor(this, url, this);
+        if (savedInstanceState != null) {
+            executor.setSelectedTabName(savedInstanceState.getString(KEY_TAB));
+        }
+        // Served from the cache when the channel was opened a moment ago
+        executor.load(false);
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (executor != null) {
+            outState.putString(KEY_TAB, executor.getSelectedTabName());
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (executor != null) {
+            executor.dispose();
+        }
+        compositeDisposable.clear();
+        binding = null;
+    }
+
+    // ==================== Setup ====================
+
+    private void setupList() {
+        videoAdapter = new VideoAdapter(Glide.with(this), this);
+        layoutManager = new LinearLayoutManager(this);
+        binding.recyclerViewItems.setLayoutManager(layoutManager);
+        binding.recyclerViewItems.setAdapter(videoAdapter);
+        videoAdapter.attachThumbnailPreloader(binding.recyclerViewItems);
+
+        binding.recyclerViewItems.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                if (dy > 0) {
+                    executor.onScrolled(layoutManager.findLastVisibleItemPosition(), videoAdapter.getItemCount());
+                }
+            }
+        });
+
+        binding.tabLayout.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
+            @Override
+            public void onTabSelected(TabLayout.Tab tab) {
+                if (!updatingTabs) {
+                    executor.selectTab(tab.getPosition());
+                }
+            }
+
+            @Override
+            public void onTabUnselected(TabLayout.Tab tab) {
+            }
+
+            @Override
+            public void onTabReselected(TabLayout.Tab tab) {
+                binding.recyclerViewItems.smoothScrollToPosition(0);
+            }
+        });
+    }
+
+    // ==================== ChannelExecutor.Listener ====================
+
+    @Override
+    public void showLoading(boolean isLoading) {
+        if (binding == null) return;
+        binding.progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
+        if (isLoading) {
+            binding.textEmpty.setVisibility(View.GONE);
+        }
+    }
+
+    @Override
+    public void showHeader(ChannelInfo channelInfo) {
+        if (binding == null) return;
+        binding.toolbar.setTitle(channelInfo.getName());
+        binding.textTitle.setText(channelInfo.getName());
+
+        long subscriberCount = channelInfo.getSubscriberCount();
+        binding.textSubtitle.setText(subscriberCount >= 0
+                ? Localization.shortSubscriberCount(this, subscriberCount)
+                : getString(R.string.subscribers_count_not_available));
+
+        String description = channelInfo.getDescription();
+        boolean hasDescription = description != null && !description.trim().isEmpty();
+        binding.textDescription.setText(hasDescription ? description.trim() : null);
+        binding.textDescription.setVisibility(hasDescription ? View.VISIBLE : View.GONE);
+
+        int avatarSizePx = getResources().getDimensionPixelSize(R.dimen.video_item_search_avatar_image_width);
+        Image avatar = VideoItemMapper.pickThumbnail(channelInfo.getAvatars(), avatarSizePx, avatarSizePx);
+        Glide.with(this)
+                .load(avatar != null ? avatar.getUrl() : null)
+                .circleCrop()
+                .into(binding.imageHeader);
+
+        binding.header.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showTabs(List<String> tabs, int selectedIndex) {
+        if (binding == null) return;
+        updatingTabs = true;
+        binding.tabLayout.removeAllTabs();
+        for (int i = 0; i < tabs.size(); i++) {
+            binding.tabLayout.addTab(binding.tabLayout.newTab().setText(tabTitle(tabs.get(i))),
+                    i == selectedIndex);
+        }
+        updatingTabs = false;
+        binding.tabLayout.setVisibility(tabs.size() > 1 ? View.VISIBLE : View.GONE);
+    }
+
+    @Override
+    public void showTabItems(List<VideoItem> items) {
+        if (binding == null) return;
+        boolean tabChanged = switchShownTab();
+
+        videoList.clear();
+        // Items repeated across the tab's pages are left out by the adapter
+        videoList.addAll(items);
+        binding.textEmpty.setVisibility(View.GONE);
+        binding.recyclerViewItems.setVisibility(View.VISIBLE);
+
+        if (!tabChanged) {
+            videoAdapter.updateVideoList(videoList);
+            return;
+        }
+        // Restored once the other tab's items are replaced
+        Parcelable scrollState = items.isEmpty() ? null : tabScrollStates.get(shownTab);
+        videoAdapter.updateVideoList(videoList, () -> {
+            if (binding == null) return;
+            if (scrollState != null) {
+                layoutManager.onRestoreInstanceState(scrollState);
+            } else {
+                binding.recyclerViewItems.scrollToPosition(0);
+            }
+        });
+    }
+
+    /**
+     * Keeps the scroll position of the tab that was shown if another one is shown now.
+     *
+     * @return true if the selected tab isn't the one that was shown
+     */
+    private boolean switchShownTab() {
+        String tab = executor.getSelectedTabName();
+        if (tab == null || tab.equals(shownTab)) {
+            return false;
+        }
+        if (shownTab != null && !videoList.isEmpty()) {
+            tabScrollStates.put(shownTab, layoutManager.onSaveInstanceState());
+        }
+        shownTab = tab;
+        return true;
+    }
+
+    @Override
+    public void showEmptyState() {
+        if (binding == null) return;
+        switchShownTab();
+        videoList.clear();
+        videoAdapter.updateVideoList(videoList);
+        binding.recyclerViewItems.setVisibility(View.GONE);
+        binding.textEmpty.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showError(String message) {
+        if (binding == null) return;
+        Toast.makeText(this, message, videoList.isEmpty() ? Toast.LENGTH_LONG : Toast.LENGTH_SHORT).show();
+    }
+
+    private String tabTitle(String tab) {
+        switch (tab) {
+            case ChannelTabs.SHORTS:
+                return getString(R.string.channel_tab_shorts);
+            case ChannelTabs.LIVESTREAMS:
+                return getString(R.string.channel_tab_livestreams);
+            case ChannelTabs.PLAYLISTS:
+                return getString(R.string.channel_tab_playlists);
+            case ChannelTabs.VIDEOS:
+            default:
+                return getString(R.string.channel_tab_videos);
+        }
+    }
+
+    // ==================== Item Clicks ====================
+
+    @Override
+    public void onVideoItemClick(@NonNull VideoItem videoItem) {
+        String url = videoItem.getVideoUrl();
+        if (url == null || url.trim().isEmpty()) {
+            Toast.makeText(this, "Invalid video URL", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        if (ChannelTabs.PLAYLISTS.equals(executor.getSelectedTabName())) {
+            PlaylistActivity.open(this, url, videoItem.getTitle());
+            return;
+        }
+
+        Log.d(TAG, "Starting stream extraction for URL: " + url);
+        compositeDisposable.add(PlayerIntents.forUrl(this, url)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::startActivity, throwable -> {
+                    Log.e(TAG, "Failed to extract stream info", throwable);
+                    Toast.makeText(this, "Error: Unable to extract video info. " + throwable.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                }, () -> Toast.makeText(this, "No valid quality options available.", Toast.LENGTH_SHORT).show()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.nidoham.hdstreamztv;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Toast;
@@ -135,7 +136,7 @@ public class MainActivity extends AppCompatActivity {
      */
     private void initActionButtons() {
         binding.actionSearch.setOnClickListener(v ->
-                Toast.makeText(this, "Search coming soon!", Toast.LENGTH_SHORT).show());
+                startActivity(new Intent(this, SearchActivity.class)));
         binding.actionNotifications.setOnClickListener(v ->
                 Toast.makeText(this, "Notifications coming soon!", Toast.LENGTH_SHORT).show());
     }
@@ -1,13 +1,17 @@
 package com.nidoham.hdstreamztv;
 
-import android.annotation.SuppressLint;
+import android.app.PictureInPictureParams;
+import android.content.Intent;
 import android.content.pm.ActivityInfo;
+import android.content.pm.PackageManager;
 import android.content.res.Configuration;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
+import android.util.Rational;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -18,17 +22,20 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.view.WindowCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.core.view.WindowInsetsControllerCompat;
+import androidx.lifecycle.Lifecycle;
 
 import androidx.media3.common.C;
 import androidx.media3.common.MediaItem;
 import androidx.media3.common.PlaybackException;
 import androidx.media3.common.Player;
 import androidx.media3.common.VideoSize;
+import androidx.media3.common.util.UnstableApi;
 import androidx.media3.exoplayer.ExoPlayer;
 import androidx.media3.ui.AspectRatioFrameLayout;
 
@@ -36,21 +43,41 @@ import com.nidoham.hdstreamztv.databinding.ActivityPlayerBinding;
 import com.nidoham.hdstreamztv.template.model.settings.Template;
 import com.nidoham.hdstreamztv.dialog.QualityDialog;
 import com.nidoham.hdstreamztv.model.VideoQuality;
+import com.nidoham.hdstreamztv.player.DroppedFrameMonitor;
+import com.nidoham.hdstreamztv.player.LiveLatencyPreferences;
+import com.nidoham.hdstreamztv.player.MediaSourceBuilder;
+import com.nidoham.hdstreamztv.player.PlaybackMetricsCollector;
+import com.nidoham.hdstreamztv.player.PlaybackMetricsStore;
+import com.nidoham.hdstreamztv.player.PlaybackRecoveryPolicy;
+import com.nidoham.hdstreamztv.player.PlaybackService;
+import com.nidoham.hdstreamztv.player.PlaybackSessionRegistry;
+import com.nidoham.hdstreamztv.player.PlayerHolder;
+import com.nidoham.hdstreamztv.player.PlayerStateMachine;
+import com.nidoham.hdstreamztv.player.ProgressRenderer;
+import com.nidoham.hdstreamztv.player.ResumePositionStore;
+import com.nidoham.hdstreamztv.player.StreamUrlLease;
+import com.nidoham.hdstreamztv.quality.BandwidthEstimator;
+import com.nidoham.hdstreamztv.quality.QualityLadder;
+import com.nidoham.hdstreamztv.quality.QualitySelectionEngine;
+import com.nidoham.hdstreamztv.quality.StreamQualityMapper;
 
-import org.schabi.newpipe.extractor.ServiceList; // This import is now redundant but kept for completeness if other parts of the project use it.
-import org.schabi.newpipe.extractor.stream.StreamInfo; // This import is now redundant but kept for completeness if other parts of the project use it.
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
 import org.schabi.newpipe.extractor.stream.VideoStream; // This import is now redundant but kept for completeness if other parts of the project use it.
-import org.schabi.newpipe.util.ExtractorHelper; // This import is now redundant but kept for completeness if other parts of the project use it.
+import org.schabi.newpipe.util.ExtractorHelper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet; // This import is now redundant but kept for completeness if other parts of the project use it.
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set; // This import is now redundant but kept for completeness if other parts of the project use it.
 
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers; // This import is now redundant but kept for completeness if other parts of the project use it.
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
-import io.reactivex.rxjava3.disposables.Disposable; // This import is now redundant but kept for completeness if other parts of the project use it.
-import io.reactivex.rxjava3.schedulers.Schedulers; // This import is now redundant but kept for completeness if other parts of the project use it.
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 import bd.nidoham.intent.IntentKeys;
 
@@ -77,13 +104,13 @@ public class PlayerActivity extends AppCompatActivity {
     // UI Timing Constants
     private static final int CONTROL_AUTO_HIDE_DELAY_MS = 3000;
     private static final int LOCK_BUTTON_HIDE_DELAY_MS = 2000;
-    private static final int PROGRESS_UPDATE_INTERVAL_MS = 500;
-    private static final int ERROR_RETRY_DELAY_MS = 2000;
+    private static final int RESUME_SAVE_INTERVAL_MS = 10000;
+    // A URL still refused right after re-extraction isn't an expiry problem
+    private static final long MIN_URL_REFRESH_INTERVAL_MS = 30000;
     
     // Player Configuration
     private static final int SEEK_INCREMENT_MS = 10000;
     private static final int SEEK_BAR_MAX_PRECISION = 1000;
-    private static final int MAX_RETRY_ATTEMPTS = 3;
     
     // State Save Keys
     private static final String SAVED_PLAYBACK_POSITION = "playback_position";
@@ -93,73 +120,48 @@ public class PlayerActivity extends AppCompatActivity {
     // Core Components
     private ActivityPlayerBinding binding;
     private ExoPlayer player;
+    private MediaSourceBuilder mediaSourceBuilder;
+    private DroppedFrameMonitor droppedFrameMonitor;
+    private PlaybackMetricsCollector metricsCollector;
+    private LiveLatencyPreferences liveLatencyPreferences;
+    private ProgressRenderer progressRenderer;
+    private ResumePositionStore resumePositionStore;
+    private PlayerEventListener playerEventListener;
+    // True when the player was picked up from PlayerHolder instead of being created here
+    private boolean reusedPlayer;
     
     // Thread Management
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
-    private final Handler progressHandler = new Handler(Looper.getMainLooper());
     
-    // RxJava Management (kept for CompositeDisposable cleanup, though ExtractorHelper calls are removed)
+    // RxJava Management (stream URL re-extraction)
     private final CompositeDisposable compositeDisposable = new CompositeDisposable();
     
     // Scheduled Tasks
     private final Runnable hideControlsTask = this::hideControls;
     private final Runnable hideLockButtonTask = this::hideLockButtonDelayed;
-    private Runnable progressUpdateTask;
+    private final Runnable playerReplacedTask = this::onPlayerReplaced;
+    private final Runnable resumeSaveTask = new Runnable() {
+        @Override
+        public void run() {
+            rememberResumePosition();
+            if (player != null && player.isPlaying()) {
+                mainHandler.postDelayed(this, RESUME_SAVE_INTERVAL_MS);
+            }
+        }
+    };
     
     // State Management
-    private final PlayerStateManager stateManager = new PlayerStateManager();
+    private final PlayerStateMachine stateMachine = new PlayerStateMachine();
     private final VideoInfoManager videoManager = new VideoInfoManager();
     private final ErrorRecoveryManager errorManager = new ErrorRecoveryManager();
     private final QualityManager qualityManager = new QualityManager();
+    private final UrlLeaseManager urlLeaseManager = new UrlLeaseManager();
+    private final AudioOnlyManager audioOnlyManager = new AudioOnlyManager();
     
     // ========================================================================================
     // State Management Classes
     // ========================================================================================
     
-    /**
-     * Manages all player-related state with thread safety
-     */
-    private static class PlayerStateManager {
-        private volatile boolean isLocked = false;
-        private volatile boolean isSeeking = false;
-        private volatile boolean controlsVisible = false;
-        private volatile boolean playWhenReady = true;
-        private volatile long lastPosition = 0L;
-        private volatile int lastPlaybackState = Player.STATE_IDLE;
-        private volatile boolean initialized = false;
-        
-        public synchronized boolean isLocked() { return isLocked; }
-        public synchronized void setLocked(boolean locked) { this.isLocked = locked; }
-        
-        public synchronized boolean isSeeking() { return isSeeking; }
-        public synchronized void setSeeking(boolean seeking) { this.isSeeking = seeking; }
-        
-        public synchronized boolean areControlsVisible() { return controlsVisible; }
-        public synchronized void setControlsVisible(boolean visible) { this.controlsVisible = visible; }
-        
-        public synchronized boolean shouldPlayWhenReady() { return playWhenReady; }
-        public synchronized void setPlayWhenReady(boolean play) { this.playWhenReady = play; }
-        
-        public synchronized long getLastPosition() { return lastPosition; }
-        public synchronized void setLastPosition(long position) { this.lastPosition = position; }
-        
-        public synchronized int getLastPlaybackState() { return lastPlaybackState; }
-        public synchronized void setLastPlaybackState(int state) { this.lastPlaybackState = state; }
-        
-        public synchronized boolean isInitialized() { return initialized; }
-        public synchronized void setInitialized(boolean init) { this.initialized = init; }
-        
-        public synchronized void reset() {
-            isLocked = false;
-            isSeeking = false;
-            controlsVisible = false;
-            playWhenReady = true;
-            lastPosition = 0L;
-            lastPlaybackState = Player.STATE_IDLE;
-            initialized = false;
-        }
-    }
-    
     /**
      * Manages video information with validation
      */
@@ -170,6 +172,15 @@ public class PlayerActivity extends AppCompatActivity {
         private String currentQuality;
         private ArrayList<VideoQuality> videoQualities;
         private String hlsUrl;
+        private ArrayList<String> mirrorUrls;
+        private ArrayList<String> mirrorTitles;
+        private String contentKey;
+        private String resumeKey;
+        private String sourceKey;
+        private String pageUrl;
+        private String sessionId;
+        private VideoQuality audioOnlyQuality;
+        private boolean startAudioOnly;
         
         public boolean extractFromIntent(@Nullable Bundle extras) {
             if (extras == null) return false;
@@ -177,27 +188,104 @@ public class PlayerActivity extends AppCompatActivity {
             // Use IntentKeys for extraction
             videoName = extras.getString(IntentKeys.EXTRA_VIDEO_NAME);
             videoCategory = extras.getInt(IntentKeys.EXTRA_VIDEO_CATEGORY, -1);
-            videoQualities = (ArrayList<VideoQuality>) extras.getSerializable(IntentKeys.EXTRA_VIDEO_QUALITIES);
             hlsUrl = extras.getString(IntentKeys.EXTRA_HLS_URL);
             
-            // The initial videoUrl and currentQuality will be set by QualityManager
-            // For now, ensure basic info is valid
+            // Extracted stream lists stay in memory; after process death only the id is left
+            // and the page is extracted again (see needsExtraction)
+            sessionId = extras.getString(IntentKeys.EXTRA_SESSION_ID);
+            PlaybackSessionRegistry.Session session = PlaybackSessionRegistry.get(sessionId);
+            if (session != null) {
+                videoQualities = new ArrayList<>(session.getQualities());
+                if (!hasText(hlsUrl)) {
+                    hlsUrl = session.getHlsUrl();
+                }
+                audioOnlyQuality = session.getAudioOnly();
+            }
+            startAudioOnly = extras.getBoolean(IntentKeys.EXTRA_AUDIO_ONLY, false);
+            
+            // Direct links (e.g. live TV mirrors) arrive as a single URL without a quality list;
+            // the quality hint picks the initial entry from the list when one is given
+            videoUrl = extras.getString(IntentKeys.EXTRA_VIDEO_URL);
+            currentQuality = extras.getString(IntentKeys.EXTRA_VIDEO_QUALITY);
+            
+            mirrorUrls = extras.getStringArrayList(IntentKeys.EXTRA_MIRROR_URLS);
+            mirrorTitles = extras.getStringArrayList(IntentKeys.EXTRA_MIRROR_TITLES);
+            
+            pageUrl = extras.getString(IntentKeys.EXTRA_PAGE_URL);
+            
+            // Stream URLs carry per-request tokens; the page URL is what identifies a video
+            resumeKey = hasText(pageUrl) ? pageUrl
+                    : hasText(videoUrl) ? PlaybackMetricsCollector.sourceKeyOf(videoUrl)
+                    : null;
+            // The link the channel was opened with; mirrors tried later don't change it
+            sourceKey = resumeKey != null ? resumeKey
+                    : hasText(hlsUrl) ? PlaybackMetricsCollector.sourceKeyOf(hlsUrl)
+                    : videoName;
+            
+            contentKey = videoName + "|" + (hasText(pageUrl) ? pageUrl
+                    : hasText(hlsUrl) ? hlsUrl
+                    : hasText(videoUrl) ? videoUrl
+                    : videoQualities != null && !videoQualities.isEmpty() ? videoQualities.get(0).getUrl() : "");
+            
             return isValid();
         }
         
         public boolean isValid() {
-            // Update isValid to check for HLS or video qualities
             return videoName != null && !videoName.trim().isEmpty() &&
                    videoCategory >= 0 &&
-                   (hlsUrl != null && !hlsUrl.trim().isEmpty() || (videoQualities != null && !videoQualities.isEmpty()));
+                   (hasPlayableSource() || hasText(pageUrl));
+        }
+        
+        public boolean hasPlayableSource() {
+            return hasText(hlsUrl) || hasText(videoUrl) ||
+                   (videoQualities != null && !videoQualities.isEmpty());
+        }
+        
+        /**
+         * The session's streams are gone, but the page they came from is known
+         */
+        public boolean needsExtraction() {
+            return !hasPlayableSource() && hasText(pageUrl);
+        }
+        
+        public void applyStreamInfo(StreamInfo streamInfo) {
+            videoQualities = StreamQualityMapper.fromStreamInfo(streamInfo);
+            hlsUrl = streamInfo.getHlsUrl();
+            audioOnlyQuality = StreamQualityMapper.audioOnlyFrom(streamInfo);
+        }
+        
+        public String getSessionId() { return sessionId; }
+        
+        /** Best audio stream on its own, or null if the source has none */
+        @Nullable
+        public VideoQuality getAudioOnlyQuality() { return audioOnlyQuality; }
+        public void setAudioOnlyQuality(@Nullable VideoQuality quality) { this.audioOnlyQuality = quality; }
+        
+        /** The caller asked to start without video */
+        public boolean shouldStartAudioOnly() { return startAudioOnly; }
+        
+        private boolean hasText(String value) {
+            return value != null && !value.trim().isEmpty();
         }
         
         public String getVideoUrl() { return videoUrl; }
         public String getVideoName() { return videoName; }
         public int getVideoCategory() { return videoCategory; }
         public String getCurrentQuality() { return currentQuality; }
+        /** Identifies what the intent asked to play, independent of the chosen quality */
+        public String getContentKey() { return contentKey; }
+        /** Key of the stored resume position, or null when the video can't be identified */
+        @Nullable
+        public String getResumeKey() { return resumeKey; }
+        /** Identifies the opened channel or video by its link, without per-request tokens */
+        public String getSourceKey() { return sourceKey; }
+        
+        /** Page the streams were extracted from; null for direct links */
+        @Nullable
+        public String getPageUrl() { return hasText(pageUrl) ? pageUrl : null; }
         
         public void setVideoUrl(String url) { this.videoUrl = url; }
+        public void setHlsUrl(String url) { this.hlsUrl = url; }
         public void setCurrentQuality(String quality) { this.currentQuality = quality; }
         
         public boolean isYouTubeVideo() {
@@ -206,48 +294,398 @@ public class PlayerActivity extends AppCompatActivity {
         
         public ArrayList<VideoQuality> getVideoQualities() { return videoQualities; }
         public String getHlsUrl() { return hlsUrl; }
+        
+        public List<String> getMirrorUrls() {
+            return mirrorUrls != null ? mirrorUrls : new ArrayList<>();
+        }
+        
+        public List<String> getMirrorTitles() {
+            return mirrorTitles != null ? mirrorTitles : new ArrayList<>();
+        }
     }
     
     /**
-     * Handles error recovery with retry logic
+     * Carries out the decisions of {@link PlaybackRecoveryPolicy}: retries with backoff,
+     * live edge jumps, quality step-down and failover to the channel's other links
      */
     private class ErrorRecoveryManager {
-        private int retryCount = 0;
-        private long lastErrorTime = 0;
-        
-        public boolean shouldRetry(PlaybackException error) {
-            long currentTime = System.currentTimeMillis();
+        private final PlaybackRecoveryPolicy policy = new PlaybackRecoveryPolicy();
+        private final List<String> mirrorUrls = new ArrayList<>();
+        private final List<String> mirrorTitles = new ArrayList<>();
+        private final Runnable retryTask = this::retryCurrentSource;
+        // Tells the summaries asked for by an earlier setMirrors apart from the current ones
+        private int mirrorsVersion;
+        
+        /**
+         * Queue the alternative links in the given order, then reorder them most reliable first
+         * once past sessions are summarized off the main thread
+         */
+        public void setMirrors(List<String> urls, List<String> titles) {
+            mirrorUrls.clear();
+            mirrorTitles.clear();
+            for (int i = 0; i < urls.size(); i++) {
+                String title = i < titles.size() ? titles.get(i) : null;
+                mirrorUrls.add(urls.get(i));
+                mirrorTitles.add(title != null && !title.trim().isEmpty() ? title : "Link " + (i + 1));
+            }
             
-            // Reset retry count if enough time has passed
-            if (currentTime - lastErrorTime > 30000) { // 30 seconds
-                retryCount = 0;
+            final int version = ++mirrorsVersion;
+            if (mirrorUrls.size() > 1) {
+                PlaybackMetricsStore.getInstance(PlayerActivity.this).summarizeBySource(summaries -> {
+                    if (version == mirrorsVersion && !isFinishing()) {
+                        orderMirrors(summaries);
+                    }
+                });
+            }
+        }
+        
+        /**
+         * Sort the links not tried yet by their past sessions
+         */
+        private void orderMirrors(List<PlaybackMetricsStore.SourceSummary> summaries) {
+            Map<String, PlaybackMetricsStore.SourceSummary> history = new HashMap<>();
+            for (PlaybackMetricsStore.SourceSummary summary : summaries) {
+                history.put(summary.getSourceKey(), summary);
             }
             
-            lastErrorTime = currentTime;
-            return retryCount < MAX_RETRY_ATTEMPTS;
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < mirrorUrls.size(); i++) {
+                order.add(i);
+            }
+            order.sort((a, b) -> compareMirrors(history.get(PlaybackMetricsCollector.sourceKeyOf(mirrorUrls.get(a))),
+                    history.get(PlaybackMetricsCollector.sourceKeyOf(mirrorUrls.get(b)))));
+            
+            List<String> urls = new ArrayList<>(mirrorUrls);
+            List<String> titles = new ArrayList<>(mirrorTitles);
+            mirrorUrls.clear();
+            mirrorTitles.clear();
+            for (int index : order) {
+                mirrorUrls.add(urls.get(index));
+                mirrorTitles.add(titles.get(index));
+            }
         }
         
-        public void attemptRecovery() {
-            retryCount++;
-            Log.w(TAG, "Attempting recovery, attempt: " + retryCount);
+        private int compareMirrors(@Nullable PlaybackMetricsStore.SourceSummary a,
+                                   @Nullable PlaybackMetricsStore.SourceSummary b) {
+            double errorsA = a != null ? a.getErrorRate() : 0;
+            double errorsB = b != null ? b.getErrorRate() : 0;
+            if (errorsA != errorsB) {
+                return Double.compare(errorsA, errorsB);
+            }
+            long startupA = a != null && a.getAverageStartupMs() >= 0 ? a.getAverageStartupMs() : Long.MAX_VALUE;
+            long startupB = b != null && b.getAverageStartupMs() >= 0 ? b.getAverageStartupMs() : Long.MAX_VALUE;
+            return Long.compare(startupA, startupB);
+        }
+        
+        public boolean hasMirror() {
+            return !mirrorUrls.isEmpty();
+        }
+        
+        public void handleError(@NonNull PlaybackException error) {
+            // An expired stream URL is fixed by extracting again, not by retrying it
+            if (PlaybackRecoveryPolicy.responseCodeOf(error) == 403 && urlLeaseManager.onForbidden()) {
+                return;
+            }
             
-            mainHandler.postDelayed(() -> {
-                if (player != null && !isFinishing()) {
-                    try {
+            PlaybackRecoveryPolicy.Decision decision = policy.onError(error, hasMirror(),
+                    qualityManager.getNextLowerQuality() != null, SystemClock.elapsedRealtime());
+            Log.w(TAG, "Recovery decision: " + decision);
+            
+            switch (decision.action) {
+                case SEEK_TO_LIVE_EDGE:
+                    if (player != null) {
+                        player.seekToDefaultPosition();
                         player.prepare();
-                        if (stateManager.shouldPlayWhenReady()) {
-                            player.play();
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Recovery attempt failed", e);
+                        stateMachine.onPrepare();
                     }
+                    break;
+                    
+                case RETRY:
+                    mainHandler.removeCallbacks(retryTask);
+                    mainHandler.postDelayed(retryTask, decision.delayMs);
+                    break;
+                    
+                case STEP_DOWN_QUALITY:
+                    stepDownForDecoder();
+                    break;
+                    
+                case FAILOVER:
+                    failoverToNextMirror();
+                    break;
+                    
+                case GIVE_UP:
+                default:
+                    showErrorAndFinish("Unable to recover from playback error");
+                    break;
+            }
+        }
+        
+        private void retryCurrentSource() {
+            if (player == null || isFinishing()) {
+                return;
+            }
+            
+            try {
+                if (player.getMediaItemCount() == 0) {
+                    // The source itself failed to build; start over
+                    prepareMedia();
+                    return;
+                }
+                
+                player.prepare();
+                stateMachine.onPrepare();
+                if (stateMachine.shouldPlayWhenReady()) {
+                    player.play();
                 }
-            }, ERROR_RETRY_DELAY_MS);
+            } catch (Exception e) {
+                Log.e(TAG, "Recovery attempt failed", e);
+            }
+        }
+        
+        private void failoverToNextMirror() {
+            String url = mirrorUrls.remove(0);
+            String title = mirrorTitles.remove(0);
+            Log.w(TAG, "Failing over to mirror: " + title);
+            Toast.makeText(PlayerActivity.this, "Switching to " + title, Toast.LENGTH_SHORT).show();
+            
+            policy.onSourceChanged();
+            mainHandler.removeCallbacks(retryTask);
+            
+            // Live mirrors have no shared timeline; start at their live edge
+            if (player != null && player.isCurrentMediaItemLive()) {
+                stateMachine.setLastPosition(0);
+            } else if (player != null) {
+                stateMachine.setLastPosition(player.getCurrentPosition());
+            }
+            
+            VideoQuality mirrorQuality = new VideoQuality(title, url);
+            videoManager.setVideoUrl(url);
+            videoManager.setCurrentQuality(title);
+            qualityManager.setCurrentQuality(mirrorQuality);
+            prepareMediaWithUrl(url, null);
+        }
+        
+        public void onPlaybackReady() {
+            long recoveryMs = policy.onPlaybackReady(SystemClock.elapsedRealtime());
+            if (recoveryMs >= 0) {
+                Log.i(TAG, "Recovered in " + recoveryMs + "ms (average " 
+                      + policy.getAverageRecoveryMs() + "ms over " + policy.getRecoveryCount() + ")");
+                if (metricsCollector != null) {
+                    metricsCollector.onRecovered(recoveryMs);
+                }
+            }
+        }
+        
+        public void reset() {
+            mainHandler.removeCallbacks(retryTask);
+            policy.onSourceChanged();
+        }
+    }
+    
+    /**
+     * Re-extracts expiring stream URLs shortly before they expire, or right after a 403,
+     * and swaps them in at the current position
+     */
+    private class UrlLeaseManager {
+        private final Runnable renewTask = () -> refresh("lease expiring");
+        @Nullable
+        private Disposable pendingRefresh;
+        private long lastRefreshRealtimeMs = -1;
+        
+        public void onSourcePrepared(String url, @Nullable String audioUrl) {
+            mainHandler.removeCallbacks(renewTask);
+            if (videoManager.getPageUrl() == null) return;
+            
+            long delayMs = StreamUrlLease.of(url, audioUrl).renewDelayMs(System.currentTimeMillis());
+            if (delayMs >= 0) {
+                mainHandler.postDelayed(renewTask, delayMs);
+                Log.d(TAG, "Stream URL renewal scheduled in " + delayMs / 1000 + "s");
+            }
+        }
+        
+        /**
+         * @return true if a re-extraction is under way and the error needs no other handling
+         */
+        public boolean onForbidden() {
+            if (videoManager.getPageUrl() == null) return false;
+            if (isRefreshing()) return true;
+            if (lastRefreshRealtimeMs >= 0
+                    && SystemClock.elapsedRealtime() - lastRefreshRealtimeMs < MIN_URL_REFRESH_INTERVAL_MS) {
+                return false;
+            }
+            
+            refresh("HTTP 403");
+            return true;
+        }
+        
+        private boolean isRefreshing() {
+            return pendingRefresh != null && !pendingRefresh.isDisposed();
+        }
+        
+        private void refresh(String reason) {
+            String pageUrl = videoManager.getPageUrl();
+            if (pageUrl == null || isRefreshing()) return;
+            
+            Log.d(TAG, "Re-extracting stream URLs (" + reason + ")");
+            lastRefreshRealtimeMs = SystemClock.elapsedRealtime();
+            pendingRefresh = ExtractorHelper.getStreamInfo(ServiceList.YouTube.getServiceId(), pageUrl, true)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::onRefreshed, throwable -> {
+                    Log.e(TAG, "Failed to re-extract stream URLs", throwable);
+                    pendingRefresh = null;
+                    if (player != null && player.getPlayerError() != null) {
+                        showErrorAndFinish("Unable to reload video: " + throwable.getMessage());
+                    }
+                });
+            compositeDisposable.add(pendingRefresh);
+        }
+        
+        private void onRefreshed(StreamInfo streamInfo) {
+            pendingRefresh = null;
+            if (player == null || isFinishing()) return;
+            
+            VideoQuality current = qualityManager.getCurrentQuality();
+            String hlsUrl = streamInfo.getHlsUrl();
+            VideoQuality replacement;
+            if (current != null && current.getUrl().equals(videoManager.getHlsUrl())
+                    && hlsUrl != null && !hlsUrl.isEmpty()) {
+                videoManager.setHlsUrl(hlsUrl);
+                replacement = new VideoQuality(current.getQuality(), hlsUrl, null, current.getHeight(),
+                        current.getFps(), current.getCodec(), current.getBitrate());
+            } else if (current != null && current.isAudioOnly()) {
+                replacement = audioOnlyManager.onRefreshed(streamInfo);
+            } else {
+                replacement = qualityManager.replaceQualities(StreamQualityMapper.fromStreamInfo(streamInfo), current);
+            }
+            
+            if (replacement == null) {
+                Log.w(TAG, "Re-extraction returned no playable streams");
+                return;
+            }
+            
+            errorManager.reset();
+            switchSourceAtCurrentPosition(replacement);
+            Log.d(TAG, "Stream URLs renewed, now playing " + replacement.getQuality());
         }
         
         public void reset() {
-            retryCount = 0;
-            lastErrorTime = 0;
+            mainHandler.removeCallbacks(renewTask);
+            if (pendingRefresh != null) {
+                pendingRefresh.dispose();
+                pendingRefresh = null;
+            }
+        }
+    }
+    
+    /**
+     * Plays only the best audio stream with the video renderer off, on request or
+     * automatically while the screen is in the background
+     */
+    private class AudioOnlyManager {
+        private boolean active;
+        private boolean automatic;
+        // Where to go back to when video is turned on again
+        private VideoQuality videoQuality;
+        
+        public boolean isActive() { return active; }
+        
+        /** Entered by itself in the background, and left again in the foreground */
+        public boolean isAutomatic() { return active && automatic; }
+        
+        public boolean isAvailable() {
+            return videoManager.getAudioOnlyQuality() != null
+                    && player != null && !player.isCurrentMediaItemLive();
+        }
+        
+        /**
+         * Start in audio-only mode, before the first source is prepared
+         */
+        public void applyInitial() {
+            VideoQuality audio = videoManager.getAudioOnlyQuality();
+            if (audio == null || player == null) return;
+            
+            videoQuality = qualityManager.getCurrentQuality();
+            setVideoDisabled(true);
+            qualityManager.setCurrentQuality(audio);
+            videoManager.setVideoUrl(audio.getUrl());
+            videoManager.setCurrentQuality(audio.getQuality());
+            active = true;
+            automatic = false;
+        }
+        
+        /**
+         * Pick up the mode of a player that an earlier screen left without video
+         */
+        public void adoptFromPlayer() {
+            VideoQuality audio = videoManager.getAudioOnlyQuality();
+            if (audio == null || player == null || !isVideoDisabled()) return;
+            
+            videoQuality = qualityManager.getCurrentQuality();
+            qualityManager.setCurrentQuality(audio);
+            active = true;
+            automatic = true;
+        }
+        
+        public void enter(boolean automatic) {
+            if (active || !isAvailable()) return;
+            
+            Log.d(TAG, "Entering audio-only mode" + (automatic ? " (background)" : ""));
+            videoQuality = qualityManager.getCurrentQuality();
+            this.automatic = automatic;
+            active = true;
+            setVideoDisabled(true);
+            switchSourceAtCurrentPosition(videoManager.getAudioOnlyQuality());
+        }
+        
+        public void exit() {
+            if (!active) return;
+            
+            Log.d(TAG, "Leaving audio-only mode");
+            VideoQuality target = videoQuality;
+            clear();
+            if (target != null) {
+                switchSourceAtCurrentPosition(target);
+            }
+        }
+        
+        /**
+         * Turn video back on without changing the source; the caller picks the next one
+         */
+        public void clear() {
+            if (active) {
+                setVideoDisabled(false);
+            }
+            active = false;
+            automatic = false;
+            videoQuality = null;
+        }
+        
+        /**
+         * @return the renewed audio stream; the video quality to return to is renewed as well
+         */
+        @Nullable
+        public VideoQuality onRefreshed(StreamInfo streamInfo) {
+            VideoQuality audio = StreamQualityMapper.audioOnlyFrom(streamInfo);
+            videoManager.setAudioOnlyQuality(audio);
+            VideoQuality video = qualityManager.replaceQualities(
+                    StreamQualityMapper.fromStreamInfo(streamInfo), videoQuality);
+            if (video != null) {
+                videoQuality = video;
+            }
+            return audio;
+        }
+        
+        private boolean isVideoDisabled() {
+            return player.getTrackSelectionParameters().disabledTrackTypes.contains(C.TRACK_TYPE_VIDEO);
+        }
+        
+        private void setVideoDisabled(boolean disabled) {
+            if (player == null) return;
+            player.setTrackSelectionParameters(player.getTrackSelectionParameters()
+                    .buildUpon()
+                    .setTrackTypeDisabled(C.TRACK_TYPE_VIDEO, disabled)
+                    .build());
         }
     }
     
@@ -255,15 +693,15 @@ public class PlayerActivity extends AppCompatActivity {
      * Manages video quality selection and switching
      */
     private class QualityManager {
-        private List<VideoQuality> availableQualities = new ArrayList<>();
+        private QualityLadder ladder = QualityLadder.of(null);
         private VideoQuality currentVideoQuality;
         
         public void setAvailableQualities(List<VideoQuality> qualities) {
-            this.availableQualities = new ArrayList<>(qualities);
+            this.ladder = QualityLadder.of(qualities);
         }
         
         public List<VideoQuality> getAvailableQualities() {
-            return new ArrayList<>(availableQualities);
+            return ladder.asList();
         }
         
         public VideoQuality getCurrentQuality() {
@@ -274,8 +712,44 @@ public class PlayerActivity extends AppCompatActivity {
             this.currentVideoQuality = quality;
         }
         
+        /**
+         * Swap in a freshly extracted list, keeping the previous quality where possible
+         *
+         * @return the entry matching {@code previous}, or null if the list is empty
+         */
+        @Nullable
+        public VideoQuality replaceQualities(List<VideoQuality> qualities, @Nullable VideoQuality previous) {
+            this.ladder = QualityLadder.of(qualities);
+            if (ladder.isEmpty()) {
+                return null;
+            }
+            
+            int index = previous != null ? ladder.indexOfLabel(previous.getQuality()) : -1;
+            if (index < 0 && previous != null) {
+                index = ladder.indexClosestTo(previous.getHeight());
+            }
+            return ladder.get(Math.max(index, 0));
+        }
+        
         public boolean hasMultipleQualities() {
-            return availableQualities.size() > 1;
+            return ladder.size() > 1;
+        }
+        
+        /**
+         * Best quality with a lower resolution than the current one, or null
+         */
+        @Nullable
+        public VideoQuality getNextLowerQuality() {
+            if (currentVideoQuality == null) {
+                return null;
+            }
+            int currentHeight = currentVideoQuality.getHeight();
+            for (int i = 0; i < ladder.size(); i++) {
+                if (ladder.getHeight(i) < currentHeight) {
+                    return ladder.get(i);
+                }
+            }
+            return null;
         }
         
         public void initializeCurrentQuality(String initialQualityHint, String hlsUrl) {
@@ -286,27 +760,20 @@ public class PlayerActivity extends AppCompatActivity {
                 return;
             }
             
-            if (availableQualities.isEmpty()) {
-                this.currentVideoQuality = null;
+            if (ladder.isEmpty()) {
+                String directUrl = videoManager.getVideoUrl();
+                this.currentVideoQuality = directUrl != null && !directUrl.trim().isEmpty()
+                        ? new VideoQuality("Default", directUrl)
+                        : null;
                 return;
             }
             
-            // Try to find a quality matching the initial hint
-            if (initialQualityHint != null && !initialQualityHint.trim().isEmpty()) {
-                for (VideoQuality quality : availableQualities) {
-                    if (quality.getQuality().equals(initialQualityHint)) {
-                        this.currentVideoQuality = quality;
-                        videoManager.setVideoUrl(quality.getUrl());
-                        videoManager.setCurrentQuality(quality.getQuality());
-                        return;
-                    }
-                }
-            }
-            
-            // If no hint or hint not found, select the first available quality (assumed highest)
-            this.currentVideoQuality = availableQualities.get(0);
-            videoManager.setVideoUrl(availableQualities.get(0).getUrl());
-            videoManager.setCurrentQuality(availableQualities.get(0).getQuality());
+            // Honour the quality picked by the caller, otherwise apply the user's preference
+            VideoQuality selected = QualitySelectionEngine.getInstance(PlayerActivity.this)
+                    .selectInitial(ladder, initialQualityHint);
+            this.currentVideoQuality = selected;
+            videoManager.setVideoUrl(selected.getUrl());
+            videoManager.setCurrentQuality(selected.getQuality());
         }
     }
     
@@ -330,7 +797,12 @@ public class PlayerActivity extends AppCompatActivity {
         }
         
         restoreState(savedInstanceState);
-        setupVideoPlayer();
+        
+        if (videoManager.needsExtraction()) {
+            extractThenSetupPlayer();
+        } else {
+            setupVideoPlayer();
+        }
     }
     
     @Override
@@ -341,6 +813,11 @@ public class PlayerActivity extends AppCompatActivity {
         if (player != null && binding != null) {
             binding.playerView.onResume();
         }
+        
+        // Back in view; bring the picture back if it was dropped for the background
+        if (audioOnlyManager.isAutomatic()) {
+            audioOnlyManager.exit();
+        }
     }
     
     @Override
@@ -349,11 +826,6 @@ public class PlayerActivity extends AppCompatActivity {
         Log.d(TAG, "onResume: Activity resuming");
         
         enforceFullscreenMode();
-        
-        if (player != null && stateManager.shouldPlayWhenReady()) {
-            player.play();
-        }
-        
         startProgressUpdates();
     }
     
@@ -362,8 +834,38 @@ public class PlayerActivity extends AppCompatActivity {
         super.onPause();
         Log.d(TAG, "onPause: Activity pausing");
         
-        pauseAndSaveState();
+        // Playback continues in picture-in-picture or through PlaybackService
+        if (player != null) {
+            stateMachine.setPlayWhenReady(player.getPlayWhenReady());
+        }
         stopProgressUpdates();
+        
+        rememberResumePosition();
+        if (resumePositionStore != null) {
+            resumePositionStore.flush();
+        }
+    }
+    
+    @Override
+    protected void onUserLeaveHint() {
+        super.onUserLeaveHint();
+        enterPictureInPicture();
+    }
+    
+    @Override
+    public void onPictureInPictureModeChanged(boolean isInPictureInPictureMode,
+                                              @NonNull Configuration newConfig) {
+        super.onPictureInPictureModeChanged(isInPictureInPictureMode, newConfig);
+        Log.d(TAG, "Picture-in-picture mode: " + isInPictureInPictureMode);
+        
+        if (isInPictureInPictureMode) {
+            hideControls();
+        } else if (!getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            // The PiP window was closed rather than expanded
+            if (player != null) {
+                player.pause();
+            }
+        }
     }
     
     @Override
@@ -376,6 +878,12 @@ public class PlayerActivity extends AppCompatActivity {
         if (binding != null) {
             binding.playerView.onPause();
         }
+        
+        // Nothing shows the picture in the background; stop fetching it
+        if (player != null && player.getPlayWhenReady() && !isInPictureInPictureMode()
+                && !isFinishing() && !isChangingConfigurations()) {
+            audioOnlyManager.enter(true);
+        }
     }
     
     @Override
@@ -393,7 +901,7 @@ public class PlayerActivity extends AppCompatActivity {
         if (player != null) {
             outState.putLong(SAVED_PLAYBACK_POSITION, player.getCurrentPosition());
             outState.putBoolean(SAVED_PLAY_WHEN_READY, player.getPlayWhenReady());
-            outState.putBoolean(SAVED_PLAYER_LOCKED, stateManager.isLocked());
+            outState.putBoolean(SAVED_PLAYER_LOCKED, stateMachine.isLocked());
             
             Log.d(TAG, "State saved - position: " + player.getCurrentPosition());
         }
@@ -405,9 +913,9 @@ public class PlayerActivity extends AppCompatActivity {
             boolean playWhenReady = savedInstanceState.getBoolean(SAVED_PLAY_WHEN_READY, true);
             boolean wasLocked = savedInstanceState.getBoolean(SAVED_PLAYER_LOCKED, false);
             
-            stateManager.setLastPosition(savedPosition);
-            stateManager.setPlayWhenReady(playWhenReady);
-            stateManager.setLocked(wasLocked);
+            stateMachine.setLastPosition(savedPosition);
+            stateMachine.setPlayWhenReady(playWhenReady);
+            stateMachine.setLocked(wasLocked);
             
             Log.d(TAG, "State restored - position: " + savedPosition);
         }
@@ -423,7 +931,7 @@ public class PlayerActivity extends AppCompatActivity {
             setContentView(binding.getRoot());
             
             enforceFullscreenMode();
-            initializeProgressTask();
+            initializeProgressRenderer();
             
             Log.d(TAG, "Activity initialization successful");
             return true;
@@ -452,6 +960,34 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    /**
+     * The stream list didn't survive process death; extract the page again, then play
+     */
+    private void extractThenSetupPlayer() {
+        Log.d(TAG, "Session " + videoManager.getSessionId() + " unknown, re-extracting " + videoManager.getPageUrl());
+        Toast.makeText(this, "Reloading video...", Toast.LENGTH_SHORT).show();
+        
+        compositeDisposable.add(ExtractorHelper.getStreamInfo(ServiceList.YouTube.getServiceId(),
+                videoManager.getPageUrl(), false)
+            .subscribeOn(Schedulers.io())
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(streamInfo -> {
+                if (!isActivityValid()) return;
+                
+                videoManager.applyStreamInfo(streamInfo);
+                if (!videoManager.hasPlayableSource()) {
+                    showErrorAndFinish("No playable streams found for this video");
+                    return;
+                }
+                setupVideoPlayer();
+            }, throwable -> {
+                Log.e(TAG, "Failed to re-extract video", throwable);
+                if (isActivityValid()) {
+                    showErrorAndFinish("Failed to reload video: " + throwable.getMessage());
+                }
+            }));
+    }
+    
     private void enforceFullscreenMode() {
         try {
             WindowCompat.setDecorFitsSystemWindows(getWindow(), false);
@@ -470,19 +1006,10 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
-    private void initializeProgressTask() {
-        progressUpdateTask = new Runnable() {
-            @Override
-            public void run() {
-                if (player != null && !stateManager.isSeeking() && !isFinishing()) {
-                    updateProgressDisplay();
-                    
-                    if (player.isPlaying()) {
-                        progressHandler.postDelayed(this, PROGRESS_UPDATE_INTERVAL_MS);
-                    }
-                }
-            }
-        };
+    private void initializeProgressRenderer() {
+        progressRenderer = new ProgressRenderer(binding.currentTimeText, binding.totalTimeText,
+                binding.seekBar, SEEK_BAR_MAX_PRECISION);
+        progressRenderer.setPositionListener(stateMachine::setLastPosition);
     }
     
     // ========================================================================================
@@ -498,12 +1025,28 @@ public class PlayerActivity extends AppCompatActivity {
             setupVideoTitle();
             
             // Initialize quality manager with data from intent
-            qualityManager.setAvailableQualities(videoManager.getVideoQualities());
+            if (videoManager.getVideoQualities() != null) {
+                qualityManager.setAvailableQualities(videoManager.getVideoQualities());
+            }
             qualityManager.initializeCurrentQuality(videoManager.getCurrentQuality(), videoManager.getHlsUrl());
+            errorManager.setMirrors(videoManager.getMirrorUrls(), videoManager.getMirrorTitles());
+            
+            if (reusedPlayer) {
+                // Still playing from an earlier screen; continue where it is
+                stateMachine.setPlayWhenReady(player.getPlayWhenReady());
+                stateMachine.onPlaybackStateChanged(player.getPlaybackState(), player.isPlaying());
+                updatePlayPauseButton(player.isPlaying());
+                audioOnlyManager.adoptFromPlayer();
+                leaseReusedSource();
+                Log.d(TAG, "Reusing running player for " + videoManager.getVideoName());
+            } else {
+                if (videoManager.shouldStartAudioOnly()) {
+                    audioOnlyManager.applyInitial();
+                }
+                resumeAndPrepare();
+            }
             
-            prepareMedia();
-            
-            stateManager.setInitialized(true);
+            stateMachine.setInitialized(true);
             showControls();
             
             Log.d(TAG, "Video player setup complete");
@@ -514,18 +1057,47 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    @OptIn(markerClass = UnstableApi.class)
     private void createPlayer() {
         try {
-            player = new ExoPlayer.Builder(this)
-                .setSeekBackIncrementMs(SEEK_INCREMENT_MS)
-                .setSeekForwardIncrementMs(SEEK_INCREMENT_MS)
-                .build();
+            mediaSourceBuilder = new MediaSourceBuilder(this);
+            resumePositionStore = ResumePositionStore.getInstance(this);
+            liveLatencyPreferences = new LiveLatencyPreferences(this);
+            
+            ExoPlayer shared = PlayerHolder.reuse(videoManager.getContentKey());
+            reusedPlayer = shared != null;
+            if (shared != null) {
+                player = shared;
+            } else {
+                // Application context: the player may outlive this activity
+                player = new ExoPlayer.Builder(getApplicationContext())
+                    .setBandwidthMeter(BandwidthEstimator.getInstance(this).createBandwidthMeter())
+                    .setSeekBackIncrementMs(SEEK_INCREMENT_MS)
+                    .setSeekForwardIncrementMs(SEEK_INCREMENT_MS)
+                    .build();
+                PlayerHolder.set(player, videoManager.getContentKey(), createSessionIntent());
+            }
             
             binding.playerView.setPlayer(player);
+            progressRenderer.setPlayer(player);
             binding.playerView.setResizeMode(AspectRatioFrameLayout.RESIZE_MODE_FIT);
             binding.playerView.setUseController(false);
             
-            player.addListener(new PlayerEventListener());
+            playerEventListener = new PlayerEventListener();
+            player.addListener(playerEventListener);
+            
+            metricsCollector = new PlaybackMetricsCollector(PlaybackMetricsStore.getInstance(this));
+            player.addAnalyticsListener(metricsCollector);
+            
+            // Drop totals reach the session through the collector; stutter is counted there too
+            droppedFrameMonitor = new DroppedFrameMonitor((format, dropRatio) -> {
+                metricsCollector.onSustainedFrameDrops();
+                mainHandler.post(this::stepDownForDecoder);
+            });
+            player.addAnalyticsListener(droppedFrameMonitor);
+            
+            PlayerHolder.setOnReplacedListener(playerReplacedTask);
+            PlaybackService.start(this);
             
             Log.d(TAG, "ExoPlayer created and configured");
             
@@ -535,34 +1107,48 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    /**
+     * Brings this screen back from the media notification without stacking a second player
+     */
+    private Intent createSessionIntent() {
+        Intent intent = new Intent(getIntent());
+        intent.setClass(this, PlayerActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_REORDER_TO_FRONT | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        return intent;
+    }
+    
     // Removed loadQualityInformation() as it's no longer needed.
     
     // Removed extractOriginalYouTubeUrl() as it's no longer needed.
     
     private void prepareMedia() {
-        String mediaUrl = videoManager.getVideoUrl();
-        prepareMediaWithUrl(mediaUrl);
+        VideoQuality quality = qualityManager.getCurrentQuality();
+        String audioUrl = quality != null ? quality.getAudioUrl() : null;
+        prepareMediaWithUrl(videoManager.getVideoUrl(), audioUrl);
     }
     
-    private void prepareMediaWithUrl(String mediaUrl) {
+    private void prepareMediaWithUrl(String mediaUrl, @Nullable String audioUrl) {
         try {
             if (player == null || mediaUrl == null || mediaUrl.trim().isEmpty()) {
                 throw new IllegalStateException("Invalid player or URL state");
             }
             
-            Log.d(TAG, "Preparing media with URL: " + mediaUrl);
+            Log.d(TAG, "Preparing media with URL: " + mediaUrl +
+                (audioUrl != null ? " (merged with separate audio)" : ""));
             
-            MediaItem mediaItem = MediaItem.fromUri(Uri.parse(mediaUrl.trim()));
-            player.setMediaItem(mediaItem);
+            player.setMediaSource(mediaSourceBuilder.build(mediaUrl, audioUrl, currentLiveConfiguration()));
+            metricsCollector.startSession(mediaUrl, videoManager.getVideoName(), SystemClock.elapsedRealtime());
             
-            long lastPosition = stateManager.getLastPosition();
+            long lastPosition = stateMachine.getLastPosition();
             if (lastPosition > 0) {
                 player.seekTo(lastPosition);
             }
             
             player.prepare();
+            stateMachine.onPrepare();
+            urlLeaseManager.onSourcePrepared(mediaUrl, audioUrl);
             
-            if (stateManager.shouldPlayWhenReady()) {
+            if (stateMachine.shouldPlayWhenReady()) {
                 player.play();
             }
             
@@ -572,6 +1158,24 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    /**
+     * Schedule URL renewal for a player taken over from an earlier screen, which may have
+     * switched quality since the intent was built; the playing item is what expires
+     */
+    private void leaseReusedSource() {
+        MediaItem item = player.getCurrentMediaItem();
+        String playingUrl = item != null && item.localConfiguration != null
+                ? item.localConfiguration.uri.toString()
+                : videoManager.getVideoUrl();
+        if (playingUrl == null) return;
+        
+        VideoQuality quality = qualityManager.getCurrentQuality();
+        String audioUrl = quality != null && playingUrl.equals(quality.getUrl().trim())
+                ? quality.getAudioUrl()
+                : null;
+        urlLeaseManager.onSourcePrepared(playingUrl, audioUrl);
+    }
+    
     private void handleMediaError(Exception error) {
         String errorMessage = "Failed to load video: " + error.getMessage();
         Toast.makeText(this, errorMessage, Toast.LENGTH_LONG).show();
@@ -579,11 +1183,7 @@ public class PlayerActivity extends AppCompatActivity {
         PlaybackException playbackError = new PlaybackException(
             errorMessage, error, PlaybackException.ERROR_CODE_IO_UNSPECIFIED);
             
-        if (errorManager.shouldRetry(playbackError)) {
-            errorManager.attemptRecovery();
-        } else {
-            showErrorAndFinish("Unable to play video after multiple attempts");
-        }
+        errorManager.handleError(playbackError);
     }
     
     // ========================================================================================
@@ -596,19 +1196,22 @@ public class PlayerActivity extends AppCompatActivity {
         public void onPlaybackStateChanged(int playbackState) {
             Log.d(TAG, "Playback state changed: " + playbackState);
             
-            stateManager.setLastPlaybackState(playbackState);
+            stateMachine.onPlaybackStateChanged(playbackState, player != null && player.isPlaying());
             handlePlaybackStateChange(playbackState);
         }
         
         @Override
         public void onIsPlayingChanged(boolean isPlaying) {
             Log.d(TAG, "Playing state changed: " + isPlaying);
+            stateMachine.onIsPlayingChanged(isPlaying);
             handlePlayingStateChange(isPlaying);
         }
         
         @Override
         public void onPlayerError(@NonNull PlaybackException error) {
             Log.e(TAG, "Player error occurred", error);
+            stateMachine.onError(error.getErrorCodeName());
+            Log.d(TAG, "Recent player transitions:\n" + stateMachine.dumpTransitionLog());
             handlePlayerError(error);
         }
         
@@ -621,7 +1224,9 @@ public class PlayerActivity extends AppCompatActivity {
         public void onPositionDiscontinuity(@NonNull Player.PositionInfo oldPosition,
                                           @NonNull Player.PositionInfo newPosition,
                                           int reason) {
-            stateManager.setLastPosition(newPosition.positionMs);
+            stateMachine.setLastPosition(newPosition.positionMs);
+            // Redraw even when paused, where the renderer is otherwise idle
+            startProgressUpdates();
         }
     }
     
@@ -629,7 +1234,7 @@ public class PlayerActivity extends AppCompatActivity {
         switch (playbackState) {
             case Player.STATE_READY:
                 Log.d(TAG, "Player ready");
-                errorManager.reset();
+                errorManager.onPlaybackReady();
                 startProgressUpdates();
                 break;
                 
@@ -651,10 +1256,13 @@ public class PlayerActivity extends AppCompatActivity {
     private void handlePlayingStateChange(boolean isPlaying) {
         updatePlayPauseButton(isPlaying);
         
+        mainHandler.removeCallbacks(resumeSaveTask);
         if (isPlaying) {
             startProgressUpdates();
+            mainHandler.postDelayed(resumeSaveTask, RESUME_SAVE_INTERVAL_MS);
         } else {
             stopProgressUpdates();
+            rememberResumePosition();
         }
     }
     
@@ -662,16 +1270,16 @@ public class PlayerActivity extends AppCompatActivity {
         String errorMessage = "Playback error: " + error.getMessage();
         Log.e(TAG, errorMessage, error);
         
-        Toast.makeText(this, "Video playback error occurred", Toast.LENGTH_SHORT).show();
-        
-        if (errorManager.shouldRetry(error)) {
-            errorManager.attemptRecovery();
-        } else {
-            showErrorAndFinish("Unable to recover from playback error");
-        }
+        errorManager.handleError(error);
     }
     
     private void handlePlaybackComplete() {
+        // Watched to the end; the next open starts over
+        String resumeKey = videoManager.getResumeKey();
+        if (resumeKey != null && resumePositionStore != null) {
+            resumePositionStore.update(resumeKey, 0, 0);
+        }
+        
         if (player != null) {
             player.seekTo(0);
             player.pause();
@@ -740,7 +1348,7 @@ public class PlayerActivity extends AppCompatActivity {
     
     private void setupMainClickHandler() {
         binding.getRoot().setOnClickListener(view -> {
-            if (stateManager.isLocked()) {
+            if (stateMachine.isLocked()) {
                 showLockButtonTemporarily();
             } else {
                 toggleControlsVisibility();
@@ -817,7 +1425,7 @@ public class PlayerActivity extends AppCompatActivity {
         public void onStartTrackingTouch(SeekBar seekBar) {
             Log.d(TAG, "User started seeking");
             
-            stateManager.setSeeking(true);
+            stateMachine.setSeeking(true);
             stopProgressUpdates();
             cancelControlsHiding();
         }
@@ -830,7 +1438,7 @@ public class PlayerActivity extends AppCompatActivity {
                 seekToProgress(seekBar.getProgress());
             }
             
-            stateManager.setSeeking(false);
+            stateMachine.setSeeking(false);
             startProgressUpdates();
             scheduleControlsHiding();
         }
@@ -884,7 +1492,7 @@ public class PlayerActivity extends AppCompatActivity {
             }
             
             player.seekTo(newPosition);
-            stateManager.setLastPosition(newPosition);
+            stateMachine.setLastPosition(newPosition);
             
             Log.d(TAG, "Seeked to position: " + newPosition);
             
@@ -904,7 +1512,7 @@ public class PlayerActivity extends AppCompatActivity {
             if (duration != C.TIME_UNSET && duration > 0) {
                 long newPosition = (duration * progress) / SEEK_BAR_MAX_PRECISION;
                 player.seekTo(newPosition);
-                stateManager.setLastPosition(newPosition);
+                stateMachine.setLastPosition(newPosition);
                 
                 Log.d(TAG, "Seeked to progress position: " + newPosition);
             }
@@ -917,42 +1525,20 @@ public class PlayerActivity extends AppCompatActivity {
     // Progress Tracking
     // ========================================================================================
     
+    /**
+     * Nobody sees the seek bar while the controls are hidden, so progress is only rendered
+     * while they are shown.
+     */
     private void startProgressUpdates() {
-        stopProgressUpdates();
+        if (progressRenderer == null || player == null || isFinishing()) return;
+        if (!stateMachine.areControlsVisible() || stateMachine.isSeeking()) return;
         
-        if (progressUpdateTask != null) {
-            progressHandler.post(progressUpdateTask);
-        }
+        progressRenderer.start();
     }
     
     private void stopProgressUpdates() {
-        if (progressUpdateTask != null) {
-            progressHandler.removeCallbacks(progressUpdateTask);
-        }
-    }
-    
-    private void updateProgressDisplay() {
-        if (player == null || binding == null) return;
-        
-        try {
-            long currentPosition = player.getCurrentPosition();
-            long duration = player.getDuration();
-            
-            binding.currentTimeText.setText(formatTime(currentPosition));
-            
-            if (duration != C.TIME_UNSET && duration > 0) {
-                binding.totalTimeText.setText(formatTime(duration));
-                int progress = (int) ((currentPosition * SEEK_BAR_MAX_PRECISION) / duration);
-                binding.seekBar.setProgress(progress);
-            } else {
-                binding.totalTimeText.setText("--:--");
-                binding.seekBar.setProgress(0);
-            }
-            
-            stateManager.setLastPosition(currentPosition);
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error updating progress display", e);
+        if (progressRenderer != null) {
+            progressRenderer.stop();
         }
     }
     
@@ -963,35 +1549,19 @@ public class PlayerActivity extends AppCompatActivity {
             long duration = player.getDuration();
             if (duration != C.TIME_UNSET && duration > 0) {
                 long newPosition = (duration * progress) / SEEK_BAR_MAX_PRECISION;
-                binding.currentTimeText.setText(formatTime(newPosition));
+                progressRenderer.renderPosition(newPosition);
             }
         } catch (Exception e) {
             Log.e(TAG, "Error updating time display for progress", e);
         }
     }
     
-    @SuppressLint("DefaultLocale")
-    private String formatTime(long milliseconds) {
-        if (milliseconds < 0) return "00:00";
-        
-        long totalSeconds = milliseconds / 1000;
-        long hours = totalSeconds / 3600;
-        long minutes = (totalSeconds % 3600) / 60;
-        long seconds = totalSeconds % 60;
-        
-        if (hours > 0) {
-            return String.format("%02d:%02d:%02d", hours, minutes, seconds);
-        } else {
-            return String.format("%02d:%02d", minutes, seconds);
-        }
-    }
-    
     // ========================================================================================
     // Controls Visibility Management
     // ========================================================================================
     
     private void toggleControlsVisibility() {
-        if (stateManager.areControlsVisible()) {
+        if (stateMachine.areControlsVisible()) {
             hideControls();
         } else {
             showControls();
@@ -1003,15 +1573,16 @@ public class PlayerActivity extends AppCompatActivity {
         
         try {
             binding.controlsContainer.setVisibility(View.VISIBLE);
-            stateManager.setControlsVisible(true);
+            stateMachine.setControlsVisible(true);
             
-            if (stateManager.isLocked()) {
+            if (stateMachine.isLocked()) {
                 showOnlyLockButton();
             } else {
                 showAllControls();
             }
             
             scheduleControlsHiding();
+            startProgressUpdates();
             Log.d(TAG, "Player controls shown");
             
         } catch (Exception e) {
@@ -1024,8 +1595,9 @@ public class PlayerActivity extends AppCompatActivity {
         
         try {
             binding.controlsContainer.setVisibility(View.GONE);
-            stateManager.setControlsVisible(false);
+            stateMachine.setControlsVisible(false);
             cancelControlsHiding();
+            stopProgressUpdates();
             
             Log.d(TAG, "Player controls hidden");
             
@@ -1076,13 +1648,13 @@ public class PlayerActivity extends AppCompatActivity {
     }
     
     private void hideLockButtonDelayed() {
-        if (stateManager.isLocked() && binding != null) {
+        if (stateMachine.isLocked() && binding != null) {
             binding.controlsContainer.setVisibility(View.GONE);
         }
     }
     
     private void scheduleControlsHiding() {
-        if (stateManager.isLocked()) return;
+        if (stateMachine.isLocked()) return;
         
         cancelControlsHiding();
         mainHandler.postDelayed(hideControlsTask, CONTROL_AUTO_HIDE_DELAY_MS);
@@ -1097,8 +1669,8 @@ public class PlayerActivity extends AppCompatActivity {
     // ========================================================================================
     
     private void togglePlayerLock() {
-        boolean newLockState = !stateManager.isLocked();
-        stateManager.setLocked(newLockState);
+        boolean newLockState = !stateMachine.isLocked();
+        stateMachine.setLocked(newLockState);
         
         if (newLockState) {
             lockPlayer();
@@ -1203,15 +1775,20 @@ public class PlayerActivity extends AppCompatActivity {
 
             Log.d(TAG, "Changing quality to: " + newQuality.getQuality());
 
+            // Picking a video quality turns the picture back on
+            audioOnlyManager.clear();
+
             // Update video manager
             videoManager.setVideoUrl(newVideoUrl);
             videoManager.setCurrentQuality(newQuality.getQuality());
             qualityManager.setCurrentQuality(newQuality);
 
-            // Prepare new media
-            MediaItem mediaItem = MediaItem.fromUri(Uri.parse(newVideoUrl.trim()));
-            player.setMediaItem(mediaItem);
+            // Prepare new media, merging separate audio for video-only qualities
+            player.setMediaSource(mediaSourceBuilder.build(newVideoUrl, newQuality.getAudioUrl(),
+                    currentLiveConfiguration()));
             player.prepare();
+            stateMachine.onPrepare();
+            urlLeaseManager.onSourcePrepared(newVideoUrl, newQuality.getAudioUrl());
 
             // Restore playback position
             player.seekTo(currentPosition);
@@ -1233,6 +1810,26 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    /**
+     * The decoder is dropping too many frames at the current quality; the limit is already
+     * recorded for future rankings, so step down one resolution for this session too.
+     */
+    private void stepDownForDecoder() {
+        if (!isActivityValid()) {
+            return;
+        }
+        
+        VideoQuality lower = qualityManager.getNextLowerQuality();
+        if (lower == null) {
+            Log.w(TAG, "Frames dropping but no lower quality available");
+            return;
+        }
+        
+        Log.w(TAG, "Sustained frame drops at " + videoManager.getCurrentQuality() 
+              + ", switching to " + lower.getQuality());
+        changeVideoQuality(lower);
+    }
+    
     // ========================================================================================
     // Additional Control Handlers
     // ========================================================================================
@@ -1245,8 +1842,12 @@ public class PlayerActivity extends AppCompatActivity {
     private void handlePlayerSettings() {
         Log.d(TAG, "Player settings requested");
         
-        // Directly show the quality selection dialog
-        if (qualityManager.hasMultipleQualities()) {
+        // Live streams get the latency options; everything else goes straight to quality
+        if (player != null && player.isCurrentMediaItemLive()) {
+            showLiveSettingsDialog();
+        } else if (audioOnlyManager.isAvailable()) {
+            showVideoSettingsDialog();
+        } else if (qualityManager.hasMultipleQualities()) {
             showQualitySelectionDialog();
         } else {
             Toast.makeText(this, "No quality options available for this video", 
@@ -1254,29 +1855,163 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    private void showVideoSettingsDialog() {
+        List<String> options = new ArrayList<>();
+        options.add("Audio only: " + (audioOnlyManager.isActive() ? "On" : "Off"));
+        if (qualityManager.hasMultipleQualities()) {
+            options.add("Video quality");
+        }
+        
+        new AlertDialog.Builder(this)
+            .setTitle("Settings")
+            .setItems(options.toArray(new String[0]), (dialog, which) -> {
+                if (which == 0) {
+                    toggleAudioOnly();
+                } else {
+                    showQualitySelectionDialog();
+                }
+            })
+            .show();
+    }
+    
+    private void toggleAudioOnly() {
+        if (audioOnlyManager.isActive()) {
+            audioOnlyManager.exit();
+            Toast.makeText(this, "Video on", Toast.LENGTH_SHORT).show();
+        } else {
+            audioOnlyManager.enter(false);
+            Toast.makeText(this, "Audio only", Toast.LENGTH_SHORT).show();
+        }
+    }
+    
+    /**
+     * Continue from the same spot on another source; live streams rejoin at the live edge
+     */
+    private void switchSourceAtCurrentPosition(VideoQuality quality) {
+        if (player == null) return;
+        
+        stateMachine.setLastPosition(player.isCurrentMediaItemLive() ? 0 : player.getCurrentPosition());
+        stateMachine.setPlayWhenReady(player.getPlayWhenReady());
+        
+        qualityManager.setCurrentQuality(quality);
+        videoManager.setVideoUrl(quality.getUrl());
+        videoManager.setCurrentQuality(quality.getQuality());
+        
+        prepareMediaWithUrl(quality.getUrl(), quality.getAudioUrl());
+    }
+    
+    // ========================================================================================
+    // Live Latency
+    // ========================================================================================
+    
+    private String liveChannelKey() {
+        return videoManager.getSourceKey();
+    }
+    
+    private boolean isLowLatencyEnabled() {
+        return liveLatencyPreferences != null && liveLatencyPreferences.isLowLatencyEnabled(liveChannelKey());
+    }
+    
+    @Nullable
+    private MediaItem.LiveConfiguration currentLiveConfiguration() {
+        return LiveLatencyPreferences.liveConfigurationFor(isLowLatencyEnabled());
+    }
+    
+    /**
+     * How far playback is behind the live edge, or {@link C#TIME_UNSET} when not live
+     */
+    private long getLatencyToLiveMs() {
+        return player != null && player.isCurrentMediaItemLive()
+                ? player.getCurrentLiveOffset()
+                : C.TIME_UNSET;
+    }
+    
+    private void showLiveSettingsDialog() {
+        long latencyMs = getLatencyToLiveMs();
+        String title = latencyMs != C.TIME_UNSET
+                ? String.format(Locale.US, "Behind live: %.1fs", latencyMs / 1000f)
+                : "Live settings";
+        
+        List<String> options = new ArrayList<>();
+        options.add("Low-latency mode: " + (isLowLatencyEnabled() ? "On" : "Off"));
+        if (qualityManager.hasMultipleQualities()) {
+            options.add("Video quality");
+        }
+        
+        new AlertDialog.Builder(this)
+            .setTitle(title)
+            .setItems(options.toArray(new String[0]), (dialog, which) -> {
+                if (which == 0) {
+                    toggleLowLatency();
+                } else {
+                    showQualitySelectionDialog();
+                }
+            })
+            .show();
+    }
+    
+    private void toggleLowLatency() {
+        if (player == null) {
+            return;
+        }
+        
+        boolean enabled = !isLowLatencyEnabled();
+        liveLatencyPreferences.setLowLatencyEnabled(liveChannelKey(), enabled);
+        
+        // The live configuration is part of the media item; rebuild it and rejoin at the new target
+        VideoQuality quality = qualityManager.getCurrentQuality();
+        player.setMediaSource(mediaSourceBuilder.build(videoManager.getVideoUrl(),
+                quality != null ? quality.getAudioUrl() : null, currentLiveConfiguration()));
+        player.prepare();
+        stateMachine.onPrepare();
+        
+        Toast.makeText(this, "Low-latency mode " + (enabled ? "on" : "off"), Toast.LENGTH_SHORT).show();
+        Log.d(TAG, "Low-latency mode " + enabled + " for " + liveChannelKey());
+    }
+    
     // ========================================================================================
     // State Persistence
     // ========================================================================================
     
-    private void pauseAndSaveState() {
-        if (player != null) {
-            try {
-                stateManager.setPlayWhenReady(player.isPlaying());
-                player.pause();
-                
-                Log.d(TAG, "Player paused and state saved");
-                
-            } catch (Exception e) {
-                Log.e(TAG, "Error pausing player and saving state", e);
+    /**
+     * Start from where the video was left last time, unless a position was restored already,
+     * then prepare. The first lookup reads the store's file in the background.
+     */
+    private void resumeAndPrepare() {
+        String resumeKey = videoManager.getResumeKey();
+        if (resumeKey == null || stateMachine.getLastPosition() > 0) {
+            prepareMedia();
+            return;
+        }
+        
+        resumePositionStore.getPosition(resumeKey, position -> {
+            if (player == null || isFinishing()) return;
+            if (position > 0 && stateMachine.getLastPosition() == 0) {
+                stateMachine.setLastPosition(position);
+                Log.d(TAG, "Resuming " + videoManager.getVideoName() + " at " + position + "ms");
             }
+            prepareMedia();
+        });
+    }
+    
+    /**
+     * Record the position of on-demand videos; the store batches the disk writes
+     */
+    private void rememberResumePosition() {
+        String resumeKey = videoManager.getResumeKey();
+        if (player == null || resumePositionStore == null || resumeKey == null) return;
+        if (player.isCurrentMediaItemLive()) return;
+        
+        long duration = player.getDuration();
+        if (duration != C.TIME_UNSET) {
+            resumePositionStore.update(resumeKey, player.getCurrentPosition(), duration);
         }
     }
     
     private void saveCurrentState() {
         if (player != null) {
             try {
-                stateManager.setLastPosition(player.getCurrentPosition());
-                stateManager.setLastPlaybackState(player.getPlaybackState());
+                stateMachine.setLastPosition(player.getCurrentPosition());
                 
                 Log.d(TAG, "Player state saved");
                 
@@ -1286,6 +2021,62 @@ public class PlayerActivity extends AppCompatActivity {
         }
     }
     
+    // ========================================================================================
+    // Picture-in-Picture and Background Playback
+    // ========================================================================================
+    
+    private void enterPictureInPicture() {
+        if (player == null || !player.isPlaying() || isFinishing()) return;
+        if (!getPackageManager().hasSystemFeature(PackageManager.FEATURE_PICTURE_IN_PICTURE)) return;
+        
+        try {
+            PictureInPictureParams.Builder params = new PictureInPictureParams.Builder();
+            VideoSize size = player.getVideoSize();
+            if (size.width > 0 && size.height > 0) {
+                // The system rejects ratios outside 1:2.39 .. 2.39:1
+                float ratio = Math.max(1 / 2.39f, Math.min(2.39f, (float) size.width / size.height));
+                params.setAspectRatio(new Rational(Math.round(ratio * 1000), 1000));
+            }
+            enterPictureInPictureMode(params.build());
+        } catch (IllegalStateException e) {
+            // PiP disabled for the app; playback continues in the background instead
+            Log.w(TAG, "Picture-in-picture unavailable", e);
+        }
+    }
+    
+    /**
+     * Another screen took over the shared player; this one has nothing left to show
+     */
+    private void onPlayerReplaced() {
+        Log.d(TAG, "Player replaced by another screen, finishing");
+        detachPlayer();
+        player = null;
+        finish();
+    }
+    
+    /**
+     * Unhook this screen from the shared player without stopping playback
+     */
+    private void detachPlayer() {
+        if (player == null) return;
+        
+        if (playerEventListener != null) {
+            player.removeListener(playerEventListener);
+        }
+        if (droppedFrameMonitor != null) {
+            player.removeAnalyticsListener(droppedFrameMonitor);
+        }
+        if (metricsCollector != null) {
+            player.removeAnalyticsListener(metricsCollector);
+        }
+        if (progressRenderer != null) {
+            progressRenderer.setPlayer(null);
+        }
+        if (binding != null) {
+            binding.playerView.setPlayer(null);
+        }
+    }
+    
     // ========================================================================================
     // Resource Management
     // ========================================================================================
@@ -1296,21 +2087,49 @@ public class PlayerActivity extends AppCompatActivity {
             
             stopProgressUpdates();
             mainHandler.removeCallbacksAndMessages(null);
-            progressHandler.removeCallbacksAndMessages(null);
+            
+            rememberResumePosition();
+            if (resumePositionStore != null) {
+                resumePositionStore.flush();
+            }
             
             // Dispose RxJava subscriptions
             if (!compositeDisposable.isDisposed()) {
                 compositeDisposable.clear();
             }
             
+            if (metricsCollector != null) {
+                metricsCollector.endSession(SystemClock.elapsedRealtime());
+            }
+            
+            if (progressRenderer != null) {
+                progressRenderer.setPlayer(null);
+            }
+            
+            PlayerHolder.clearOnReplacedListener(playerReplacedTask);
+            if (isFinishing()) {
+                PlaybackSessionRegistry.release(videoManager.getSessionId());
+            }
             if (player != null) {
-                player.release();
+                if (isFinishing() && PlayerHolder.get() == player) {
+                    // Leaving the player screen ends playback, including in the background
+                    PlayerHolder.release();
+                    PlaybackService.stop(this);
+                    Log.d(TAG, "ExoPlayer released");
+                } else {
+                    // Destroyed by the system; the player keeps going for the next screen
+                    detachPlayer();
+                    Log.d(TAG, "ExoPlayer detached");
+                }
                 player = null;
-                Log.d(TAG, "ExoPlayer released");
             }
             
-            stateManager.reset();
+            // Keep this session's throughput samples for the next one
+            BandwidthEstimator.getInstance(this).flush();
+            
+            stateMachine.reset();
             errorManager.reset();
+            urlLeaseManager.reset();
             
             binding = null;
             
@@ -1336,20 +2155,9 @@ public class PlayerActivity extends AppCompatActivity {
         return !isFinishing() && !isDestroyed() && binding != null;
     }
     
-    private void logPlayerState() {
-        if (player != null) {
-            Log.d(TAG, "Current player state: " +
-                "position=" + player.getCurrentPosition() +
-                ", duration=" + player.getDuration() +
-                ", playing=" + player.isPlaying() +
-                ", locked=" + stateManager.isLocked() +
-                ", quality=" + videoManager.getCurrentQuality());
-        }
-    }
-    
     private boolean isPlayerHealthy() {
         return player != null &&
-               stateManager.isInitialized() &&
+               stateMachine.isInitialized() &&
                isActivityValid();
     }
     
@@ -0,0 +1,218 @@
+package com.nidoham.hdstreamztv;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.util.Log;
+import android.view.View;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.nidoham.hdstreamztv.adapter.VideoAdapter;
+import com.nidoham.hdstreamztv.databinding.ActivityListInfoBinding;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+import com.nidoham.hdstreamztv.player.PlayerIntents;
+
+import org.schabi.newpipe.extractor.Image;
+import org.schabi.newpipe.extractor.playlist.PlaylistInfo;
+import org.schabi.newpipe.util.Localization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import bd.nidoham.intent.IntentKeys;
+import bd.nidoham.youtube.playlist.PlaylistExecutor;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+
+/**
+ * A YouTube playlist: its header and first videos, then further pages on scroll.
+ */
+public class PlaylistActivity extends AppCompatActivity
+        implements PlaylistExecutor.Listener, VideoAdapter.OnVideoItemClickListener {
+
+    private static final String TAG = "PlaylistActivity";
+
+    private ActivityListInfoBinding binding;
+    private VideoAdapter videoAdapter;
+    private PlaylistExecutor executor;
+    private final CompositeDisposable compositeDisposable = new CompositeDisposable();
+
+    // State Management
+    private final ArrayList<VideoItem> videoList = new ArrayList<>();
+
+    /**
+     * Opens the playlist at {@code url}; {@code name} is shown until the header is loaded.
+     */
+    public static void open(@NonNull Context context, @Nullable String url, @Nullable String name) {
+        if (url == null || url.trim().isEmpty()) {
+            Toast.makeText(context, "Invalid playlist URL", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        Intent intent = new Intent(context, PlaylistActivity.class);
+        intent.putExtra(IntentKeys.EXTRA_LIST_URL, url);
+        intent.putExtra(IntentKeys.EXTRA_LIST_NAME, name);
+        context.startActivity(intent);
+    }
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivityListInfoBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        String url = getIntent().getStringExtra(IntentKeys.EXTRA_LIST_URL);
+        if (url == null) {
+            finish();
+            return;
+        }
+        if (!App.getInstance().isNewPipeInitialized()) {
+            App.getInstance().reinitializeNewPipe();
+        }
+
+        binding.toolbar.setTitle(getIntent().getStringExtra(IntentKeys.EXTRA_LIST_NAME));
+        binding.toolbar.setNavigationOnClickListener(v -> finish());
+        setupList();
+
+        executor = new PlaylistExecutor(this, url, this);
+        // Served from the cache when the playlist was opened a moment ago
+        executor.load(false);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (executor != null) {
+            executor.dispose();
+        }
+        compositeDisposable.clear();
+        binding = null;
+    }
+
+    // ==================== Setup ====================
+
+    private void setupList() {
+        // A playlist may hold the same video more than once; every entry is shown
+        videoAdapter = new VideoAdapter(Glide.with(this), this, true);
+        binding.recyclerViewItems.setLayoutManager(new LinearLayoutManager(this));
+        binding.recyclerViewItems.setAdapter(videoAdapter);
+        videoAdapter.attachThumbnailPreloader(binding.recyclerViewItems);
+
+        binding.recyclerViewItems.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                if (dy > 0) {
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                    if (layoutManager != null) {
+                        executor.onScrolled(layoutManager.findLastVisibleItemPosition(), videoAdapter.getItemCount());
+                    }
+                }
+            }
+        });
+    }
+
+    // ==================== PlaylistExecutor.Listener ====================
+
+    @Override
+    public void showLoading(boolean isLoading) {
+        if (binding == null) return;
+        binding.progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
+        if (isLoading) {
+            binding.textEmpty.setVisibility(View.GONE);
+        }
+    }
+
+    @Override
+    public void showHeader(PlaylistInfo playlistInfo) {
+        if (binding == null) return;
+        binding.toolbar.setTitle(playlistInfo.getName());
+        binding.textTitle.setText(playlistInfo.getName());
+
+        String uploader = playlistInfo.getUploaderName();
+        String streamCount = Localization.localizeStreamCount(this, playlistInfo.getStreamCount());
+        binding.textSubtitle.setText(TextUtils.isEmpty(uploader) ? streamCount
+                : TextUtils.isEmpty(streamCount) ? uploader
+                : uploader + " • " + streamCount);
+
+        String uploaderUrl = playlistInfo.getUploaderUrl();
+        if (!TextUtils.isEmpty(uploaderUrl)) {
+            binding.textSubtitle.setOnClickListener(v -> ChannelActivity.open(this, uploaderUrl, uploader));
+        }
+
+        int thumbnailWidthPx = getResources().getDimensionPixelSize(R.dimen.video_item_search_avatar_image_width);
+        int thumbnailHeightPx = getResources().getDimensionPixelSize(R.dimen.video_item_search_avatar_image_height);
+        Image thumbnail = VideoItemMapper.pickThumbnail(playlistInfo.getThumbnails(),
+                thumbnailWidthPx, thumbnailHeightPx);
+        Glide.with(this)
+                .load(thumbnail != null ? thumbnail.getUrl() : null)
+                .centerCrop()
+                .into(binding.imageHeader);
+
+        binding.header.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showInitialVideos(List<VideoItem> items) {
+        if (binding == null) return;
+        videoList.clear();
+        videoList.addAll(items);
+        videoAdapter.updateVideoList(videoList);
+        binding.textEmpty.setVisibility(View.GONE);
+        binding.recyclerViewItems.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showMoreVideos(List<VideoItem> items) {
+        videoList.addAll(items);
+        videoAdapter.updateVideoList(videoList);
+    }
+
+    @Override
+    public void showEmptyState() {
+        if (binding == null) return;
+        videoList.clear();
+        videoAdapter.updateVideoList(videoList);
+        binding.recyclerViewItems.setVisibility(View.GONE);
+        binding.textEmpty.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showError(String message) {
+        if (binding == null) return;
+        Toast.makeText(this, message, videoList.isEmpty() ? Toast.LENGTH_LONG : Toast.LENGTH_SHORT).show();
+    }
+
+    // ==================== Item Clicks ====================
+
+    @Override
+    public void onVideoItemClick(@NonNull VideoItem videoItem) {
+        String url = videoItem.getVideoUrl();
+        if (url == null || url.trim().isEmpty()) {
+            Toast.makeText(this, "Invalid video URL", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        Log.d(TAG, "Starting stream extraction for URL: " + url);
+        compositeDisposable.add(PlayerIntents.forUrl(this, url)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::startActivity, throwable -> {
+                    Log.e(TAG, "Failed to extract stream info", throwable);
+                    Toast.makeText(this, "Error: Unable to extract video info. " + throwable.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                }, () -> Toast.makeText(this, "No valid quality options available.", Toast.LENGTH_SHORT).show()));
+    }
+
+    @Override
+    public void onUploaderClick(@NonNull VideoItem videoItem) {
+        ChannelActivity.open(this, videoItem.getUploaderUrl(), videoItem.getUploader());
+    }
+}
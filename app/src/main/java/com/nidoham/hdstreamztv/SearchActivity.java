@@ -0,0 +1,223 @@
+package com.nidoham.hdstreamztv;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.nidoham.hdstreamztv.adapter.VideoAdapter;
+import com.nidoham.hdstreamztv.databinding.ActivitySearchBinding;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.player.PlayerIntents;
+import com.nidoham.hdstreamztv.util.NetworkUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import bd.nidoham.youtube.search.SearchExecutor;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+
+/**
+ * Native YouTube search: suggestions while typing, then a paginated list of videos.
+ */
+public class SearchActivity extends AppCompatActivity
+        implements SearchExecutor.Listener, VideoAdapter.OnVideoItemClickListener {
+
+    private static final String TAG = "SearchActivity";
+    private static final String KEY_QUERY = "query";
+
+    private ActivitySearchBinding binding;
+    private VideoAdapter videoAdapter;
+    private ArrayAdapter<String> suggestionAdapter;
+    private SearchExecutor executor;
+    private final CompositeDisposable compositeDisposable = new CompositeDisposable();
+
+    // State Management
+    private final ArrayList<VideoItem> videoList = new ArrayList<>();
+    @Nullable
+    private String submittedQuery;
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = ActivitySearchBinding.inflate(getLayoutInflater());
+        setContentView(binding.getRoot());
+
+        if (!App.getInstance().isNewPipeInitialized()) {
+            App.getInstance().reinitializeNewPipe();
+        }
+        executor = new SearchExecutor(this, this);
+
+        binding.toolbar.setNavigationOnClickListener(v -> finish());
+        setupResultList();
+        setupSearchView();
+
+        String query = savedInstanceState != null ? savedInstanceState.getString(KEY_QUERY) : null;
+        if (query != null) {
+            submitQuery(query);
+        } else {
+            binding.searchView.requestFocus();
+        }
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(KEY_QUERY, submittedQuery);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        executor.dispose();
+        compositeDisposable.clear();
+        binding = null;
+    }
+
+    // ==================== Setup ====================
+
+    private void setupResultList() {
+        videoAdapter = new VideoAdapter(Glide.with(this), this);
+        binding.recyclerViewResults.setLayoutManager(new LinearLayoutManager(this));
+        binding.recyclerViewResults.setAdapter(videoAdapter);
+        videoAdapter.attachThumbnailPreloader(binding.recyclerViewResults);
+
+        binding.recyclerViewResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                if (dy > 0) {
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                    if (layoutManager != null) {
+                        executor.onScrolled(layoutManager.findLastVisibleItemPosition(), videoAdapter.getItemCount());
+                    }
+                }
+            }
+        });
+    }
+
+    private void setupSearchView() {
+        suggestionAdapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, new ArrayList<>());
+        binding.listSuggestions.setAdapter(suggestionAdapter);
+        binding.listSuggestions.setOnItemClickListener((parent, view, position, id) ->
+                binding.searchView.setQuery(suggestionAdapter.getItem(position), true));
+
+        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                submitQuery(query);
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                // The submitted query coming back, e.g. when the view restores its text
+                executor.onQueryChanged(newText.equals(submittedQuery) ? "" : newText);
+                return true;
+            }
+        });
+    }
+
+    private void submitQuery(String query) {
+        if (query.trim().isEmpty() || !isNetworkAvailable()) return;
+        submittedQuery = query;
+        binding.searchView.clearFocus();
+        executor.search(query);
+    }
+
+    // ==================== SearchExecutor.Listener ====================
+
+    @Override
+    public void showSuggestions(List<String> suggestions) {
+        if (binding == null) return;
+        suggestionAdapter.clear();
+        suggestionAdapter.addAll(suggestions);
+        binding.listSuggestions.setVisibility(suggestions.isEmpty() ? View.GONE : View.VISIBLE);
+    }
+
+    @Override
+    public void showLoading(boolean isLoading) {
+        if (binding == null) return;
+        binding.progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
+        if (isLoading) {
+            binding.textEmpty.setVisibility(View.GONE);
+            binding.recyclerViewResults.setVisibility(View.GONE);
+        }
+    }
+
+    @Override
+    public void showResults(List<VideoItem> items) {
+        if (binding == null) return;
+        videoList.clear();
+        videoList.addAll(items);
+        videoAdapter.updateVideoList(videoList);
+        binding.recyclerViewResults.scrollToPosition(0);
+        binding.recyclerViewResults.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showMoreResults(List<VideoItem> items) {
+        // Results already shown are left out by the adapter
+        videoList.addAll(items);
+        videoAdapter.updateVideoList(videoList);
+    }
+
+    @Override
+    public void showEmptyState() {
+        if (binding == null) return;
+        videoList.clear();
+        videoAdapter.updateVideoList(videoList);
+        binding.recyclerViewResults.setVisibility(View.GONE);
+        binding.textEmpty.setVisibility(View.VISIBLE);
+    }
+
+    @Override
+    public void showError(String message) {
+        if (binding == null) return;
+        binding.recyclerViewResults.setVisibility(videoList.isEmpty() ? View.GONE : View.VISIBLE);
+        Toast.makeText(this, message, videoList.isEmpty() ? Toast.LENGTH_LONG : Toast.LENGTH_SHORT).show();
+    }
+
+    // ==================== Playback ====================
+
+    @Override
+    public void onVideoItemClick(@NonNull VideoItem videoItem) {
+        String url = videoItem.getVideoUrl();
+        if (url == null || url.trim().isEmpty()) {
+            Toast.makeText(this, "Invalid video URL", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        Log.d(TAG, "Starting stream extraction for URL: " + url);
+        compositeDisposable.add(PlayerIntents.forUrl(this, url)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::startActivity, throwable -> {
+                    Log.e(TAG, "Failed to extract stream info", throwable);
+                    Toast.makeText(this, "Error: Unable to extract video info. " + throwable.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                }, () -> Toast.makeText(this, "No valid quality options available.", Toast.LENGTH_SHORT).show()));
+    }
+
+    @Override
+    public void onUploaderClick(@NonNull VideoItem videoItem) {
+        ChannelActivity.open(this, videoItem.getUploaderUrl(), videoItem.getUploader());
+    }
+
+    private boolean isNetworkAvailable() {
+        if (!NetworkUtils.isNetworkAvailable(this)) {
+            Toast.makeText(this, "No network connection available", Toast.LENGTH_LONG).show();
+            return false;
+        }
+        return true;
+    }
+}
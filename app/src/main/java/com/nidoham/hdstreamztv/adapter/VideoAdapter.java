@@ -8,45 +8,191 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
-import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.nidoham.hdstreamztv.R;
 import com.nidoham.hdstreamztv.model.VideoItem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * RecyclerView Adapter for displaying video items in a list
+ *
+ * Lists are diffed on a background thread, so a refresh that returns mostly the same videos
+ * only rebinds the rows that changed. Rows are identified by their stream URL, which also
+ * gives the stable IDs; items must not be modified after they are submitted. A URL that comes
+ * up again, e.g. in an overlapping page, is left out, unless the adapter keeps repeats: then
+ * each repeat is told apart by how many times the URL came before it, as in a playlist that
+ * holds a video twice.
+ *
+ * Thumbnails are decoded at the size of the row's ImageView and only that resized variant is
+ * cached. Once attached with {@link #attachThumbnailPreloader}, the thumbnails of the next
+ * rows are loaded ahead of the scroll, and loading pauses while the list is flung.
  */
-public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHolder> {
+public class VideoAdapter extends ListAdapter<VideoAdapter.Row, VideoAdapter.VideoViewHolder>
+        implements ListPreloader.PreloadModelProvider<VideoItem> {
     
-    private List<VideoItem> videoList;
+    // Rows ahead of the last visible one whose thumbnails are preloaded
+    private static final int MAX_PRELOAD_ITEMS = 8;
+    
+    // Change payloads, combined as a bit mask
+    private static final int PAYLOAD_DETAILS = 1;
+    private static final int PAYLOAD_THUMBNAIL = 1 << 1;
+    
+    private static final DiffUtil.ItemCallback<Row> DIFF_CALLBACK = new DiffUtil.ItemCallback<Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Row oldRow, @NonNull Row newRow) {
+            return Objects.equals(oldRow.key, newRow.key);
+        }
+        
+        @Override
+        public boolean areContentsTheSame(@NonNull Row oldRow, @NonNull Row newRow) {
+            return changesBetween(oldRow.item, newRow.item) == 0;
+        }
+        
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull Row oldRow, @NonNull Row newRow) {
+            return changesBetween(oldRow.item, newRow.item);
+        }
+    };
+    
+    /**
+     * A submitted item and the key that identifies its row
+     */
+    static final class Row {
+        final VideoItem item;
+        final String key;
+        
+        Row(VideoItem item, String key) {
+            this.item = item;
+            this.key = key;
+        }
+    }
+    
+    private final boolean keepRepeats;
     private OnVideoItemClickListener clickListener;
     private Context context;
+    private final RequestManager glide;
+    private RequestOptions thumbnailOptions;
+    private int thumbnailWidthPx;
+    private int thumbnailHeightPx;
     
     /**
      * Interface for handling video item clicks
      */
     public interface OnVideoItemClickListener {
         void onVideoItemClick(VideoItem videoItem);
+        
+        /**
+         * The uploader name of an item with a known channel was tapped; by default the
+         * tap counts as one on the item.
+         */
+        default void onUploaderClick(VideoItem videoItem) {
+            onVideoItemClick(videoItem);
+        }
     }
     
     /**
      * Constructor
-     * @param videoList List of video items to display
+     * @param glide Request manager tied to the screen's lifecycle
      * @param clickListener Click listener for video items
      */
-    public VideoAdapter(List<VideoItem> videoList, OnVideoItemClickListener clickListener) {
-        this.videoList = videoList;
+    public VideoAdapter(@NonNull RequestManager glide, OnVideoItemClickListener clickListener) {
+        this(glide, clickListener, false);
+    }
+    
+    /**
+     * Constructor
+     * @param glide Request manager tied to the screen's lifecycle
+     * @param clickListener Click listener for video items
+     * @param keepRepeats Show a video again each time its URL repeats, instead of only once
+     */
+    public VideoAdapter(@NonNull RequestManager glide, OnVideoItemClickListener clickListener,
+                        boolean keepRepeats) {
+        super(DIFF_CALLBACK);
+        this.glide = glide;
         this.clickListener = clickListener;
+        this.keepRepeats = keepRepeats;
+        setHasStableIds(true);
+    }
+    
+    /**
+     * Preload upcoming thumbnails and pause loading during flings
+     * @param recyclerView The list this adapter is shown in
+     */
+    public void attachThumbnailPreloader(@NonNull RecyclerView recyclerView) {
+        ensureThumbnailOptions(recyclerView.getContext());
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(glide, this,
+                new FixedPreloadSizeProvider<>(thumbnailWidthPx, thumbnailHeightPx), MAX_PRELOAD_ITEMS));
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                // Rows flung past are never seen; load what the list settles on
+                if (newState == RecyclerView.SCROLL_STATE_SETTLING) {
+                    glide.pauseRequests();
+                } else if (glide.isPaused()) {
+                    glide.resumeRequests();
+                }
+            }
+        });
+    }
+    
+    @NonNull
+    @Override
+    public List<VideoItem> getPreloadItems(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            return Collections.emptyList();
+        }
+        VideoItem item = getItem(position).item;
+        return hasThumbnail(item.getThumbnailUrl()) ? Collections.singletonList(item) : Collections.emptyList();
+    }
+    
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull VideoItem item) {
+        // Same options as the row itself, so the preloaded variant is the one shown
+        return glide.load(item.getThumbnailUrl()).apply(thumbnailOptions);
+    }
+    
+    private void ensureThumbnailOptions(Context context) {
+        if (thumbnailOptions != null) {
+            return;
+        }
+        thumbnailWidthPx = context.getResources().getDimensionPixelSize(R.dimen.video_item_thumbnail_width);
+        thumbnailHeightPx = context.getResources().getDimensionPixelSize(R.dimen.video_item_thumbnail_height);
+        thumbnailOptions = new RequestOptions()
+                .placeholder(R.drawable.ic_video_placeholder)
+                .error(R.drawable.ic_video_error)
+                .override(thumbnailWidthPx, thumbnailHeightPx)
+                .centerCrop()
+                // Only the downsampled, cropped bitmap; the source JPEG is never shown as is
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE);
+    }
+    
+    private static boolean hasThumbnail(String thumbnailUrl) {
+        return !TextUtils.isEmpty(thumbnailUrl) && thumbnailUrl.startsWith("http");
     }
     
     @NonNull
     @Override
     public VideoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         context = parent.getContext();
+        ensureThumbnailOptions(context);
         View view = LayoutInflater.from(context)
                 .inflate(R.layout.item_video, parent, false);
         return new VideoViewHolder(view);
@@ -54,22 +200,104 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
     
     @Override
     public void onBindViewHolder(@NonNull VideoViewHolder holder, int position) {
-        VideoItem videoItem = videoList.get(position);
+        VideoItem videoItem = getItem(position).item;
         holder.bind(videoItem);
     }
     
     @Override
-    public int getItemCount() {
-        return videoList != null ? videoList.size() : 0;
+    public void onBindViewHolder(@NonNull VideoViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        
+        int changes = 0;
+        for (Object payload : payloads) {
+            if (payload instanceof Integer) {
+                changes |= (Integer) payload;
+            }
+        }
+        VideoItem videoItem = getItem(position).item;
+        if ((changes & PAYLOAD_DETAILS) != 0) {
+            holder.bindDetails(videoItem);
+        }
+        if ((changes & PAYLOAD_THUMBNAIL) != 0) {
+            holder.loadThumbnail(videoItem.getThumbnailUrl());
+        }
+    }
+    
+    @Override
+    public long getItemId(int position) {
+        return stableIdOf(getItem(position).key);
     }
     
     /**
-     * Update the video list and refresh the adapter
-     * @param newVideoList New list of videos
+     * Update the video list; only the rows that changed are rebound
+     * @param newVideoList New list of videos, repeats included; copied, so the caller may keep
+     *                     changing it
      */
     public void updateVideoList(List<VideoItem> newVideoList) {
-        this.videoList = newVideoList;
-        notifyDataSetChanged();
+        updateVideoList(newVideoList, null);
+    }
+    
+    /**
+     * Update the video list, running {@code onCommitted} once the list is shown
+     * @param newVideoList New list of videos; copied, so the caller may keep changing it
+     * @param onCommitted Runs after the diff is applied, e.g. to restore a scroll position
+     */
+    public void updateVideoList(List<VideoItem> newVideoList, @Nullable Runnable onCommitted) {
+        submitList(newVideoList != null ? rowsOf(newVideoList, keepRepeats) : null, onCommitted);
+    }
+    
+    /**
+     * One row per item, keyed so that no two rows share a key and with it a stable ID
+     */
+    static List<Row> rowsOf(List<VideoItem> items, boolean keepRepeats) {
+        List<Row> rows = new ArrayList<>(items.size());
+        Map<String, Integer> seen = new HashMap<>();
+        for (VideoItem item : items) {
+            String url = item.getVideoUrl();
+            Integer count = seen.get(url);
+            seen.put(url, count == null ? 1 : count + 1);
+            if (count == null) {
+                rows.add(new Row(item, url));
+            } else if (keepRepeats) {
+                // A URL can't contain a space, so this can't be another item's URL
+                rows.add(new Row(item, url + " " + count));
+            }
+        }
+        return rows;
+    }
+    
+    private static int changesBetween(VideoItem oldItem, VideoItem newItem) {
+        int changes = 0;
+        if (!Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                || !Objects.equals(oldItem.getUploader(), newItem.getUploader())
+                || oldItem.getDuration() != newItem.getDuration()
+                || oldItem.getViewCount() != newItem.getViewCount()
+                || !Objects.equals(oldItem.getDurationText(), newItem.getDurationText())
+                || !Objects.equals(oldItem.getViewCountText(), newItem.getViewCountText())) {
+            changes |= PAYLOAD_DETAILS;
+        }
+        if (!Objects.equals(oldItem.getThumbnailUrl(), newItem.getThumbnailUrl())) {
+            changes |= PAYLOAD_THUMBNAIL;
+        }
+        return changes;
+    }
+    
+    /**
+     * 64-bit FNV-1a of the row key; collisions are negligible at list sizes
+     */
+    private static long stableIdOf(String key) {
+        if (key == null) {
+            return RecyclerView.NO_ID;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == RecyclerView.NO_ID ? 0 : hash;
     }
     
     /**
@@ -109,7 +337,19 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             itemContainer.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && clickListener != null) {
-                    clickListener.onVideoItemClick(videoList.get(position));
+                    clickListener.onVideoItemClick(getItem(position).item);
+                }
+            });
+            uploaderTextView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION || clickListener == null) {
+                    return;
+                }
+                VideoItem videoItem = getItem(position).item;
+                if (TextUtils.isEmpty(videoItem.getUploaderUrl())) {
+                    clickListener.onVideoItemClick(videoItem);
+                } else {
+                    clickListener.onUploaderClick(videoItem);
                 }
             });
         }
@@ -123,45 +363,46 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
                 return;
             }
             
+            bindDetails(videoItem);
+            
+            // Load thumbnail image
+            loadThumbnail(videoItem.getThumbnailUrl());
+        }
+        
+        /**
+         * Bind the text fields, leaving the thumbnail alone
+         * @param videoItem Video item to bind
+         */
+        void bindDetails(VideoItem videoItem) {
             // Set title with null check
             titleTextView.setText(videoItem.getTitle() != null ? videoItem.getTitle() : "Unknown Title");
             
             // Set uploader with null check
             uploaderTextView.setText(videoItem.getUploader() != null ? videoItem.getUploader() : "Unknown Uploader");
             
-            // Set duration
-            durationTextView.setText(formatDuration(videoItem.getDuration()));
+            // Set duration, pre-formatted by VideoItemMapper where available
+            String durationText = videoItem.getDurationText();
+            durationTextView.setText(durationText != null ? durationText : formatDuration(videoItem.getDuration()));
             
             // Set view count
-            viewCountTextView.setText(formatViewCount(videoItem.getViewCount()));
-            
-            // Load thumbnail image
-            loadThumbnail(videoItem.getThumbnailUrl());
+            String viewCountText = videoItem.getViewCountText();
+            viewCountTextView.setText(viewCountText != null ? viewCountText : formatViewCount(videoItem.getViewCount()));
         }
         
         /**
          * Load thumbnail image using Glide with better error handling
          * @param thumbnailUrl URL of the thumbnail image
          */
-        private void loadThumbnail(String thumbnailUrl) {
-            RequestOptions requestOptions = new RequestOptions()
-                    .placeholder(R.drawable.ic_video_placeholder)
-                    .error(R.drawable.ic_video_error)
-                    .diskCacheStrategy(DiskCacheStrategy.ALL)
-                    .centerCrop();
-            
+        void loadThumbnail(String thumbnailUrl) {
             // Check if thumbnail URL is valid
-            if (!TextUtils.isEmpty(thumbnailUrl) && thumbnailUrl.startsWith("http")) {
-                Glide.with(context)
-                        .load(thumbnailUrl)
-                        .apply(requestOptions)
+            if (hasThumbnail(thumbnailUrl)) {
+                glide.load(thumbnailUrl)
+                        .apply(thumbnailOptions)
                         .into(thumbnailImageView);
             } else {
                 // Load placeholder if no valid URL
-                Glide.with(context)
-                        .load(R.drawable.ic_video_placeholder)
-                        .apply(requestOptions)
-                        .into(thumbnailImageView);
+                glide.clear(thumbnailImageView);
+                thumbnailImageView.setImageResource(R.drawable.ic_video_placeholder);
             }
         }
         
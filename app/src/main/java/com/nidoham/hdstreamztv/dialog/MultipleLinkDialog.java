@@ -14,8 +14,11 @@ import com.nidoham.hdstreamztv.R;
 import com.nidoham.hdstreamztv.model.ChannelUrl;
 import com.nidoham.hdstreamztv.template.model.settings.Template;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import bd.nidoham.intent.IntentKeys;
+
 /**
  * Dialog for displaying multiple channel links to the user.
  * Allows users to select from available streaming links for a channel.
@@ -129,13 +132,24 @@ public class MultipleLinkDialog {
      */
     private Intent createPlayerIntent(ChannelUrl channelUrl) {
         Intent intent = new Intent(context, PlayerActivity.class);
-        intent.putExtra("name", channelName);
-        
-        // TODO: Fix this hardcoded YouTube URL - should use channelUrl.getLink()
-        // Currently using hardcoded YouTube.SONG_001 - this should be dynamic
-        intent.putExtra("link", channelUrl.getLink()); // Use this instead
+        intent.putExtra(IntentKeys.EXTRA_VIDEO_NAME, channelName);
+        intent.putExtra(IntentKeys.EXTRA_VIDEO_URL, channelUrl.getLink());
+        intent.putExtra(IntentKeys.EXTRA_VIDEO_CATEGORY, Template.TV);
         
-        intent.putExtra("category", Template.YOUTUBE);
+        // The other links of this channel, so the player can fail over without coming back here
+        ArrayList<String> mirrorUrls = new ArrayList<>();
+        ArrayList<String> mirrorTitles = new ArrayList<>();
+        for (int i = 0; i < channelUrls.size(); i++) {
+            ChannelUrl mirror = channelUrls.get(i);
+            if (mirror != channelUrl && mirror.getLink() != null && !mirror.getLink().trim().isEmpty()) {
+                mirrorUrls.add(mirror.getLink());
+                // Named after its place in this list when the catalog has no title for it
+                String title = mirror.getTittle();
+                mirrorTitles.add(title != null && !title.trim().isEmpty() ? title : "Link " + (i + 1));
+            }
+        }
+        intent.putStringArrayListExtra(IntentKeys.EXTRA_MIRROR_URLS, mirrorUrls);
+        intent.putStringArrayListExtra(IntentKeys.EXTRA_MIRROR_TITLES, mirrorTitles);
         return intent;
     }
     
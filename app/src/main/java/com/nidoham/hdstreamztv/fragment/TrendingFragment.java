@@ -15,22 +15,21 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import bd.nidoham.intent.IntentKeys;
+import com.bumptech.glide.Glide;
+
 import bd.nidoham.youtube.home.TrendingVideosExecutor;
 import com.nidoham.hdstreamztv.App;
-import com.nidoham.hdstreamztv.PlayerActivity;
+import com.nidoham.hdstreamztv.ChannelActivity;
 import com.nidoham.hdstreamztv.R;
 import com.nidoham.hdstreamztv.adapter.VideoAdapter;
 import com.nidoham.hdstreamztv.databinding.FragmentTrendingBinding;
 import com.nidoham.hdstreamztv.model.VideoItem;
-import com.nidoham.hdstreamztv.model.VideoQuality;
+import com.nidoham.hdstreamztv.player.PlayerIntents;
 import com.nidoham.hdstreamztv.util.NetworkUtils;
+import com.nidoham.hdstreamztv.utils.ScrollPerformanceMonitor;
 
-import org.schabi.newpipe.extractor.Image;
 import org.schabi.newpipe.extractor.ServiceList;
 import org.schabi.newpipe.extractor.stream.StreamInfo;
-import org.schabi.newpipe.extractor.stream.StreamInfoItem;
-import org.schabi.newpipe.extractor.stream.VideoStream;
 import org.schabi.newpipe.util.ExtractorHelper;
 
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
@@ -39,9 +38,7 @@ import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoItemClickListener, TrendingVideosExecutor.Listener {
 
@@ -95,13 +92,20 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
             return;
         }
 
-        // Load data on view creation since state is not saved
-        loadInitialVideos(false);
+        // Continue from the saved list if there is a fresh one
+        executor.restoreOrFetchTrendingVideos();
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        saveListState();
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        saveListState();
         if (executor != null) {
             executor.dispose(); // Clean up executor subscriptions
         }
@@ -110,9 +114,11 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
     }
 
     private void setupRecyclerView() {
-        videoAdapter = new VideoAdapter(videoList, this);
+        videoAdapter = new VideoAdapter(Glide.with(this), this);
         binding.recyclerViewTrending.setLayoutManager(new LinearLayoutManager(getContext()));
         binding.recyclerViewTrending.setAdapter(videoAdapter);
+        videoAdapter.attachThumbnailPreloader(binding.recyclerViewTrending);
+        new ScrollPerformanceMonitor(TAG).attach(binding.recyclerViewTrending);
 
         // Setup swipe-to-refresh listener
         binding.swipeRefreshLayout.setOnRefreshListener(() -> loadInitialVideos(true));
@@ -121,24 +127,44 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
             @Override
             public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
                 super.onScrolled(recyclerView, dx, dy);
-                if (dy > 0) {
+                if (dy > 0 && executor != null) {
                     LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
-                    if (layoutManager != null && layoutManager.findLastCompletelyVisibleItemPosition() >= videoAdapter.getItemCount() - 2) {
-                        loadMoreVideos();
+                    if (layoutManager != null) {
+                        // The executor decides when the end is close enough to show the next page
+                        executor.onScrolled(layoutManager.findLastVisibleItemPosition(), videoAdapter.getItemCount());
                     }
                 }
             }
         });
     }
 
-    private void loadInitialVideos(boolean forceRefresh) {
-        if (isLoading || !isNetworkAvailable()) return;
-        executor.fetchTrendingVideos(forceRefresh);
+    private void saveListState() {
+        if (executor == null || binding == null) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) binding.recyclerViewTrending.getLayoutManager();
+        if (layoutManager == null) return;
+
+        int position = Math.max(layoutManager.findFirstVisibleItemPosition(), 0);
+        View first = layoutManager.findViewByPosition(position);
+        int offset = first != null ? first.getTop() - binding.recyclerViewTrending.getPaddingTop() : 0;
+        executor.saveState(videoList, position, offset);
+    }
+
+    @Override
+    public void restoreScrollPosition(int position, int offset) {
+        if (binding == null) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) binding.recyclerViewTrending.getLayoutManager();
+        if (layoutManager != null) {
+            // The restored list is diffed asynchronously; scroll once it is in place
+            videoAdapter.updateVideoList(videoList,
+                    () -> layoutManager.scrollToPositionWithOffset(position, offset));
+        }
     }
 
-    private void loadMoreVideos() {
+    private void loadInitialVideos(boolean forceRefresh) {
         if (isLoading || !isNetworkAvailable()) return;
-        executor.fetchMoreVideos();
+        executor.fetchTrendingVideos(forceRefresh);
     }
 
     @Override
@@ -151,10 +177,11 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
     }
 
     @Override
-    public void showInitialVideos(List<StreamInfoItem> items) {
+    public void showInitialVideos(List<VideoItem> items) {
         videoList.clear();
-        videoList.addAll(processItems(items));
-        videoAdapter.notifyDataSetChanged();
+        videoList.addAll(items);
+        // Diffed against the previous list; unchanged rows keep their views and thumbnails
+        videoAdapter.updateVideoList(videoList);
 
         if (videoList.isEmpty()) {
             showEmptyState();
@@ -164,13 +191,10 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
     }
 
     @Override
-    public void showMoreVideos(List<StreamInfoItem> items) {
-        int startPosition = videoList.size();
-        List<VideoItem> newItems = processItems(items);
-        if (!newItems.isEmpty()) {
-            videoList.addAll(newItems);
-            videoAdapter.notifyItemRangeInserted(startPosition, newItems.size());
-        }
+    public void showMoreVideos(List<VideoItem> items) {
+        // Videos already shown are left out by the adapter
+        videoList.addAll(items);
+        videoAdapter.updateVideoList(videoList);
         showContentState();
     }
 
@@ -204,27 +228,6 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
         binding.recyclerViewTrending.setVisibility(View.VISIBLE);
     }
 
-    private List<VideoItem> processItems(List<StreamInfoItem> items) {
-        List<VideoItem> processedVideos = new ArrayList<>();
-        if (items == null) return processedVideos;
-
-        for (StreamInfoItem item : items) {
-            String title = item.getName() != null ? item.getName() : "";
-            String uploader = item.getUploaderName() != null ? item.getUploaderName() : "";
-            String thumbnailUrl = "";
-            List<Image> thumbnails = item.getThumbnails();
-            if (thumbnails != null && !thumbnails.isEmpty()) {
-                thumbnailUrl = thumbnails.get(0).getUrl() != null ? thumbnails.get(0).getUrl() : "";
-            }
-            String videoUrl = item.getUrl() != null ? item.getUrl() : "";
-            long duration = item.getDuration();
-            long viewCount = item.getViewCount();
-
-            processedVideos.add(new VideoItem(title, uploader, thumbnailUrl, videoUrl, duration, viewCount));
-        }
-        return processedVideos;
-    }
-
     private void showToast(String message) {
         showToast(message, Toast.LENGTH_SHORT);
     }
@@ -241,6 +244,12 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
         handleStreamExtraction(videoItem.getVideoUrl());
     }
 
+    @Override
+    public void onUploaderClick(@NonNull VideoItem videoItem) {
+        if (!isAdded()) return;
+        ChannelActivity.open(requireContext(), videoItem.getUploaderUrl(), videoItem.getUploader());
+    }
+
     private void handleStreamExtraction(final String url) {
         if (!isAdded() || getContext() == null) {
             Log.w(TAG, "Fragment not active or context is null");
@@ -287,66 +296,11 @@ public class TrendingFragment extends Fragment implements VideoAdapter.OnVideoIt
             return;
         }
 
-        List<VideoStream> videoStreams = streamInfo.getVideoStreams();
-        if (videoStreams == null || videoStreams.isEmpty()) {
-            showToast("No video streams available for this video.");
-            return;
-        }
-
-        // Create a map to store all quality streams
-        Map<String, String> qualityUrlMap = new LinkedHashMap<>();
-        
-        // Store all video qualities and their URLs
-        for (VideoStream stream : videoStreams) {
-            String quality = stream.getResolution();
-            String streamUrl = stream.getUrl();
-            if (quality != null && !quality.isEmpty() && streamUrl != null && !streamUrl.isEmpty()) {
-                qualityUrlMap.put(quality, streamUrl);
-            }
-        }
-
-        if (qualityUrlMap.isEmpty()) {
+        Intent intent = PlayerIntents.forStream(context, streamInfo);
+        if (intent == null) {
             showToast("No valid quality options available.");
             return;
         }
-
-        // Create intent and pass video information
-        Intent intent = new Intent(context, PlayerActivity.class);
-        
-        // Basic video information
-        String videoTitle = streamInfo.getName() != null ? streamInfo.getName() : "Unknown Title";
-        intent.putExtra(IntentKeys.EXTRA_VIDEO_NAME, videoTitle);
-        intent.putExtra(IntentKeys.EXTRA_VIDEO_CATEGORY, IntentKeys.EXTRA_KIOSK_YOUTUBE);
-
-        // Convert quality map to ArrayList of VideoQuality objects
-        ArrayList<VideoQuality> videoQualities = new ArrayList<>();
-        for (Map.Entry<String, String> entry : qualityUrlMap.entrySet()) {
-            videoQualities.add(new VideoQuality(entry.getKey(), entry.getValue()));
-        }
-        
-        // Add HLS stream if available
-        String hlsUrl = streamInfo.getHlsUrl();
-        if (hlsUrl != null && !hlsUrl.isEmpty()) {
-            intent.putExtra(IntentKeys.EXTRA_HLS_URL, hlsUrl);
-        }
-
-        // Add all video qualities
-        intent.putExtra(IntentKeys.EXTRA_VIDEO_QUALITIES, videoQualities);
-        
-        // Add additional metadata
-        if (streamInfo.getDuration() > 0) {
-            intent.putExtra(IntentKeys.EXTRA_VIDEO_DURATION, streamInfo.getDuration());
-        }
-        if (streamInfo.getUploaderName() != null) {
-            intent.putExtra(IntentKeys.EXTRA_UPLOADER_NAME, streamInfo.getUploaderName());
-        }
-        if (streamInfo.getViewCount() > 0) {
-            intent.putExtra(IntentKeys.EXTRA_VIEW_COUNT, streamInfo.getViewCount());
-        }
-        if (streamInfo.getThumbnails() != null && !streamInfo.getThumbnails().isEmpty()) {
-            intent.putExtra(IntentKeys.EXTRA_THUMBNAIL_URL, streamInfo.getThumbnails().get(0).getUrl());
-        }
-        
         context.startActivity(intent);
     }
 
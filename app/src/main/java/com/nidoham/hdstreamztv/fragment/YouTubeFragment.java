@@ -33,20 +33,35 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
+import com.google.android.material.chip.Chip;
+
+import bd.nidoham.intent.IntentKeys;
+import bd.nidoham.youtube.browse.KioskBrowseExecutor;
+import com.nidoham.hdstreamztv.App;
+import com.nidoham.hdstreamztv.ChannelActivity;
 import com.nidoham.hdstreamztv.PlayerActivity;
+import com.nidoham.hdstreamztv.R;
+import com.nidoham.hdstreamztv.adapter.VideoAdapter;
 import com.nidoham.hdstreamztv.databinding.FragmentYoutubeBinding;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoQuality;
+import com.nidoham.hdstreamztv.player.PlaybackSessionRegistry;
+import com.nidoham.hdstreamztv.quality.QualityLadder;
+import com.nidoham.hdstreamztv.quality.QualitySelectionEngine;
+import com.nidoham.hdstreamztv.quality.StreamQualityMapper;
 import com.nidoham.hdstreamztv.template.model.settings.Template;
 
 import org.schabi.newpipe.extractor.ServiceList;
 import org.schabi.newpipe.extractor.stream.StreamInfo;
-import org.schabi.newpipe.extractor.stream.VideoStream;
 import org.schabi.newpipe.util.ExtractorHelper;
+import org.schabi.newpipe.util.KioskTranslator;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
@@ -57,7 +72,8 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
  * Professional YouTube Fragment with Enhanced Quality Selection
  * 
  * Features:
- * - WebView-based YouTube integration with proper lifecycle management
+ * - Native browsing of the YouTube kiosks, with pagination
+ * - Optional WebView-based YouTube site, inflated only when the web mode is opened
  * - Network connectivity monitoring and handling
  * - Stream extraction with quality selection dialog
  * - Automatic and manual quality selection options
@@ -68,13 +84,13 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
  * @author Professional Enhanced Version
  * @version 3.0
  */
-public class YouTubeFragment extends Fragment {
+public class YouTubeFragment extends Fragment
+        implements KioskBrowseExecutor.Listener, VideoAdapter.OnVideoItemClickListener {
     
     private static final String TAG = "YouTubeFragment";
     private static final String PREFS_NAME = "youtube_fragment_prefs";
     private static final String KEY_FIRST_LAUNCH = "is_first_launch";
-    private static final String KEY_PREFERRED_QUALITY = "preferred_quality";
-    private static final String KEY_AUTO_SELECT_QUALITY = "auto_select_quality";
+    private static final String KEY_WEB_MODE = "is_web_mode";
     
     // YouTube URLs
     private static final String YOUTUBE_SIGNIN_URL = "https://accounts.google.com/signin/v2/identifier?service=youtube";
@@ -89,13 +105,22 @@ public class YouTubeFragment extends Fragment {
     private ConnectivityManager.NetworkCallback networkCallback;
     private SharedPreferences sharedPreferences;
     private Handler mainHandler;
+    // Inflated from its stub the first time the web mode is opened
+    @Nullable
+    private WebView webView;
+    
+    // Native Browsing
+    private KioskBrowseExecutor browseExecutor;
+    private VideoAdapter browseAdapter;
+    private final ArrayList<VideoItem> browseList = new ArrayList<>();
+    private boolean webMode;
     
     // RxJava Management
     private final CompositeDisposable compositeDisposable = new CompositeDisposable();
     
     // State Management
     private final FragmentStateManager stateManager = new FragmentStateManager();
-    private final QualitySelectionManager qualityManager = new QualitySelectionManager();
+    private final QualitySelectionEngine qualityEngine = QualitySelectionEngine.getInstance(App.getInstance());
     
     // ========================================================================================
     // State Management Classes
@@ -130,115 +155,23 @@ public class YouTubeFragment extends Fragment {
         }
     }
     
-    /**
-     * Manages quality selection preferences and operations
-     */
-    private class QualitySelectionManager {
-        
-        public String getPreferredQuality() {
-            if (sharedPreferences != null) {
-                return sharedPreferences.getString(KEY_PREFERRED_QUALITY, "720p");
-            }
-            return "720p";
-        }
-        
-        public void setPreferredQuality(String quality) {
-            if (sharedPreferences != null) {
-                sharedPreferences.edit().putString(KEY_PREFERRED_QUALITY, quality).apply();
-            }
-        }
-        
-        public boolean isAutoSelectEnabled() {
-            if (sharedPreferences != null) {
-                return sharedPreferences.getBoolean(KEY_AUTO_SELECT_QUALITY, false);
-            }
-            return false;
-        }
-        
-        public void setAutoSelectEnabled(boolean enabled) {
-            if (sharedPreferences != null) {
-                sharedPreferences.edit().putBoolean(KEY_AUTO_SELECT_QUALITY, enabled).apply();
-            }
-        }
-        
-        public VideoStream selectBestQuality(List<VideoStream> videoStreams) {
-            if (videoStreams == null || videoStreams.isEmpty()) {
-                return null;
-            }
-            
-            String preferredQuality = getPreferredQuality();
-            
-            // First, try to find exact match
-            for (VideoStream stream : videoStreams) {
-                if (preferredQuality.equals(stream.getResolution())) {
-                    Log.d(TAG, "Found exact quality match: " + preferredQuality);
-                    return stream;
-                }
-            }
-            
-            // If no exact match, find closest quality
-            return findClosestQuality(preferredQuality, videoStreams);
-        }
-        
-        private VideoStream findClosestQuality(String preferredQuality, List<VideoStream> videoStreams) {
-            int preferredHeight = parseResolutionHeight(preferredQuality);
-            
-            VideoStream bestMatch = null;
-            int smallestDifference = Integer.MAX_VALUE;
-            
-            for (VideoStream stream : videoStreams) {
-                int streamHeight = parseResolutionHeight(stream.getResolution());
-                int difference = Math.abs(streamHeight - preferredHeight);
-                
-                if (difference < smallestDifference) {
-                    smallestDifference = difference;
-                    bestMatch = stream;
-                }
-            }
-            
-            if (bestMatch != null) {
-                Log.d(TAG, "Found closest quality match: " + bestMatch.getResolution() + 
-                      " (preferred: " + preferredQuality + ")");
-            }
-            
-            return bestMatch;
-        }
-        
-        private int parseResolutionHeight(String resolution) {
-            if (resolution == null || resolution.trim().isEmpty()) {
-                return 0;
-            }
-            
-            try {
-                String numbers = resolution.replaceAll("[^0-9]", "");
-                if (!numbers.isEmpty()) {
-                    return Integer.parseInt(numbers);
-                }
-            } catch (NumberFormatException e) {
-                Log.w(TAG, "Failed to parse resolution: " + resolution);
-            }
-            
-            return 0;
-        }
-    }
-    
     /**
      * Quality option data class
      */
     private static class QualityOption {
         private final String resolution;
         private final String displayText;
-        private final VideoStream videoStream;
+        private final VideoQuality videoQuality;
         
-        public QualityOption(String resolution, String displayText, VideoStream videoStream) {
+        public QualityOption(String resolution, String displayText, VideoQuality videoQuality) {
             this.resolution = resolution;
             this.displayText = displayText;
-            this.videoStream = videoStream;
+            this.videoQuality = videoQuality;
         }
         
         public String getResolution() { return resolution; }
         public String getDisplayText() { return displayText; }
-        public VideoStream getVideoStream() { return videoStream; }
+        public VideoQuality getVideoQuality() { return videoQuality; }
         
         @Override
         public String toString() {
@@ -300,9 +233,9 @@ public class YouTubeFragment extends Fragment {
             mainHandler = new Handler(Looper.getMainLooper());
             initializePreferences();
             setupNetworkMonitoring();
-            configureWebView();
+            setupBrowse();
             setupUI();
-            loadYouTube();
+            applyMode();
             
             Log.d(TAG, "Fragment components initialized successfully");
             
@@ -317,6 +250,7 @@ public class YouTubeFragment extends Fragment {
         if (context != null) {
             sharedPreferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
             stateManager.setFirstLaunch(sharedPreferences.getBoolean(KEY_FIRST_LAUNCH, true));
+            webMode = sharedPreferences.getBoolean(KEY_WEB_MODE, false);
             
             Log.d(TAG, "Preferences initialized - First launch: " + stateManager.isFirstLaunch());
         }
@@ -335,13 +269,13 @@ public class YouTubeFragment extends Fragment {
     
     @SuppressLint("SetJavaScriptEnabled")
     private void configureWebView() {
-        if (binding.webview == null) {
+        if (webView == null) {
             Log.w(TAG, "WebView is null, cannot configure");
             return;
         }
         
         try {
-            WebSettings settings = binding.webview.getSettings();
+            WebSettings settings = webView.getSettings();
             settings.setJavaScriptEnabled(true);
             settings.setDomStorageEnabled(true);
             settings.setLoadWithOverviewMode(true);
@@ -356,11 +290,11 @@ public class YouTubeFragment extends Fragment {
             settings.setAllowFileAccess(false);
             settings.setAllowContentAccess(false);
             
-            binding.webview.setWebViewClient(new YouTubeWebViewClient());
-            binding.webview.setWebChromeClient(new YouTubeWebChromeClient());
+            webView.setWebViewClient(new YouTubeWebViewClient());
+            webView.setWebChromeClient(new YouTubeWebChromeClient());
             
             setupCookieManager();
-            binding.webview.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            webView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
             
             Log.d(TAG, "WebView configured successfully");
             
@@ -391,12 +325,16 @@ public class YouTubeFragment extends Fragment {
                 android.R.color.holo_red_light
             );
             binding.swipeRefresh.setOnRefreshListener(this::handleRefresh);
+            // The lists sit in a FrameLayout, so ask the one showing whether it can scroll
+            binding.swipeRefresh.setOnChildScrollUpCallback((parent, child) -> webMode
+                    ? webView != null && webView.canScrollVertically(-1)
+                    : binding.browseList.canScrollVertically(-1));
         }
     }
     
     private void setupBackPressHandling() {
-        if (binding.webview != null) {
-            binding.webview.setOnKeyListener((v, keyCode, event) -> {
+        if (webView != null) {
+            webView.setOnKeyListener((v, keyCode, event) -> {
                 if (keyCode == KeyEvent.KEYCODE_BACK && event.getAction() == KeyEvent.ACTION_DOWN) {
                     return handleBackPress();
                 }
@@ -409,10 +347,18 @@ public class YouTubeFragment extends Fragment {
         if (binding.retryButton != null) {
             binding.retryButton.setOnClickListener(v -> {
                 Log.d(TAG, "Retry button clicked");
-                loadYouTube();
+                loadCurrentMode(false);
             });
         }
         
+        if (binding.retryErrorButton != null) {
+            binding.retryErrorButton.setOnClickListener(v -> loadCurrentMode(false));
+        }
+        
+        if (binding.modeButton != null) {
+            binding.modeButton.setOnClickListener(v -> setWebMode(!webMode));
+        }
+        
         if (binding.settingsButton != null) {
             binding.settingsButton.setOnClickListener(v -> {
                 Log.d(TAG, "Settings button clicked");
@@ -421,12 +367,214 @@ public class YouTubeFragment extends Fragment {
         }
     }
     
+    // ========================================================================================
+    // Browse Modes
+    // ========================================================================================
+    
+    private void setupBrowse() {
+        try {
+            if (!App.getInstance().isNewPipeInitialized()) {
+                App.getInstance().reinitializeNewPipe();
+            }
+            browseExecutor = new KioskBrowseExecutor(requireContext(), this);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to initialize kiosk browsing", e);
+            return;
+        }
+        
+        browseAdapter = new VideoAdapter(Glide.with(this), this);
+        binding.browseList.setLayoutManager(new LinearLayoutManager(getContext()));
+        binding.browseList.setAdapter(browseAdapter);
+        browseAdapter.attachThumbnailPreloader(binding.browseList);
+        binding.browseList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                if (dy > 0) {
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                    if (layoutManager != null) {
+                        browseExecutor.onScrolled(layoutManager.findLastVisibleItemPosition(),
+                                browseAdapter.getItemCount());
+                    }
+                }
+            }
+        });
+        
+        Context context = requireContext();
+        for (String kioskId : browseExecutor.getKioskIds()) {
+            Chip chip = new Chip(context);
+            chip.setText(KioskTranslator.getTranslatedKioskName(kioskId, context));
+            chip.setCheckable(true);
+            chip.setChecked(kioskId.equals(browseExecutor.getSelectedKioskId()));
+            chip.setOnClickListener(v -> {
+                if (!kioskId.equals(browseExecutor.getSelectedKioskId()) || browseList.isEmpty()) {
+                    browseExecutor.selectKiosk(kioskId, false);
+                }
+            });
+            binding.kioskChips.addView(chip);
+        }
+    }
+    
+    /**
+     * Show the content of the current mode, inflating the WebView if it is needed for the
+     * first time, and load it.
+     */
+    private void applyMode() {
+        if (binding == null) return;
+        
+        if (webMode && !ensureWebView()) {
+            webMode = false;
+        }
+        if (!webMode && browseExecutor == null) {
+            // Without the extractor the site is all there is
+            webMode = ensureWebView();
+        }
+        
+        setViewVisibility(binding.browseContainer, webMode ? View.GONE : View.VISIBLE);
+        setViewVisibility(webView, webMode ? View.VISIBLE : View.GONE);
+        setViewVisibility(binding.errorContainer, View.GONE);
+        // Extracting the open page only makes sense on the site
+        setViewVisibility(binding.settingsButton, webMode ? View.VISIBLE : View.GONE);
+        if (binding.modeButton != null) {
+            binding.modeButton.setImageResource(webMode ? R.drawable.ic_list : R.drawable.ic_public);
+            binding.modeButton.setContentDescription(getString(webMode
+                    ? R.string.youtube_mode_native : R.string.youtube_mode_web));
+        }
+        
+        if (webMode) {
+            resumeWebView();
+        } else {
+            pauseWebView();
+        }
+        
+        // Each mode keeps its content while the other one is shown
+        boolean loaded = webMode ? webView != null && webView.getUrl() != null : !browseList.isEmpty();
+        stateManager.setPageLoaded(loaded);
+        if (!loaded) {
+            loadCurrentMode(false);
+        }
+    }
+    
+    private void setWebMode(boolean enabled) {
+        if (webMode == enabled) return;
+        
+        webMode = enabled;
+        if (sharedPreferences != null) {
+            sharedPreferences.edit().putBoolean(KEY_WEB_MODE, enabled).apply();
+        }
+        Log.d(TAG, "Switched to " + (enabled ? "web" : "native") + " mode");
+        applyMode();
+    }
+    
+    /**
+     * @return whether the WebView is available
+     */
+    private boolean ensureWebView() {
+        if (webView != null) return true;
+        if (binding == null) return false;
+        
+        try {
+            webView = (WebView) binding.webviewStub.inflate();
+        } catch (Exception e) {
+            // E.g. the WebView package is being updated
+            Log.e(TAG, "Unable to create WebView", e);
+            showToast("Web mode is not available");
+            return false;
+        }
+        configureWebView();
+        setupBackPressHandling();
+        Log.d(TAG, "WebView inflated");
+        return true;
+    }
+    
+    private void loadCurrentMode(boolean forceReload) {
+        if (webMode) {
+            if (forceReload && webView != null && stateManager.isPageLoaded()) {
+                webView.reload();
+            } else {
+                loadYouTube();
+            }
+            return;
+        }
+        
+        if (browseExecutor == null) return;
+        if (!stateManager.isNetworkAvailable()) {
+            showNetworkError();
+            hideLoading();
+            return;
+        }
+        browseExecutor.selectKiosk(browseExecutor.getSelectedKioskId(), forceReload);
+    }
+    
+    // ========================================================================================
+    // Native Browsing
+    // ========================================================================================
+    
+    @Override
+    public void showLoading(boolean isLoading) {
+        if (binding == null || webMode) return;
+        
+        if (isLoading) {
+            setViewVisibility(binding.loadingIndicator, View.VISIBLE);
+            setViewVisibility(binding.errorContainer, View.GONE);
+            setViewVisibility(binding.browseContainer, View.VISIBLE);
+        } else {
+            hideLoading();
+        }
+    }
+    
+    @Override
+    public void showInitialVideos(List<VideoItem> items) {
+        browseList.clear();
+        browseList.addAll(items);
+        browseAdapter.updateVideoList(browseList);
+        stateManager.setPageLoaded(true);
+        if (binding != null) {
+            binding.browseList.scrollToPosition(0);
+        }
+    }
+    
+    @Override
+    public void showMoreVideos(List<VideoItem> items) {
+        // Videos already shown are left out by the adapter
+        browseList.addAll(items);
+        browseAdapter.updateVideoList(browseList);
+    }
+        
+    @Override
+    public void showEmptyState() {
+        browseList.clear();
+        browseAdapter.updateVideoList(browseList);
+        showToast("No videos available");
+    }
+    
+    @Override
+    public void showError(String message) {
+        if (binding == null || webMode) return;
+        
+        if (browseList.isEmpty()) {
+            showError();
+        }
+        showToast(message);
+    }
+    
+    @Override
+    public void onVideoItemClick(@NonNull VideoItem videoItem) {
+        extractAndPlay(videoItem.getVideoUrl(), false);
+    }
+    
+    @Override
+    public void onUploaderClick(@NonNull VideoItem videoItem) {
+        if (!isAdded()) return;
+        ChannelActivity.open(requireContext(), videoItem.getUploaderUrl(), videoItem.getUploader());
+    }
+    
     // ========================================================================================
     // WebView Management
     // ========================================================================================
     
     private void loadYouTube() {
-        if (binding.webview == null) {
+        if (webView == null) {
             Log.w(TAG, "Cannot load YouTube - WebView is null");
             return;
         }
@@ -437,14 +585,15 @@ public class YouTubeFragment extends Fragment {
         }
         
         showLoading();
+        setViewVisibility(webView, View.VISIBLE);
         String url = determineYouTubeUrl();
         
         Log.d(TAG, "Loading YouTube URL: " + url);
         
         // Ensure WebView operations are on main thread
         mainHandler.post(() -> {
-            if (binding != null && binding.webview != null) {
-                binding.webview.loadUrl(url);
+            if (binding != null && webView != null) {
+                webView.loadUrl(url);
             }
         });
     }
@@ -546,7 +695,7 @@ public class YouTubeFragment extends Fragment {
                         getActivity().runOnUiThread(() -> {
                             hideNetworkError();
                             if (!stateManager.isPageLoaded()) {
-                                loadYouTube();
+                                loadCurrentMode(false);
                             }
                         });
                     }
@@ -612,7 +761,7 @@ public class YouTubeFragment extends Fragment {
         Log.d(TAG, "Refresh requested");
         
         if (stateManager.isNetworkAvailable()) {
-            loadYouTube();
+            loadCurrentMode(true);
         } else {
             if (binding != null && binding.swipeRefresh != null) {
                 binding.swipeRefresh.setRefreshing(false);
@@ -622,8 +771,8 @@ public class YouTubeFragment extends Fragment {
     }
     
     private boolean handleBackPress() {
-        if (binding != null && binding.webview != null && binding.webview.canGoBack()) {
-            binding.webview.goBack();
+        if (webMode && webView != null && webView.canGoBack()) {
+            webView.goBack();
             return true;
         }
         return false;
@@ -638,18 +787,28 @@ public class YouTubeFragment extends Fragment {
     // ========================================================================================
     
     private void handleStreamExtraction() {
-        if (!stateManager.isFragmentActive() || getContext() == null || binding == null || binding.webview == null) {
+        if (!stateManager.isFragmentActive() || getContext() == null || binding == null || webView == null) {
             Log.w(TAG, "Fragment not active or context/binding is null");
             return;
         }
         
-        String url = binding.webview.getUrl();
+        String url = webView.getUrl();
         
         if (url == null || url.trim().isEmpty()) {
             showToast("Please navigate to a YouTube video");
             return;
         }
         
+        // The page may have changed since it was last extracted
+        extractAndPlay(url, true);
+    }
+    
+    private void extractAndPlay(String url, boolean forceLoad) {
+        if (!stateManager.isFragmentActive() || getContext() == null) {
+            Log.w(TAG, "Fragment not active or context is null");
+            return;
+        }
+        
         Log.d(TAG, "Starting stream extraction for URL: " + url);
         
         // Show loading state
@@ -657,11 +816,13 @@ public class YouTubeFragment extends Fragment {
         
         int serviceId = ServiceList.YouTube.getServiceId();
         
-        Disposable disposable = ExtractorHelper.getStreamInfo(serviceId, url, true)
+        Disposable disposable = ExtractorHelper.getStreamInfo(serviceId, url, forceLoad)
+            // Builds the qualities here too: the first build probes the device's decoders
+            .map(ExtractedStream::new)
             .subscribeOn(Schedulers.io()) // Background thread for network/extraction
             .observeOn(AndroidSchedulers.mainThread()) // Main thread for UI updates
             .subscribe(
-                streamInfo -> {
+                stream -> {
                     hideLoading();
                     
                     if (!stateManager.isFragmentActive() || getContext() == null) {
@@ -669,18 +830,8 @@ public class YouTubeFragment extends Fragment {
                         return;
                     }
                     
-                    if (streamInfo == null) {
-                        showToast("Stream info is null. This video might not be supported.");
-                        return;
-                    }
-                    
-                    if (streamInfo.getVideoStreams() == null || streamInfo.getVideoStreams().isEmpty()) {
-                        showToast("No video streams found. This video might not be supported.");
-                        return;
-                    }
-                    
                     try {
-                        handleStreamInfoReceived(streamInfo);
+                        handleStreamInfoReceived(stream);
                         
                     } catch (Exception e) {
                         Log.e(TAG, "Error processing stream data", e);
@@ -707,38 +858,60 @@ public class YouTubeFragment extends Fragment {
         compositeDisposable.add(disposable);
     }
     
-    private void handleStreamInfoReceived(StreamInfo streamInfo) {
+    /**
+     * An extracted stream with its qualities, built on the extraction thread
+     */
+    private static final class ExtractedStream {
+        final StreamInfo streamInfo;
+        // Muxed streams plus video-only streams paired with the best audio track
+        final ArrayList<VideoQuality> qualities;
+        // Parsed once and shared by auto-select and the dialog
+        final QualityLadder ladder;
+        
+        ExtractedStream(StreamInfo streamInfo) {
+            this.streamInfo = streamInfo;
+            this.qualities = StreamQualityMapper.fromStreamInfo(streamInfo);
+            this.ladder = QualityLadder.of(qualities);
+        }
+    }
+    
+    private void handleStreamInfoReceived(ExtractedStream stream) {
         Context context = getContext();
         if (context == null) return;
         
+        StreamInfo streamInfo = stream.streamInfo;
+        ArrayList<VideoQuality> qualities = stream.qualities;
+        if (qualities.isEmpty()) {
+            showToast("No video streams found. This video might not be supported.");
+            return;
+        }
+        
+        QualityLadder ladder = stream.ladder;
+        
         // Check if auto-select is enabled
-        if (qualityManager.isAutoSelectEnabled()) {
+        if (qualityEngine.isAutoSelectEnabled()) {
             // Auto-select best quality
-            VideoStream selectedStream = qualityManager.selectBestQuality(streamInfo.getVideoStreams());
+            VideoQuality selectedQuality = qualityEngine.selectPreferred(ladder);
             
-            if (selectedStream != null) {
-                launchPlayerWithStream(streamInfo, selectedStream);
+            if (selectedQuality != null) {
+                showToast("Auto-selected quality: " + selectedQuality.getQuality());
+                launchPlayer(streamInfo, qualities, selectedQuality);
             } else {
-                showQualitySelectionDialog(streamInfo);
+                showQualitySelectionDialog(streamInfo, qualities, ladder);
             }
         } else {
             // Show quality selection dialog
-            showQualitySelectionDialog(streamInfo);
+            showQualitySelectionDialog(streamInfo, qualities, ladder);
         }
     }
     
-    private void showQualitySelectionDialog(StreamInfo streamInfo) {
+    private void showQualitySelectionDialog(StreamInfo streamInfo, ArrayList<VideoQuality> qualities,
+                                            QualityLadder ladder) {
         Context context = getContext();
         if (context == null) return;
         
-        List<VideoStream> videoStreams = streamInfo.getVideoStreams();
-        if (videoStreams == null || videoStreams.isEmpty()) {
-            showToast("No video qualities available");
-            return;
-        }
-        
         // Create quality options
-        List<QualityOption> qualityOptions = createQualityOptions(videoStreams);
+        List<QualityOption> qualityOptions = createQualityOptions(qualities);
         
         if (qualityOptions.isEmpty()) {
             showToast("No valid video qualities found");
@@ -758,29 +931,35 @@ public class YouTubeFragment extends Fragment {
             QualityOption selectedOption = qualityOptions.get(which);
             
             // Save user preference
-            qualityManager.setPreferredQuality(selectedOption.getResolution());
+            qualityEngine.setPreferredQuality(selectedOption.getResolution());
             
-            launchPlayerWithQuality(streamInfo, selectedOption);
+            showToast("Playing in " + selectedOption.getDisplayText());
+            launchPlayer(streamInfo, qualities, selectedOption.getVideoQuality());
             dialog.dismiss();
         });
         
         // Add auto-select option
         builder.setNeutralButton("Auto Select", (dialog, which) -> {
-            qualityManager.setAutoSelectEnabled(true);
-            VideoStream selectedStream = qualityManager.selectBestQuality(videoStreams);
+            qualityEngine.setAutoSelectEnabled(true);
+            VideoQuality selectedQuality = qualityEngine.selectPreferred(ladder);
             
-            if (selectedStream != null) {
-                // Find the quality option for the selected stream
-                for (QualityOption option : qualityOptions) {
-                    if (option.getVideoStream().equals(selectedStream)) {
-                        launchPlayerWithQuality(streamInfo, option);
-                        break;
-                    }
-                }
+            if (selectedQuality != null) {
+                showToast("Auto-selected quality: " + selectedQuality.getQuality());
+                launchPlayer(streamInfo, qualities, selectedQuality);
             }
             dialog.dismiss();
         });
         
+        // Sound only, e.g. for music; video can be turned back on in the player
+        if (StreamQualityMapper.audioOnlyFrom(streamInfo) != null) {
+            builder.setPositiveButton("Audio only", (dialog, which) -> {
+                VideoQuality videoQuality = qualityEngine.selectPreferred(ladder);
+                launchPlayer(streamInfo, qualities,
+                        videoQuality != null ? videoQuality : qualities.get(0), true);
+                dialog.dismiss();
+            });
+        }
+        
         builder.setNegativeButton("Cancel", (dialog, which) -> dialog.dismiss());
         
         // Show dialog
@@ -788,60 +967,26 @@ public class YouTubeFragment extends Fragment {
         dialog.show();
     }
     
-    private List<QualityOption> createQualityOptions(List<VideoStream> videoStreams) {
+    private List<QualityOption> createQualityOptions(List<VideoQuality> qualities) {
         List<QualityOption> options = new ArrayList<>();
-        Set<String> addedResolutions = new HashSet<>();
-        
-        // Sort streams by quality (highest first)
-        List<VideoStream> sortedStreams = new ArrayList<>(videoStreams);
-        sortedStreams.sort((stream1, stream2) -> {
-            int height1 = parseResolutionHeight(stream1.getResolution());
-            int height2 = parseResolutionHeight(stream2.getResolution());
-            return Integer.compare(height2, height1); // Descending order
-        });
         
-        for (VideoStream stream : sortedStreams) {
-            String resolution = stream.getResolution();
-            String format = stream.getFormat() != null ? stream.getFormat().getName() : "Unknown";
-            
-            if (resolution != null && !resolution.trim().isEmpty() && 
-                !addedResolutions.contains(resolution)) {
-                
-                String displayText = formatQualityText(resolution, format);
-                options.add(new QualityOption(resolution, displayText, stream));
-                addedResolutions.add(resolution);
-            }
+        // Qualities arrive de-duplicated and sorted highest first
+        for (VideoQuality quality : qualities) {
+            String resolution = quality.getQuality();
+            String displayText = formatQualityText(resolution, quality.getHeight(), quality.isVideoOnly());
+            options.add(new QualityOption(resolution, displayText, quality));
         }
         
         return options;
     }
     
-    private int parseResolutionHeight(String resolution) {
-        if (resolution == null || resolution.trim().isEmpty()) {
-            return 0;
-        }
-        
-        try {
-            // Extract numbers from resolution string
-            String numbers = resolution.replaceAll("[^0-9]", "");
-            if (!numbers.isEmpty()) {
-                return Integer.parseInt(numbers);
-            }
-        } catch (NumberFormatException e) {
-            Log.w(TAG, "Failed to parse resolution: " + resolution);
-        }
-        
-        return 0;
-    }
-    
-    private String formatQualityText(String resolution, String format) {
+    private String formatQualityText(String resolution, int height, boolean videoOnly) {
         StringBuilder sb = new StringBuilder();
         
         // Add resolution
         sb.append(resolution);
         
         // Add quality description
-        int height = parseResolutionHeight(resolution);
         if (height >= 1080) {
             sb.append(" (Full HD)");
         } else if (height >= 720) {
@@ -850,21 +995,26 @@ public class YouTubeFragment extends Fragment {
             sb.append(" (SD)");
         }
         
-        // Add format if available
-        if (format != null && !format.equals("Unknown")) {
-            sb.append(" - ").append(format);
+        // Separate audio is merged in by the player
+        if (videoOnly) {
+            sb.append(" - DASH");
         }
         
         return sb.toString();
     }
     
-    private void launchPlayerWithQuality(StreamInfo streamInfo, QualityOption selectedOption) {
+    private void launchPlayer(StreamInfo streamInfo, ArrayList<VideoQuality> qualities,
+                              VideoQuality selectedQuality) {
+        launchPlayer(streamInfo, qualities, selectedQuality, false);
+    }
+    
+    private void launchPlayer(StreamInfo streamInfo, ArrayList<VideoQuality> qualities,
+                              VideoQuality selectedQuality, boolean audioOnly) {
         Context context = getContext();
         if (context == null) return;
         
         try {
-            VideoStream selectedStream = selectedOption.getVideoStream();
-            String videoUrl = selectedStream.getUrl();
+            String videoUrl = selectedQuality.getUrl();
             String videoTitle = streamInfo.getName() != null ? streamInfo.getName() : "Unknown Title";
             
             if (videoUrl == null || videoUrl.trim().isEmpty()) {
@@ -872,17 +1022,17 @@ public class YouTubeFragment extends Fragment {
                 return;
             }
             
-            // Show selected quality to user
-            showToast("Playing in " + selectedOption.getDisplayText());
-            
             Intent intent = new Intent(context, PlayerActivity.class);
-            intent.putExtra("name", videoTitle);
-            intent.putExtra("link", videoUrl);
-            intent.putExtra("category", Template.YOUTUBE);
-            intent.putExtra("quality", selectedOption.getResolution());
+            intent.putExtra(IntentKeys.EXTRA_VIDEO_NAME, videoTitle);
+            intent.putExtra(IntentKeys.EXTRA_VIDEO_CATEGORY, Template.YOUTUBE);
+            intent.putExtra(IntentKeys.EXTRA_SESSION_ID, PlaybackSessionRegistry.register(qualities, null,
+                    StreamQualityMapper.audioOnlyFrom(streamInfo)));
+            intent.putExtra(IntentKeys.EXTRA_VIDEO_QUALITY, selectedQuality.getQuality());
+            intent.putExtra(IntentKeys.EXTRA_PAGE_URL, streamInfo.getUrl());
+            intent.putExtra(IntentKeys.EXTRA_AUDIO_ONLY, audioOnly);
             context.startActivity(intent);
             
-            Log.d(TAG, "Launching player with quality: " + selectedOption.getResolution());
+            Log.d(TAG, "Launching player with quality: " + selectedQuality.getQuality());
             
         } catch (Exception e) {
             Log.e(TAG, "Error launching player with selected quality", e);
@@ -890,37 +1040,6 @@ public class YouTubeFragment extends Fragment {
         }
     }
     
-    private void launchPlayerWithStream(StreamInfo streamInfo, VideoStream videoStream) {
-        Context context = getContext();
-        if (context == null) return;
-        
-        try {
-            String videoUrl = videoStream.getUrl();
-            String videoTitle = streamInfo.getName() != null ? streamInfo.getName() : "Unknown Title";
-            String quality = videoStream.getResolution();
-            
-            if (videoUrl == null || videoUrl.trim().isEmpty()) {
-                showToast("Invalid video URL");
-                return;
-            }
-            
-            showToast("Auto-selected quality: " + quality);
-            
-            Intent intent = new Intent(context, PlayerActivity.class);
-            intent.putExtra("name", videoTitle);
-            intent.putExtra("link", videoUrl);
-            intent.putExtra("category", Template.YOUTUBE);
-            intent.putExtra("quality", quality);
-            context.startActivity(intent);
-            
-            Log.d(TAG, "Launching player with auto-selected quality: " + quality);
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error launching player", e);
-            showToast("Error: Unable to play video. " + e.getLocalizedMessage());
-        }
-    }
-    
     /**
      * Custom adapter for quality selection dialog
      */
@@ -989,7 +1108,7 @@ public class YouTubeFragment extends Fragment {
         if (binding == null) return;
         
         setViewVisibility(binding.errorContainer, View.VISIBLE);
-        setViewVisibility(binding.webview, View.GONE);
+        setViewVisibility(webMode ? webView : binding.browseContainer, View.GONE);
     }
     
     private void showNetworkError() {
@@ -1028,9 +1147,9 @@ public class YouTubeFragment extends Fragment {
     private void setupCookieManager() {
         try {
             CookieManager cookieManager = CookieManager.getInstance();
-            if (cookieManager != null && binding != null && binding.webview != null) {
+            if (cookieManager != null && binding != null && webView != null) {
                 cookieManager.setAcceptCookie(true);
-                cookieManager.setAcceptThirdPartyCookies(binding.webview, true);
+                cookieManager.setAcceptThirdPartyCookies(webView, true);
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
                     cookieManager.flush();
                 }
@@ -1041,10 +1160,10 @@ public class YouTubeFragment extends Fragment {
     }
     
     private void resumeWebView() {
-        if (binding != null && binding.webview != null) {
+        if (binding != null && webView != null) {
             try {
-                binding.webview.onResume();
-                binding.webview.resumeTimers();
+                webView.onResume();
+                webView.resumeTimers();
                 Log.d(TAG, "WebView resumed");
             } catch (Exception e) {
                 Log.e(TAG, "Error resuming WebView", e);
@@ -1053,10 +1172,10 @@ public class YouTubeFragment extends Fragment {
     }
     
     private void pauseWebView() {
-        if (binding != null && binding.webview != null) {
+        if (binding != null && webView != null) {
             try {
-                binding.webview.onPause();
-                binding.webview.pauseTimers();
+                webView.onPause();
+                webView.pauseTimers();
                 Log.d(TAG, "WebView paused");
             } catch (Exception e) {
                 Log.e(TAG, "Error pausing WebView", e);
@@ -1080,22 +1199,23 @@ public class YouTubeFragment extends Fragment {
                 Log.d(TAG, "RxJava subscriptions disposed");
             }
             
+            if (browseExecutor != null) {
+                browseExecutor.dispose();
+                browseExecutor = null;
+            }
+            browseList.clear();
+            
             // Clean up WebView
-            if (binding != null && binding.webview != null) {
-                binding.webview.pauseTimers();
-                binding.webview.clearHistory();
-                binding.webview.clearCache(true);
-                binding.webview.loadUrl("about:blank");
+            if (webView != null) {
+                webView.pauseTimers();
+                webView.clearHistory();
+                webView.clearCache(true);
+                webView.loadUrl("about:blank");
                 
-                // Destroy WebView on main thread
-                if (mainHandler != null) {
-                    mainHandler.post(() -> {
-                        if (binding != null && binding.webview != null) {
-                            binding.webview.destroy();
-                            Log.d(TAG, "WebView destroyed");
-                        }
-                    });
-                }
+                // Already on the main thread; the view is going away with the binding
+                webView.destroy();
+                webView = null;
+                Log.d(TAG, "WebView destroyed");
             }
             
             // Clean up handlers
@@ -1121,14 +1241,14 @@ public class YouTubeFragment extends Fragment {
      * Get current preferred quality setting
      */
     public String getPreferredQuality() {
-        return qualityManager.getPreferredQuality();
+        return qualityEngine.getPreferredQuality();
     }
     
     /**
      * Set preferred quality
      */
     public void setPreferredQuality(String quality) {
-        qualityManager.setPreferredQuality(quality);
+        qualityEngine.setPreferredQuality(quality);
         Log.d(TAG, "Preferred quality set to: " + quality);
     }
     
@@ -1136,23 +1256,23 @@ public class YouTubeFragment extends Fragment {
      * Check if auto-select quality is enabled
      */
     public boolean isAutoSelectQualityEnabled() {
-        return qualityManager.isAutoSelectEnabled();
+        return qualityEngine.isAutoSelectEnabled();
     }
     
     /**
      * Enable or disable auto-select quality
      */
     public void setAutoSelectQualityEnabled(boolean enabled) {
-        qualityManager.setAutoSelectEnabled(enabled);
+        qualityEngine.setAutoSelectEnabled(enabled);
         Log.d(TAG, "Auto-select quality " + (enabled ? "enabled" : "disabled"));
     }
     
     /**
-     * Refresh the current page
+     * Refresh the current page or kiosk
      */
     public void refreshPage() {
-        if (binding != null && binding.webview != null) {
-            binding.webview.reload();
+        if (binding != null) {
+            loadCurrentMode(true);
         }
     }
     
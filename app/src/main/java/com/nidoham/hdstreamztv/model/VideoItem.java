@@ -7,15 +7,28 @@ public class VideoItem {
     private String videoUrl;
     private long duration;
     private long viewCount;
+    // Display strings formatted off the main thread; null means format at bind time
+    private String durationText;
+    private String viewCountText;
+    // Channel page of the uploader; null if unknown
+    private String uploaderUrl;
     
     public VideoItem(String title, String uploader, String thumbnailUrl, 
                     String videoUrl, long duration, long viewCount) {
+        this(title, uploader, thumbnailUrl, videoUrl, duration, viewCount, null, null);
+    }
+    
+    public VideoItem(String title, String uploader, String thumbnailUrl,
+                    String videoUrl, long duration, long viewCount,
+                    String durationText, String viewCountText) {
         this.title = title;
         this.uploader = uploader;
         this.thumbnailUrl = thumbnailUrl;
         this.videoUrl = videoUrl;
         this.duration = duration;
         this.viewCount = viewCount;
+        this.durationText = durationText;
+        this.viewCountText = viewCountText;
     }
     
     // Getters
@@ -25,12 +38,16 @@ public class VideoItem {
     public String getVideoUrl() { return videoUrl; }
     public long getDuration() { return duration; }
     public long getViewCount() { return viewCount; }
+    public String getDurationText() { return durationText; }
+    public String getViewCountText() { return viewCountText; }
+    public String getUploaderUrl() { return uploaderUrl; }
     
     // Setters
     public void setTitle(String title) { this.title = title; }
     public void setUploader(String uploader) { this.uploader = uploader; }
     public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
     public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
-    public void setDuration(long duration) { this.duration = duration; }
-    public void setViewCount(long viewCount) { this.viewCount = viewCount; }
+    public void setDuration(long duration) { this.duration = duration; this.durationText = null; }
+    public void setViewCount(long viewCount) { this.viewCount = viewCount; this.viewCountText = null; }
+    public void setUploaderUrl(String uploaderUrl) { this.uploaderUrl = uploaderUrl; }
 }
\ No newline at end of file
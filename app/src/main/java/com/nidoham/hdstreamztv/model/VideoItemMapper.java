@@ -0,0 +1,174 @@
+package com.nidoham.hdstreamztv.model;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.nidoham.hdstreamztv.R;
+
+import org.schabi.newpipe.extractor.Image;
+import org.schabi.newpipe.extractor.InfoItem;
+import org.schabi.newpipe.extractor.playlist.PlaylistInfoItem;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.util.Localization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns extracted {@link StreamInfoItem}s into ready-to-bind {@link VideoItem}s.
+ *
+ * Meant to run on the extraction thread: duration and view count are formatted here, once
+ * per item, and the thumbnail URL is the variant closest to the size the list shows it at,
+ * so binding a row only sets text and starts an image load.
+ */
+public class VideoItemMapper {
+
+    private final Context context;
+    private final int thumbnailWidthPx;
+    private final int thumbnailHeightPx;
+
+    /**
+     * @param thumbnailWidthPx  width the thumbnails are shown at, in pixels
+     * @param thumbnailHeightPx height the thumbnails are shown at, in pixels
+     */
+    public VideoItemMapper(@NonNull Context context, int thumbnailWidthPx, int thumbnailHeightPx) {
+        this.context = context.getApplicationContext();
+        this.thumbnailWidthPx = thumbnailWidthPx;
+        this.thumbnailHeightPx = thumbnailHeightPx;
+    }
+
+    /**
+     * A mapper for the thumbnails of {@code item_video} rows.
+     */
+    @NonNull
+    public static VideoItemMapper forVideoList(@NonNull Context context) {
+        return new VideoItemMapper(context,
+                context.getResources().getDimensionPixelSize(R.dimen.video_item_thumbnail_width),
+                context.getResources().getDimensionPixelSize(R.dimen.video_item_thumbnail_height));
+    }
+
+    @WorkerThread
+    @NonNull
+    public List<VideoItem> map(@Nullable List<StreamInfoItem> items) {
+        if (items == null || items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<VideoItem> videos = new ArrayList<>(items.size());
+        for (StreamInfoItem item : items) {
+            videos.add(map(item));
+        }
+        return videos;
+    }
+
+    @WorkerThread
+    @NonNull
+    public VideoItem map(@NonNull StreamInfoItem item) {
+        Image thumbnail = pickThumbnail(item.getThumbnails(), thumbnailWidthPx, thumbnailHeightPx);
+        String thumbnailUrl = thumbnail != null && thumbnail.getUrl() != null ? thumbnail.getUrl() : "";
+        long duration = item.getDuration();
+        long viewCount = item.getViewCount();
+
+        VideoItem video = new VideoItem(
+                item.getName() != null ? item.getName() : "",
+                item.getUploaderName() != null ? item.getUploaderName() : "",
+                thumbnailUrl,
+                item.getUrl() != null ? item.getUrl() : "",
+                duration,
+                viewCount,
+                Localization.getDurationString(duration),
+                // Negative means the extractor didn't find a count
+                viewCount >= 0 ? Localization.shortViewCount(context, viewCount) : "");
+        video.setUploaderUrl(item.getUploaderUrl());
+        return video;
+    }
+
+    /**
+     * Videos and playlists of {@code items}, in order; other kinds of items are left out.
+     * A playlist row shows its stream count in place of the duration and view count.
+     */
+    @WorkerThread
+    @NonNull
+    public List<VideoItem> mapVideosAndPlaylists(@Nullable List<? extends InfoItem> items) {
+        if (items == null || items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<VideoItem> videos = new ArrayList<>(items.size());
+        for (InfoItem item : items) {
+            if (item instanceof StreamInfoItem) {
+                videos.add(map((StreamInfoItem) item));
+            } else if (item instanceof PlaylistInfoItem) {
+                videos.add(map((PlaylistInfoItem) item));
+            }
+        }
+        return videos;
+    }
+
+    @WorkerThread
+    @NonNull
+    public VideoItem map(@NonNull PlaylistInfoItem item) {
+        Image thumbnail = pickThumbnail(item.getThumbnails(), thumbnailWidthPx, thumbnailHeightPx);
+        long streamCount = item.getStreamCount();
+
+        VideoItem playlist = new VideoItem(
+                item.getName() != null ? item.getName() : "",
+                item.getUploaderName() != null ? item.getUploaderName() : "",
+                thumbnail != null && thumbnail.getUrl() != null ? thumbnail.getUrl() : "",
+                item.getUrl() != null ? item.getUrl() : "",
+                0,
+                -1,
+                Localization.localizeStreamCountMini(context, streamCount),
+                Localization.localizeStreamCount(context, streamCount));
+        playlist.setUploaderUrl(item.getUploaderUrl());
+        return playlist;
+    }
+
+    /**
+     * The smallest variant at least {@code targetWidthPx} wide, else the widest one. When no
+     * widths are known, the first variant whose estimated resolution level matches the target
+     * height, else the first entry.
+     */
+    @Nullable
+    public static Image pickThumbnail(@Nullable List<Image> thumbnails, int targetWidthPx,
+                                      int targetHeightPx) {
+        if (thumbnails == null || thumbnails.isEmpty()) {
+            return null;
+        }
+
+        Image smallestFitting = null;
+        Image widest = null;
+        for (Image image : thumbnails) {
+            int width = image.getWidth();
+            if (width <= 0) {
+                continue;
+            }
+            if (width >= targetWidthPx
+                    && (smallestFitting == null || width < smallestFitting.getWidth())) {
+                smallestFitting = image;
+            }
+            if (widest == null || width > widest.getWidth()) {
+                widest = image;
+            }
+        }
+
+        if (smallestFitting != null) {
+            return smallestFitting;
+        }
+        if (widest != null) {
+            return widest;
+        }
+
+        // Sizes unknown; YouTube still labels its variants low/medium/high
+        Image.ResolutionLevel targetLevel = Image.ResolutionLevel.fromHeight(targetHeightPx);
+        for (Image image : thumbnails) {
+            if (image.getEstimatedResolutionLevel() == targetLevel) {
+                return image;
+            }
+        }
+        return thumbnails.get(0);
+    }
+}
@@ -5,10 +5,50 @@ import java.io.Serializable;
 public class VideoQuality implements Serializable {
     private String quality;
     private String url;
+    private String audioUrl;
+    private int height;
+    private int fps;
+    private String codec;
+    private long bitrate;
+    private boolean audioOnly;
 
     public VideoQuality(String quality, String url) {
+        this(quality, url, null);
+    }
+
+    /**
+     * A stream known only by its label, such as an HLS master or a direct link; height and
+     * frame rate are unknown (0).
+     *
+     * @param audioUrl separate audio stream to merge with a video-only {@code url},
+     *                 or null when {@code url} already carries audio
+     */
+    public VideoQuality(String quality, String url, String audioUrl) {
+        this(quality, url, audioUrl, 0, 0, null, 0);
+    }
+
+    /**
+     * @param codec   RFC 6381 codec string such as "avc1.64001F", or null when unknown
+     * @param bitrate bits per second, or 0 when unknown
+     */
+    public VideoQuality(String quality, String url, String audioUrl,
+                        int height, int fps, String codec, long bitrate) {
         this.quality = quality;
         this.url = url;
+        this.audioUrl = audioUrl;
+        this.height = height;
+        this.fps = fps;
+        this.codec = codec;
+        this.bitrate = bitrate;
+    }
+
+    /**
+     * An audio stream played on its own, with the video renderer off.
+     */
+    public static VideoQuality audioOnly(String label, String url, String codec, long bitrate) {
+        VideoQuality quality = new VideoQuality(label, url, null, 0, 0, codec, bitrate);
+        quality.audioOnly = true;
+        return quality;
     }
 
     public String getQuality() {
@@ -18,4 +58,32 @@ public class VideoQuality implements Serializable {
     public String getUrl() {
         return url;
     }
-}
\ No newline at end of file
+
+    public String getAudioUrl() {
+        return audioUrl;
+    }
+
+    public boolean isVideoOnly() {
+        return audioUrl != null && !audioUrl.isEmpty();
+    }
+
+    public boolean isAudioOnly() {
+        return audioOnly;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public long getBitrate() {
+        return bitrate;
+    }
+}
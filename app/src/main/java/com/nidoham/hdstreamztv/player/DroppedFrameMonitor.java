@@ -0,0 +1,90 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.Format;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DecoderReuseEvaluation;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+
+import com.nidoham.hdstreamztv.quality.DecoderCapabilities;
+
+/**
+ * Watches dropped video frames and flags formats the decoder can't keep up with.
+ *
+ * The renderer reports drops in batches together with the time they were spread over;
+ * comparing that with the number of frames the format should have shown in the same time
+ * gives a drop ratio. Two bad batches in a row for the same format count as stutter: the
+ * limit is remembered by {@link DecoderCapabilities} so future rankings avoid it, and the
+ * listener gets a chance to step down right away. Drop totals per session are kept by
+ * {@link PlaybackMetricsCollector}.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class DroppedFrameMonitor implements AnalyticsListener {
+
+    private static final String TAG = "DroppedFrameMonitor";
+
+    // Share of expected frames that may be dropped before a batch counts as bad
+    private static final float MAX_DROP_RATIO = 0.15f;
+    private static final int BAD_REPORTS_FOR_STUTTER = 2;
+    private static final float DEFAULT_FRAME_RATE = 30f;
+
+    public interface Listener {
+        void onSustainedFrameDrops(@NonNull Format format, float dropRatio);
+    }
+
+    @Nullable
+    private final Listener listener;
+
+    @Nullable
+    private Format currentFormat;
+    private int consecutiveBadReports;
+    private boolean stutterReported;
+
+    public DroppedFrameMonitor(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void onVideoInputFormatChanged(@NonNull EventTime eventTime, @NonNull Format format,
+                                          @Nullable DecoderReuseEvaluation decoderReuseEvaluation) {
+        currentFormat = format;
+        consecutiveBadReports = 0;
+        stutterReported = false;
+    }
+
+    @Override
+    public void onDroppedVideoFrames(@NonNull EventTime eventTime, int droppedFrames, long elapsedMs) {
+        Format format = currentFormat;
+        if (format == null || elapsedMs <= 0) {
+            return;
+        }
+
+        float ratio = droppedFrames / expectedFrames(format, elapsedMs);
+        Log.d(TAG, "Dropped " + droppedFrames + " frames in " + elapsedMs + "ms ("
+                + Math.round(ratio * 100) + "%) at " + format.height + "p");
+
+        consecutiveBadReports = ratio > MAX_DROP_RATIO ? consecutiveBadReports + 1 : 0;
+        if (consecutiveBadReports >= BAD_REPORTS_FOR_STUTTER && !stutterReported) {
+            stutterReported = true;
+
+            String mimeType = format.sampleMimeType != null ? format.sampleMimeType : DecoderCapabilities.MIME_AVC;
+            DecoderCapabilities.getInstance().reportStutter(mimeType, format.height, Math.round(frameRate(format)));
+
+            if (listener != null) {
+                listener.onSustainedFrameDrops(format, ratio);
+            }
+        }
+    }
+
+    private static float expectedFrames(Format format, long elapsedMs) {
+        return Math.max(1f, frameRate(format) * elapsedMs / 1000f);
+    }
+
+    private static float frameRate(Format format) {
+        return format.frameRate > 0 ? format.frameRate : DEFAULT_FRAME_RATE;
+    }
+}
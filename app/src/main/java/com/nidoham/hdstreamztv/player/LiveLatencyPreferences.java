@@ -0,0 +1,66 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.MediaItem;
+
+/**
+ * Per-channel switch for low-latency live playback.
+ *
+ * Low latency keeps the player a few seconds behind the live edge and nudges the playback
+ * speed to stay there. That suits sports, but makes rebuffering more likely on weak links,
+ * so it is opt-in per channel rather than global.
+ */
+public class LiveLatencyPreferences {
+
+    private static final String PREFS_NAME = "live_latency_prefs";
+    private static final String KEY_PREFIX = "low_latency_";
+
+    // Close to the live edge; LL-HLS streams can honour this via their part hold-back
+    static final long LOW_LATENCY_TARGET_OFFSET_MS = 3_000;
+    static final long LOW_LATENCY_MIN_OFFSET_MS = 1_500;
+    static final long LOW_LATENCY_MAX_OFFSET_MS = 10_000;
+
+    // Small enough to be inaudible, large enough to catch up within a few seconds
+    static final float LOW_LATENCY_MIN_SPEED = 0.97f;
+    static final float LOW_LATENCY_MAX_SPEED = 1.04f;
+
+    private final SharedPreferences prefs;
+
+    public LiveLatencyPreferences(@NonNull Context context) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * @param channelKey the channel's link without its query, so renamed channels and
+     *                   rotating tokens keep the setting
+     */
+    public boolean isLowLatencyEnabled(@NonNull String channelKey) {
+        return prefs.getBoolean(KEY_PREFIX + channelKey, false);
+    }
+
+    public void setLowLatencyEnabled(@NonNull String channelKey, boolean enabled) {
+        prefs.edit().putBoolean(KEY_PREFIX + channelKey, enabled).apply();
+    }
+
+    /**
+     * Live configuration for the mode, or null to use what the stream's playlist asks for.
+     */
+    @Nullable
+    public static MediaItem.LiveConfiguration liveConfigurationFor(boolean lowLatency) {
+        if (!lowLatency) {
+            return null;
+        }
+
+        return new MediaItem.LiveConfiguration.Builder()
+                .setTargetOffsetMs(LOW_LATENCY_TARGET_OFFSET_MS)
+                .setMinOffsetMs(LOW_LATENCY_MIN_OFFSET_MS)
+                .setMaxOffsetMs(LOW_LATENCY_MAX_OFFSET_MS)
+                .setMinPlaybackSpeed(LOW_LATENCY_MIN_SPEED)
+                .setMaxPlaybackSpeed(LOW_LATENCY_MAX_SPEED)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DefaultDataSource;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
+import androidx.media3.exoplayer.source.MediaSource;
+import androidx.media3.exoplayer.source.MergingMediaSource;
+import androidx.media3.exoplayer.source.ProgressiveMediaSource;
+
+import org.schabi.newpipe.DownloaderImpl;
+
+/**
+ * Creates ExoPlayer media sources for the URLs handed to the player.
+ *
+ * Single URLs go through {@link DefaultMediaSourceFactory}, which picks HLS, DASH or
+ * progressive loading from the URL. A video-only stream with a separate audio URL is
+ * played as a {@link MergingMediaSource} of two progressive sources.
+ *
+ * HTTP requests go through the extractor's OkHttp client (see
+ * {@link DownloaderImpl#getMediaClient()}), so segment fetches reuse its pooled HTTP/2
+ * connections and send the same user agent and cookies.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class MediaSourceBuilder {
+
+    private final DefaultMediaSourceFactory defaultFactory;
+    private final ProgressiveMediaSource.Factory progressiveFactory;
+
+    public MediaSourceBuilder(@NonNull Context context) {
+        this(createDataSourceFactory(context.getApplicationContext()));
+    }
+
+    public MediaSourceBuilder(@NonNull DataSource.Factory dataSourceFactory) {
+        this.defaultFactory = new DefaultMediaSourceFactory(dataSourceFactory);
+        this.progressiveFactory = new ProgressiveMediaSource.Factory(dataSourceFactory);
+    }
+
+    /**
+     * HTTP(S) through the shared OkHttp client; other schemes (files, content URIs) as usual.
+     */
+    @NonNull
+    public static DataSource.Factory createDataSourceFactory(@NonNull Context context) {
+        DownloaderImpl downloader = DownloaderImpl.getInstance();
+        if (downloader == null) {
+            // Not initialized yet; fall back to the platform HTTP stack
+            return new DefaultDataSource.Factory(context);
+        }
+
+        OkHttpDataSource.Factory httpFactory = new OkHttpDataSource.Factory(downloader.getMediaClient())
+                .setUserAgent(DownloaderImpl.USER_AGENT);
+        return new DefaultDataSource.Factory(context, httpFactory);
+    }
+
+    /**
+     * @param mediaUrl the stream to play
+     * @param audioUrl audio to merge with a video-only {@code mediaUrl}, or null
+     */
+    @NonNull
+    public MediaSource build(@NonNull String mediaUrl, @Nullable String audioUrl) {
+        return build(mediaUrl, audioUrl, null);
+    }
+
+    /**
+     * @param liveConfiguration live offset and speed targets, or null for the stream's defaults
+     */
+    @NonNull
+    public MediaSource build(@NonNull String mediaUrl, @Nullable String audioUrl,
+                             @Nullable MediaItem.LiveConfiguration liveConfiguration) {
+        MediaItem.Builder videoBuilder = new MediaItem.Builder().setUri(Uri.parse(mediaUrl.trim()));
+        if (liveConfiguration != null) {
+            videoBuilder.setLiveConfiguration(liveConfiguration);
+        }
+        MediaItem videoItem = videoBuilder.build();
+
+        if (audioUrl == null || audioUrl.trim().isEmpty()) {
+            return defaultFactory.createMediaSource(videoItem);
+        }
+
+        MediaItem audioItem = MediaItem.fromUri(Uri.parse(audioUrl.trim()));
+        return new MergingMediaSource(
+                progressiveFactory.createMediaSource(videoItem),
+                progressiveFactory.createMediaSource(audioItem));
+    }
+}
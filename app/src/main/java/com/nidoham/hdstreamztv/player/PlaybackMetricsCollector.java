@@ -0,0 +1,199 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.Format;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DecoderReuseEvaluation;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+
+/**
+ * Turns player analytics events into {@link PlaybackSessionMetrics}.
+ *
+ * All durations come from {@link EventTime#realtimeMs}, so they are measured on the
+ * playback thread's clock rather than when the main thread gets around to it. Finished
+ * sessions go to a {@link PlaybackMetricsStore}.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackMetricsCollector implements AnalyticsListener {
+
+    private static final String TAG = "PlaybackMetrics";
+
+    // A seek's own buffering state arrives in the same batch of events as the seek
+    private static final long SEEK_BUFFERING_WINDOW_MS = 500;
+
+    private final PlaybackMetricsStore store;
+
+    @Nullable
+    private PlaybackSessionMetrics session;
+    private long sessionStartRealtimeMs;
+    private long rebufferStartRealtimeMs = -1;
+    private long playingSinceRealtimeMs = -1;
+    private long seekRealtimeMs = -1;
+    @Nullable
+    private Format lastVideoFormat;
+
+    public PlaybackMetricsCollector(@NonNull PlaybackMetricsStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Start measuring a new source; the previous session, if any, is finished and stored.
+     *
+     * @param realtimeMs {@code SystemClock.elapsedRealtime()} when the source was prepared
+     */
+    public void startSession(@NonNull String sourceUrl, @NonNull String label, long realtimeMs) {
+        endSession(realtimeMs);
+
+        session = new PlaybackSessionMetrics(sourceKeyOf(sourceUrl), label, System.currentTimeMillis());
+        sessionStartRealtimeMs = realtimeMs;
+        rebufferStartRealtimeMs = -1;
+        playingSinceRealtimeMs = -1;
+        seekRealtimeMs = -1;
+        lastVideoFormat = null;
+    }
+
+    /**
+     * Close open intervals and store the current session.
+     */
+    public void endSession(long realtimeMs) {
+        PlaybackSessionMetrics finished = session;
+        if (finished == null) {
+            return;
+        }
+
+        if (rebufferStartRealtimeMs >= 0) {
+            finished.rebufferMs += realtimeMs - rebufferStartRealtimeMs;
+        }
+        if (playingSinceRealtimeMs >= 0) {
+            finished.playingMs += realtimeMs - playingSinceRealtimeMs;
+        }
+        session = null;
+
+        Log.d(TAG, "Session finished: " + finished);
+        store.append(finished);
+    }
+
+    @Nullable
+    public PlaybackSessionMetrics getCurrentSession() {
+        return session;
+    }
+
+    @Override
+    public void onPlaybackStateChanged(@NonNull EventTime eventTime, int state) {
+        PlaybackSessionMetrics metrics = session;
+        if (metrics == null) {
+            return;
+        }
+
+        long now = eventTime.realtimeMs;
+        if (state == Player.STATE_READY) {
+            if (!metrics.hasStarted()) {
+                metrics.startupMs = now - sessionStartRealtimeMs;
+            } else if (rebufferStartRealtimeMs >= 0) {
+                metrics.rebufferMs += now - rebufferStartRealtimeMs;
+            }
+            rebufferStartRealtimeMs = -1;
+        } else if (state == Player.STATE_BUFFERING) {
+            // Waiting after a user seek is expected; only unprompted stalls count
+            if (metrics.hasStarted() && !isSeekBuffering(now) && rebufferStartRealtimeMs < 0) {
+                metrics.rebufferCount++;
+                rebufferStartRealtimeMs = now;
+            }
+        }
+        // A seek that stayed ready has no state change of its own, so any change ends it
+        seekRealtimeMs = -1;
+    }
+
+    private boolean isSeekBuffering(long realtimeMs) {
+        return seekRealtimeMs >= 0 && realtimeMs - seekRealtimeMs <= SEEK_BUFFERING_WINDOW_MS;
+    }
+
+    @Override
+    public void onIsPlayingChanged(@NonNull EventTime eventTime, boolean isPlaying) {
+        PlaybackSessionMetrics metrics = session;
+        if (metrics == null) {
+            return;
+        }
+
+        if (isPlaying) {
+            playingSinceRealtimeMs = eventTime.realtimeMs;
+        } else if (playingSinceRealtimeMs >= 0) {
+            metrics.playingMs += eventTime.realtimeMs - playingSinceRealtimeMs;
+            playingSinceRealtimeMs = -1;
+        }
+    }
+
+    @Override
+    public void onPositionDiscontinuity(@NonNull EventTime eventTime,
+                                        @NonNull Player.PositionInfo oldPosition,
+                                        @NonNull Player.PositionInfo newPosition,
+                                        int reason) {
+        if (reason == Player.DISCONTINUITY_REASON_SEEK) {
+            seekRealtimeMs = eventTime.realtimeMs;
+        }
+    }
+
+    @Override
+    public void onVideoInputFormatChanged(@NonNull EventTime eventTime, @NonNull Format format,
+                                          @Nullable DecoderReuseEvaluation decoderReuseEvaluation) {
+        PlaybackSessionMetrics metrics = session;
+        if (metrics == null) {
+            return;
+        }
+
+        Format previous = lastVideoFormat;
+        if (previous != null && (previous.height != format.height || previous.bitrate != format.bitrate)) {
+            metrics.qualitySwitches++;
+        }
+        lastVideoFormat = format;
+    }
+
+    @Override
+    public void onDroppedVideoFrames(@NonNull EventTime eventTime, int droppedFrames, long elapsedMs) {
+        if (session != null) {
+            session.droppedFrames += droppedFrames;
+        }
+    }
+
+    /**
+     * {@link DroppedFrameMonitor} saw sustained frame drops in the current format.
+     */
+    public void onSustainedFrameDrops() {
+        if (session != null) {
+            session.stutterCount++;
+        }
+    }
+
+    @Override
+    public void onPlayerError(@NonNull EventTime eventTime, @NonNull PlaybackException error) {
+        if (session != null) {
+            session.errorCount++;
+            session.lastError = error.getErrorCodeName();
+        }
+    }
+
+    /**
+     * Playback resumed after an error; {@code recoveryMs} is measured by the caller from the
+     * first error to the ready state.
+     */
+    public void onRecovered(long recoveryMs) {
+        if (session != null) {
+            session.recoveryCount++;
+            session.recoveryMs += recoveryMs;
+        }
+    }
+
+    /**
+     * Group sessions by the URL without its query, which carries per-request tokens.
+     */
+    public static String sourceKeyOf(String url) {
+        int query = url.indexOf('?');
+        return query >= 0 ? url.substring(0, query) : url;
+    }
+}
@@ -0,0 +1,310 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local ring buffer of the most recent playback sessions.
+ *
+ * Sessions are kept in memory and written to a single JSON file on a background thread,
+ * replacing the file atomically. The file is read on that thread too: sessions appended
+ * before it is read are held back and added after the stored ones, and the main thread asks
+ * for summaries with {@link #summarizeBySource(SummaryCallback)}. Nothing leaves the device; {@link #exportJson()} and
+ * {@link #summarizeBySource()} are the read side, e.g. to find slow or failing mirrors.
+ */
+public class PlaybackMetricsStore {
+
+    private static final String TAG = "PlaybackMetricsStore";
+    private static final String FILE_NAME = "playback_metrics.json";
+    private static final int DEFAULT_CAPACITY = 200;
+
+    private static volatile PlaybackMetricsStore instance;
+
+    /**
+     * Receives per-source summaries on the main thread.
+     */
+    public interface SummaryCallback {
+        void onSummaries(@NonNull List<SourceSummary> summaries);
+    }
+
+    private final File file;
+    private final int capacity;
+    private final ArrayDeque<PlaybackSessionMetrics> sessions = new ArrayDeque<>();
+    // Also does the first read, so it is ordered before any write
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    // Appended before the file was read
+    private final List<PlaybackSessionMetrics> pendingAppends = new ArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean loaded;
+    private boolean loadScheduled;
+
+    public static PlaybackMetricsStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (PlaybackMetricsStore.class) {
+                if (instance == null) {
+                    instance = new PlaybackMetricsStore(
+                            new File(context.getApplicationContext().getFilesDir(), FILE_NAME),
+                            DEFAULT_CAPACITY);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param file     where sessions are persisted
+     * @param capacity number of sessions kept; older ones are dropped first
+     */
+    public PlaybackMetricsStore(@NonNull File file, int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Add a finished session; never reads the file on the calling thread.
+     */
+    public void append(@NonNull PlaybackSessionMetrics metrics) {
+        final String json;
+        synchronized (this) {
+            if (!loaded) {
+                pendingAppends.add(metrics);
+                if (!loadScheduled) {
+                    loadScheduled = true;
+                    writer.execute(this::loadAndWrite);
+                }
+                return;
+            }
+            addLocked(metrics);
+            json = toJsonLocked();
+        }
+        writer.execute(() -> write(json));
+    }
+
+    private void loadAndWrite() {
+        final String json;
+        synchronized (this) {
+            ensureLoaded();
+            json = toJsonLocked();
+        }
+        write(json);
+    }
+
+    private void addLocked(PlaybackSessionMetrics metrics) {
+        sessions.addLast(metrics);
+        while (sessions.size() > capacity) {
+            sessions.removeFirst();
+        }
+    }
+
+    @NonNull
+    public synchronized List<PlaybackSessionMetrics> getSessions() {
+        ensureLoaded();
+        return new ArrayList<>(sessions);
+    }
+
+    /**
+     * All stored sessions as a JSON array, oldest first.
+     */
+    @NonNull
+    public synchronized String exportJson() {
+        ensureLoaded();
+        return toJsonLocked();
+    }
+
+    /**
+     * Per-source aggregates, in order of first appearance.
+     */
+    @NonNull
+    public synchronized List<SourceSummary> summarizeBySource() {
+        ensureLoaded();
+        Map<String, SourceSummary> summaries = new LinkedHashMap<>();
+        for (PlaybackSessionMetrics metrics : sessions) {
+            SourceSummary summary = summaries.get(metrics.getSourceKey());
+            if (summary == null) {
+                summary = new SourceSummary(metrics.getSourceKey(), metrics.getSourceLabel());
+                summaries.put(metrics.getSourceKey(), summary);
+            }
+            summary.add(metrics);
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * Like {@link #summarizeBySource()}, but summarizes on the writer thread, so the file is
+     * never read on the calling (main) thread.
+     */
+    public void summarizeBySource(@NonNull SummaryCallback callback) {
+        writer.execute(() -> {
+            List<SourceSummary> summaries = summarizeBySource();
+            mainHandler.post(() -> callback.onSummaries(summaries));
+        });
+    }
+
+    public synchronized void clear() {
+        sessions.clear();
+        pendingAppends.clear();
+        loaded = true;
+        writer.execute(() -> {
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "Failed to delete " + file);
+            }
+        });
+    }
+
+    private String toJsonLocked() {
+        JsonArray array = new JsonArray();
+        for (PlaybackSessionMetrics metrics : sessions) {
+            array.add(metrics.toJson());
+        }
+        return JsonWriter.string(array);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        readFileLocked();
+
+        for (PlaybackSessionMetrics metrics : pendingAppends) {
+            addLocked(metrics);
+        }
+        pendingAppends.clear();
+    }
+
+    private void readFileLocked() {
+        if (!file.exists()) {
+            return;
+        }
+
+        try (InputStream in = new FileInputStream(file)) {
+            JsonArray array = JsonParser.array().from(in);
+            for (Object item : array) {
+                if (item instanceof JsonObject) {
+                    addLocked(PlaybackSessionMetrics.fromJson((JsonObject) item));
+                }
+            }
+        } catch (IOException | JsonParserException e) {
+            Log.w(TAG, "Discarding unreadable metrics file", e);
+            sessions.clear();
+        }
+    }
+
+    private void write(String json) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write metrics", e);
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "Failed to replace " + file);
+        }
+    }
+
+    /**
+     * Aggregated numbers for one source across the stored sessions.
+     */
+    public static final class SourceSummary {
+        private final String sourceKey;
+        private final String label;
+        private int sessions;
+        private int startedSessions;
+        private long totalStartupMs;
+        private int rebuffers;
+        private long rebufferMs;
+        private long playingMs;
+        private int switches;
+        private long droppedFrames;
+        private int stutters;
+        private int failedSessions;
+        private int recoveries;
+        private long recoveryMs;
+
+        SourceSummary(String sourceKey, String label) {
+            this.sourceKey = sourceKey;
+            this.label = label;
+        }
+
+        void add(PlaybackSessionMetrics metrics) {
+            sessions++;
+            if (metrics.hasStarted()) {
+                startedSessions++;
+                totalStartupMs += metrics.getStartupMs();
+            }
+            rebuffers += metrics.getRebufferCount();
+            rebufferMs += metrics.getRebufferMs();
+            playingMs += metrics.getPlayingMs();
+            switches += metrics.getQualitySwitches();
+            droppedFrames += metrics.getDroppedFrames();
+            stutters += metrics.getStutterCount();
+            recoveries += metrics.getRecoveryCount();
+            recoveryMs += metrics.getRecoveryMs();
+            if (metrics.getErrorCount() > 0) {
+                failedSessions++;
+            }
+        }
+
+        public String getSourceKey() { return sourceKey; }
+        public String getLabel() { return label; }
+        public int getSessions() { return sessions; }
+        public int getRebuffers() { return rebuffers; }
+        public int getSwitches() { return switches; }
+        public long getDroppedFrames() { return droppedFrames; }
+        public int getStutters() { return stutters; }
+        public int getRecoveries() { return recoveries; }
+
+        /** Mean time from an error to playing again, or -1 if nothing was recovered. */
+        public long getAverageRecoveryMs() {
+            return recoveries > 0 ? recoveryMs / recoveries : -1;
+        }
+
+        /** Dropped frames per minute of playback, or 0 if nothing was played. */
+        public double getDroppedFramesPerMinute() {
+            return playingMs > 0 ? droppedFrames * 60_000d / playingMs : 0;
+        }
+
+        /** Mean startup time of sessions that started, or -1 if none did. */
+        public long getAverageStartupMs() {
+            return startedSessions > 0 ? totalStartupMs / startedSessions : -1;
+        }
+
+        /** Share of watch time spent rebuffering. */
+        public double getRebufferRatio() {
+            long total = playingMs + rebufferMs;
+            return total > 0 ? (double) rebufferMs / total : 0;
+        }
+
+        /** Share of sessions that hit at least one player error. */
+        public double getErrorRate() {
+            return sessions > 0 ? (double) failedSessions / sessions : 0;
+        }
+    }
+}
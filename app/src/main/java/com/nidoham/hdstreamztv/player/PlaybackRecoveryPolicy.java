@@ -0,0 +1,249 @@
+package com.nidoham.hdstreamztv.player;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.HttpDataSource;
+
+import java.net.SocketTimeoutException;
+import java.util.Random;
+
+/**
+ * Decides how to react to a playback error.
+ *
+ * Errors are classified first, because retrying the same URL only helps for transient
+ * failures: a 403/404 from a mirror will not fix itself, a 5xx or timeout often does, and
+ * falling behind the live window just needs a jump to the live edge. Retries back off
+ * exponentially with jitter so a flapping server isn't hammered by every viewer at once;
+ * once a source has used its retries the policy moves on to the next mirror. The budget is
+ * only refilled after a stretch of stable playback, so a source that fails again right after
+ * becoming ready still runs out of retries.
+ *
+ * The policy holds no Android state; the caller carries out the returned {@link Decision}.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackRecoveryPolicy {
+
+    public enum ErrorClass {
+        BEHIND_LIVE_WINDOW,
+        HTTP_CLIENT,
+        HTTP_SERVER,
+        NETWORK,
+        DECODER,
+        OTHER
+    }
+
+    public enum Action {
+        SEEK_TO_LIVE_EDGE,
+        RETRY,
+        STEP_DOWN_QUALITY,
+        FAILOVER,
+        GIVE_UP
+    }
+
+    private static final long BASE_DELAY_MS = 1_000;
+    private static final long MAX_DELAY_MS = 16_000;
+    private static final int MAX_RETRIES_PER_SOURCE = 4;
+    private static final int MAX_LIVE_EDGE_JUMPS = 3;
+    // Playback that stays ready this long has recovered for good
+    static final long STABLE_PLAYBACK_MS = 30_000;
+
+    private final Random random;
+
+    private int retries;
+    private int liveEdgeJumps;
+    private long errorRealtimeMs = -1;
+    private long readySinceRealtimeMs = -1;
+
+    private int recoveryCount;
+    private long totalRecoveryMs;
+
+    public PlaybackRecoveryPolicy() {
+        this(new Random());
+    }
+
+    /**
+     * @param random source of jitter; pass a seeded instance for reproducible delays
+     */
+    public PlaybackRecoveryPolicy(@NonNull Random random) {
+        this.random = random;
+    }
+
+    /**
+     * What to do next, and after which delay.
+     */
+    public static final class Decision {
+        public final Action action;
+        public final long delayMs;
+        public final ErrorClass errorClass;
+
+        Decision(Action action, long delayMs, ErrorClass errorClass) {
+            this.action = action;
+            this.delayMs = delayMs;
+            this.errorClass = errorClass;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return action + " after " + delayMs + "ms (" + errorClass + ")";
+        }
+    }
+
+    /**
+     * @param error            the failure reported by the player
+     * @param hasMirror        whether another source of the same content is available
+     * @param canStepDown      whether a lower quality of the current source is available
+     * @param realtimeMs       {@code SystemClock.elapsedRealtime()} of the failure
+     */
+    @NonNull
+    public Decision onError(@NonNull PlaybackException error, boolean hasMirror, boolean canStepDown,
+                            long realtimeMs) {
+        if (readySinceRealtimeMs >= 0 && realtimeMs - readySinceRealtimeMs >= STABLE_PLAYBACK_MS) {
+            retries = 0;
+            liveEdgeJumps = 0;
+        }
+        readySinceRealtimeMs = -1;
+        if (errorRealtimeMs < 0) {
+            errorRealtimeMs = realtimeMs;
+        }
+
+        ErrorClass errorClass = classify(error);
+        switch (errorClass) {
+            case BEHIND_LIVE_WINDOW:
+                if (liveEdgeJumps++ < MAX_LIVE_EDGE_JUMPS) {
+                    return new Decision(Action.SEEK_TO_LIVE_EDGE, 0, errorClass);
+                }
+                return failover(errorClass, hasMirror);
+
+            case HTTP_CLIENT:
+                // Forbidden, gone or not found: the same URL won't start working
+                return failover(errorClass, hasMirror);
+
+            case DECODER:
+                if (canStepDown) {
+                    return new Decision(Action.STEP_DOWN_QUALITY, 0, errorClass);
+                }
+                return failover(errorClass, hasMirror);
+
+            default:
+                if (retries < MAX_RETRIES_PER_SOURCE) {
+                    return new Decision(Action.RETRY, nextBackoffMs(retries++), errorClass);
+                }
+                return failover(errorClass, hasMirror);
+        }
+    }
+
+    private Decision failover(ErrorClass errorClass, boolean hasMirror) {
+        return new Decision(hasMirror ? Action.FAILOVER : Action.GIVE_UP, 0, errorClass);
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half the delay is fixed, half random.
+     */
+    long nextBackoffMs(int attempt) {
+        long ceiling = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << Math.min(attempt, 16));
+        long half = ceiling / 2;
+        return half + (long) (random.nextDouble() * half);
+    }
+
+    /**
+     * A new source is playing; it gets a fresh retry budget.
+     */
+    public void onSourceChanged() {
+        retries = 0;
+        liveEdgeJumps = 0;
+        readySinceRealtimeMs = -1;
+    }
+
+    /**
+     * Playback reached the ready state. Ends the current recovery, if any; the retry budget
+     * is refilled once playback has stayed up for {@link #STABLE_PLAYBACK_MS}.
+     *
+     * @return time from the first error to now, or -1 if nothing was being recovered
+     */
+    public long onPlaybackReady(long realtimeMs) {
+        if (readySinceRealtimeMs < 0) {
+            readySinceRealtimeMs = realtimeMs;
+        }
+        if (errorRealtimeMs < 0) {
+            return -1;
+        }
+
+        long recoveryMs = realtimeMs - errorRealtimeMs;
+        errorRealtimeMs = -1;
+        recoveryCount++;
+        totalRecoveryMs += recoveryMs;
+        return recoveryMs;
+    }
+
+    public int getRecoveryCount() {
+        return recoveryCount;
+    }
+
+    /** Mean recovery duration, or -1 if none happened. */
+    public long getAverageRecoveryMs() {
+        return recoveryCount > 0 ? totalRecoveryMs / recoveryCount : -1;
+    }
+
+    public boolean isRecovering() {
+        return errorRealtimeMs >= 0;
+    }
+
+    @NonNull
+    public static ErrorClass classify(@NonNull PlaybackException error) {
+        if (error.errorCode == PlaybackException.ERROR_CODE_BEHIND_LIVE_WINDOW) {
+            return ErrorClass.BEHIND_LIVE_WINDOW;
+        }
+
+        HttpDataSource.InvalidResponseCodeException http = findCause(error,
+                HttpDataSource.InvalidResponseCodeException.class);
+        if (http != null) {
+            return http.responseCode >= 500 ? ErrorClass.HTTP_SERVER : ErrorClass.HTTP_CLIENT;
+        }
+
+        switch (error.errorCode) {
+            case PlaybackException.ERROR_CODE_IO_BAD_HTTP_STATUS:
+            case PlaybackException.ERROR_CODE_IO_FILE_NOT_FOUND:
+            case PlaybackException.ERROR_CODE_IO_NO_PERMISSION:
+                return ErrorClass.HTTP_CLIENT;
+            case PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED:
+            case PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_TIMEOUT:
+            case PlaybackException.ERROR_CODE_TIMEOUT:
+                return ErrorClass.NETWORK;
+            case PlaybackException.ERROR_CODE_DECODER_INIT_FAILED:
+            case PlaybackException.ERROR_CODE_DECODER_QUERY_FAILED:
+            case PlaybackException.ERROR_CODE_DECODING_FAILED:
+            case PlaybackException.ERROR_CODE_DECODING_FORMAT_EXCEEDS_CAPABILITIES:
+            case PlaybackException.ERROR_CODE_DECODING_FORMAT_UNSUPPORTED:
+                return ErrorClass.DECODER;
+            default:
+                return findCause(error, SocketTimeoutException.class) != null
+                        ? ErrorClass.NETWORK
+                        : ErrorClass.OTHER;
+        }
+    }
+
+    /**
+     * HTTP status behind the error, or -1 if it isn't an HTTP status failure.
+     */
+    public static int responseCodeOf(@NonNull PlaybackException error) {
+        HttpDataSource.InvalidResponseCodeException http = findCause(error,
+                HttpDataSource.InvalidResponseCodeException.class);
+        return http != null ? http.responseCode : -1;
+    }
+
+    @Nullable
+    private static <T extends Throwable> T findCause(Throwable error, Class<T> type) {
+        Throwable cause = error;
+        while (cause != null) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+            cause = cause.getCause();
+        }
+        return null;
+    }
+}
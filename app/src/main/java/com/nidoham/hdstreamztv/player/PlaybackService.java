@@ -0,0 +1,116 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.Player;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.session.MediaSession;
+import androidx.media3.session.MediaSessionService;
+
+/**
+ * Keeps the {@link PlayerHolder} player alive while the app is in the background.
+ *
+ * The service wraps the held player in a {@link MediaSession}. Media3 then shows the media
+ * notification and moves the service to the foreground while playback runs. The service
+ * never creates or owns a player. It stops itself once the held player is gone.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackService extends MediaSessionService {
+
+    private static final String TAG = "PlaybackService";
+
+    @Nullable
+    private MediaSession session;
+
+    /**
+     * Publish the currently held player; call after {@link PlayerHolder#set}.
+     */
+    public static void start(@NonNull Context context) {
+        try {
+            context.startService(new Intent(context, PlaybackService.class));
+        } catch (IllegalStateException e) {
+            // Background start restrictions; the next foreground start will publish the session
+            Log.w(TAG, "Unable to start playback service", e);
+        }
+    }
+
+    public static void stop(@NonNull Context context) {
+        context.stopService(new Intent(context, PlaybackService.class));
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        attachSession();
+    }
+
+    @Override
+    public int onStartCommand(@Nullable Intent intent, int flags, int startId) {
+        // A new player may have been handed to the holder since the session was built
+        attachSession();
+        return super.onStartCommand(intent, flags, startId);
+    }
+
+    private void attachSession() {
+        ExoPlayer player = PlayerHolder.get();
+        if (player == null) {
+            Log.d(TAG, "No player to publish, stopping");
+            stopSelf();
+            return;
+        }
+
+        if (session != null) {
+            if (session.getPlayer() == player) {
+                return;
+            }
+            // Different content; rebuild so the notification reopens the right screen
+            removeSession(session);
+            session.release();
+            session = null;
+        }
+
+        MediaSession.Builder builder = new MediaSession.Builder(this, player);
+        Intent sessionIntent = PlayerHolder.getSessionIntent();
+        if (sessionIntent != null) {
+            builder.setSessionActivity(PendingIntent.getActivity(this, 0, sessionIntent,
+                    PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT));
+        }
+        session = builder.build();
+        addSession(session);
+        Log.d(TAG, "Media session published");
+    }
+
+    @Nullable
+    @Override
+    public MediaSession onGetSession(@NonNull MediaSession.ControllerInfo controllerInfo) {
+        return session;
+    }
+
+    @Override
+    public void onTaskRemoved(@Nullable Intent rootIntent) {
+        // Swiped away from recents: keep playing only if the user left it playing
+        Player player = session != null ? session.getPlayer() : null;
+        if (player == null || !player.getPlayWhenReady() || player.getMediaItemCount() == 0) {
+            PlayerHolder.release();
+            stopSelf();
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        if (session != null) {
+            // The player belongs to PlayerHolder and is released there
+            session.release();
+            session = null;
+        }
+        super.onDestroy();
+        Log.d(TAG, "Playback service destroyed");
+    }
+}
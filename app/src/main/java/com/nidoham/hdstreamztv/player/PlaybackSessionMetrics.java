@@ -0,0 +1,121 @@
+package com.nidoham.hdstreamztv.player;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.grack.nanojson.JsonObject;
+
+/**
+ * Quality-of-experience numbers for one playback session of one source.
+ */
+public class PlaybackSessionMetrics {
+
+    private final String sourceKey;
+    private final String sourceLabel;
+    private final long startedAtMs;
+
+    long startupMs = -1;
+    int rebufferCount;
+    long rebufferMs;
+    long playingMs;
+    int qualitySwitches;
+    long droppedFrames;
+    int stutterCount;
+    int errorCount;
+    int recoveryCount;
+    long recoveryMs;
+    @Nullable
+    String lastError;
+
+    /**
+     * @param sourceKey   stable identifier of the source, e.g. the stream URL without query
+     * @param sourceLabel human readable name shown in exports
+     * @param startedAtMs wall clock time the session started
+     */
+    public PlaybackSessionMetrics(@NonNull String sourceKey, @NonNull String sourceLabel, long startedAtMs) {
+        this.sourceKey = sourceKey;
+        this.sourceLabel = sourceLabel;
+        this.startedAtMs = startedAtMs;
+    }
+
+    @NonNull
+    public String getSourceKey() { return sourceKey; }
+    @NonNull
+    public String getSourceLabel() { return sourceLabel; }
+    public long getStartedAtMs() { return startedAtMs; }
+    /** Time from prepare to first ready state, or -1 if playback never started. */
+    public long getStartupMs() { return startupMs; }
+    public int getRebufferCount() { return rebufferCount; }
+    public long getRebufferMs() { return rebufferMs; }
+    public long getPlayingMs() { return playingMs; }
+    public int getQualitySwitches() { return qualitySwitches; }
+    public long getDroppedFrames() { return droppedFrames; }
+    /** Times the decoder dropped frames for a sustained period; see {@link DroppedFrameMonitor}. */
+    public int getStutterCount() { return stutterCount; }
+    public int getErrorCount() { return errorCount; }
+    public int getRecoveryCount() { return recoveryCount; }
+    /** Total time spent recovering from errors that playback survived. */
+    public long getRecoveryMs() { return recoveryMs; }
+    @Nullable
+    public String getLastError() { return lastError; }
+
+    public boolean hasStarted() {
+        return startupMs >= 0;
+    }
+
+    @NonNull
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.put("source", sourceKey);
+        json.put("label", sourceLabel);
+        json.put("startedAt", startedAtMs);
+        json.put("startupMs", startupMs);
+        json.put("rebuffers", rebufferCount);
+        json.put("rebufferMs", rebufferMs);
+        json.put("playingMs", playingMs);
+        json.put("switches", qualitySwitches);
+        json.put("droppedFrames", droppedFrames);
+        json.put("stutters", stutterCount);
+        json.put("errors", errorCount);
+        json.put("recoveries", recoveryCount);
+        json.put("recoveryMs", recoveryMs);
+        if (lastError != null) {
+            json.put("lastError", lastError);
+        }
+        return json;
+    }
+
+    @NonNull
+    public static PlaybackSessionMetrics fromJson(@NonNull JsonObject json) {
+        PlaybackSessionMetrics metrics = new PlaybackSessionMetrics(
+                json.getString("source", ""),
+                json.getString("label", ""),
+                json.getLong("startedAt", 0));
+        metrics.startupMs = json.getLong("startupMs", -1);
+        metrics.rebufferCount = json.getInt("rebuffers", 0);
+        metrics.rebufferMs = json.getLong("rebufferMs", 0);
+        metrics.playingMs = json.getLong("playingMs", 0);
+        metrics.qualitySwitches = json.getInt("switches", 0);
+        metrics.droppedFrames = json.getLong("droppedFrames", 0);
+        metrics.stutterCount = json.getInt("stutters", 0);
+        metrics.errorCount = json.getInt("errors", 0);
+        metrics.recoveryCount = json.getInt("recoveries", 0);
+        metrics.recoveryMs = json.getLong("recoveryMs", 0);
+        metrics.lastError = json.getString("lastError", null);
+        return metrics;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PlaybackSessionMetrics{" + sourceLabel
+                + ", startupMs=" + startupMs
+                + ", rebuffers=" + rebufferCount + "/" + rebufferMs + "ms"
+                + ", playingMs=" + playingMs
+                + ", switches=" + qualitySwitches
+                + ", droppedFrames=" + droppedFrames
+                + ", stutters=" + stutterCount
+                + ", errors=" + errorCount
+                + ", recoveries=" + recoveryCount + "/" + recoveryMs + "ms" + '}';
+    }
+}
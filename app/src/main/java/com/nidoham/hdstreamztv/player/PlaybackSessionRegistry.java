@@ -0,0 +1,97 @@
+package com.nidoham.hdstreamztv.player;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands extracted stream lists from the browsing screens to the player within the process.
+ *
+ * A caller registers the qualities and passes only the returned id in the Intent, instead of
+ * serializing the whole list through Binder. The registry is memory only: after process death
+ * {@link #get} returns null and the player extracts the page again. Ids are random, so an id
+ * from a previous process can't pick up an unrelated session.
+ */
+public final class PlaybackSessionRegistry {
+
+    // Enough for the player plus a few screens on the back stack
+    private static final int MAX_SESSIONS = 8;
+
+    private static final Map<String, Session> sessions =
+            new LinkedHashMap<String, Session>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                    return size() > MAX_SESSIONS;
+                }
+            };
+
+    private PlaybackSessionRegistry() {
+    }
+
+    /**
+     * Streams of one video, as extracted.
+     */
+    public static final class Session {
+        private final List<VideoQuality> qualities;
+        @Nullable
+        private final String hlsUrl;
+        @Nullable
+        private final VideoQuality audioOnly;
+
+        Session(@NonNull List<VideoQuality> qualities, @Nullable String hlsUrl,
+                @Nullable VideoQuality audioOnly) {
+            this.qualities = Collections.unmodifiableList(new ArrayList<>(qualities));
+            this.hlsUrl = hlsUrl;
+            this.audioOnly = audioOnly;
+        }
+
+        @NonNull
+        public List<VideoQuality> getQualities() {
+            return qualities;
+        }
+
+        @Nullable
+        public String getHlsUrl() {
+            return hlsUrl;
+        }
+
+        /** Stream for playback without video, if the source has one. */
+        @Nullable
+        public VideoQuality getAudioOnly() {
+            return audioOnly;
+        }
+    }
+
+    /**
+     * @return id to pass as {@code IntentKeys.EXTRA_SESSION_ID}
+     */
+    @NonNull
+    public static synchronized String register(@NonNull List<VideoQuality> qualities, @Nullable String hlsUrl,
+                                               @Nullable VideoQuality audioOnly) {
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, new Session(qualities, hlsUrl, audioOnly));
+        return id;
+    }
+
+    /**
+     * The registered session, or null if it is unknown to this process.
+     */
+    @Nullable
+    public static synchronized Session get(@Nullable String id) {
+        return id != null ? sessions.get(id) : null;
+    }
+
+    public static synchronized void release(@Nullable String id) {
+        if (id != null) {
+            sessions.remove(id);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.content.Intent;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.exoplayer.ExoPlayer;
+
+/**
+ * Process-wide home of the player that is currently playing.
+ *
+ * The player outlives {@link com.nidoham.hdstreamztv.PlayerActivity} so playback can go on in
+ * picture-in-picture or in the background, and a recreated activity for the same content can
+ * pick it up without extracting and buffering again. {@link PlaybackService} publishes it as a
+ * media session.
+ *
+ * Only touched from the main thread.
+ */
+public final class PlayerHolder {
+
+    @Nullable
+    private static ExoPlayer player;
+    @Nullable
+    private static String contentKey;
+    @Nullable
+    private static Intent sessionIntent;
+    @Nullable
+    private static Runnable onReplaced;
+
+    private PlayerHolder() {
+    }
+
+    /**
+     * Hand over a freshly created player; any previous one is released.
+     *
+     * @param key           identifies the content the player is for
+     * @param sessionIntent reopens the player screen from the notification
+     */
+    @MainThread
+    public static void set(@NonNull ExoPlayer newPlayer, @NonNull String key, @NonNull Intent sessionIntent) {
+        checkMainThread();
+        if (player != null && player != newPlayer) {
+            notifyReplaced();
+            player.release();
+        }
+        player = newPlayer;
+        contentKey = key;
+        PlayerHolder.sessionIntent = sessionIntent;
+    }
+
+    /**
+     * Take over the held player if it is playing {@code key}, otherwise null. A screen still
+     * showing it is told to let go first.
+     */
+    @MainThread
+    @Nullable
+    public static ExoPlayer reuse(@NonNull String key) {
+        checkMainThread();
+        if (player == null || !key.equals(contentKey)) {
+            return null;
+        }
+        notifyReplaced();
+        return player;
+    }
+
+    @MainThread
+    @Nullable
+    public static ExoPlayer get() {
+        checkMainThread();
+        return player;
+    }
+
+    /**
+     * Called once when another screen replaces or takes over the held player, so a screen still
+     * showing it (e.g. in picture-in-picture) can close. Pass null to clear.
+     */
+    @MainThread
+    public static void setOnReplacedListener(@Nullable Runnable listener) {
+        checkMainThread();
+        onReplaced = listener;
+    }
+
+    /**
+     * Clear the listener if it is still {@code listener}; screens call this when destroyed.
+     */
+    @MainThread
+    public static void clearOnReplacedListener(@NonNull Runnable listener) {
+        checkMainThread();
+        if (onReplaced == listener) {
+            onReplaced = null;
+        }
+    }
+
+    @Nullable
+    static Intent getSessionIntent() {
+        return sessionIntent;
+    }
+
+    /**
+     * Release the held player; the media session goes away with {@link PlaybackService}.
+     */
+    @MainThread
+    public static void release() {
+        checkMainThread();
+        if (player != null) {
+            player.release();
+        }
+        player = null;
+        contentKey = null;
+        sessionIntent = null;
+        onReplaced = null;
+    }
+
+    private static void notifyReplaced() {
+        Runnable listener = onReplaced;
+        onReplaced = null;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    private static void checkMainThread() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException("PlayerHolder must be used from the main thread");
+        }
+    }
+}
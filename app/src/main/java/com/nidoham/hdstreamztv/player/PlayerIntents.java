@@ -0,0 +1,90 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.PlayerActivity;
+import com.nidoham.hdstreamztv.model.VideoQuality;
+import com.nidoham.hdstreamztv.quality.StreamQualityMapper;
+
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
+import org.schabi.newpipe.util.ExtractorHelper;
+
+import java.util.ArrayList;
+
+import bd.nidoham.intent.IntentKeys;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Builds the Intent that opens {@link PlayerActivity} for an extracted YouTube video.
+ */
+public final class PlayerIntents {
+
+    private PlayerIntents() {
+    }
+
+    /**
+     * Extracts the YouTube video at {@code url} on the io scheduler and builds its Intent;
+     * completes empty if it has no playable stream.
+     */
+    @NonNull
+    public static Maybe<Intent> forUrl(@NonNull Context context, @NonNull String url) {
+        Context appContext = context.getApplicationContext();
+        return ExtractorHelper.getStreamInfo(ServiceList.YouTube.getServiceId(), url, false)
+                .subscribeOn(Schedulers.io())
+                .flatMapMaybe(streamInfo -> {
+                    Intent intent = forStream(appContext, streamInfo);
+                    return intent != null ? Maybe.just(intent) : Maybe.empty();
+                });
+    }
+
+    /**
+     * Intent playing {@code streamInfo}, or null if it has no playable stream.
+     */
+    @Nullable
+    public static Intent forStream(@NonNull Context context, @NonNull StreamInfo streamInfo) {
+        // Muxed streams plus video-only streams paired with the best audio track
+        ArrayList<VideoQuality> videoQualities = StreamQualityMapper.fromStreamInfo(streamInfo);
+        String hlsUrl = streamInfo.getHlsUrl();
+        if (videoQualities.isEmpty() && (hlsUrl == null || hlsUrl.isEmpty())) {
+            return null;
+        }
+
+        Intent intent = new Intent(context, PlayerActivity.class);
+
+        // Basic video information
+        String videoTitle = streamInfo.getName() != null ? streamInfo.getName() : "Unknown Title";
+        intent.putExtra(IntentKeys.EXTRA_VIDEO_NAME, videoTitle);
+        intent.putExtra(IntentKeys.EXTRA_VIDEO_CATEGORY, IntentKeys.EXTRA_KIOSK_YOUTUBE);
+        intent.putExtra(IntentKeys.EXTRA_PAGE_URL, streamInfo.getUrl());
+
+        // Add HLS stream if available
+        if (hlsUrl != null && !hlsUrl.isEmpty()) {
+            intent.putExtra(IntentKeys.EXTRA_HLS_URL, hlsUrl);
+        }
+
+        // Hand the qualities over in memory; only the session id goes through the Intent
+        intent.putExtra(IntentKeys.EXTRA_SESSION_ID, PlaybackSessionRegistry.register(videoQualities, hlsUrl,
+                StreamQualityMapper.audioOnlyFrom(streamInfo)));
+
+        // Add additional metadata
+        if (streamInfo.getDuration() > 0) {
+            intent.putExtra(IntentKeys.EXTRA_VIDEO_DURATION, streamInfo.getDuration());
+        }
+        if (streamInfo.getUploaderName() != null) {
+            intent.putExtra(IntentKeys.EXTRA_UPLOADER_NAME, streamInfo.getUploaderName());
+        }
+        if (streamInfo.getViewCount() > 0) {
+            intent.putExtra(IntentKeys.EXTRA_VIEW_COUNT, streamInfo.getViewCount());
+        }
+        if (streamInfo.getThumbnails() != null && !streamInfo.getThumbnails().isEmpty()) {
+            intent.putExtra(IntentKeys.EXTRA_THUMBNAIL_URL, streamInfo.getThumbnails().get(0).getUrl());
+        }
+        return intent;
+    }
+}
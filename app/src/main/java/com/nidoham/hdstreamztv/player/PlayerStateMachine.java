@@ -0,0 +1,355 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.media3.common.Player;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Playback state of the player screen.
+ *
+ * Every change produces a new immutable {@link State}, so a caller holding a snapshot never
+ * sees it change underneath it. The machine is confined to the thread that created it (the
+ * main thread, where all player callbacks arrive), which makes locks unnecessary; calls from
+ * other threads fail fast instead of racing.
+ *
+ * Phase changes follow a fixed transition table; a change the table doesn't allow is
+ * rejected, logged and kept in the {@link Transition} log, so a stray player callback can't
+ * e.g. clear an error before the source was prepared again. Phase changes and lock toggles
+ * are kept in a short log for debugging. Position and controls updates are too frequent to
+ * be worth logging.
+ */
+public final class PlayerStateMachine {
+
+    public enum Phase {
+        IDLE,
+        PREPARING,
+        BUFFERING,
+        PLAYING,
+        PAUSED,
+        ENDED,
+        ERROR
+    }
+
+    private static final String TAG = "PlayerStateMachine";
+    private static final int LOG_CAPACITY = 32;
+
+    // Phases each phase may move to
+    private static final Map<Phase, EnumSet<Phase>> TRANSITIONS = new EnumMap<>(Phase.class);
+
+    static {
+        // A player handed over from a previous screen can be in any state already
+        TRANSITIONS.put(Phase.IDLE, EnumSet.complementOf(EnumSet.of(Phase.IDLE)));
+        // Buffering before the first frame is still part of preparing
+        TRANSITIONS.put(Phase.PREPARING, EnumSet.of(Phase.IDLE, Phase.PLAYING, Phase.PAUSED,
+                Phase.ENDED, Phase.ERROR));
+        TRANSITIONS.put(Phase.BUFFERING, EnumSet.of(Phase.IDLE, Phase.PREPARING, Phase.PLAYING,
+                Phase.PAUSED, Phase.ENDED, Phase.ERROR));
+        TRANSITIONS.put(Phase.PLAYING, EnumSet.of(Phase.IDLE, Phase.PREPARING, Phase.BUFFERING,
+                Phase.PAUSED, Phase.ENDED, Phase.ERROR));
+        TRANSITIONS.put(Phase.PAUSED, EnumSet.of(Phase.IDLE, Phase.PREPARING, Phase.BUFFERING,
+                Phase.PLAYING, Phase.ENDED, Phase.ERROR));
+        // Seeking back or replaying after the end
+        TRANSITIONS.put(Phase.ENDED, EnumSet.of(Phase.IDLE, Phase.PREPARING, Phase.BUFFERING,
+                Phase.PLAYING, Phase.PAUSED, Phase.ERROR));
+        // Only a new prepare (retry, failover) leaves an error
+        TRANSITIONS.put(Phase.ERROR, EnumSet.of(Phase.IDLE, Phase.PREPARING));
+    }
+
+    private final Thread owner = Thread.currentThread();
+    private final LongSupplier clock;
+    private final ArrayDeque<Transition> log = new ArrayDeque<>();
+
+    @NonNull
+    private State state = State.INITIAL;
+
+    public PlayerStateMachine() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock time source for the transition log, in milliseconds
+     */
+    public PlayerStateMachine(@NonNull LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Snapshot of the current state.
+     */
+    @NonNull
+    public State getState() {
+        checkThread();
+        return state;
+    }
+
+    // ========================================================================================
+    // Player events
+    // ========================================================================================
+
+    /**
+     * A source was handed to the player and {@code prepare()} called.
+     */
+    public void onPrepare() {
+        moveTo(Phase.PREPARING, "prepare");
+    }
+
+    /**
+     * Mirrors {@link Player.Listener#onPlaybackStateChanged(int)}.
+     */
+    public void onPlaybackStateChanged(@Player.State int playbackState, boolean isPlaying) {
+        Phase phase = state.phase;
+        switch (playbackState) {
+            case Player.STATE_BUFFERING:
+                // Until the first frame the source is still preparing
+                moveTo(phase == Phase.PREPARING ? Phase.PREPARING : Phase.BUFFERING, "buffering");
+                break;
+            case Player.STATE_READY:
+                moveTo(isPlaying ? Phase.PLAYING : Phase.PAUSED, "ready");
+                break;
+            case Player.STATE_ENDED:
+                moveTo(Phase.ENDED, "ended");
+                break;
+            case Player.STATE_IDLE:
+            default:
+                // The player drops to idle after an error; keep the error visible
+                if (phase != Phase.ERROR) {
+                    moveTo(Phase.IDLE, "idle");
+                }
+                break;
+        }
+    }
+
+    /**
+     * Mirrors {@link Player.Listener#onIsPlayingChanged(boolean)}.
+     */
+    public void onIsPlayingChanged(boolean isPlaying) {
+        Phase phase = state.phase;
+        if (isPlaying) {
+            moveTo(Phase.PLAYING, "playing");
+        } else if (phase == Phase.PLAYING) {
+            moveTo(Phase.PAUSED, "paused");
+        }
+    }
+
+    public void onError(@NonNull String reason) {
+        moveTo(Phase.ERROR, "error: " + reason);
+    }
+
+    // ========================================================================================
+    // UI state
+    // ========================================================================================
+
+    public void setLocked(boolean locked) {
+        checkThread();
+        if (state.locked == locked) {
+            return;
+        }
+        State previous = state;
+        state = state.withLocked(locked);
+        record(previous, locked ? "lock" : "unlock");
+    }
+
+    public void setSeeking(boolean seeking) {
+        checkThread();
+        if (state.seeking != seeking) {
+            state = state.withSeeking(seeking);
+        }
+    }
+
+    public void setControlsVisible(boolean visible) {
+        checkThread();
+        if (state.controlsVisible != visible) {
+            state = state.withControlsVisible(visible);
+        }
+    }
+
+    public void setPlayWhenReady(boolean playWhenReady) {
+        checkThread();
+        if (state.playWhenReady != playWhenReady) {
+            state = state.withPlayWhenReady(playWhenReady);
+        }
+    }
+
+    public void setLastPosition(long positionMs) {
+        checkThread();
+        if (state.lastPositionMs != positionMs) {
+            state = state.withLastPosition(positionMs);
+        }
+    }
+
+    public void setInitialized(boolean initialized) {
+        checkThread();
+        if (state.initialized != initialized) {
+            state = state.withInitialized(initialized);
+        }
+    }
+
+    public void reset() {
+        checkThread();
+        State previous = state;
+        state = State.INITIAL;
+        record(previous, "reset");
+    }
+
+    // Shorthands for the activity, which mostly needs single flags
+
+    public boolean isLocked() { return getState().locked; }
+    public boolean isSeeking() { return getState().seeking; }
+    public boolean areControlsVisible() { return getState().controlsVisible; }
+    public boolean shouldPlayWhenReady() { return getState().playWhenReady; }
+    public long getLastPosition() { return getState().lastPositionMs; }
+    public boolean isInitialized() { return getState().initialized; }
+    @NonNull
+    public Phase getPhase() { return getState().phase; }
+
+    // ========================================================================================
+    // Transition log
+    // ========================================================================================
+
+    /**
+     * Recent transitions, oldest first.
+     */
+    @NonNull
+    public List<Transition> getTransitionLog() {
+        checkThread();
+        return new ArrayList<>(log);
+    }
+
+    @NonNull
+    public String dumpTransitionLog() {
+        StringBuilder out = new StringBuilder();
+        for (Transition transition : getTransitionLog()) {
+            out.append(transition).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * Whether the transition table allows moving from {@code from} to {@code to}.
+     */
+    static boolean canMove(@NonNull Phase from, @NonNull Phase to) {
+        return TRANSITIONS.get(from).contains(to);
+    }
+
+    private void moveTo(@NonNull Phase phase, @NonNull String event) {
+        checkThread();
+        if (state.phase == phase) {
+            return;
+        }
+        if (!canMove(state.phase, phase)) {
+            Log.w(TAG, "Rejected " + state.phase + " -> " + phase + " (" + event + ")");
+            record(state, "rejected " + phase + ": " + event);
+            return;
+        }
+        State previous = state;
+        state = state.withPhase(phase);
+        record(previous, event);
+    }
+
+    private void record(@NonNull State from, @NonNull String event) {
+        if (log.size() == LOG_CAPACITY) {
+            log.removeFirst();
+        }
+        log.addLast(new Transition(clock.getAsLong(), from, state, event));
+    }
+
+    private void checkThread() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("PlayerStateMachine accessed from "
+                    + Thread.currentThread().getName() + ", owned by " + owner.getName());
+        }
+    }
+
+    /**
+     * Immutable snapshot; changes go through the {@code with} copies.
+     */
+    public static final class State {
+
+        static final State INITIAL = new State(Phase.IDLE, false, false, false, true, 0L, false);
+
+        public final Phase phase;
+        public final boolean locked;
+        public final boolean seeking;
+        public final boolean controlsVisible;
+        public final boolean playWhenReady;
+        public final long lastPositionMs;
+        public final boolean initialized;
+
+        private State(Phase phase, boolean locked, boolean seeking, boolean controlsVisible,
+                      boolean playWhenReady, long lastPositionMs, boolean initialized) {
+            this.phase = phase;
+            this.locked = locked;
+            this.seeking = seeking;
+            this.controlsVisible = controlsVisible;
+            this.playWhenReady = playWhenReady;
+            this.lastPositionMs = lastPositionMs;
+            this.initialized = initialized;
+        }
+
+        State withPhase(Phase value) {
+            return new State(value, locked, seeking, controlsVisible, playWhenReady, lastPositionMs, initialized);
+        }
+
+        State withLocked(boolean value) {
+            return new State(phase, value, seeking, controlsVisible, playWhenReady, lastPositionMs, initialized);
+        }
+
+        State withSeeking(boolean value) {
+            return new State(phase, locked, value, controlsVisible, playWhenReady, lastPositionMs, initialized);
+        }
+
+        State withControlsVisible(boolean value) {
+            return new State(phase, locked, seeking, value, playWhenReady, lastPositionMs, initialized);
+        }
+
+        State withPlayWhenReady(boolean value) {
+            return new State(phase, locked, seeking, controlsVisible, value, lastPositionMs, initialized);
+        }
+
+        State withLastPosition(long value) {
+            return new State(phase, locked, seeking, controlsVisible, playWhenReady, value, initialized);
+        }
+
+        State withInitialized(boolean value) {
+            return new State(phase, locked, seeking, controlsVisible, playWhenReady, lastPositionMs, value);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return phase + (locked ? "+LOCKED" : "") + " @" + lastPositionMs + "ms";
+        }
+    }
+
+    /**
+     * One entry of the transition log.
+     */
+    public static final class Transition {
+        public final long timeMs;
+        public final State from;
+        public final State to;
+        public final String event;
+
+        Transition(long timeMs, State from, State to, String event) {
+            this.timeMs = timeMs;
+            this.from = from;
+            this.to = to;
+            this.event = event;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return timeMs + " " + from + " -> " + to + " (" + event + ")";
+        }
+    }
+}
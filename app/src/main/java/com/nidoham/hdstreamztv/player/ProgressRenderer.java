@@ -0,0 +1,213 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.view.Choreographer;
+import android.widget.SeekBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.media3.common.C;
+import androidx.media3.common.Player;
+
+/**
+ * Draws the position, duration and seek bar of the player controls.
+ *
+ * Updates are driven by {@link Choreographer} so they land on a frame boundary, and are
+ * throttled to {@link #MIN_RENDER_INTERVAL_NANOS}. Time labels are formatted into reused char
+ * buffers and only pushed to the {@link TextView} when the shown second changes, so a tick
+ * allocates nothing. The caller starts the renderer while the controls are visible and stops
+ * it when they are hidden; it also stops by itself once playback pauses.
+ *
+ * Must be used from the main thread.
+ */
+public class ProgressRenderer implements Choreographer.FrameCallback {
+
+    /**
+     * Told the player position on every render tick.
+     */
+    public interface PositionListener {
+        void onPositionRendered(long positionMs);
+    }
+
+    private static final long MIN_RENDER_INTERVAL_NANOS = 250_000_000L;
+
+    // "hhh:mm:ss" covers anything a stream will report
+    private static final int MAX_TIME_CHARS = 10;
+    private static final char[] UNKNOWN_TIME = {'-', '-', ':', '-', '-'};
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+    private final TextView positionText;
+    private final TextView durationText;
+    private final SeekBar seekBar;
+    private final int seekBarMax;
+
+    private final char[] positionChars = new char[MAX_TIME_CHARS];
+    private final char[] durationChars = new char[MAX_TIME_CHARS];
+
+    @Nullable
+    private Player player;
+    @Nullable
+    private PositionListener positionListener;
+    private boolean running;
+    private long lastRenderNanos;
+    private long shownPositionSeconds = Long.MIN_VALUE;
+    private long shownDurationSeconds = Long.MIN_VALUE;
+    private int shownProgress = -1;
+
+    public ProgressRenderer(@NonNull TextView positionText, @NonNull TextView durationText,
+                            @NonNull SeekBar seekBar, int seekBarMax) {
+        this.positionText = positionText;
+        this.durationText = durationText;
+        this.seekBar = seekBar;
+        this.seekBarMax = seekBarMax;
+    }
+
+    /**
+     * A different player may be at another position, so everything is drawn again on the
+     * next render.
+     */
+    public void setPlayer(@Nullable Player player) {
+        if (player != this.player) {
+            invalidate();
+        }
+        this.player = player;
+    }
+
+    public void setPositionListener(@Nullable PositionListener listener) {
+        this.positionListener = listener;
+    }
+
+    /**
+     * Render now and keep rendering on each frame while the player is playing.
+     */
+    public void start() {
+        stop();
+        running = true;
+        render();
+        if (shouldContinue()) {
+            lastRenderNanos = System.nanoTime();
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        choreographer.removeFrameCallback(this);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) {
+            return;
+        }
+
+        if (frameTimeNanos - lastRenderNanos >= MIN_RENDER_INTERVAL_NANOS) {
+            lastRenderNanos = frameTimeNanos;
+            render();
+        }
+
+        if (shouldContinue()) {
+            choreographer.postFrameCallback(this);
+        } else {
+            running = false;
+        }
+    }
+
+    /**
+     * Show {@code positionMs} in the position label without touching the seek bar, e.g. while
+     * the user drags it.
+     */
+    public void renderPosition(long positionMs) {
+        long seconds = positionMs < 0 ? 0 : positionMs / 1000;
+        if (seconds == shownPositionSeconds) {
+            return;
+        }
+        shownPositionSeconds = seconds;
+        int length = formatTime(seconds, positionChars);
+        positionText.setText(positionChars, 0, length);
+    }
+
+    /**
+     * Forget what is on screen so the next render rewrites every view.
+     */
+    private void invalidate() {
+        shownPositionSeconds = Long.MIN_VALUE;
+        shownDurationSeconds = Long.MIN_VALUE;
+        shownProgress = -1;
+    }
+
+    private boolean shouldContinue() {
+        return running && player != null && player.isPlaying();
+    }
+
+    private void render() {
+        Player current = player;
+        if (current == null) {
+            return;
+        }
+
+        long position = current.getCurrentPosition();
+        long duration = current.getDuration();
+        renderPosition(position);
+        if (positionListener != null) {
+            positionListener.onPositionRendered(position);
+        }
+
+        if (duration != C.TIME_UNSET && duration > 0) {
+            long seconds = duration / 1000;
+            if (seconds != shownDurationSeconds) {
+                shownDurationSeconds = seconds;
+                int length = formatTime(seconds, durationChars);
+                durationText.setText(durationChars, 0, length);
+            }
+            setProgress((int) ((position * seekBarMax) / duration));
+        } else {
+            if (shownDurationSeconds != -1) {
+                shownDurationSeconds = -1;
+                durationText.setText(UNKNOWN_TIME, 0, UNKNOWN_TIME.length);
+            }
+            setProgress(0);
+        }
+    }
+
+    private void setProgress(int progress) {
+        if (progress != shownProgress) {
+            shownProgress = progress;
+            seekBar.setProgress(progress);
+        }
+    }
+
+    /**
+     * Writes {@code mm:ss}, or {@code hh:mm:ss} from one hour on, into {@code out}.
+     *
+     * @return number of chars written
+     */
+    static int formatTime(long totalSeconds, @NonNull char[] out) {
+        long hours = totalSeconds / 3600;
+        int minutes = (int) ((totalSeconds % 3600) / 60);
+        int seconds = (int) (totalSeconds % 60);
+
+        int index = 0;
+        if (hours > 0) {
+            if (hours > 999) {
+                hours = 999;
+            }
+            if (hours >= 100) {
+                out[index++] = (char) ('0' + hours / 100);
+            }
+            out[index++] = (char) ('0' + (hours / 10) % 10);
+            out[index++] = (char) ('0' + hours % 10);
+            out[index++] = ':';
+        }
+        out[index++] = (char) ('0' + minutes / 10);
+        out[index++] = (char) ('0' + minutes % 10);
+        out[index++] = ':';
+        out[index++] = (char) ('0' + seconds / 10);
+        out[index++] = (char) ('0' + seconds % 10);
+        return index;
+    }
+}
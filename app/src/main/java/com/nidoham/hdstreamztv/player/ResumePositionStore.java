@@ -0,0 +1,227 @@
+package com.nidoham.hdstreamztv.player;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonObject;
+import com.grack.nanojson.JsonParser;
+import com.grack.nanojson.JsonParserException;
+import com.grack.nanojson.JsonWriter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Where on-demand videos were left off, so reopening one continues from there.
+ *
+ * Positions are updated in memory and written to disk in batches: after
+ * {@link #FLUSH_EVERY_UPDATES} changes or on an explicit {@link #flush()}, which the player
+ * calls when it goes to the background. Entries are kept in least-recently-used order and
+ * capped at {@link #DEFAULT_CAPACITY}. Positions near either end of a video are not kept,
+ * since there is nothing to resume. The file is read on first use; the player looks positions
+ * up with {@link #getPosition(String, PositionCallback)} so that read stays off the main thread.
+ */
+public class ResumePositionStore {
+
+    private static final String TAG = "ResumePositionStore";
+    private static final String FILE_NAME = "resume_positions.json";
+    private static final int DEFAULT_CAPACITY = 500;
+    private static final int FLUSH_EVERY_UPDATES = 10;
+
+    // Closer to the start than this is not worth resuming
+    private static final long MIN_RESUME_POSITION_MS = 10_000;
+    // Within this of the end (or past 95%) counts as watched
+    private static final long FINISHED_MARGIN_MS = 15_000;
+    private static final double FINISHED_FRACTION = 0.95;
+
+    private static volatile ResumePositionStore instance;
+
+    /**
+     * Receives a looked-up position on the main thread.
+     */
+    public interface PositionCallback {
+        void onPosition(long positionMs);
+    }
+
+    private final File file;
+    private final int capacity;
+    private final LinkedHashMap<String, Long> positions;
+    // Also does the first read, so it is ordered before any write
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private boolean loaded;
+    private int pendingUpdates;
+
+    public static ResumePositionStore getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (ResumePositionStore.class) {
+                if (instance == null) {
+                    instance = new ResumePositionStore(
+                            new File(context.getApplicationContext().getFilesDir(), FILE_NAME),
+                            DEFAULT_CAPACITY);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param file     where positions are persisted
+     * @param capacity number of videos remembered; the least recently used go first
+     */
+    public ResumePositionStore(@NonNull File file, final int capacity) {
+        this.file = file;
+        this.capacity = capacity;
+        this.positions = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Stored position for {@code key}, or 0 to start from the beginning.
+     */
+    public synchronized long getPosition(@NonNull String key) {
+        ensureLoaded();
+        Long position = positions.get(key);
+        return position != null ? position : 0;
+    }
+
+    /**
+     * Like {@link #getPosition(String)}, but reads the file in the background if it wasn't
+     * read yet. Once loaded, {@code callback} runs right away on the calling (main) thread.
+     */
+    public void getPosition(@NonNull String key, @NonNull PositionCallback callback) {
+        long position;
+        synchronized (this) {
+            if (!loaded) {
+                writer.execute(() -> {
+                    long loadedPosition = getPosition(key);
+                    mainHandler.post(() -> callback.onPosition(loadedPosition));
+                });
+                return;
+            }
+            position = getPosition(key);
+        }
+        callback.onPosition(position);
+    }
+
+    /**
+     * Remember the position reached in a video of known duration.
+     */
+    public void update(@NonNull String key, long positionMs, long durationMs) {
+        final String json;
+        synchronized (this) {
+            ensureLoaded();
+            Long previous = positions.get(key);
+            if (isResumable(positionMs, durationMs)) {
+                if (previous != null && previous == positionMs) {
+                    return;
+                }
+                positions.put(key, positionMs);
+            } else if (previous != null) {
+                positions.remove(key);
+            } else {
+                return;
+            }
+
+            if (++pendingUpdates < FLUSH_EVERY_UPDATES) {
+                return;
+            }
+            json = takeSnapshotLocked();
+        }
+        writer.execute(() -> write(json));
+    }
+
+    /**
+     * Write pending changes, if any, in the background.
+     */
+    public void flush() {
+        final String json;
+        synchronized (this) {
+            if (pendingUpdates == 0) {
+                return;
+            }
+            json = takeSnapshotLocked();
+        }
+        writer.execute(() -> write(json));
+    }
+
+    static boolean isResumable(long positionMs, long durationMs) {
+        if (durationMs <= 0 || positionMs < MIN_RESUME_POSITION_MS) {
+            return false;
+        }
+        return positionMs < durationMs - FINISHED_MARGIN_MS
+                && positionMs < durationMs * FINISHED_FRACTION;
+    }
+
+    private String takeSnapshotLocked() {
+        pendingUpdates = 0;
+        JsonArray array = new JsonArray();
+        // Least recently used first, so reloading restores the same order
+        for (Map.Entry<String, Long> entry : positions.entrySet()) {
+            JsonObject item = new JsonObject();
+            item.put("key", entry.getKey());
+            item.put("position", entry.getValue());
+            array.add(item);
+        }
+        return JsonWriter.string(array);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        if (!file.exists()) {
+            return;
+        }
+
+        try (InputStream in = new FileInputStream(file)) {
+            JsonArray array = JsonParser.array().from(in);
+            for (Object item : array) {
+                if (item instanceof JsonObject) {
+                    JsonObject entry = (JsonObject) item;
+                    String key = entry.getString("key", null);
+                    if (key != null) {
+                        positions.put(key, entry.getLong("position", 0));
+                    }
+                }
+            }
+        } catch (IOException | JsonParserException e) {
+            Log.w(TAG, "Discarding unreadable resume positions", e);
+            positions.clear();
+        }
+    }
+
+    private void write(String json) {
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write resume positions", e);
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "Failed to replace " + file);
+        }
+    }
+}
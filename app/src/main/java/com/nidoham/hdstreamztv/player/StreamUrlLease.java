@@ -0,0 +1,120 @@
+package com.nidoham.hdstreamztv.player;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * How long an extracted stream URL stays valid.
+ *
+ * YouTube signs its stream URLs with an {@code expire} parameter: a Unix time in seconds,
+ * either in the query ({@code ?expire=1700000000}) or as a path segment
+ * ({@code /expire/1700000000/}) in HLS manifests. After that the CDN answers 403, so the
+ * player has to re-extract before then. URLs without the parameter never expire.
+ */
+public final class StreamUrlLease {
+
+    /** Renew this long before the URL expires, to stay clear of clock skew and slow extraction. */
+    public static final long RENEW_MARGIN_MS = 5 * 60 * 1000L;
+
+    /** Never renew sooner than this; a nearly expired URL is renewed right after it starts. */
+    private static final long MIN_RENEW_DELAY_MS = 30 * 1000L;
+
+    private final long expiresAtMs;
+
+    private StreamUrlLease(long expiresAtMs) {
+        this.expiresAtMs = expiresAtMs;
+    }
+
+    /**
+     * The lease of whichever of the URLs expires first; null URLs are ignored.
+     */
+    @NonNull
+    public static StreamUrlLease of(@Nullable String... urls) {
+        long earliest = -1;
+        for (String url : urls) {
+            long expiry = url != null ? parseExpiryMs(url) : -1;
+            if (expiry > 0 && (earliest < 0 || expiry < earliest)) {
+                earliest = expiry;
+            }
+        }
+        return new StreamUrlLease(earliest);
+    }
+
+    public boolean expires() {
+        return expiresAtMs > 0;
+    }
+
+    /** Wall clock time the URL stops working, or -1 if it doesn't expire. */
+    public long getExpiresAtMs() {
+        return expiresAtMs;
+    }
+
+    /**
+     * Delay from {@code nowMs} until the URL should be renewed, or -1 if it never needs to be.
+     */
+    public long renewDelayMs(long nowMs) {
+        if (!expires()) {
+            return -1;
+        }
+        return Math.max(MIN_RENEW_DELAY_MS, expiresAtMs - RENEW_MARGIN_MS - nowMs);
+    }
+
+    /**
+     * Expiry encoded in {@code url} in milliseconds, or -1 if there is none.
+     */
+    public static long parseExpiryMs(@NonNull String url) {
+        String seconds = queryParameter(url, "expire");
+        if (seconds == null) {
+            seconds = pathParameter(url, "expire");
+        }
+        if (seconds == null) {
+            return -1;
+        }
+
+        try {
+            long value = Long.parseLong(seconds);
+            return value > 0 ? value * 1000 : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Nullable
+    private static String queryParameter(String url, String name) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+
+        int start = query + 1;
+        while (start < url.length()) {
+            int end = url.indexOf('&', start);
+            if (end < 0) {
+                end = url.length();
+            }
+            int equals = url.indexOf('=', start);
+            if (equals > start && equals < end && url.regionMatches(start, name, 0, name.length())
+                    && equals - start == name.length()) {
+                return url.substring(equals + 1, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String pathParameter(String url, String name) {
+        String marker = "/" + name + "/";
+        int start = url.indexOf(marker);
+        if (start < 0) {
+            return null;
+        }
+        start += marker.length();
+
+        int end = start;
+        while (end < url.length() && Character.isDigit(url.charAt(end))) {
+            end++;
+        }
+        return end > start ? url.substring(start, end) : null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.nidoham.hdstreamztv.quality;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.upstream.BandwidthMeter;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
+
+import com.nidoham.hdstreamztv.App;
+import com.nidoham.hdstreamztv.util.NetworkUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Throughput estimates that survive across playback sessions, one per network type.
+ *
+ * ExoPlayer's {@link DefaultBandwidthMeter} starts every session from a country table
+ * guess; here it is seeded with what this device actually measured on the current kind
+ * of network last time, and every sample it reports is folded back into the model.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class BandwidthEstimator implements BandwidthMeter.EventListener {
+
+    private static final String TAG = "BandwidthEstimator";
+    private static final String PREFS_NAME = "bandwidth_estimates";
+    private static final String KEY_MEAN_SUFFIX = "_mean_log";
+    private static final String KEY_VARIANCE_SUFFIX = "_variance_log";
+    private static final String KEY_COUNT_SUFFIX = "_count";
+
+    // Short transfers are dominated by latency and say little about throughput
+    private static final int MIN_SAMPLE_ELAPSED_MS = 250;
+    private static final long MIN_SAMPLE_BYTES = 64 * 1024;
+
+    // Persist after this many new samples instead of on every one
+    private static final int FLUSH_EVERY_SAMPLES = 20;
+
+    private static volatile BandwidthEstimator instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final Map<String, ThroughputModel> models = new HashMap<>();
+    private int unsavedSamples;
+
+    public static BandwidthEstimator getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (BandwidthEstimator.class) {
+                if (instance == null) {
+                    instance = new BandwidthEstimator(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private BandwidthEstimator(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Bandwidth meter seeded from the stored estimate and reporting back to this estimator.
+     */
+    @NonNull
+    public BandwidthMeter createBandwidthMeter() {
+        DefaultBandwidthMeter.Builder builder = new DefaultBandwidthMeter.Builder(context);
+
+        ThroughputModel model = snapshot();
+        if (model.getSampleCount() > 0) {
+            // Median is the right seed: the meter's own sliding percentile takes over quickly
+            builder.setInitialBitrateEstimate(model.getMedianBitrate());
+        }
+
+        DefaultBandwidthMeter meter = builder.build();
+        meter.addEventListener(new Handler(Looper.getMainLooper()), this);
+        return meter;
+    }
+
+    @Override
+    public void onBandwidthSample(int elapsedMs, long bytesTransferred, long bitrateEstimate) {
+        if (App.DEBUG) {
+            // Same format the tests' BandwidthTraceSimulator.parseTrace() reads back
+            Log.d(TAG, "sample " + elapsedMs + "," + bytesTransferred);
+        }
+        if (elapsedMs < MIN_SAMPLE_ELAPSED_MS || bytesTransferred < MIN_SAMPLE_BYTES) {
+            return;
+        }
+
+        double bitsPerSecond = bytesTransferred * 8000d / elapsedMs;
+        addSample(NetworkUtils.getNetworkType(context), bitsPerSecond);
+    }
+
+    /**
+     * Fold one throughput observation into the model for {@code networkType}.
+     */
+    public synchronized void addSample(@NonNull String networkType, double bitsPerSecond) {
+        modelFor(networkType).addSample(bitsPerSecond);
+
+        if (++unsavedSamples >= FLUSH_EVERY_SAMPLES) {
+            flush();
+        }
+    }
+
+    /**
+     * Copy of the model for the network the device is currently on.
+     */
+    @NonNull
+    public synchronized ThroughputModel snapshot() {
+        return modelFor(NetworkUtils.getNetworkType(context)).copy();
+    }
+
+    /**
+     * Write pending samples to disk; call when a playback session ends.
+     */
+    public synchronized void flush() {
+        if (unsavedSamples == 0) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, ThroughputModel> entry : models.entrySet()) {
+            String type = entry.getKey();
+            ThroughputModel model = entry.getValue();
+            editor.putFloat(type + KEY_MEAN_SUFFIX, (float) model.getMeanLog());
+            editor.putFloat(type + KEY_VARIANCE_SUFFIX, (float) model.getVarianceLog());
+            editor.putInt(type + KEY_COUNT_SUFFIX, model.getSampleCount());
+        }
+        editor.apply();
+        unsavedSamples = 0;
+
+        Log.d(TAG, "Saved bandwidth estimates for " + models.size() + " network type(s)");
+    }
+
+    private ThroughputModel modelFor(String networkType) {
+        ThroughputModel model = models.get(networkType);
+        if (model == null) {
+            model = load(networkType);
+            models.put(networkType, model);
+        }
+        return model;
+    }
+
+    private ThroughputModel load(String networkType) {
+        int count = prefs.getInt(networkType + KEY_COUNT_SUFFIX, 0);
+        if (count == 0) {
+            return new ThroughputModel();
+        }
+
+        return new ThroughputModel(
+                prefs.getFloat(networkType + KEY_MEAN_SUFFIX, (float) ThroughputModel.PRIOR_MEAN_LOG),
+                prefs.getFloat(networkType + KEY_VARIANCE_SUFFIX, (float) ThroughputModel.PRIOR_VARIANCE_LOG),
+                count);
+    }
+}
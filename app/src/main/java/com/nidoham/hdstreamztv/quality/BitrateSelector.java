@@ -0,0 +1,64 @@
+package com.nidoham.hdstreamztv.quality;
+
+/**
+ * Picks the highest bitrate whose predicted rebuffer probability stays under a threshold.
+ *
+ * Pure Java so the same decision runs in the app and in the trace replays of the unit tests.
+ * A model without samples only holds the prior, which is no evidence about this link, so it
+ * never caps the selection.
+ */
+public final class BitrateSelector {
+
+    /** Default acceptable chance of the throughput dipping below the stream bitrate. */
+    public static final double DEFAULT_MAX_REBUFFER_PROBABILITY = 0.10d;
+
+    private BitrateSelector() {
+        // no instance
+    }
+
+    /**
+     * @param bitratesDescending required bitrates in bits per second, highest first
+     * @return index of the chosen bitrate; 0 before the model has samples, the last
+     *         (lowest) index when none is safe, or -1 for an empty array
+     */
+    public static int selectIndex(long[] bitratesDescending, ThroughputModel model,
+                                  double maxRebufferProbability) {
+        if (model.getSampleCount() == 0) {
+            return bitratesDescending.length > 0 ? 0 : -1;
+        }
+        for (int i = 0; i < bitratesDescending.length; i++) {
+            if (model.rebufferProbability(bitratesDescending[i]) <= maxRebufferProbability) {
+                return i;
+            }
+        }
+        return bitratesDescending.length - 1;
+    }
+
+    /**
+     * Typical YouTube bitrate for a resolution, video plus audio, in bits per second.
+     * Used when the extractor does not report a bitrate for the stream.
+     */
+    public static long nominalBitrate(int height, int fps) {
+        long bitrate;
+        if (height <= 144) {
+            bitrate = 150_000L;
+        } else if (height <= 240) {
+            bitrate = 300_000L;
+        } else if (height <= 360) {
+            bitrate = 700_000L;
+        } else if (height <= 480) {
+            bitrate = 1_200_000L;
+        } else if (height <= 720) {
+            bitrate = 2_500_000L;
+        } else if (height <= 1080) {
+            bitrate = 4_500_000L;
+        } else if (height <= 1440) {
+            bitrate = 10_000_000L;
+        } else {
+            bitrate = 20_000_000L;
+        }
+
+        // High frame rate encodes need roughly half as much again
+        return fps > 30 ? bitrate * 3 / 2 : bitrate;
+    }
+}
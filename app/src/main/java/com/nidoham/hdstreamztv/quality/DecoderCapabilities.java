@@ -0,0 +1,266 @@
+package com.nidoham.hdstreamztv.quality;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.App;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Video decoders available on this device, probed once per process.
+ *
+ * Used to rank and filter streams: AV1 and VP9 save bandwidth but only play smoothly
+ * with a hardware decoder that handles the resolution and frame rate, while H.264 is
+ * hardware decoded practically everywhere. What MediaCodecList advertises is refined by
+ * dropped-frame reports from real playback, which are remembered across launches.
+ */
+public final class DecoderCapabilities {
+
+    private static final String TAG = "DecoderCapabilities";
+    private static final String PREFS_NAME = "decoder_limits";
+
+    public static final String MIME_AVC = "video/avc";
+    public static final String MIME_HEVC = "video/hevc";
+    public static final String MIME_VP9 = "video/x-vnd.on2.vp9";
+    public static final String MIME_AV1 = "video/av01";
+
+    /** Rank of a stream no decoder on this device can play. */
+    public static final int RANK_UNSUPPORTED = -1;
+
+    private static volatile DecoderCapabilities instance;
+
+    private final Map<String, List<MediaCodecInfo.VideoCapabilities>> hardwareDecoders = new HashMap<>();
+    private final Map<String, List<MediaCodecInfo.VideoCapabilities>> softwareDecoders = new HashMap<>();
+
+    // Results of areSizeAndRateSupported, keyed by mime/height/fps
+    private final Map<String, Integer> rankCache = new HashMap<>();
+
+    // Highest height that played without heavy frame drops, keyed by mime and frame rate class
+    private final Map<String, Integer> observedLimits = new HashMap<>();
+
+    @Nullable
+    private final SharedPreferences limitPrefs;
+
+    public static DecoderCapabilities getInstance() {
+        if (instance == null) {
+            synchronized (DecoderCapabilities.class) {
+                if (instance == null) {
+                    instance = new DecoderCapabilities();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private DecoderCapabilities() {
+        try {
+            MediaCodecInfo[] codecs = new MediaCodecList(MediaCodecList.REGULAR_CODECS).getCodecInfos();
+            for (MediaCodecInfo info : codecs) {
+                if (info.isEncoder()) {
+                    continue;
+                }
+                Map<String, List<MediaCodecInfo.VideoCapabilities>> target =
+                        isHardware(info) ? hardwareDecoders : softwareDecoders;
+                for (String type : info.getSupportedTypes()) {
+                    String mimeType = type.toLowerCase(Locale.US);
+                    if (!mimeType.startsWith("video/")) {
+                        continue;
+                    }
+                    MediaCodecInfo.VideoCapabilities video =
+                            info.getCapabilitiesForType(type).getVideoCapabilities();
+                    if (video != null) {
+                        target.computeIfAbsent(mimeType, k -> new ArrayList<>()).add(video);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Some devices throw from MediaCodecList; rank everything as plain H.264
+            Log.w(TAG, "Failed to query decoders", e);
+        }
+
+        Context context = App.getInstance();
+        limitPrefs = context != null ? context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE) : null;
+        if (limitPrefs != null) {
+            for (Map.Entry<String, ?> entry : limitPrefs.getAll().entrySet()) {
+                if (entry.getValue() instanceof Integer) {
+                    observedLimits.put(entry.getKey(), (Integer) entry.getValue());
+                }
+            }
+        }
+
+        Log.d(TAG, "Hardware video decoders: " + hardwareDecoders.keySet()
+                + ", observed limits: " + observedLimits);
+    }
+
+    public boolean hasHardwareDecoder(String mimeType) {
+        return hardwareDecoders.containsKey(mimeType);
+    }
+
+    public boolean hasDecoder(String mimeType) {
+        return hardwareDecoders.containsKey(mimeType) || softwareDecoders.containsKey(mimeType);
+    }
+
+    /**
+     * Preference rank for a codec string regardless of resolution, higher is better.
+     * Unknown codecs (muxed streams often report none) are treated as H.264.
+     */
+    public int rankCodec(@Nullable String codec) {
+        return rankStream(codec, 0, 0);
+    }
+
+    /**
+     * Preference rank for a stream, higher is better; {@link #RANK_UNSUPPORTED} when no
+     * decoder advertises the size and frame rate. A hardware decoder that can keep up wins,
+     * a software-only or previously stuttering configuration ranks below H.264.
+     *
+     * @param height stream height, or 0 to ignore size
+     * @param fps    frame rate, or 0 to ignore it
+     */
+    public synchronized int rankStream(@Nullable String codec, int height, int fps) {
+        String mimeType = mimeTypeOf(codec);
+        String key = mimeType + '/' + height + '/' + fps;
+        Integer cached = rankCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int rank = computeRank(mimeType, height, fps);
+        rankCache.put(key, rank);
+        return rank;
+    }
+
+    private int computeRank(String mimeType, int height, int fps) {
+        if (hardwareDecoders.isEmpty() && softwareDecoders.isEmpty()) {
+            // Probe failed; assume the baseline every Android device has
+            return MIME_AVC.equals(mimeType) ? 2 : RANK_UNSUPPORTED;
+        }
+
+        boolean hardwareSupported = supports(hardwareDecoders.get(mimeType), height, fps);
+        if (!hardwareSupported && !supports(softwareDecoders.get(mimeType), height, fps)) {
+            return RANK_UNSUPPORTED;
+        }
+        boolean hardware = hardwareSupported && !exceedsObservedLimit(mimeType, height, fps);
+
+        switch (mimeType) {
+            case MIME_AV1:
+                return hardware ? 5 : 0;
+            case MIME_VP9:
+                return hardware ? 4 : 1;
+            case MIME_HEVC:
+                return hardware ? 3 : 0;
+            default:
+                return hardware ? 2 : 1;
+        }
+    }
+
+    /**
+     * Whether the stream can be decoded in real time by a hardware decoder.
+     */
+    public boolean canDecodeInRealTime(@Nullable String codec, int height, int fps) {
+        int rank = rankStream(codec, height, fps);
+        return rank >= 2;
+    }
+
+    /**
+     * Record that playback at this configuration dropped too many frames, so streams at or
+     * above it are no longer treated as hardware-capable.
+     */
+    public synchronized void reportStutter(String mimeType, int height, int fps) {
+        if (height <= 0) {
+            return;
+        }
+
+        String key = limitKey(mimeType, fps);
+        int limit = height - 1;
+        Integer current = observedLimits.get(key);
+        if (current != null && current <= limit) {
+            return;
+        }
+
+        observedLimits.put(key, limit);
+        rankCache.clear();
+        if (limitPrefs != null) {
+            limitPrefs.edit().putInt(key, limit).apply();
+        }
+        Log.w(TAG, "Stutter at " + mimeType + " " + height + "p" + fps + ", limiting to " + limit);
+    }
+
+    private boolean exceedsObservedLimit(String mimeType, int height, int fps) {
+        Integer limit = observedLimits.get(limitKey(mimeType, fps));
+        return limit != null && height > limit;
+    }
+
+    private static String limitKey(String mimeType, int fps) {
+        return mimeType + (fps > 30 ? "_hfr" : "_sfr");
+    }
+
+    private static boolean supports(@Nullable List<MediaCodecInfo.VideoCapabilities> decoders,
+                                    int height, int fps) {
+        if (decoders == null) {
+            return false;
+        }
+        if (height <= 0) {
+            return true;
+        }
+
+        // Streams are 16:9 unless stated otherwise; the extractor only reports the height
+        int width = (height * 16 / 9 + 1) & ~1;
+        for (MediaCodecInfo.VideoCapabilities video : decoders) {
+            try {
+                boolean supported = fps > 0
+                        ? video.areSizeAndRateSupported(width, height, fps)
+                        : video.isSizeSupported(width, height);
+                if (supported) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a valid size for this decoder
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decoder MIME type for an RFC 6381 codec string such as "vp09.00.40.08".
+     */
+    public static String mimeTypeOf(@Nullable String codec) {
+        if (codec == null || codec.isEmpty()) {
+            return MIME_AVC;
+        }
+
+        String lower = codec.toLowerCase(Locale.US);
+        if (lower.startsWith("video/")) {
+            return lower;
+        } else if (lower.startsWith("av01")) {
+            return MIME_AV1;
+        } else if (lower.startsWith("vp9") || lower.startsWith("vp09")) {
+            return MIME_VP9;
+        } else if (lower.startsWith("hev1") || lower.startsWith("hvc1")) {
+            return MIME_HEVC;
+        }
+        return MIME_AVC;
+    }
+
+    private static boolean isHardware(MediaCodecInfo info) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return info.isHardwareAccelerated();
+        }
+
+        // Software decoders shipped with the platform follow these naming schemes
+        String name = info.getName().toLowerCase(Locale.US);
+        return !name.startsWith("omx.google.")
+                && !name.startsWith("c2.android.")
+                && !name.contains(".sw.");
+    }
+}
@@ -0,0 +1,171 @@
+package com.nidoham.hdstreamztv.quality;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Qualities of one video, parsed once into parallel primitive arrays.
+ *
+ * Entries are sorted best first: height, then frame rate, then codec rank, then bitrate.
+ * Every selection runs over these arrays, so no labels are parsed and nothing is
+ * allocated per lookup.
+ */
+public final class QualityLadder {
+
+    private static final QualityLadder EMPTY = new QualityLadder(new VideoQuality[0], (codec, height, fps) -> 0);
+
+    /**
+     * Rank of a stream's codec on this device, higher is better; see
+     * {@link DecoderCapabilities#rankStream}. Replaceable so the ladder runs on the JVM.
+     */
+    interface CodecRanker {
+        int rank(@Nullable String codec, int height, int fps);
+    }
+
+    private final VideoQuality[] items;
+    private final int[] heights;
+    private final int[] fps;
+    private final int[] codecRanks;
+    private final long[] bitrates;
+
+    private QualityLadder(VideoQuality[] items, CodecRanker ranker) {
+        this.items = items;
+        this.heights = new int[items.length];
+        this.fps = new int[items.length];
+        this.codecRanks = new int[items.length];
+        this.bitrates = new long[items.length];
+
+        for (int i = 0; i < items.length; i++) {
+            VideoQuality quality = items[i];
+            heights[i] = quality.getHeight();
+            fps[i] = quality.getFps();
+            codecRanks[i] = ranker.rank(quality.getCodec(), heights[i], fps[i]);
+            bitrates[i] = quality.getBitrate() > 0
+                    ? quality.getBitrate()
+                    : BitrateSelector.nominalBitrate(heights[i], fps[i]);
+        }
+    }
+
+    @NonNull
+    public static QualityLadder of(@Nullable List<VideoQuality> qualities) {
+        if (qualities == null || qualities.isEmpty()) {
+            return EMPTY;
+        }
+        return of(qualities, DecoderCapabilities.getInstance()::rankStream);
+    }
+
+    @NonNull
+    static QualityLadder of(@NonNull List<VideoQuality> qualities, @NonNull CodecRanker ranker) {
+        if (qualities.isEmpty()) {
+            return EMPTY;
+        }
+
+        VideoQuality[] sorted = qualities.toArray(new VideoQuality[0]);
+        Arrays.sort(sorted, (a, b) -> {
+            if (a.getHeight() != b.getHeight()) {
+                return Integer.compare(b.getHeight(), a.getHeight());
+            }
+            if (a.getFps() != b.getFps()) {
+                return Integer.compare(b.getFps(), a.getFps());
+            }
+            int byCodec = Integer.compare(rankOf(ranker, b), rankOf(ranker, a));
+            if (byCodec != 0) {
+                return byCodec;
+            }
+            return Long.compare(b.getBitrate(), a.getBitrate());
+        });
+        return new QualityLadder(sorted, ranker);
+    }
+
+    private static int rankOf(CodecRanker ranker, VideoQuality quality) {
+        return ranker.rank(quality.getCodec(), quality.getHeight(), quality.getFps());
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    public VideoQuality get(int index) {
+        return items[index];
+    }
+
+    public int getHeight(int index) {
+        return heights[index];
+    }
+
+    public int getFps(int index) {
+        return fps[index];
+    }
+
+    public int getCodecRank(int index) {
+        return codecRanks[index];
+    }
+
+    public long getBitrate(int index) {
+        return bitrates[index];
+    }
+
+    @NonNull
+    public List<VideoQuality> asList() {
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(items)));
+    }
+
+    /**
+     * Index of the entry with exactly this label, or -1.
+     */
+    public int indexOfLabel(@Nullable String label) {
+        if (label == null) {
+            return -1;
+        }
+        for (int i = 0; i < items.length; i++) {
+            if (label.equals(items[i].getQuality())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the entry whose height is nearest to {@code height}; on ties the higher
+     * quality wins. -1 when empty.
+     */
+    public int indexClosestTo(int height) {
+        int best = -1;
+        int smallestDifference = Integer.MAX_VALUE;
+        for (int i = 0; i < heights.length; i++) {
+            int difference = Math.abs(heights[i] - height);
+            if (difference < smallestDifference) {
+                smallestDifference = difference;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Highest entry no taller than {@code maxHeight} whose predicted rebuffer probability
+     * stays within {@code maxRebufferProbability}; the lowest such entry if none is safe.
+     * A model without samples doesn't cap, so the highest entry within {@code maxHeight} is
+     * returned. -1 when empty.
+     */
+    public int indexForBandwidth(ThroughputModel model, double maxRebufferProbability, int maxHeight) {
+        int start = 0;
+        while (start < heights.length - 1 && heights[start] > maxHeight) {
+            start++;
+        }
+        long[] allowed = Arrays.copyOfRange(bitrates, start, bitrates.length);
+        int index = BitrateSelector.selectIndex(allowed, model, maxRebufferProbability);
+        return index < 0 ? -1 : start + index;
+    }
+}
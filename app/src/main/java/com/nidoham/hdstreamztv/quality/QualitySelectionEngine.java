@@ -0,0 +1,174 @@
+package com.nidoham.hdstreamztv.quality;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+
+/**
+ * Single place that decides which quality to play.
+ *
+ * Preferences are read from disk once and kept in memory; writes go through this class
+ * so the cache never goes stale. Selection runs over a {@link QualityLadder}, which callers
+ * build once per video and reuse for every decision about it.
+ */
+public final class QualitySelectionEngine {
+
+    private static final String TAG = "QualitySelectionEngine";
+
+    static final String PREFS_NAME = "video_quality_prefs";
+    static final String KEY_PREFERRED_QUALITY = "preferred_quality";
+    static final String KEY_AUTO_SELECT = "auto_select_quality";
+    static final String DEFAULT_QUALITY = "720p";
+
+    // YouTubeFragment kept its own copy of the quality settings before this class existed
+    private static final String LEGACY_PREFS_NAME = "youtube_fragment_prefs";
+
+    private static volatile QualitySelectionEngine instance;
+
+    private final Context context;
+    private final SharedPreferences prefs;
+
+    private volatile String preferredQuality;
+    private volatile int preferredHeight;
+    private volatile boolean autoSelectEnabled;
+
+    public static QualitySelectionEngine getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (QualitySelectionEngine.class) {
+                if (instance == null) {
+                    instance = new QualitySelectionEngine(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private QualitySelectionEngine(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        migrateLegacyPreferences();
+
+        setPreferredQualityInternal(prefs.getString(KEY_PREFERRED_QUALITY, DEFAULT_QUALITY));
+        this.autoSelectEnabled = prefs.getBoolean(KEY_AUTO_SELECT, false);
+    }
+
+    private void migrateLegacyPreferences() {
+        if (prefs.contains(KEY_PREFERRED_QUALITY)) {
+            return;
+        }
+
+        SharedPreferences legacy = context.getSharedPreferences(LEGACY_PREFS_NAME, Context.MODE_PRIVATE);
+        if (!legacy.contains(KEY_PREFERRED_QUALITY)) {
+            return;
+        }
+
+        prefs.edit()
+                .putString(KEY_PREFERRED_QUALITY, legacy.getString(KEY_PREFERRED_QUALITY, DEFAULT_QUALITY))
+                .putBoolean(KEY_AUTO_SELECT, legacy.getBoolean(KEY_AUTO_SELECT, false))
+                .apply();
+        Log.d(TAG, "Migrated quality preferences from " + LEGACY_PREFS_NAME);
+    }
+
+    // ========================================================================================
+    // Preferences
+    // ========================================================================================
+
+    @NonNull
+    public String getPreferredQuality() {
+        return preferredQuality;
+    }
+
+    public void setPreferredQuality(@NonNull String quality) {
+        setPreferredQualityInternal(quality);
+        prefs.edit().putString(KEY_PREFERRED_QUALITY, quality).apply();
+    }
+
+    private void setPreferredQualityInternal(String quality) {
+        this.preferredQuality = quality;
+        this.preferredHeight = StreamQualityMapper.parseHeight(quality);
+    }
+
+    public boolean isAutoSelectEnabled() {
+        return autoSelectEnabled;
+    }
+
+    public void setAutoSelectEnabled(boolean enabled) {
+        this.autoSelectEnabled = enabled;
+        prefs.edit().putBoolean(KEY_AUTO_SELECT, enabled).apply();
+    }
+
+    // ========================================================================================
+    // Selection
+    // ========================================================================================
+
+    /**
+     * Quality to start with when the user has not picked one for this video: the preferred
+     * quality (or the nearest available). With auto-select on, and once throughput has been
+     * measured, it is stepped down if the network can't sustain it.
+     */
+    @Nullable
+    public VideoQuality selectPreferred(@NonNull QualityLadder ladder) {
+        if (ladder.isEmpty()) {
+            return null;
+        }
+
+        int index = ladder.indexOfLabel(preferredQuality);
+        if (index < 0) {
+            index = ladder.indexClosestTo(preferredHeight);
+        }
+
+        if (!autoSelectEnabled) {
+            return ladder.get(index);
+        }
+        ThroughputModel throughput = snapshotThroughput();
+        if (throughput.getSampleCount() == 0) {
+            // Only the prior so far, which would cap a fresh install far below the preference
+            return ladder.get(index);
+        }
+
+        // The preference is an upper bound; bandwidth decides below it
+        int capped = ladder.indexForBandwidth(throughput,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, ladder.getHeight(index));
+        if (capped != index) {
+            Log.d(TAG, "Capped " + ladder.get(index).getQuality() + " to " + ladder.get(capped).getQuality());
+        }
+        return ladder.get(capped);
+    }
+
+    /**
+     * Honour an explicit quality label (e.g. passed in by the caller), otherwise fall back
+     * to {@link #selectPreferred(QualityLadder)}.
+     */
+    @Nullable
+    public VideoQuality selectInitial(@NonNull QualityLadder ladder, @Nullable String qualityHint) {
+        int index = ladder.indexOfLabel(qualityHint);
+        return index >= 0 ? ladder.get(index) : selectPreferred(ladder);
+    }
+
+    /**
+     * Highest quality the current network is expected to sustain, regardless of preference.
+     * Before any throughput has been measured this is the preferred quality.
+     */
+    @Nullable
+    public VideoQuality selectForBandwidth(@NonNull QualityLadder ladder) {
+        if (ladder.isEmpty()) {
+            return null;
+        }
+        ThroughputModel throughput = snapshotThroughput();
+        if (throughput.getSampleCount() == 0) {
+            int index = ladder.indexOfLabel(preferredQuality);
+            return ladder.get(index >= 0 ? index : ladder.indexClosestTo(preferredHeight));
+        }
+        return ladder.get(ladder.indexForBandwidth(throughput,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, Integer.MAX_VALUE));
+    }
+
+    private ThroughputModel snapshotThroughput() {
+        return BandwidthEstimator.getInstance(context).snapshot();
+    }
+}
@@ -1,130 +1,94 @@
 package com.nidoham.hdstreamztv.quality;
 
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.util.Log;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
 
 import org.schabi.newpipe.extractor.stream.VideoStream;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Helper class for managing video quality preferences and selection
+ * Helper class for managing video quality preferences and selection.
+ * Static entry points over {@link QualitySelectionEngine}.
  */
 public class QualitySelectionHelper {
-    
-    private static final String TAG = "QualitySelectionHelper";
-    private static final String PREFS_NAME = "video_quality_prefs";
-    private static final String KEY_PREFERRED_QUALITY = "preferred_quality";
-    private static final String KEY_AUTO_SELECT = "auto_select_quality";
-    
+
+    private static final int[] STANDARD_HEIGHTS = {2160, 1440, 1080, 720, 480, 360, 240, 144};
+
     /**
      * Get user's preferred quality setting
      */
     public static String getPreferredQuality(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        return prefs.getString(KEY_PREFERRED_QUALITY, "720p"); // Default to 720p
+        return QualitySelectionEngine.getInstance(context).getPreferredQuality();
     }
-    
+
     /**
      * Save user's preferred quality setting
      */
     public static void setPreferredQuality(Context context, String quality) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putString(KEY_PREFERRED_QUALITY, quality).apply();
+        QualitySelectionEngine.getInstance(context).setPreferredQuality(quality);
     }
-    
+
     /**
      * Check if auto-select quality is enabled
      */
     public static boolean isAutoSelectEnabled(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        return prefs.getBoolean(KEY_AUTO_SELECT, false);
+        return QualitySelectionEngine.getInstance(context).isAutoSelectEnabled();
     }
-    
+
     /**
      * Set auto-select quality preference
      */
     public static void setAutoSelectEnabled(Context context, boolean enabled) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().putBoolean(KEY_AUTO_SELECT, enabled).apply();
+        QualitySelectionEngine.getInstance(context).setAutoSelectEnabled(enabled);
     }
-    
+
     /**
-     * Automatically select best quality based on user preference and available streams
+     * Automatically select best quality based on user preference and available streams.
+     * With auto-select enabled the measured bandwidth decides instead of the stored label.
      */
     public static VideoStream selectBestQuality(Context context, List<VideoStream> videoStreams) {
         if (videoStreams == null || videoStreams.isEmpty()) {
             return null;
         }
-        
-        String preferredQuality = getPreferredQuality(context);
-        
-        // First, try to find exact match
-        for (VideoStream stream : videoStreams) {
-            if (preferredQuality.equals(stream.getResolution())) {
-                Log.d(TAG, "Found exact quality match: " + preferredQuality);
-                return stream;
-            }
-        }
-        
-        // If no exact match, find closest quality
-        return findClosestQuality(preferredQuality, videoStreams);
-    }
-    
-    /**
-     * Find closest available quality to preferred quality
-     */
-    private static VideoStream findClosestQuality(String preferredQuality, List<VideoStream> videoStreams) {
-        int preferredHeight = parseResolutionHeight(preferredQuality);
-        
-        VideoStream bestMatch = null;
-        int smallestDifference = Integer.MAX_VALUE;
-        
+
+        QualitySelectionEngine engine = QualitySelectionEngine.getInstance(context);
+        Map<VideoQuality, VideoStream> streams = new IdentityHashMap<>();
+        List<VideoQuality> qualities = new ArrayList<>(videoStreams.size());
         for (VideoStream stream : videoStreams) {
-            int streamHeight = parseResolutionHeight(stream.getResolution());
-            int difference = Math.abs(streamHeight - preferredHeight);
-            
-            if (difference < smallestDifference) {
-                smallestDifference = difference;
-                bestMatch = stream;
-            }
+            VideoQuality quality = StreamQualityMapper.toQuality(stream, null);
+            streams.put(quality, stream);
+            qualities.add(quality);
         }
-        
-        if (bestMatch != null) {
-            Log.d(TAG, "Found closest quality match: " + bestMatch.getResolution() + 
-                  " (preferred: " + preferredQuality + ")");
-        }
-        
-        return bestMatch;
-    }
-    
-    /**
-     * Parse resolution height from resolution string
-     */
-    private static int parseResolutionHeight(String resolution) {
-        if (resolution == null || resolution.trim().isEmpty()) {
-            return 0;
-        }
-        
-        try {
-            String numbers = resolution.replaceAll("[^0-9]", "");
-            if (!numbers.isEmpty()) {
-                return Integer.parseInt(numbers);
-            }
-        } catch (NumberFormatException e) {
-            Log.w(TAG, "Failed to parse resolution: " + resolution);
-        }
-        
-        return 0;
+
+        QualityLadder ladder = QualityLadder.of(qualities);
+        VideoQuality selected = engine.isAutoSelectEnabled()
+                ? engine.selectForBandwidth(ladder)
+                : engine.selectPreferred(ladder);
+        return streams.get(selected);
     }
-    
+
     /**
      * Get quality recommendations based on network conditions
      */
     public static String getRecommendedQuality(Context context) {
-        // You can implement network speed detection here
-        // For now, return a default recommendation
-        return "720p";
+        ThroughputModel model = BandwidthEstimator.getInstance(context).snapshot();
+        if (model.getSampleCount() == 0) {
+            // Nothing measured on this network yet
+            return QualitySelectionEngine.DEFAULT_QUALITY;
+        }
+
+        long[] bitrates = new long[STANDARD_HEIGHTS.length];
+        for (int i = 0; i < bitrates.length; i++) {
+            bitrates[i] = BitrateSelector.nominalBitrate(STANDARD_HEIGHTS[i], 30);
+        }
+
+        int index = BitrateSelector.selectIndex(bitrates, model,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY);
+        return STANDARD_HEIGHTS[index] + "p";
     }
 }
@@ -0,0 +1,245 @@
+package com.nidoham.hdstreamztv.quality;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+
+import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.AudioTrackType;
+import org.schabi.newpipe.extractor.stream.DeliveryMethod;
+import org.schabi.newpipe.extractor.stream.Stream;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
+import org.schabi.newpipe.extractor.stream.VideoStream;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the list of playable qualities for a {@link StreamInfo}.
+ *
+ * Muxed progressive streams usually stop at 360p/720p, so video-only streams are
+ * offered as well and paired with the best {@link AudioStream}; the player merges
+ * the two sources at playback time.
+ */
+public final class StreamQualityMapper {
+
+    /** Label of the entry built by {@link #audioOnlyFrom(StreamInfo)}. */
+    public static final String AUDIO_ONLY_LABEL = "Audio only";
+
+    private StreamQualityMapper() {
+        // no instance
+    }
+
+    /**
+     * Collect muxed and video-only qualities, highest resolution first.
+     * When both kinds exist for the same resolution the muxed stream wins,
+     * since it needs a single connection.
+     */
+    @NonNull
+    public static ArrayList<VideoQuality> fromStreamInfo(@NonNull StreamInfo streamInfo) {
+        List<VideoStream> candidates = new ArrayList<>();
+        addPlayable(candidates, streamInfo.getVideoStreams());
+
+        AudioStream bestAudio = selectBestAudio(streamInfo.getAudioStreams());
+        if (bestAudio != null) {
+            addPlayable(candidates, streamInfo.getVideoOnlyStreams());
+        }
+
+        // Drop what the device can't decode at all, unless nothing would be left
+        DecoderCapabilities decoders = DecoderCapabilities.getInstance();
+        List<VideoStream> decodable = new ArrayList<>(candidates.size());
+        for (VideoStream stream : candidates) {
+            if (rankOf(decoders, stream) != DecoderCapabilities.RANK_UNSUPPORTED) {
+                decodable.add(stream);
+            }
+        }
+        if (!decodable.isEmpty()) {
+            candidates = decodable;
+        }
+
+        // Best first; among equal labels a muxed stream wins, then the stream the
+        // hardware decoder handles best
+        candidates.sort((a, b) -> {
+            int byHeight = Integer.compare(heightOf(b), heightOf(a));
+            if (byHeight != 0) {
+                return byHeight;
+            }
+            int byFps = Integer.compare(fpsOf(b), fpsOf(a));
+            if (byFps != 0) {
+                return byFps;
+            }
+            int byMuxed = Boolean.compare(a.isVideoOnly(), b.isVideoOnly());
+            if (byMuxed != 0) {
+                return byMuxed;
+            }
+            int byCodec = Integer.compare(rankOf(decoders, b), rankOf(decoders, a));
+            if (byCodec != 0) {
+                return byCodec;
+            }
+            return Integer.compare(b.getBitrate(), a.getBitrate());
+        });
+
+        ArrayList<VideoQuality> qualities = new ArrayList<>();
+        Set<String> addedResolutions = new HashSet<>();
+        for (VideoStream stream : candidates) {
+            if (addedResolutions.add(stream.getResolution())) {
+                qualities.add(toQuality(stream, stream.isVideoOnly() ? bestAudio : null));
+            }
+        }
+        return qualities;
+    }
+
+    /**
+     * The best audio stream as an entry of its own, for playback without video; null if the
+     * video has no playable audio stream.
+     */
+    @Nullable
+    public static VideoQuality audioOnlyFrom(@NonNull StreamInfo streamInfo) {
+        AudioStream audio = selectBestAudio(streamInfo.getAudioStreams());
+        if (audio == null) {
+            return null;
+        }
+        return VideoQuality.audioOnly(AUDIO_ONLY_LABEL, audio.getUrl(), audio.getCodec(),
+                Math.max(audio.getBitrate(), 0));
+    }
+
+    /**
+     * Wrap one stream, with the audio to merge when it is video-only.
+     */
+    @NonNull
+    public static VideoQuality toQuality(@NonNull VideoStream stream, @Nullable AudioStream audio) {
+        long bitrate = Math.max(stream.getBitrate(), 0);
+        if (audio != null && bitrate > 0 && audio.getBitrate() > 0) {
+            bitrate += audio.getBitrate();
+        }
+
+        return new VideoQuality(stream.getResolution(), stream.getUrl(),
+                audio != null ? audio.getUrl() : null,
+                heightOf(stream), fpsOf(stream), stream.getCodec(), bitrate);
+    }
+
+    private static int rankOf(DecoderCapabilities decoders, VideoStream stream) {
+        return decoders.rankStream(stream.getCodec(), heightOf(stream), fpsOf(stream));
+    }
+
+    private static int heightOf(VideoStream stream) {
+        return stream.getHeight() > 0 ? stream.getHeight() : parseHeight(stream.getResolution());
+    }
+
+    private static int fpsOf(VideoStream stream) {
+        return stream.getFps() > 0 ? stream.getFps() : parseFps(stream.getResolution());
+    }
+
+    /**
+     * Pick the audio stream to merge with video-only streams: the original track
+     * with the highest average bitrate, preferring M4A on ties for decoder coverage.
+     */
+    @Nullable
+    public static AudioStream selectBestAudio(@Nullable List<AudioStream> audioStreams) {
+        if (audioStreams == null || audioStreams.isEmpty()) {
+            return null;
+        }
+
+        AudioStream best = null;
+        for (AudioStream stream : audioStreams) {
+            if (!isPlayable(stream)) {
+                continue;
+            }
+            if (best == null || compareAudio(stream, best) > 0) {
+                best = stream;
+            }
+        }
+        return best;
+    }
+
+    private static int compareAudio(AudioStream a, AudioStream b) {
+        int byTrack = Boolean.compare(isOriginalTrack(a), isOriginalTrack(b));
+        if (byTrack != 0) {
+            return byTrack;
+        }
+
+        int byBitrate = Integer.compare(a.getAverageBitrate(), b.getAverageBitrate());
+        if (byBitrate != 0) {
+            return byBitrate;
+        }
+
+        return Boolean.compare(a.getFormat() == MediaFormat.M4A, b.getFormat() == MediaFormat.M4A);
+    }
+
+    private static boolean isOriginalTrack(AudioStream stream) {
+        AudioTrackType type = stream.getAudioTrackType();
+        return type == null || type == AudioTrackType.ORIGINAL;
+    }
+
+    private static void addPlayable(List<VideoStream> target, @Nullable List<VideoStream> streams) {
+        if (streams == null) {
+            return;
+        }
+
+        for (VideoStream stream : streams) {
+            String resolution = stream.getResolution();
+            if (isPlayable(stream) && resolution != null && !resolution.trim().isEmpty()) {
+                target.add(stream);
+            }
+        }
+    }
+
+    /**
+     * Only direct progressive URLs can be handed to the player as-is; other delivery
+     * methods need a generated manifest.
+     */
+    private static boolean isPlayable(Stream stream) {
+        String url = stream.getUrl();
+        return stream.isUrl()
+                && stream.getDeliveryMethod() == DeliveryMethod.PROGRESSIVE_HTTP
+                && url != null && !url.isEmpty();
+    }
+
+    /**
+     * Height of a resolution label such as "1080p60" (1080), or 0 when unparseable.
+     */
+    public static int parseHeight(@Nullable String resolution) {
+        if (resolution == null) {
+            return 0;
+        }
+
+        int height = 0;
+        for (int i = 0; i < resolution.length(); i++) {
+            char c = resolution.charAt(i);
+            if (c >= '0' && c <= '9') {
+                height = height * 10 + (c - '0');
+            } else if (height > 0) {
+                break;
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Frame rate of a resolution label such as "1080p60" (60), or 30 when none is given.
+     */
+    public static int parseFps(@Nullable String resolution) {
+        if (resolution == null) {
+            return 30;
+        }
+
+        int p = resolution.indexOf('p');
+        if (p < 0) {
+            return 30;
+        }
+
+        int fps = 0;
+        for (int i = p + 1; i < resolution.length(); i++) {
+            char c = resolution.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            fps = fps * 10 + (c - '0');
+        }
+        return fps > 0 ? fps : 30;
+    }
+}
@@ -0,0 +1,130 @@
+package com.nidoham.hdstreamztv.quality;
+
+/**
+ * Log-normal model of network throughput.
+ *
+ * Keeps an exponentially weighted mean and variance of ln(bits per second), which
+ * tracks slow drifts in link quality while staying cheap to persist (three numbers).
+ * Throughput on mobile and Wi-Fi links is heavily right-skewed, so working in the log
+ * domain gives far better tail estimates than a plain average.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class ThroughputModel {
+
+    /**
+     * Prior used before any sample is seen: median of 2 Mbps, wide spread. Only a starting
+     * point for the smoothing; its 10% tail is around 640 kbps, so selection ignores a model
+     * without samples rather than capping a fresh install at 240p.
+     */
+    static final double PRIOR_MEAN_LOG = Math.log(2_000_000d);
+    static final double PRIOR_VARIANCE_LOG = 0.8d;
+
+    /** Weight of a new sample; roughly the last 10-15 samples dominate the estimate. */
+    static final double SMOOTHING = 0.15d;
+
+    /** Never let the variance collapse, otherwise a few stable samples make us overconfident. */
+    private static final double MIN_VARIANCE_LOG = 0.05d;
+
+    private double meanLog;
+    private double varianceLog;
+    private int sampleCount;
+
+    public ThroughputModel() {
+        this(PRIOR_MEAN_LOG, PRIOR_VARIANCE_LOG, 0);
+    }
+
+    public ThroughputModel(double meanLog, double varianceLog, int sampleCount) {
+        this.meanLog = meanLog;
+        this.varianceLog = Math.max(varianceLog, MIN_VARIANCE_LOG);
+        this.sampleCount = sampleCount;
+    }
+
+    public ThroughputModel copy() {
+        return new ThroughputModel(meanLog, varianceLog, sampleCount);
+    }
+
+    /**
+     * Add one throughput observation in bits per second.
+     */
+    public void addSample(double bitsPerSecond) {
+        if (bitsPerSecond <= 0 || Double.isNaN(bitsPerSecond) || Double.isInfinite(bitsPerSecond)) {
+            return;
+        }
+
+        double x = Math.log(bitsPerSecond);
+        double diff = x - meanLog;
+        double increment = SMOOTHING * diff;
+        meanLog += increment;
+        varianceLog = Math.max((1 - SMOOTHING) * (varianceLog + diff * increment), MIN_VARIANCE_LOG);
+        sampleCount++;
+    }
+
+    /**
+     * Median throughput in bits per second.
+     */
+    public long getMedianBitrate() {
+        return (long) Math.exp(meanLog);
+    }
+
+    /**
+     * Throughput exceeded with the given probability, e.g. 0.9 gives a pessimistic estimate.
+     */
+    public long getBitrateAtConfidence(double confidence) {
+        double z = inverseNormal(1 - confidence);
+        return (long) Math.exp(meanLog + z * Math.sqrt(varianceLog));
+    }
+
+    /**
+     * Probability that throughput falls below {@code requiredBitsPerSecond}, i.e. that a
+     * stream of that bitrate drains the buffer faster than it is refilled.
+     */
+    public double rebufferProbability(long requiredBitsPerSecond) {
+        if (requiredBitsPerSecond <= 0) {
+            return 0;
+        }
+        double z = (Math.log(requiredBitsPerSecond) - meanLog) / Math.sqrt(varianceLog);
+        return normalCdf(z);
+    }
+
+    public double getMeanLog() {
+        return meanLog;
+    }
+
+    public double getVarianceLog() {
+        return varianceLog;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Standard normal CDF via the Abramowitz-Stegun erf approximation (error below 1.5e-7).
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double poly = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741
+                + t * (-1.453152027 + t * 1.061405429))));
+        double erf = 1 - poly * Math.exp(-x * x);
+        return z >= 0 ? 0.5 * (1 + erf) : 0.5 * (1 - erf);
+    }
+
+    /**
+     * Inverse of {@link #normalCdf(double)} by bisection; only used off the hot path.
+     */
+    static double inverseNormal(double p) {
+        double low = -8;
+        double high = 8;
+        for (int i = 0; i < 60; i++) {
+            double mid = (low + high) / 2;
+            if (normalCdf(mid) < p) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+}
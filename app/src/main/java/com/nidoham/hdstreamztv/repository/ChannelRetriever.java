@@ -28,7 +28,7 @@ public class ChannelRetriever {
      * Constructs a ChannelRetriever with a reference to the Firebase Realtime Database.
      */
     public ChannelRetriever() {
-        this.databaseReference = FirebaseDatabase.getInstance().getReference(CHANNELS_NODE);
+        this(FirebaseDatabase.getInstance().getReference(CHANNELS_NODE));
     }
 
     /**
@@ -39,10 +39,15 @@ public class ChannelRetriever {
      */
     public ChannelRetriever(@NonNull DatabaseReference databaseReference) {
         this.databaseReference = databaseReference;
+        // Keeps the local copy up to date while the app runs, so the next read of it is fresh
+        databaseReference.keepSynced(true);
     }
 
     /**
      * Asynchronously fetches all channels from the Firebase Realtime Database.
+     * The local copy is delivered without waiting for the network; it is kept fresh by
+     * {@link #refreshAllChannels} in the background and by keeping the node synced. Only
+     * when nothing is stored yet does this wait for the server.
      * Results are delivered on the main thread via the provided callback.
      *
      * @param callback The callback to handle the result of the channel retrieval.
@@ -57,18 +62,7 @@ public class ChannelRetriever {
         databaseReference.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                List<Channel> channelList = new ArrayList<>();
-                for (DataSnapshot channelSnapshot : dataSnapshot.getChildren()) {
-                    Channel channel = channelSnapshot.getValue(Channel.class);
-                    if (channel != null && channel.getChannelId() != null) {
-                        channelList.add(channel);
-                    }
-                }
-                if (channelList.isEmpty()) {
-                    callback.onChannelsNotFound();
-                } else {
-                    callback.onChannelsRetrieved(channelList);
-                }
+                deliverChannels(dataSnapshot, callback);
             }
 
             @Override
@@ -77,4 +71,38 @@ public class ChannelRetriever {
             }
         });
     }
+
+    /**
+     * Fetches all channels from the server, bypassing the local cache, and stores them in
+     * the offline cache that {@link #fetchAllChannels} reads. Fails when offline.
+     * Results are delivered on the main thread via the provided callback.
+     *
+     * @param callback The callback to handle the result of the channel retrieval.
+     */
+    public void refreshAllChannels(@NonNull ChannelCallback callback) {
+        databaseReference.get().addOnCompleteListener(task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                deliverChannels(task.getResult(), callback);
+            } else {
+                Exception error = task.getException();
+                callback.onRetrievalFailed(error != null ? error
+                        : new IllegalStateException("Channel refresh returned no data"));
+            }
+        });
+    }
+
+    private static void deliverChannels(@NonNull DataSnapshot dataSnapshot, @NonNull ChannelCallback callback) {
+        List<Channel> channelList = new ArrayList<>();
+        for (DataSnapshot channelSnapshot : dataSnapshot.getChildren()) {
+            Channel channel = channelSnapshot.getValue(Channel.class);
+            if (channel != null && channel.getChannelId() != null) {
+                channelList.add(channel);
+            }
+        }
+        if (channelList.isEmpty()) {
+            callback.onChannelsNotFound();
+        } else {
+            callback.onChannelsRetrieved(channelList);
+        }
+    }
 }
\ No newline at end of file
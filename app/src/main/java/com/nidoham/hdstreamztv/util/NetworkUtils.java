@@ -12,6 +12,12 @@ import android.os.Build;
  */
 public class NetworkUtils {
     
+    public static final String NETWORK_TYPE_WIFI = "wifi";
+    public static final String NETWORK_TYPE_CELLULAR = "cellular";
+    public static final String NETWORK_TYPE_ETHERNET = "ethernet";
+    public static final String NETWORK_TYPE_OTHER = "other";
+    
+
     public static boolean isNetworkAvailable(Context context) {
         if (context == null) return false;
         
@@ -35,4 +41,32 @@ public class NetworkUtils {
             return activeNetworkInfo != null && activeNetworkInfo.isConnected();
         }
     }
+    
+    /**
+     * Coarse transport of the active network, used to keep separate bandwidth history
+     * for Wi-Fi and cellular.
+     */
+    public static String getNetworkType(Context context) {
+        if (context == null) return NETWORK_TYPE_OTHER;
+        
+        ConnectivityManager connectivityManager = 
+            (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        
+        if (connectivityManager == null) return NETWORK_TYPE_OTHER;
+        
+        Network activeNetwork = connectivityManager.getActiveNetwork();
+        if (activeNetwork == null) return NETWORK_TYPE_OTHER;
+        
+        NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(activeNetwork);
+        if (capabilities == null) return NETWORK_TYPE_OTHER;
+        
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            return NETWORK_TYPE_ETHERNET;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+            return NETWORK_TYPE_WIFI;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            return NETWORK_TYPE_CELLULAR;
+        }
+        return NETWORK_TYPE_OTHER;
+    }
 }
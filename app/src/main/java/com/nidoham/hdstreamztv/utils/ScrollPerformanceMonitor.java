@@ -0,0 +1,102 @@
+package com.nidoham.hdstreamztv.utils;
+
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.nidoham.hdstreamztv.BuildConfig;
+
+import java.util.Locale;
+
+/**
+ * Reports how smoothly a list scrolls and how much memory it takes.
+ *
+ * While the list is moving, every frame interval is recorded through {@link Choreographer}.
+ * When it comes to rest, one line is logged with the frame count, the average and worst
+ * frame time, the number of janky frames (longer than {@link #JANK_THRESHOLD_MS}) and the
+ * Java heap in use. Only active in debug builds.
+ */
+public class ScrollPerformanceMonitor extends RecyclerView.OnScrollListener
+        implements Choreographer.FrameCallback {
+
+    // Anything longer missed at least one vsync at 60 Hz
+    private static final double JANK_THRESHOLD_MS = 16.7 * 1.5;
+
+    private final String tag;
+    private boolean scrolling;
+    private long lastFrameNanos;
+    private int frames;
+    private int jankyFrames;
+    private long totalFrameNanos;
+    private long worstFrameNanos;
+
+    /**
+     * @param tag log tag the report is written under
+     */
+    public ScrollPerformanceMonitor(@NonNull String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * Start monitoring {@code recyclerView}; does nothing in release builds.
+     */
+    public void attach(@NonNull RecyclerView recyclerView) {
+        if (BuildConfig.DEBUG) {
+            recyclerView.addOnScrollListener(this);
+        }
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState != RecyclerView.SCROLL_STATE_IDLE && !scrolling) {
+            scrolling = true;
+            lastFrameNanos = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        } else if (newState == RecyclerView.SCROLL_STATE_IDLE && scrolling) {
+            scrolling = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            report();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!scrolling) {
+            return;
+        }
+
+        if (lastFrameNanos > 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            frames++;
+            totalFrameNanos += interval;
+            worstFrameNanos = Math.max(worstFrameNanos, interval);
+            if (interval / 1_000_000.0 > JANK_THRESHOLD_MS) {
+                jankyFrames++;
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void report() {
+        if (frames > 0) {
+            Runtime runtime = Runtime.getRuntime();
+            long usedHeapKb = (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+            Log.d(tag, String.format(Locale.US,
+                    "Scroll: %d frames, avg %.1f ms, worst %.1f ms, %d janky (%.1f%%), heap %d KB",
+                    frames,
+                    totalFrameNanos / 1_000_000.0 / frames,
+                    worstFrameNanos / 1_000_000.0,
+                    jankyFrames,
+                    100.0 * jankyFrames / frames,
+                    usedHeapKb));
+        }
+
+        frames = 0;
+        jankyFrames = 0;
+        totalFrameNanos = 0;
+        worstFrameNanos = 0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.nidoham.hdstreamztv.work;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.WorkerParameters;
+import androidx.work.rxjava3.RxWorker;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.FutureTarget;
+import com.nidoham.hdstreamztv.App;
+import com.nidoham.hdstreamztv.model.Channel;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.network.ChannelCallback;
+import com.nidoham.hdstreamztv.repository.ChannelRetriever;
+
+import org.schabi.newpipe.extractor.Page;
+import org.schabi.newpipe.extractor.ServiceList;
+import org.schabi.newpipe.util.ServiceHelper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import bd.nidoham.kiosk.HomeFeedLoader;
+import bd.nidoham.youtube.home.TrendingStateStore;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Refreshes what the first screens show while the device is charging on an unmetered network.
+ *
+ * The home feed is saved to {@link TrendingStateStore}, so a new process shows it without
+ * waiting for the kiosks. The channel catalog goes to the Firebase disk cache and the channel
+ * logos to Glide's disk cache, which the channel list reads first.
+ */
+public class CacheRefreshWorker extends RxWorker {
+
+    private static final String TAG = "CacheRefreshWorker";
+    private static final String WORK_NAME = "cache_refresh";
+    private static final int MAX_ATTEMPTS = 3;
+
+    public CacheRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedule the periodic refresh; an already scheduled one is kept.
+     */
+    public static void schedule(@NonNull Context context) {
+        // As often as a saved trending list expires
+        long intervalMs = Math.max(PeriodicWorkRequest.MIN_PERIODIC_INTERVAL_MILLIS,
+                ServiceHelper.getCacheExpirationMillis(ServiceList.YouTube.getServiceId()));
+
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                CacheRefreshWorker.class, intervalMs, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Single<Result> createWork() {
+        App app = App.getInstance();
+        if (app == null || !app.isNewPipeInitialized()) {
+            Log.w(TAG, "NewPipe not initialized, skipping refresh");
+            return Single.just(Result.failure());
+        }
+
+        return Completable.mergeArrayDelayError(refreshTrending(), refreshChannels())
+                .toSingleDefault(Result.success())
+                .doOnSuccess(result -> Log.d(TAG, "Caches refreshed"))
+                .onErrorReturn(error -> {
+                    Log.w(TAG, "Cache refresh failed", error);
+                    return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+                });
+    }
+
+    // ==================== Trending ====================
+
+    private Completable refreshTrending() {
+        Context context = getApplicationContext();
+        int serviceId = ServiceList.YouTube.getServiceId();
+        return Single.fromCallable(() -> HomeFeedLoader.SectionSpec.allKiosksOf(serviceId))
+                .flatMap(specs -> new HomeFeedLoader(context).load(specs, true).toList())
+                .doOnSuccess(sections -> saveTrending(context, serviceId, sections))
+                .ignoreElement();
+    }
+
+    private static void saveTrending(Context context, int serviceId, List<HomeFeedLoader.Section> sections) {
+        // Trending first, since paging continues from it
+        List<VideoItem> items = new ArrayList<>();
+        List<VideoItem> otherItems = new ArrayList<>();
+        Page nextPage = null;
+        for (HomeFeedLoader.Section section : sections) {
+            if (section.isRequired()) {
+                items.addAll(section.getItems());
+                nextPage = section.getNextPage();
+            } else {
+                otherItems.addAll(section.getItems());
+            }
+        }
+        items.addAll(otherItems);
+
+        if (items.isEmpty()) {
+            return;
+        }
+        // The screen's own snapshot keeps the user's place in the list until it expires
+        boolean saved = TrendingStateStore.getInstance(context).saveIfExpired(
+                new TrendingStateStore.Snapshot(serviceId, System.currentTimeMillis(), items, nextPage, 0, 0));
+        Log.d(TAG, saved ? "Saved " + items.size() + " trending videos"
+                : "Kept the saved trending list, it is still fresh");
+    }
+
+    // ==================== Channels ====================
+
+    private Completable refreshChannels() {
+        return Single.<List<Channel>>create(emitter ->
+                        new ChannelRetriever().refreshAllChannels(new ChannelCallback() {
+                            @Override
+                            public void onChannelsRetrieved(@NonNull List<Channel> channelList) {
+                                emitter.onSuccess(channelList);
+                            }
+
+                            @Override
+                            public void onChannelsNotFound() {
+                                emitter.onSuccess(Collections.emptyList());
+                            }
+
+                            @Override
+                            public void onRetrievalFailed(@NonNull Exception exception) {
+                                emitter.tryOnError(exception);
+                            }
+                        }))
+                // Firebase answers on the main thread
+                .observeOn(Schedulers.io())
+                .flatMapCompletable(channels -> Completable.fromAction(() -> preloadLogos(channels)));
+    }
+
+    private void preloadLogos(List<Channel> channels) throws InterruptedException {
+        RequestManager glide = Glide.with(getApplicationContext());
+        int cached = 0;
+        for (Channel channel : channels) {
+            if (isStopped()) {
+                return;
+            }
+            String logoUrl = channel.getLogoUrl();
+            if (TextUtils.isEmpty(logoUrl)) {
+                continue;
+            }
+
+            FutureTarget<File> target = glide.downloadOnly().load(logoUrl).submit();
+            try {
+                target.get();
+                cached++;
+            } catch (ExecutionException e) {
+                // One missing logo shouldn't fail the refresh; the list shows its error image
+                Log.w(TAG, "Failed to cache logo " + logoUrl, e);
+            } finally {
+                glide.clear(target);
+            }
+        }
+        Log.d(TAG, "Cached " + cached + " of " + channels.size() + " channel logos");
+    }
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
@@ -37,10 +38,14 @@ public final class DownloaderImpl extends Downloader {
             "youtube_restricted_mode_key";
     public static final String YOUTUBE_RESTRICTED_MODE_COOKIE = "PREF=f2=8000000";
     public static final String YOUTUBE_DOMAIN = "youtube.com";
+    // Hosts YouTube streams are served from; the only media hosts that get our cookies
+    private static final List<String> MEDIA_COOKIE_DOMAINS = Arrays.asList(
+            YOUTUBE_DOMAIN, "googlevideo.com");
 
     private static DownloaderImpl instance;
     private final Map<String, String> mCookies;
     private final OkHttpClient client;
+    private final OkHttpClient mediaClient;
 
     private DownloaderImpl(final OkHttpClient.Builder builder) {
         this.client = builder
@@ -48,6 +53,10 @@ public final class DownloaderImpl extends Downloader {
 //                .cache(new Cache(new File(context.getExternalCacheDir(), "okhttp"),
 //                        16 * 1024 * 1024))
                 .build();
+        // Shares the connection pool, dispatcher and DNS of the extraction client
+        this.mediaClient = client.newBuilder()
+                .addInterceptor(this::addCookies)
+                .build();
         this.mCookies = new HashMap<>();
     }
 
@@ -67,6 +76,45 @@ public final class DownloaderImpl extends Downloader {
         return instance;
     }
 
+    /**
+     * @return the client extraction requests go through
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * A client for media playback that shares connections with {@link #getClient()} and sends
+     * the same cookies as extraction requests, to YouTube hosts only; IPTV links and their
+     * mirrors are third-party servers.
+     *
+     * @return the client media segments should be fetched with
+     */
+    public OkHttpClient getMediaClient() {
+        return mediaClient;
+    }
+
+    private okhttp3.Response addCookies(final Interceptor.Chain chain) throws IOException {
+        final okhttp3.Request request = chain.request();
+        if (!isMediaCookieHost(request.url().host())) {
+            return chain.proceed(request);
+        }
+        final String cookies = getCookies(request.url().toString());
+        if (cookies.isEmpty() || request.header("Cookie") != null) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder().addHeader("Cookie", cookies).build());
+    }
+
+    static boolean isMediaCookieHost(final String host) {
+        for (final String domain : MEDIA_COOKIE_DOMAINS) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public String getCookies(final String url) {
         final String youtubeCookie = url.contains(YOUTUBE_DOMAIN)
                 ? getCookie(YOUTUBE_RESTRICTED_MODE_COOKIE_KEY) : null;
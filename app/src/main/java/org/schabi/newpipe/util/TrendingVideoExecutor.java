@@ -15,7 +15,11 @@ import io.reactivex.rxjava3.core.Single;
 /**
  * Utility class for fetching trending/home page videos from YouTube
  * based on the device's geographical location.
+ *
+ * @deprecated the {@code ?gl=} URL is not a kiosk URL; use {@link bd.nidoham.kiosk.HomeFeedLoader},
+ * which loads the service's kiosks in the content country configured for NewPipe.
  */
+@Deprecated
 public final class TrendingVideoExecutor {
     
     private static final String YOUTUBE_BASE_URL = "https://www.youtube.com/";
@@ -0,0 +1,69 @@
+package bd.nidoham.youtube.home;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.schabi.newpipe.extractor.ServiceList;
+
+import java.io.File;
+import java.util.Collections;
+
+public class TrendingStateStoreTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TrendingStateStore store;
+    private int serviceId;
+
+    @Before
+    public void setUp() {
+        store = new TrendingStateStore(new File(folder.getRoot(), "trending_state.json"));
+        serviceId = ServiceList.YouTube.getServiceId();
+    }
+
+    @Test
+    public void backgroundRefreshKeepsTheUsersScrollPosition() {
+        store.save(snapshot("seen", System.currentTimeMillis(), 12, 40));
+
+        assertFalse(store.saveIfExpired(snapshot("refreshed", System.currentTimeMillis(), 0, 0)));
+
+        TrendingStateStore.Snapshot kept = store.load();
+        assertEquals("seen", kept.getItems().get(0).getTitle());
+        assertEquals(12, kept.getScrollPosition());
+        assertEquals(40, kept.getScrollOffset());
+    }
+
+    @Test
+    public void backgroundRefreshReplacesAnExpiredList() {
+        store.save(snapshot("old", System.currentTimeMillis() - 2 * HOUR_MS, 12, 40));
+
+        assertTrue(store.saveIfExpired(snapshot("refreshed", System.currentTimeMillis(), 0, 0)));
+        assertEquals("refreshed", store.load().getItems().get(0).getTitle());
+    }
+
+    @Test
+    public void backgroundRefreshFillsAnEmptyStore() {
+        assertNull(store.load());
+
+        assertTrue(store.saveIfExpired(snapshot("refreshed", System.currentTimeMillis(), 0, 0)));
+        assertEquals("refreshed", store.load().getItems().get(0).getTitle());
+    }
+
+    private TrendingStateStore.Snapshot snapshot(String title, long savedAtMs, int position, int offset) {
+        VideoItem item = new VideoItem(title, "uploader", "https://i.ytimg.com/" + title + ".jpg",
+                "https://www.youtube.com/watch?v=" + title, 60, 1000);
+        return new TrendingStateStore.Snapshot(serviceId, savedAtMs, Collections.singletonList(item),
+                null, position, offset);
+    }
+}
@@ -0,0 +1,55 @@
+package com.nidoham.hdstreamztv.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import com.nidoham.hdstreamztv.model.VideoItem;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class VideoAdapterRowsTest {
+
+    private static VideoItem video(String id) {
+        return new VideoItem("Video " + id, "Channel", "", "https://www.youtube.com/watch?v=" + id, 60, 1000);
+    }
+
+    @Test
+    public void repeatedUrlIsShownOnceByDefault() {
+        VideoItem first = video("a");
+        List<VideoAdapter.Row> rows = VideoAdapter.rowsOf(
+                Arrays.asList(first, video("b"), video("a"), video("c")), false);
+
+        assertEquals(3, rows.size());
+        assertSame(first, rows.get(0).item);
+        assertEquals("https://www.youtube.com/watch?v=b", rows.get(1).key);
+        assertEquals("https://www.youtube.com/watch?v=c", rows.get(2).key);
+    }
+
+    @Test
+    public void keptRepeatsGetTheirOwnKeys() {
+        List<VideoAdapter.Row> rows = VideoAdapter.rowsOf(
+                Arrays.asList(video("a"), video("b"), video("a"), video("a")), true);
+
+        assertEquals(4, rows.size());
+        assertNotEquals(rows.get(0).key, rows.get(2).key);
+        assertNotEquals(rows.get(0).key, rows.get(3).key);
+        assertNotEquals(rows.get(2).key, rows.get(3).key);
+    }
+
+    @Test
+    public void keysDoNotDependOnLaterPages() {
+        List<VideoItem> firstPage = Arrays.asList(video("a"), video("a"));
+        List<VideoItem> twoPages = Arrays.asList(video("a"), video("a"), video("b"), video("a"));
+
+        List<VideoAdapter.Row> before = VideoAdapter.rowsOf(firstPage, true);
+        List<VideoAdapter.Row> after = VideoAdapter.rowsOf(twoPages, true);
+
+        // Rows already shown keep their identity, so appending a page only inserts rows
+        assertEquals(before.get(0).key, after.get(0).key);
+        assertEquals(before.get(1).key, after.get(1).key);
+    }
+}
@@ -0,0 +1,111 @@
+package com.nidoham.hdstreamztv.adapter;
+
+import static org.junit.Assert.assertEquals;
+
+import android.app.Application;
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import com.bumptech.glide.Glide;
+import com.nidoham.hdstreamztv.R;
+import com.nidoham.hdstreamztv.model.VideoItem;
+import com.nidoham.hdstreamztv.model.VideoItemMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.schabi.newpipe.extractor.stream.StreamInfoItem;
+import org.schabi.newpipe.extractor.stream.StreamType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times mapping a page of extracted items against binding rows, with the strings formatted by
+ * {@link VideoItemMapper} and formatted at bind time as before. Thumbnails are left empty so
+ * no image load is timed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class VideoBindBenchmarkTest {
+
+    private static final int ITEMS = 200;
+    private static final int ROUNDS = 50;
+
+    private static List<StreamInfoItem> extractedItems() {
+        List<StreamInfoItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            StreamInfoItem item = new StreamInfoItem(0, "https://www.youtube.com/watch?v=" + i,
+                    "Video " + i, StreamType.VIDEO_STREAM);
+            item.setUploaderName("Channel " + i % 7);
+            item.setDuration(90L + i * 37L);
+            item.setViewCount(1_000L * i * i);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /** The same items without display strings, so the adapter formats them while binding. */
+    private static List<VideoItem> unformatted(List<VideoItem> items) {
+        List<VideoItem> copies = new ArrayList<>(items.size());
+        for (VideoItem item : items) {
+            copies.add(new VideoItem(item.getTitle(), item.getUploader(), item.getThumbnailUrl(),
+                    item.getVideoUrl(), item.getDuration(), item.getViewCount()));
+        }
+        return copies;
+    }
+
+    private static long bindNanosPerRow(Context context, List<VideoItem> items) {
+        VideoAdapter adapter = new VideoAdapter(Glide.with(context), item -> { });
+        adapter.updateVideoList(items);
+        VideoAdapter.VideoViewHolder holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+
+        // Warm up, then time
+        for (int i = 0; i < ITEMS; i++) {
+            adapter.onBindViewHolder(holder, i);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < ITEMS; i++) {
+                adapter.onBindViewHolder(holder, i);
+            }
+        }
+        return (System.nanoTime() - start) / (ROUNDS * ITEMS);
+    }
+
+    @Test
+    public void mappingAndBindTimes() {
+        Context context = new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.AppTheme);
+        VideoItemMapper mapper = VideoItemMapper.forVideoList(context);
+        List<StreamInfoItem> extracted = extractedItems();
+
+        mapper.map(extracted);
+        long start = System.nanoTime();
+        List<VideoItem> mapped = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            mapped = mapper.map(extracted);
+        }
+        long mapNanos = (System.nanoTime() - start) / (ROUNDS * ITEMS);
+
+        long preformattedBindNanos = bindNanosPerRow(context, mapped);
+        long formattingBindNanos = bindNanosPerRow(context, unformatted(mapped));
+
+        System.out.println("Per row: map " + mapNanos + " ns (extraction thread), bind "
+                + preformattedBindNanos + " ns pre-formatted vs " + formattingBindNanos
+                + " ns formatting on bind");
+
+        // The row shows exactly what the mapper formatted
+        VideoAdapter adapter = new VideoAdapter(Glide.with(context), item -> { });
+        adapter.updateVideoList(mapped);
+        VideoAdapter.VideoViewHolder holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+        adapter.onBindViewHolder(holder, 3);
+        assertEquals(mapped.get(3).getDurationText(),
+                ((TextView) holder.itemView.findViewById(R.id.tv_duration)).getText().toString());
+        assertEquals(mapped.get(3).getViewCountText(),
+                ((TextView) holder.itemView.findViewById(R.id.tv_view_count)).getText().toString());
+    }
+}
@@ -0,0 +1,180 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.C;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DataSpec;
+import androidx.media3.datasource.TransferListener;
+import androidx.media3.datasource.okhttp.OkHttpDataSource;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+import com.nidoham.hdstreamztv.quality.StreamQualityMapper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.schabi.newpipe.extractor.MediaFormat;
+import org.schabi.newpipe.extractor.stream.AudioStream;
+import org.schabi.newpipe.extractor.stream.StreamInfo;
+import org.schabi.newpipe.extractor.stream.StreamType;
+import org.schabi.newpipe.extractor.stream.VideoStream;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Fetches what each playback path loads from a local server and compares the bytes moved.
+ * Bodies are sized like ten seconds of 1080p video and 128 kbit/s audio.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@OptIn(markerClass = UnstableApi.class)
+public class AudioOnlyTransferTest {
+
+    private static final int SECONDS = 10;
+    private static final int VIDEO_BYTES = 4_000_000 / 8 * SECONDS;
+    private static final int AUDIO_BYTES = 128_000 / 8 * SECONDS;
+
+    private final MockWebServer server = new MockWebServer();
+    private final List<String> requestedPaths = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                String path = request.getPath();
+                requestedPaths.add(path);
+                if ("/video.mp4".equals(path)) {
+                    return new MockResponse().setBody(new Buffer().write(new byte[VIDEO_BYTES]));
+                }
+                if ("/audio.m4a".equals(path)) {
+                    return new MockResponse().setBody(new Buffer().write(new byte[AUDIO_BYTES]));
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private StreamInfo streamInfo() {
+        StreamInfo info = new StreamInfo(0, "https://www.youtube.com/watch?v=test",
+                "https://www.youtube.com/watch?v=test", StreamType.VIDEO_STREAM, "test", "Test", 0);
+        info.setAudioStreams(Collections.singletonList(new AudioStream.Builder()
+                .setId("140")
+                .setContent(server.url("/audio.m4a").toString(), true)
+                .setMediaFormat(MediaFormat.M4A)
+                .setAverageBitrate(128)
+                .build()));
+        info.setVideoOnlyStreams(Collections.singletonList(videoStream()));
+        return info;
+    }
+
+    private VideoStream videoStream() {
+        return new VideoStream.Builder()
+                .setId("137")
+                .setContent(server.url("/video.mp4").toString(), true)
+                .setMediaFormat(MediaFormat.MPEG_4)
+                .setIsVideoOnly(true)
+                .setResolution("1080p")
+                .build();
+    }
+
+    /**
+     * Reads every URL the player would load for {@code quality}: the stream, and the separate
+     * audio merged with a video-only stream.
+     */
+    private long bytesFetchedFor(VideoQuality quality) throws IOException {
+        AtomicLong bytes = new AtomicLong();
+        DataSource dataSource = new OkHttpDataSource.Factory(new OkHttpClient()).createDataSource();
+        dataSource.addTransferListener(new TransferListener() {
+            @Override
+            public void onTransferInitializing(@NonNull DataSource source, @NonNull DataSpec dataSpec,
+                                               boolean isNetwork) {
+            }
+
+            @Override
+            public void onTransferStart(@NonNull DataSource source, @NonNull DataSpec dataSpec,
+                                        boolean isNetwork) {
+            }
+
+            @Override
+            public void onBytesTransferred(@NonNull DataSource source, @NonNull DataSpec dataSpec,
+                                           boolean isNetwork, int bytesTransferred) {
+                bytes.addAndGet(bytesTransferred);
+            }
+
+            @Override
+            public void onTransferEnd(@NonNull DataSource source, @NonNull DataSpec dataSpec,
+                                      boolean isNetwork) {
+            }
+        });
+
+        byte[] buffer = new byte[16 * 1024];
+        for (String url : new String[] {quality.getUrl(), quality.getAudioUrl()}) {
+            if (url == null) {
+                continue;
+            }
+            dataSource.open(new DataSpec(Uri.parse(url)));
+            try {
+                while (dataSource.read(buffer, 0, buffer.length) != C.RESULT_END_OF_INPUT) {
+                    // Only the transfer count matters
+                }
+            } finally {
+                dataSource.close();
+            }
+        }
+        return bytes.get();
+    }
+
+    @Test
+    public void audioOnlyMovesFarFewerBytes() throws IOException {
+        StreamInfo info = streamInfo();
+        VideoQuality video = StreamQualityMapper.toQuality(videoStream(),
+                StreamQualityMapper.selectBestAudio(info.getAudioStreams()));
+        VideoQuality audio = StreamQualityMapper.audioOnlyFrom(info);
+        assertNotNull(audio);
+        assertTrue(audio.isAudioOnly());
+        assertFalse(video.isAudioOnly());
+
+        long videoBytes = bytesFetchedFor(video);
+        requestedPaths.clear();
+        long audioBytes = bytesFetchedFor(audio);
+
+        assertEquals(VIDEO_BYTES + AUDIO_BYTES, videoBytes);
+        assertEquals(AUDIO_BYTES, audioBytes);
+        assertFalse("audio only must not touch the video stream", requestedPaths.contains("/video.mp4"));
+        System.out.println("Bytes for " + SECONDS + "s: video path " + videoBytes
+                + ", audio only " + audioBytes);
+        assertTrue(audioBytes * 10 < videoBytes);
+    }
+}
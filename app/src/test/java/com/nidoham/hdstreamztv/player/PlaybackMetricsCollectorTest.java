@@ -0,0 +1,159 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.Format;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.Timeline;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.analytics.AnalyticsListener.EventTime;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+/**
+ * Drives the collector with synthetic analytics events; no player, network or device needed.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackMetricsCollectorTest {
+
+    private static final String URL = "https://mirror.example.com/live/index.m3u8?token=abc";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PlaybackMetricsStore store;
+    private PlaybackMetricsCollector collector;
+
+    @Before
+    public void setUp() throws Exception {
+        File file = new File(folder.getRoot(), "metrics.json");
+        store = new PlaybackMetricsStore(file, 10);
+        collector = new PlaybackMetricsCollector(store);
+        collector.startSession(URL, "Channel", 1_000);
+    }
+
+    private static EventTime at(long realtimeMs) {
+        return new EventTime(realtimeMs, Timeline.EMPTY, 0, null, 0,
+                Timeline.EMPTY, 0, null, 0, 0);
+    }
+
+    private static Player.PositionInfo position(long positionMs) {
+        return new Player.PositionInfo(null, 0, null, null, 0, positionMs, positionMs, -1, -1);
+    }
+
+    private void seek(long realtimeMs) {
+        collector.onPositionDiscontinuity(at(realtimeMs), position(0), position(60_000),
+                Player.DISCONTINUITY_REASON_SEEK);
+    }
+
+    private PlaybackSessionMetrics finish(long realtimeMs) {
+        collector.endSession(realtimeMs);
+        return store.getSessions().get(store.getSessions().size() - 1);
+    }
+
+    @Test
+    public void measuresStartupAndPlayingTime() {
+        collector.onPlaybackStateChanged(at(1_000), Player.STATE_BUFFERING);
+        collector.onPlaybackStateChanged(at(1_800), Player.STATE_READY);
+        collector.onIsPlayingChanged(at(1_800), true);
+
+        PlaybackSessionMetrics metrics = finish(11_800);
+        assertEquals(800, metrics.getStartupMs());
+        assertEquals(10_000, metrics.getPlayingMs());
+        assertEquals(0, metrics.getRebufferCount());
+        assertEquals("https://mirror.example.com/live/index.m3u8", metrics.getSourceKey());
+    }
+
+    @Test
+    public void countsStallsButNotSeekBuffering() {
+        collector.onPlaybackStateChanged(at(1_500), Player.STATE_READY);
+
+        seek(5_000);
+        collector.onPlaybackStateChanged(at(5_000), Player.STATE_BUFFERING);
+        collector.onPlaybackStateChanged(at(6_000), Player.STATE_READY);
+
+        collector.onPlaybackStateChanged(at(9_000), Player.STATE_BUFFERING);
+        collector.onPlaybackStateChanged(at(9_700), Player.STATE_READY);
+
+        PlaybackSessionMetrics metrics = finish(10_000);
+        assertEquals(1, metrics.getRebufferCount());
+        assertEquals(700, metrics.getRebufferMs());
+    }
+
+    @Test
+    public void seekThatStaysReadyDoesNotHideTheNextStall() {
+        collector.onPlaybackStateChanged(at(1_500), Player.STATE_READY);
+
+        // Seek within the buffer: no state change follows
+        seek(3_000);
+
+        collector.onPlaybackStateChanged(at(20_000), Player.STATE_BUFFERING);
+        collector.onPlaybackStateChanged(at(21_000), Player.STATE_READY);
+
+        PlaybackSessionMetrics metrics = finish(22_000);
+        assertEquals(1, metrics.getRebufferCount());
+        assertEquals(1_000, metrics.getRebufferMs());
+    }
+
+    @Test
+    public void openStallIsClosedAtSessionEnd() {
+        collector.onPlaybackStateChanged(at(1_500), Player.STATE_READY);
+        collector.onPlaybackStateChanged(at(4_000), Player.STATE_BUFFERING);
+
+        PlaybackSessionMetrics metrics = finish(6_500);
+        assertEquals(1, metrics.getRebufferCount());
+        assertEquals(2_500, metrics.getRebufferMs());
+    }
+
+    @Test
+    public void countsQualitySwitchesErrorsAndRecoveries() {
+        Format sd = new Format.Builder().setHeight(480).setAverageBitrate(1_000_000).build();
+        Format hd = new Format.Builder().setHeight(720).setAverageBitrate(2_500_000).build();
+        collector.onVideoInputFormatChanged(at(1_200), sd, null);
+        collector.onVideoInputFormatChanged(at(5_000), hd, null);
+        collector.onVideoInputFormatChanged(at(6_000), hd, null);
+        collector.onDroppedVideoFrames(at(7_000), 12, 1_000);
+        collector.onSustainedFrameDrops();
+        collector.onPlayerError(at(8_000), new PlaybackException("boom", null,
+                PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED));
+        collector.onRecovered(1_500);
+
+        PlaybackSessionMetrics metrics = finish(10_000);
+        assertEquals(1, metrics.getQualitySwitches());
+        assertEquals(12, metrics.getDroppedFrames());
+        assertEquals(1, metrics.getStutterCount());
+        assertEquals(1, metrics.getErrorCount());
+        assertEquals("ERROR_CODE_IO_NETWORK_CONNECTION_FAILED", metrics.getLastError());
+        assertEquals(1, metrics.getRecoveryCount());
+        assertEquals(1_500, metrics.getRecoveryMs());
+
+        PlaybackMetricsStore.SourceSummary summary = store.summarizeBySource().get(0);
+        assertEquals(1, summary.getRecoveries());
+        assertEquals(1_500, summary.getAverageRecoveryMs());
+        assertEquals(1, summary.getStutters());
+    }
+
+    @Test
+    public void startingANewSessionStoresThePreviousOne() {
+        collector.startSession("https://other.example.com/stream.m3u8", "Other", 2_000);
+        assertEquals(1, store.getSessions().size());
+        assertEquals("Channel", store.getSessions().get(0).getSourceLabel());
+    }
+
+    @Test
+    public void eventsWithoutASessionAreIgnored() {
+        collector.endSession(2_000);
+        collector.onPlaybackStateChanged(at(3_000), Player.STATE_READY);
+        collector.onDroppedVideoFrames(at(3_000), 5, 1_000);
+        assertNull(collector.getCurrentSession());
+        assertEquals(1, store.getSessions().size());
+    }
+}
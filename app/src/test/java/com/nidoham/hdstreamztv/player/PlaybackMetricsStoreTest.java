@@ -0,0 +1,79 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+
+import com.grack.nanojson.JsonArray;
+import com.grack.nanojson.JsonWriter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class PlaybackMetricsStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "metrics.json");
+        JsonArray stored = new JsonArray();
+        stored.add(session("a").toJson());
+        stored.add(session("b").toJson());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(JsonWriter.string(stored).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static PlaybackSessionMetrics session(String key) {
+        return new PlaybackSessionMetrics(key, "Channel " + key, 1_000);
+    }
+
+    private static void assertKeys(List<PlaybackSessionMetrics> sessions, String... keys) {
+        assertEquals(keys.length, sessions.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(keys[i], sessions.get(i).getSourceKey());
+        }
+    }
+
+    @Test
+    public void appendBeforeLoadGoesAfterStoredSessions() {
+        PlaybackMetricsStore store = new PlaybackMetricsStore(file, 10);
+        store.append(session("c"));
+        store.append(session("d"));
+
+        assertKeys(store.getSessions(), "a", "b", "c", "d");
+    }
+
+    @Test
+    public void queuedAppendsRespectCapacity() {
+        PlaybackMetricsStore store = new PlaybackMetricsStore(file, 2);
+        store.append(session("c"));
+
+        assertKeys(store.getSessions(), "b", "c");
+    }
+
+    @Test
+    public void queuedAppendIsWrittenWithStoredSessions() throws Exception {
+        PlaybackMetricsStore store = new PlaybackMetricsStore(file, 10);
+        store.append(session("c"));
+
+        // Written in the background once the file has been read
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<PlaybackSessionMetrics> reread;
+        do {
+            Thread.sleep(20);
+            reread = new PlaybackMetricsStore(file, 10).getSessions();
+        } while (reread.size() < 3 && System.currentTimeMillis() < deadline);
+
+        assertKeys(reread, "a", "b", "c");
+    }
+}
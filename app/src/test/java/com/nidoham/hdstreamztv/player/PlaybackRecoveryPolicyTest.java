@@ -0,0 +1,96 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.util.UnstableApi;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackRecoveryPolicyTest {
+
+    private static final PlaybackException NETWORK = new PlaybackException("down", null,
+            PlaybackException.ERROR_CODE_IO_NETWORK_CONNECTION_FAILED);
+    private static final PlaybackException NOT_FOUND = new PlaybackException("gone", null,
+            PlaybackException.ERROR_CODE_IO_BAD_HTTP_STATUS);
+
+    private final PlaybackRecoveryPolicy policy = new PlaybackRecoveryPolicy(new Random(1));
+
+    private PlaybackRecoveryPolicy.Action fail(long realtimeMs) {
+        return policy.onError(NETWORK, true, false, realtimeMs).action;
+    }
+
+    @Test
+    public void transientErrorsAreRetriedThenFailOver() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(PlaybackRecoveryPolicy.Action.RETRY, fail(i * 1_000));
+        }
+        assertEquals(PlaybackRecoveryPolicy.Action.FAILOVER, fail(5_000));
+    }
+
+    @Test
+    public void clientErrorsFailOverAtOnce() {
+        assertEquals(PlaybackRecoveryPolicy.Action.FAILOVER,
+                policy.onError(NOT_FOUND, true, false, 0).action);
+        assertEquals(PlaybackRecoveryPolicy.Action.GIVE_UP,
+                policy.onError(NOT_FOUND, false, false, 0).action);
+    }
+
+    @Test
+    public void sourceFailingRightAfterReadyRunsOutOfRetries() {
+        long now = 0;
+        for (int i = 0; i < 4; i++) {
+            assertEquals(PlaybackRecoveryPolicy.Action.RETRY, fail(now));
+            now += 2_000;
+            policy.onPlaybackReady(now);
+            now += 1_000;
+        }
+        assertEquals(PlaybackRecoveryPolicy.Action.FAILOVER, fail(now));
+    }
+
+    @Test
+    public void stablePlaybackRefillsTheBudget() {
+        for (int i = 0; i < 4; i++) {
+            fail(i * 1_000);
+        }
+        policy.onPlaybackReady(5_000);
+        assertEquals(PlaybackRecoveryPolicy.Action.RETRY,
+                fail(5_000 + PlaybackRecoveryPolicy.STABLE_PLAYBACK_MS));
+    }
+
+    @Test
+    public void newSourceGetsAFreshBudget() {
+        for (int i = 0; i < 4; i++) {
+            fail(i * 1_000);
+        }
+        policy.onSourceChanged();
+        assertEquals(PlaybackRecoveryPolicy.Action.RETRY, fail(5_000));
+    }
+
+    @Test
+    public void measuresRecoveryFromTheFirstError() {
+        assertEquals(-1, policy.onPlaybackReady(500));
+        fail(1_000);
+        fail(2_000);
+        assertTrue(policy.isRecovering());
+        assertEquals(3_000, policy.onPlaybackReady(4_000));
+        assertFalse(policy.isRecovering());
+        assertEquals(1, policy.getRecoveryCount());
+        assertEquals(3_000, policy.getAverageRecoveryMs());
+    }
+
+    @Test
+    public void backoffStaysWithinTheJitterRange() {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            long ceiling = Math.min(16_000, 1_000L << attempt);
+            long delay = policy.nextBackoffMs(attempt);
+            assertTrue(delay >= ceiling / 2 && delay <= ceiling);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Intent;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.session.MediaSession;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ServiceController;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+/**
+ * The service publishes whatever {@link PlayerHolder} holds and never owns a player itself.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@OptIn(markerClass = UnstableApi.class)
+public class PlaybackServiceTest {
+
+    @After
+    public void tearDown() {
+        PlayerHolder.release();
+    }
+
+    private static ExoPlayer hold(String key) {
+        ExoPlayer player = new ExoPlayer.Builder(RuntimeEnvironment.getApplication()).build();
+        PlayerHolder.set(player, key, new Intent("open-player"));
+        return player;
+    }
+
+    @Test
+    public void stopsWithoutAPlayer() {
+        PlaybackService service = Robolectric.buildService(PlaybackService.class).create().get();
+        assertTrue(shadowOf(service).isStoppedBySelf());
+    }
+
+    @Test
+    public void publishesTheHeldPlayer() {
+        ExoPlayer player = hold("channel-a");
+        PlaybackService service = Robolectric.buildService(PlaybackService.class).create().get();
+
+        List<MediaSession> sessions = service.getSessions();
+        assertEquals(1, sessions.size());
+        assertSame(player, sessions.get(0).getPlayer());
+    }
+
+    @Test
+    public void rebuildsTheSessionForANewPlayer() {
+        hold("channel-a");
+        ServiceController<PlaybackService> controller =
+                Robolectric.buildService(PlaybackService.class).create();
+
+        ExoPlayer next = hold("channel-b");
+        controller.startCommand(0, 1);
+
+        List<MediaSession> sessions = controller.get().getSessions();
+        assertEquals(1, sessions.size());
+        assertSame(next, sessions.get(0).getPlayer());
+    }
+
+    @Test
+    public void destroyLeavesThePlayerToTheHolder() {
+        ExoPlayer player = hold("channel-a");
+        Robolectric.buildService(PlaybackService.class).create().destroy();
+
+        assertSame(player, PlayerHolder.get());
+    }
+}
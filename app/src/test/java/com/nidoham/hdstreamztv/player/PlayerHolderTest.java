@@ -0,0 +1,163 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Intent;
+import android.os.Looper;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Acquire, reuse and release of the process-wide player.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@OptIn(markerClass = UnstableApi.class)
+public class PlayerHolderTest {
+
+    private static final Intent SESSION_INTENT = new Intent("open-player");
+
+    @After
+    public void tearDown() {
+        PlayerHolder.release();
+    }
+
+    private static ExoPlayer newPlayer(AtomicBoolean released) {
+        ExoPlayer player = new ExoPlayer.Builder(RuntimeEnvironment.getApplication()).build();
+        player.addAnalyticsListener(new AnalyticsListener() {
+            @Override
+            public void onPlayerReleased(EventTime eventTime) {
+                released.set(true);
+            }
+        });
+        return player;
+    }
+
+    @Test
+    public void holdsThePlayerThatWasSet() {
+        ExoPlayer player = newPlayer(new AtomicBoolean());
+        PlayerHolder.set(player, "channel-a", SESSION_INTENT);
+
+        assertSame(player, PlayerHolder.get());
+        assertSame(SESSION_INTENT, PlayerHolder.getSessionIntent());
+    }
+
+    @Test
+    public void reuseOnlyHandsOutTheSameContent() {
+        ExoPlayer player = newPlayer(new AtomicBoolean());
+        PlayerHolder.set(player, "channel-a", SESSION_INTENT);
+
+        assertNull(PlayerHolder.reuse("channel-b"));
+        assertSame(player, PlayerHolder.reuse("channel-a"));
+    }
+
+    @Test
+    public void reuseTellsThePreviousScreenOnce() {
+        PlayerHolder.set(newPlayer(new AtomicBoolean()), "channel-a", SESSION_INTENT);
+        AtomicInteger replaced = new AtomicInteger();
+        PlayerHolder.setOnReplacedListener(replaced::incrementAndGet);
+
+        PlayerHolder.reuse("channel-b");
+        assertEquals(0, replaced.get());
+
+        PlayerHolder.reuse("channel-a");
+        PlayerHolder.reuse("channel-a");
+        assertEquals(1, replaced.get());
+    }
+
+    @Test
+    public void settingANewPlayerReleasesTheOldOne() {
+        AtomicBoolean oldReleased = new AtomicBoolean();
+        AtomicBoolean newReleased = new AtomicBoolean();
+        ExoPlayer oldPlayer = newPlayer(oldReleased);
+        ExoPlayer newPlayer = newPlayer(newReleased);
+        AtomicInteger replaced = new AtomicInteger();
+
+        PlayerHolder.set(oldPlayer, "channel-a", SESSION_INTENT);
+        PlayerHolder.setOnReplacedListener(replaced::incrementAndGet);
+        PlayerHolder.set(newPlayer, "channel-b", SESSION_INTENT);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(oldReleased.get());
+        assertFalse(newReleased.get());
+        assertEquals(1, replaced.get());
+        assertSame(newPlayer, PlayerHolder.get());
+    }
+
+    @Test
+    public void settingTheSamePlayerAgainKeepsIt() {
+        AtomicBoolean released = new AtomicBoolean();
+        ExoPlayer player = newPlayer(released);
+
+        PlayerHolder.set(player, "channel-a", SESSION_INTENT);
+        PlayerHolder.set(player, "channel-a", SESSION_INTENT);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertFalse(released.get());
+        assertSame(player, PlayerHolder.get());
+    }
+
+    @Test
+    public void releaseClearsEverything() {
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicInteger replaced = new AtomicInteger();
+        PlayerHolder.set(newPlayer(released), "channel-a", SESSION_INTENT);
+        PlayerHolder.setOnReplacedListener(replaced::incrementAndGet);
+
+        PlayerHolder.release();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertTrue(released.get());
+        assertNull(PlayerHolder.get());
+        assertNull(PlayerHolder.getSessionIntent());
+        assertNull(PlayerHolder.reuse("channel-a"));
+        assertEquals(0, replaced.get());
+    }
+
+    @Test
+    public void clearingAnotherScreensListenerKeepsIt() {
+        PlayerHolder.set(newPlayer(new AtomicBoolean()), "channel-a", SESSION_INTENT);
+        AtomicInteger replaced = new AtomicInteger();
+        Runnable current = replaced::incrementAndGet;
+        PlayerHolder.setOnReplacedListener(current);
+
+        PlayerHolder.clearOnReplacedListener(() -> { });
+        PlayerHolder.reuse("channel-a");
+        assertEquals(1, replaced.get());
+    }
+
+    @Test
+    public void otherThreadsAreRejected() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                PlayerHolder.get();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(failure.get() instanceof IllegalStateException);
+    }
+}
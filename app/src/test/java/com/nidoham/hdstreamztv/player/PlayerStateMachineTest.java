@@ -0,0 +1,156 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.media3.common.Player;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PlayerStateMachineTest {
+
+    private long now = 1_000;
+    private final PlayerStateMachine machine = new PlayerStateMachine(() -> now++);
+
+    private PlayerStateMachine.Transition lastTransition() {
+        List<PlayerStateMachine.Transition> log = machine.getTransitionLog();
+        return log.get(log.size() - 1);
+    }
+
+    @Test
+    public void startsIdle() {
+        assertEquals(PlayerStateMachine.Phase.IDLE, machine.getPhase());
+        assertTrue(machine.shouldPlayWhenReady());
+        assertTrue(machine.getTransitionLog().isEmpty());
+    }
+
+    @Test
+    public void followsANormalPlayback() {
+        machine.onPrepare();
+        machine.onPlaybackStateChanged(Player.STATE_BUFFERING, false);
+        assertEquals(PlayerStateMachine.Phase.PREPARING, machine.getPhase());
+
+        machine.onPlaybackStateChanged(Player.STATE_READY, true);
+        assertEquals(PlayerStateMachine.Phase.PLAYING, machine.getPhase());
+
+        machine.onPlaybackStateChanged(Player.STATE_BUFFERING, false);
+        assertEquals(PlayerStateMachine.Phase.BUFFERING, machine.getPhase());
+
+        machine.onPlaybackStateChanged(Player.STATE_READY, true);
+        machine.onIsPlayingChanged(false);
+        assertEquals(PlayerStateMachine.Phase.PAUSED, machine.getPhase());
+
+        machine.onPlaybackStateChanged(Player.STATE_ENDED, false);
+        assertEquals(PlayerStateMachine.Phase.ENDED, machine.getPhase());
+        assertEquals(6, machine.getTransitionLog().size());
+    }
+
+    @Test
+    public void errorHoldsUntilTheNextPrepare() {
+        machine.onPrepare();
+        machine.onPlaybackStateChanged(Player.STATE_READY, true);
+        machine.onError("network");
+
+        machine.onPlaybackStateChanged(Player.STATE_IDLE, false);
+        machine.onPlaybackStateChanged(Player.STATE_READY, true);
+        machine.onIsPlayingChanged(true);
+        assertEquals(PlayerStateMachine.Phase.ERROR, machine.getPhase());
+
+        machine.onPrepare();
+        assertEquals(PlayerStateMachine.Phase.PREPARING, machine.getPhase());
+    }
+
+    @Test
+    public void rejectedTransitionsAreLogged() {
+        machine.onError("decoder");
+        machine.onPlaybackStateChanged(Player.STATE_ENDED, false);
+
+        PlayerStateMachine.Transition rejected = lastTransition();
+        assertEquals(PlayerStateMachine.Phase.ERROR, rejected.from.phase);
+        assertEquals(PlayerStateMachine.Phase.ERROR, rejected.to.phase);
+        assertTrue(rejected.event.startsWith("rejected ENDED"));
+    }
+
+    @Test
+    public void transitionTable() {
+        for (PlayerStateMachine.Phase phase : PlayerStateMachine.Phase.values()) {
+            if (phase != PlayerStateMachine.Phase.ERROR) {
+                assertTrue(phase + " -> ERROR", PlayerStateMachine.canMove(phase, PlayerStateMachine.Phase.ERROR));
+            }
+            if (phase != PlayerStateMachine.Phase.IDLE) {
+                assertTrue(phase + " -> IDLE", PlayerStateMachine.canMove(phase, PlayerStateMachine.Phase.IDLE));
+            }
+        }
+        assertFalse(PlayerStateMachine.canMove(PlayerStateMachine.Phase.PREPARING,
+                PlayerStateMachine.Phase.BUFFERING));
+        assertFalse(PlayerStateMachine.canMove(PlayerStateMachine.Phase.ERROR,
+                PlayerStateMachine.Phase.PLAYING));
+        assertTrue(PlayerStateMachine.canMove(PlayerStateMachine.Phase.IDLE,
+                PlayerStateMachine.Phase.PLAYING));
+    }
+
+    @Test
+    public void snapshotsDoNotChange() {
+        machine.setLastPosition(5_000);
+        PlayerStateMachine.State snapshot = machine.getState();
+        machine.setLastPosition(9_000);
+        machine.setLocked(true);
+
+        assertEquals(5_000, snapshot.lastPositionMs);
+        assertFalse(snapshot.locked);
+        assertEquals(9_000, machine.getLastPosition());
+        assertTrue(machine.isLocked());
+    }
+
+    @Test
+    public void lockTogglesAreLoggedButPositionsAreNot() {
+        machine.setLastPosition(1_000);
+        machine.setControlsVisible(true);
+        assertTrue(machine.getTransitionLog().isEmpty());
+
+        machine.setLocked(true);
+        machine.setLocked(true);
+        assertEquals(1, machine.getTransitionLog().size());
+        assertEquals("lock", lastTransition().event);
+    }
+
+    @Test
+    public void logKeepsTheMostRecentTransitions() {
+        for (int i = 0; i < 40; i++) {
+            machine.setLocked(i % 2 == 0);
+        }
+        List<PlayerStateMachine.Transition> log = machine.getTransitionLog();
+        assertEquals(32, log.size());
+        assertEquals("unlock", log.get(log.size() - 1).event);
+    }
+
+    @Test
+    public void resetReturnsToTheInitialState() {
+        machine.onPrepare();
+        machine.setLocked(true);
+        machine.reset();
+        assertEquals(PlayerStateMachine.Phase.IDLE, machine.getPhase());
+        assertFalse(machine.isLocked());
+        assertEquals("reset", lastTransition().event);
+    }
+
+    @Test
+    public void otherThreadsFailFast() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                machine.onPrepare();
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(failure.get() instanceof IllegalStateException);
+        assertEquals(PlayerStateMachine.Phase.IDLE, machine.getPhase());
+    }
+}
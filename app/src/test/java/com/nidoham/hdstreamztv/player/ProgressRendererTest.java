@@ -0,0 +1,59 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import android.widget.SeekBar;
+import android.widget.TextView;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks the time formatting and that a render tick allocates nothing. Views come from the
+ * stubbed android.jar, so only the renderer's own work is measured.
+ */
+public class ProgressRendererTest {
+
+    private static final int ITERATIONS = 200_000;
+
+    private static String format(long seconds) {
+        char[] out = new char[10];
+        return new String(out, 0, ProgressRenderer.formatTime(seconds, out));
+    }
+
+    @Test
+    public void formatsMinutesAndHours() {
+        assertEquals("00:00", format(0));
+        assertEquals("01:05", format(65));
+        assertEquals("59:59", format(3_599));
+        assertEquals("01:00:00", format(3_600));
+        assertEquals("123:04:05", format(123 * 3_600 + 245));
+        assertEquals("999:59:59", format(5_000 * 3_600L - 1));
+    }
+
+    @Test
+    public void renderingPositionsDoesNotAllocate() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+
+        ProgressRenderer renderer = new ProgressRenderer(new TextView(null), new TextView(null),
+                new SeekBar(null), 1000);
+        // Every call shows a new second, so each one formats and writes the label
+        for (int i = 0; i < ITERATIONS; i++) {
+            renderer.renderPosition(i * 1_000L);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = ITERATIONS; i < 2 * ITERATIONS; i++) {
+            renderer.renderPosition(i * 1_000L);
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals("bytes allocated by " + ITERATIONS + " renders", 0, allocated, 4_096);
+    }
+}
@@ -0,0 +1,83 @@
+package com.nidoham.hdstreamztv.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResumePositionStoreTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "resume_positions.json");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("[{\"key\":\"https://youtube.com/watch?v=a\",\"position\":60000}]"
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void readsStoredPositions() {
+        ResumePositionStore store = new ResumePositionStore(file, 10);
+        assertEquals(60_000, store.getPosition("https://youtube.com/watch?v=a"));
+        assertEquals(0, store.getPosition("https://youtube.com/watch?v=b"));
+    }
+
+    @Test
+    public void loadedStoreAnswersOnTheCallingThread() {
+        ResumePositionStore store = new ResumePositionStore(file, 10);
+        store.getPosition("warm-up");
+
+        AtomicLong position = new AtomicLong(-1);
+        store.getPosition("https://youtube.com/watch?v=a", position::set);
+        assertEquals(60_000, position.get());
+    }
+
+    @Test
+    public void keepsOnlyResumablePositions() {
+        ResumePositionStore store = new ResumePositionStore(file, 10);
+        store.update("b", 120_000, HOUR_MS);
+        store.update("c", 5_000, HOUR_MS);
+        store.update("https://youtube.com/watch?v=a", HOUR_MS - 1_000, HOUR_MS);
+
+        assertEquals(120_000, store.getPosition("b"));
+        assertEquals(0, store.getPosition("c"));
+        assertEquals(0, store.getPosition("https://youtube.com/watch?v=a"));
+    }
+
+    @Test
+    public void dropsTheLeastRecentlyUsed() {
+        ResumePositionStore store = new ResumePositionStore(file, 2);
+        store.update("b", 120_000, HOUR_MS);
+        store.getPosition("https://youtube.com/watch?v=a");
+        store.update("c", 120_000, HOUR_MS);
+
+        assertEquals(0, store.getPosition("b"));
+        assertEquals(60_000, store.getPosition("https://youtube.com/watch?v=a"));
+    }
+
+    @Test
+    public void resumableWindow() {
+        assertFalse(ResumePositionStore.isResumable(9_000, HOUR_MS));
+        assertTrue(ResumePositionStore.isResumable(10_000, HOUR_MS));
+        assertFalse(ResumePositionStore.isResumable(HOUR_MS - 10_000, HOUR_MS));
+        assertFalse(ResumePositionStore.isResumable(95_000, 100_000));
+        assertFalse(ResumePositionStore.isResumable(60_000, 0));
+    }
+}
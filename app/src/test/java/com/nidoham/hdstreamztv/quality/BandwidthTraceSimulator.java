@@ -0,0 +1,192 @@
+package com.nidoham.hdstreamztv.quality;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic replay of recorded throughput traces against {@link BitrateSelector}.
+ *
+ * A trace is the sequence of (elapsedMs, bytesTransferred) samples reported by the
+ * bandwidth meter; {@link BandwidthEstimator} logs them in debug builds. Playback is
+ * modelled as a fluid buffer: each sample downloads media at the chosen bitrate for
+ * its duration while the playhead drains the buffer in real time. The same trace and
+ * configuration always give the same result, so selection tweaks can be compared
+ * offline before they ship.
+ */
+final class BandwidthTraceSimulator {
+
+    // ExoPlayer DefaultLoadControl buffer thresholds
+    private static final long BUFFER_FOR_PLAYBACK_MS = 2_500;
+    private static final long BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS = 5_000;
+    private static final long MAX_BUFFER_MS = 50_000;
+
+    private final long[] bitratesDescending;
+    private final double maxRebufferProbability;
+    private final ThroughputModel initialModel;
+
+    /**
+     * @param bitratesDescending the quality ladder in bits per second, highest first
+     * @param initialModel       estimate at session start, e.g. from a previous session
+     */
+    public BandwidthTraceSimulator(long[] bitratesDescending, double maxRebufferProbability,
+                                   ThroughputModel initialModel) {
+        this.bitratesDescending = bitratesDescending.clone();
+        this.maxRebufferProbability = maxRebufferProbability;
+        this.initialModel = initialModel.copy();
+    }
+
+    /**
+     * Replay the trace; {@code elapsedMs[i]} and {@code bytes[i]} form one sample.
+     */
+    public Result run(int[] elapsedMs, long[] bytes) {
+        if (elapsedMs.length != bytes.length) {
+            throw new IllegalArgumentException("Trace arrays differ in length");
+        }
+
+        ThroughputModel model = initialModel.copy();
+        Result result = new Result();
+
+        double bufferMs = 0;
+        boolean playing = false;
+        boolean startedOnce = false;
+        int selected = -1;
+        double weightedBitrate = 0;
+        long loadingMs = 0;
+
+        for (int i = 0; i < elapsedMs.length; i++) {
+            int duration = elapsedMs[i];
+            if (duration <= 0) {
+                continue;
+            }
+
+            int index = BitrateSelector.selectIndex(bitratesDescending, model, maxRebufferProbability);
+            if (selected != -1 && index != selected) {
+                result.switches++;
+            }
+            selected = index;
+            long bitrate = bitratesDescending[index];
+
+            double throughput = bytes[i] * 8000d / duration;
+            model.addSample(throughput);
+
+            // Media time fetched during this sample, capped by the buffer limit
+            if (bufferMs < MAX_BUFFER_MS) {
+                bufferMs = Math.min(MAX_BUFFER_MS, bufferMs + duration * throughput / bitrate);
+                weightedBitrate += (double) bitrate * duration;
+                loadingMs += duration;
+            }
+
+            if (playing) {
+                bufferMs -= duration;
+                result.playedMs += duration;
+                if (bufferMs < 0) {
+                    // Played past the buffer: the overshoot was spent stalled
+                    result.playedMs += (long) bufferMs;
+                    result.stalledMs -= (long) bufferMs;
+                    result.rebuffers++;
+                    bufferMs = 0;
+                    playing = false;
+                }
+            } else {
+                long needed = startedOnce ? BUFFER_FOR_PLAYBACK_AFTER_REBUFFER_MS : BUFFER_FOR_PLAYBACK_MS;
+                if (bufferMs >= needed) {
+                    playing = true;
+                    startedOnce = true;
+                } else if (startedOnce) {
+                    result.stalledMs += duration;
+                } else {
+                    result.startupMs += duration;
+                }
+            }
+        }
+
+        result.averageBitrate = loadingMs > 0 ? (long) (weightedBitrate / loadingMs) : 0;
+        result.finalEstimate = model.getMedianBitrate();
+        return result;
+    }
+
+    /**
+     * Read a trace with one "elapsedMs,bytes" pair per line. Anything before the last
+     * space is ignored, so raw logcat lines can be pasted as-is.
+     */
+    public static long[][] parseTrace(Reader reader) throws IOException {
+        List<long[]> samples = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            int start = line.lastIndexOf(' ') + 1;
+            int comma = line.indexOf(',', start);
+            if (line.isEmpty() || line.startsWith("#") || comma < 0) {
+                continue;
+            }
+
+            try {
+                long elapsed = Long.parseLong(line.substring(start, comma).trim());
+                long bytes = Long.parseLong(line.substring(comma + 1).trim());
+                samples.add(new long[]{elapsed, bytes});
+            } catch (NumberFormatException e) {
+                // Skip lines that are not samples
+            }
+        }
+
+        long[][] trace = new long[2][samples.size()];
+        for (int i = 0; i < samples.size(); i++) {
+            trace[0][i] = samples.get(i)[0];
+            trace[1][i] = samples.get(i)[1];
+        }
+        return trace;
+    }
+
+    /**
+     * Convenience overload for the output of {@link #parseTrace(Reader)}.
+     */
+    public Result run(long[][] trace) {
+        int[] elapsed = new int[trace[0].length];
+        for (int i = 0; i < elapsed.length; i++) {
+            elapsed[i] = (int) trace[0][i];
+        }
+        return run(elapsed, trace[1]);
+    }
+
+    /**
+     * Outcome of one replay.
+     */
+    public static final class Result {
+        private long startupMs;
+        private long playedMs;
+        private long stalledMs;
+        private int rebuffers;
+        private int switches;
+        private long averageBitrate;
+        private long finalEstimate;
+
+        public long getStartupMs() { return startupMs; }
+        public long getPlayedMs() { return playedMs; }
+        public long getStalledMs() { return stalledMs; }
+        public int getRebuffers() { return rebuffers; }
+        public int getSwitches() { return switches; }
+        public long getAverageBitrate() { return averageBitrate; }
+        public long getFinalEstimate() { return finalEstimate; }
+
+        /** Share of session time spent stalled after startup. */
+        public double getRebufferRatio() {
+            long total = playedMs + stalledMs;
+            return total > 0 ? (double) stalledMs / total : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{startupMs=" + startupMs
+                    + ", playedMs=" + playedMs
+                    + ", stalledMs=" + stalledMs
+                    + ", rebuffers=" + rebuffers
+                    + ", switches=" + switches
+                    + ", averageBitrate=" + averageBitrate
+                    + ", finalEstimate=" + finalEstimate + '}';
+        }
+    }
+}
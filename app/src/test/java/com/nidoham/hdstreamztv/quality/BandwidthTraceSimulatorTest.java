@@ -0,0 +1,69 @@
+package com.nidoham.hdstreamztv.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+public class BandwidthTraceSimulatorTest {
+
+    private static final long[] LADDER = {4_500_000L, 2_500_000L, 1_200_000L, 700_000L, 300_000L};
+
+    /** {@code count} samples of one second each at {@code bitsPerSecond}. */
+    private static long[][] steadyTrace(int count, long bitsPerSecond) {
+        long[][] trace = new long[2][count];
+        for (int i = 0; i < count; i++) {
+            trace[0][i] = 1_000;
+            trace[1][i] = bitsPerSecond / 8;
+        }
+        return trace;
+    }
+
+    @Test
+    public void coldStartOnFastLinkStartsAndEndsAtTop() {
+        BandwidthTraceSimulator simulator = new BandwidthTraceSimulator(LADDER,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, new ThroughputModel());
+        BandwidthTraceSimulator.Result result = simulator.run(steadyTrace(120, 20_000_000L));
+
+        // The first samples pull the estimate away from the prior, then the top is held
+        assertEquals(0, result.getRebuffers());
+        assertTrue(result.getAverageBitrate() > LADDER[1]);
+        assertTrue(result.getFinalEstimate() > LADDER[0]);
+    }
+
+    @Test
+    public void coldStartOnSlowLinkStepsDownWithoutStalling() {
+        BandwidthTraceSimulator simulator = new BandwidthTraceSimulator(LADDER,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, new ThroughputModel());
+        BandwidthTraceSimulator.Result result = simulator.run(steadyTrace(120, 1_000_000L));
+
+        // Only the first sample is fetched at the top before there is any evidence
+        assertEquals(0, result.getRebuffers());
+        assertTrue(result.getAverageBitrate() < 1_000_000L);
+    }
+
+    @Test
+    public void replayIsDeterministic() {
+        long[][] trace = steadyTrace(60, 3_000_000L);
+        trace[1][30] = 10_000; // a deep dip
+        BandwidthTraceSimulator simulator = new BandwidthTraceSimulator(LADDER,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, new ThroughputModel());
+        assertEquals(simulator.run(trace).toString(), simulator.run(trace).toString());
+    }
+
+    @Test
+    public void parsesLogcatLines() throws IOException {
+        String log = "# header\n"
+                + "10-18 12:00:00.000 D/BandwidthEstimator: sample 1000,250000\n"
+                + "garbage\n"
+                + "500,1000\n";
+        long[][] trace = BandwidthTraceSimulator.parseTrace(new StringReader(log));
+        assertEquals(2, trace[0].length);
+        assertEquals(1000L, trace[0][0]);
+        assertEquals(250000L, trace[1][0]);
+        assertEquals(500L, trace[0][1]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.nidoham.hdstreamztv.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BitrateSelectorTest {
+
+    // 1080p, 720p, 480p, 360p, 240p
+    private static final long[] LADDER = {4_500_000L, 2_500_000L, 1_200_000L, 700_000L, 300_000L};
+
+    @Test
+    public void coldStartDoesNotCapSelection() {
+        ThroughputModel fresh = new ThroughputModel();
+        assertEquals(0, BitrateSelector.selectIndex(LADDER, fresh,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY));
+    }
+
+    @Test
+    public void priorAloneWouldUnderSelect() {
+        // The prior treated as evidence lands at 240p; this is why a fresh model must not cap
+        ThroughputModel priorAsEvidence = new ThroughputModel(
+                ThroughputModel.PRIOR_MEAN_LOG, ThroughputModel.PRIOR_VARIANCE_LOG, 1);
+        assertEquals(LADDER.length - 1, BitrateSelector.selectIndex(LADDER, priorAsEvidence,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY));
+    }
+
+    @Test
+    public void fastStableLinkSelectsTop() {
+        ThroughputModel model = new ThroughputModel();
+        for (int i = 0; i < 30; i++) {
+            model.addSample(20_000_000d);
+        }
+        assertEquals(0, BitrateSelector.selectIndex(LADDER, model,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY));
+    }
+
+    @Test
+    public void slowLinkStepsDown() {
+        ThroughputModel model = new ThroughputModel();
+        for (int i = 0; i < 30; i++) {
+            model.addSample(1_000_000d);
+        }
+        int index = BitrateSelector.selectIndex(LADDER, model,
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY);
+        assertTrue("1 Mbps must not pick 480p or above", LADDER[index] < 1_000_000L);
+    }
+
+    @Test
+    public void emptyLadder() {
+        assertEquals(-1, BitrateSelector.selectIndex(new long[0], new ThroughputModel(), 0.1));
+    }
+}
@@ -0,0 +1,74 @@
+package com.nidoham.hdstreamztv.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class QualityLadderTest {
+
+    static final QualityLadder.CodecRanker H264_ONLY = (codec, height, fps) ->
+            codec == null || codec.startsWith("avc1") ? 2 : 1;
+
+    static VideoQuality quality(int height, int fps, String codec, long bitrate) {
+        return new VideoQuality(height + "p" + (fps > 30 ? fps : ""), "https://example.com/" + height,
+                null, height, fps, codec, bitrate);
+    }
+
+    private static QualityLadder ladder() {
+        return QualityLadder.of(Arrays.asList(
+                quality(360, 30, "avc1.4D401E", 700_000L),
+                quality(1080, 30, "avc1.640028", 4_500_000L),
+                quality(720, 30, "vp09.00.31.08", 2_000_000L),
+                quality(720, 30, "avc1.4D401F", 2_500_000L),
+                quality(240, 30, "avc1.4D4015", 300_000L)), H264_ONLY);
+    }
+
+    @Test
+    public void sortsBestFirstAndPrefersDecodableCodec() {
+        QualityLadder ladder = ladder();
+        assertEquals(1080, ladder.getHeight(0));
+        assertEquals(720, ladder.getHeight(1));
+        assertEquals("avc1.4D401F", ladder.get(1).getCodec());
+        assertEquals(240, ladder.getHeight(ladder.size() - 1));
+    }
+
+    @Test
+    public void closestHeightPrefersHigherOnTies() {
+        QualityLadder ladder = ladder();
+        assertEquals(720, ladder.getHeight(ladder.indexClosestTo(720)));
+        assertEquals(360, ladder.getHeight(ladder.indexClosestTo(300)));
+        assertEquals(1080, ladder.getHeight(ladder.indexClosestTo(2160)));
+    }
+
+    @Test
+    public void coldStartKeepsPreferredHeight() {
+        QualityLadder ladder = ladder();
+        int index = ladder.indexForBandwidth(new ThroughputModel(),
+                BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, 720);
+        assertEquals(720, ladder.getHeight(index));
+    }
+
+    @Test
+    public void measuredSlowLinkCapsBelowPreference() {
+        ThroughputModel model = new ThroughputModel();
+        for (int i = 0; i < 30; i++) {
+            model.addSample(1_000_000d);
+        }
+        QualityLadder ladder = ladder();
+        int index = ladder.indexForBandwidth(model, BitrateSelector.DEFAULT_MAX_REBUFFER_PROBABILITY, 1080);
+        assertTrue(ladder.getHeight(index) <= 360);
+    }
+
+    @Test
+    public void emptyLadder() {
+        QualityLadder ladder = QualityLadder.of(null);
+        assertTrue(ladder.isEmpty());
+        assertEquals(-1, ladder.indexClosestTo(720));
+        assertEquals(-1, ladder.indexOfLabel("720p"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.nidoham.hdstreamztv.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import com.nidoham.hdstreamztv.model.VideoQuality;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times selection over a {@link QualityLadder} against re-parsing labels on every call, the
+ * way the per-screen helpers did before the engine existed, and checks lookups allocate nothing.
+ */
+public class QualitySelectionBenchmarkTest {
+
+    private static final int[] HEIGHTS = {2160, 1440, 1080, 720, 480, 360, 240, 144};
+    private static final int ITERATIONS = 200_000;
+
+    private static List<VideoQuality> streams() {
+        List<VideoQuality> qualities = new ArrayList<>();
+        for (int height : HEIGHTS) {
+            qualities.add(QualityLadderTest.quality(height, 30, "avc1.640028",
+                    BitrateSelector.nominalBitrate(height, 30)));
+            qualities.add(QualityLadderTest.quality(height, 60, "vp09.00.41.08",
+                    BitrateSelector.nominalBitrate(height, 60)));
+        }
+        return qualities;
+    }
+
+    /** Closest match by parsing every label, as the old helpers did. */
+    private static VideoQuality legacyClosest(List<VideoQuality> qualities, String preferred) {
+        int target = parseHeight(preferred);
+        VideoQuality best = null;
+        int smallestDifference = Integer.MAX_VALUE;
+        for (VideoQuality quality : qualities) {
+            int difference = Math.abs(parseHeight(quality.getQuality()) - target);
+            if (difference < smallestDifference) {
+                smallestDifference = difference;
+                best = quality;
+            }
+        }
+        return best;
+    }
+
+    private static int parseHeight(String label) {
+        Matcher matcher = Pattern.compile("(\\d+)p").matcher(label);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    @Test
+    public void ladderLookupsBeatLabelParsing() {
+        List<VideoQuality> qualities = streams();
+        QualityLadder ladder = QualityLadder.of(qualities, QualityLadderTest.H264_ONLY);
+        ThroughputModel model = new ThroughputModel();
+        for (int i = 0; i < 20; i++) {
+            model.addSample(6_000_000d);
+        }
+
+        // Warm up both paths
+        int sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += ladder.indexForBandwidth(model, 0.1, ladder.getHeight(ladder.indexClosestTo(1080)));
+            sink += legacyClosest(qualities, "1080p").getHeight();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += ladder.indexForBandwidth(model, 0.1, ladder.getHeight(ladder.indexClosestTo(1080)));
+        }
+        long ladderNs = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += legacyClosest(qualities, "1080p").getHeight();
+        }
+        long legacyNs = System.nanoTime() - start;
+
+        System.out.println("Quality selection: ladder " + ladderNs / ITERATIONS + " ns/op, label parsing "
+                + legacyNs / ITERATIONS + " ns/op (" + sink + ")");
+        assertEquals(1080, ladder.getHeight(ladder.indexClosestTo(1080)));
+    }
+
+    @Test
+    public void ladderLookupsDoNotAllocate() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+
+        QualityLadder ladder = QualityLadder.of(streams(), QualityLadderTest.H264_ONLY);
+        ThroughputModel model = new ThroughputModel();
+        model.addSample(3_000_000d);
+
+        int sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += ladder.indexForBandwidth(model, 0.1, 1080) + ladder.indexClosestTo(720)
+                    + ladder.indexOfLabel("720p");
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += ladder.indexForBandwidth(model, 0.1, 1080) + ladder.indexClosestTo(720)
+                    + ladder.indexOfLabel("720p");
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        // A little slack for the measurement itself; one object per lookup would be megabytes
+        assertEquals("bytes allocated by " + ITERATIONS + " lookups (" + sink + ")", 0, allocated, 4_096);
+    }
+}
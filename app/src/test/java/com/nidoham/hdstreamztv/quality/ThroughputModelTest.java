@@ -0,0 +1,50 @@
+package com.nidoham.hdstreamztv.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ThroughputModelTest {
+
+    @Test
+    public void freshModelHasNoSamples() {
+        ThroughputModel model = new ThroughputModel();
+        assertEquals(0, model.getSampleCount());
+        assertEquals(2_000_000L, model.getMedianBitrate(), 1);
+    }
+
+    @Test
+    public void invalidSamplesAreIgnored() {
+        ThroughputModel model = new ThroughputModel();
+        model.addSample(0);
+        model.addSample(-5);
+        model.addSample(Double.NaN);
+        model.addSample(Double.POSITIVE_INFINITY);
+        assertEquals(0, model.getSampleCount());
+    }
+
+    @Test
+    public void medianConvergesToStableThroughput() {
+        ThroughputModel model = new ThroughputModel();
+        for (int i = 0; i < 60; i++) {
+            model.addSample(8_000_000d);
+        }
+        assertEquals(8_000_000d, model.getMedianBitrate(), 8_000_000d * 0.01);
+    }
+
+    @Test
+    public void rebufferProbabilityGrowsWithBitrate() {
+        ThroughputModel model = new ThroughputModel();
+        assertTrue(model.rebufferProbability(500_000L) < model.rebufferProbability(2_000_000L));
+        assertEquals(0.5, model.rebufferProbability(model.getMedianBitrate()), 0.01);
+        assertEquals(0, model.rebufferProbability(0), 0);
+    }
+
+    @Test
+    public void inverseNormalInvertsCdf() {
+        for (double p : new double[]{0.05, 0.1, 0.5, 0.9}) {
+            assertEquals(p, ThroughputModel.normalCdf(ThroughputModel.inverseNormal(p)), 1e-6);
+        }
+    }
+}
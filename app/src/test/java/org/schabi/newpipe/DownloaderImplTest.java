@@ -0,0 +1,21 @@
+package org.schabi.newpipe;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DownloaderImplTest {
+
+    @Test
+    public void cookiesGoToYouTubeHostsOnly() {
+        assertTrue(DownloaderImpl.isMediaCookieHost("youtube.com"));
+        assertTrue(DownloaderImpl.isMediaCookieHost("www.youtube.com"));
+        assertTrue(DownloaderImpl.isMediaCookieHost("rr3---sn-4g5e6nze.googlevideo.com"));
+
+        assertFalse(DownloaderImpl.isMediaCookieHost("mirror.example.com"));
+        assertFalse(DownloaderImpl.isMediaCookieHost("notyoutube.com"));
+        assertFalse(DownloaderImpl.isMediaCookieHost("youtube.com.example.net"));
+        assertFalse(DownloaderImpl.isMediaCookieHost("google.com"));
+    }
+}